@@ -36,6 +36,7 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-security")
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springframework.boot:spring-boot-starter-web")
+    implementation("org.springframework.boot:spring-boot-starter-websocket")
     implementation("org.springframework.modulith:spring-modulith-starter-core")
     implementation("org.springframework.modulith:spring-modulith-starter-mongodb")
     implementation("io.jsonwebtoken:jjwt-api:0.11.5")
@@ -43,6 +44,8 @@ dependencies {
     runtimeOnly("io.jsonwebtoken:jjwt-jackson:0.11.5")
     // SpringDoc OpenAPI (Swagger UI)
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.8.1")
+    // Decodificador MP3 para los picos de la forma de onda
+    implementation("javazoom:jlayer:1.0.1")
     compileOnly("org.projectlombok:lombok")
     developmentOnly("org.springframework.boot:spring-boot-devtools")
     developmentOnly("org.springframework.boot:spring-boot-docker-compose")
@@ -69,3 +72,49 @@ tasks.generateJava {
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+// Las pruebas de carga y rendimiento (@Tag("benchmark")) no forman parte de test/build
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("benchmark", "large-upload", "large-export")
+    }
+}
+
+val benchmark by tasks.registering(Test::class) {
+    description = "Runs the load and performance tests tagged benchmark."
+    group = LifecycleBasePlugin.VERIFICATION_GROUP
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    // Los benchmarks de recommend/ construyen índices de 1M de podcasts en memoria
+    maxHeapSize = "2g"
+    shouldRunAfter(tasks.test)
+}
+
+// La subida de varios GB se prueba con un heap mucho menor que el fichero: solo pasa si va en streaming
+val largeUploadTest by tasks.registering(Test::class) {
+    description = "Streams the multi-GB upload test (tagged large-upload) through a 256 MB heap."
+    group = LifecycleBasePlugin.VERIFICATION_GROUP
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("large-upload")
+    }
+    maxHeapSize = "256m"
+    shouldRunAfter(tasks.test)
+}
+
+// Igual con la exportación NDJSON: vuelca de MongoDB más bytes de los que caben en el heap
+val largeExportTest by tasks.registering(Test::class) {
+    description = "Streams the export larger than the heap (tagged large-export) through a 256 MB heap."
+    group = LifecycleBasePlugin.VERIFICATION_GROUP
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("large-export")
+    }
+    maxHeapSize = "256m"
+    shouldRunAfter(tasks.test)
+}
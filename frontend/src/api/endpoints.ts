@@ -11,10 +11,14 @@ import type {
   CreateEpisodeRequest,
   Comment,
   CreateCommentRequest,
+  CommentThread,
+  CommentStreamEvent,
   Subscription,
   EpisodeLike,
   ListeningProgress,
+  ProgressSyncMessage,
   CountResponse,
+  EpisodeState,
 } from './types';
 
 // ==================== Auth API ====================
@@ -145,6 +149,15 @@ export const episodesAPI = {
     }),
 };
 
+// ==================== Waveforms API ====================
+export const waveformsAPI = {
+  // Binary min/max peaks (see parseWaveform); 202 while they are being generated
+  getWaveform: (audioSha256: string) =>
+    axiosInstance.get<ArrayBuffer>(`/waveforms/${audioSha256}`, {
+      responseType: 'arraybuffer',
+    }),
+};
+
 // ==================== Comments API ====================
 export const commentsAPI = {
   createComment: (data: CreateCommentRequest) =>
@@ -187,6 +200,59 @@ export const commentsAPI = {
     axiosInstance.get<PaginatedResponse<Comment>>('/comments', {
       params: { parentId, cursor, limit },
     }),
+
+  // Threads of an episode with the first replies of each thread inlined
+  listEpisodeThreads: (episodeId: string, cursor?: string, limit: number = 20, replies: number = 3) =>
+    axiosInstance.get<PaginatedResponse<CommentThread>>('/comments/threads', {
+      params: { episodeId, cursor, limit, replies },
+    }),
+
+  // Live comments of an episode (Server-Sent Events). EventSource cannot send the JWT, so the stream is
+  // read with fetch. Resolves when the server closes it; rejects on HTTP/network errors or when aborted
+  streamEpisodeComments: async (
+    episodeId: string,
+    onEvent: (event: CommentStreamEvent) => void,
+    signal: AbortSignal
+  ) => {
+    const rememberMe = localStorage.getItem('rememberMe') === 'true';
+    const token = (rememberMe ? localStorage : sessionStorage).getItem('accessToken');
+    const response = await fetch(`/api/episodes/${episodeId}/comments/stream`, {
+      headers: {
+        Accept: 'text/event-stream',
+        ...(token ? { Authorization: `Bearer ${token}` } : {}),
+      },
+      signal,
+    });
+    if (!response.ok || !response.body) {
+      throw new Error(`Comment stream failed with status ${response.status}`);
+    }
+
+    const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = '';
+    for (;;) {
+      const { value, done } = await reader.read();
+      if (done) return;
+      buffer += value;
+      // Events end with a blank line; ":ping" comments have no data and are skipped
+      let end;
+      while ((end = buffer.indexOf('\n\n')) >= 0) {
+        const block = buffer.slice(0, end);
+        buffer = buffer.slice(end + 2);
+        let type = '';
+        let data = '';
+        for (const line of block.split('\n')) {
+          if (line.startsWith('event:')) {
+            type = line.slice(6).trim();
+          } else if (line.startsWith('data:')) {
+            data += (data ? '\n' : '') + line.slice(5).replace(/^ /, '');
+          }
+        }
+        if (data && (type === 'created' || type === 'edited' || type === 'deleted')) {
+          onEvent({ type, comment: JSON.parse(data) as Comment });
+        }
+      }
+    }
+  },
 };
 
 // ==================== Subscriptions API ====================
@@ -199,6 +265,10 @@ export const subscriptionsAPI = {
   unsubscribe: (userId: string, podcastId: string) =>
     axiosInstance.delete(`/users/${userId}/subscriptions/${podcastId}`),
 
+  // GET /users/{userId}/subscriptions/{podcastId} (returns 200 OK or 404)
+  checkSubscriptionExists: (userId: string, podcastId: string) =>
+    axiosInstance.get(`/users/${userId}/subscriptions/${podcastId}`),
+
   // v3.0: GET /users/{userId}/subscriptions
   listSubscriptionsByUser: (userId: string, cursor?: string, limit: number = 200) =>
     axiosInstance.get<PaginatedResponse<Subscription>>(`/users/${userId}/subscriptions`, {
@@ -252,6 +322,16 @@ export const likesAPI = {
 };
 
 // ==================== Progress API ====================
+// Identifies this browser across sessions, for the cross-device progress sync
+const getDeviceId = () => {
+  let deviceId = localStorage.getItem('deviceId');
+  if (!deviceId) {
+    deviceId = crypto.randomUUID();
+    localStorage.setItem('deviceId', deviceId);
+  }
+  return deviceId;
+};
+
 export const progressAPI = {
   // v3.0: Nested resource - PUT /users/{userId}/progress/{episodeId} (idempotent upsert)
   updateProgress: (
@@ -260,10 +340,12 @@ export const progressAPI = {
     positionSeconds: number,
     completed: boolean
   ) =>
-    axiosInstance.put<ListeningProgress>(`/users/${userId}/progress/${episodeId}`, {
-      positionSeconds,
-      completed,
-    }),
+    axiosInstance.put<ListeningProgress>(
+      `/users/${userId}/progress/${episodeId}`,
+      { positionSeconds, completed },
+      // The server does not push this progress back to the device that saved it
+      { headers: { 'X-Device-Id': getDeviceId() } }
+    ),
 
   // v3.0: GET /users/{userId}/progress/{episodeId}
   getProgressByUserAndEpisode: (userId: string, episodeId: string) =>
@@ -278,6 +360,26 @@ export const progressAPI = {
     axiosInstance.get<PaginatedResponse<ListeningProgress>>(`/users/${userId}/progress`, {
       params: { cursor, limit },
     }),
-};
 
+  // WS /api/ws/progress - progress saved on the user's other devices. Browsers cannot set headers on
+  // WebSockets, so the access token goes in the query string
+  openProgressSync: (onMessage: (message: ProgressSyncMessage) => void) => {
+    const rememberMe = localStorage.getItem('rememberMe') === 'true';
+    const token = (rememberMe ? localStorage : sessionStorage).getItem('accessToken') ?? '';
+    const protocol = window.location.protocol === 'https:' ? 'wss:' : 'ws:';
+    const params = new URLSearchParams({ access_token: token, device: getDeviceId() });
+    const socket = new WebSocket(`${protocol}//${window.location.host}/api/ws/progress?${params}`);
+    socket.onmessage = (event) => {
+      const message = JSON.parse(event.data) as ProgressSyncMessage;
+      if (message.type === 'progress') onMessage(message);
+    };
+    return socket;
+  },
+};
 
+// ==================== Episode State API ====================
+export const episodeStateAPI = {
+  // POST /users/{userId}/episode-state - liked/progress/completed for up to 200 episodes in one call
+  getEpisodeStates: (userId: string, episodeIds: string[]) =>
+    axiosInstance.post<Record<string, EpisodeState>>(`/users/${userId}/episode-state`, { episodeIds }),
+};
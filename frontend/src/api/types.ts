@@ -87,6 +87,8 @@ export interface Episode {
   number: number;
   description: string;
   audioUrl: string;
+  // SHA-256 del audio subido (solo audio local); identifica sus picos de forma de onda
+  audioSha256?: string | null;
   durationSec: number;
   publishAt: string;
   isPublic: boolean;
@@ -118,11 +120,26 @@ export interface Comment {
   target: CommentTarget;
   content: string;
   parentId: string | null;
+  rootId?: string;
+  depth?: number;
+  path?: string;
+  replyCount?: number;
   status: 'VISIBLE' | 'HIDDEN' | 'DELETED';
   createdAt: string;
   updatedAt: string;
 }
 
+export interface CommentThread {
+  comment: Comment;
+  replies: Comment[];
+}
+
+// Event of GET /episodes/{id}/comments/stream (deleted comments come without content)
+export interface CommentStreamEvent {
+  type: 'created' | 'edited' | 'deleted';
+  comment: Comment;
+}
+
 export interface CreateCommentRequest {
   userId: string;
   target: CommentTarget;
@@ -157,6 +174,23 @@ export interface ListeningProgress {
   lastListenedAt: string;
 }
 
+// Message of the WebSocket /api/ws/progress: progress saved on another device of the user
+export interface ProgressSyncMessage {
+  type: 'progress';
+  episodeId: string;
+  positionSeconds: number;
+  completed: boolean;
+  deviceId?: string;
+  updatedAt: string;
+}
+
+// ==================== Episode State Types ====================
+export interface EpisodeState {
+  liked: boolean;
+  positionSeconds?: number;
+  completed: boolean;
+}
+
 // ==================== Request Types (v3.0) ====================
 export interface SubscriptionRequest {
   podcastId: string;
@@ -166,6 +200,10 @@ export interface LikeRequest {
   episodeId: string;
 }
 
+export interface EpisodeStateRequest {
+  episodeIds: string[];
+}
+
 export interface ProgressRequest {
   positionSeconds: number;
   completed: boolean;
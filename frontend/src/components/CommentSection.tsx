@@ -1,10 +1,16 @@
-import React, { useState } from 'react';
+import React, { useEffect, useState } from 'react';
 import { Link } from 'react-router-dom';
 import { useMutation, useQueryClient } from '@tanstack/react-query';
 import { commentsAPI } from '../api/endpoints';
 import { useAuth } from '../app/AuthProvider';
 import { useUserCache } from '../hooks/useUserCache';
-import type { Comment, CommentTarget, UserResponse } from '../api/types';
+import type {
+  Comment,
+  CommentStreamEvent,
+  CommentTarget,
+  PaginatedResponse,
+  UserResponse,
+} from '../api/types';
 
 // Helper functions
 const buildCommentTree = (comments: Comment[]): Comment[] => {
@@ -22,6 +28,29 @@ const getReplies = (commentId: string, allComments: Comment[]): Comment[] => {
     );
 };
 
+// Applies a live event to the cached page of comments (created ones may already be there after a refetch)
+const applyStreamEvent = (
+  page: PaginatedResponse<Comment> | undefined,
+  event: CommentStreamEvent
+): PaginatedResponse<Comment> | undefined => {
+  if (!page) return page;
+  const exists = page.data.some(c => c.id === event.comment.id);
+  if (event.type === 'created') {
+    return exists ? page : { ...page, data: [event.comment, ...page.data], count: page.count + 1 };
+  }
+  if (!exists) return page;
+  return {
+    ...page,
+    data: page.data.map(c =>
+      c.id === event.comment.id
+        ? { ...c, ...event.comment, content: event.comment.content ?? '[comentario eliminado]' }
+        : c
+    ),
+  };
+};
+
+const STREAM_RETRY_MS = 5000;
+
 // Permission checking functions
 const canEditComment = (comment: Comment, currentUser: UserResponse | null): boolean => {
   if (!currentUser) return false;
@@ -322,6 +351,39 @@ export const CommentSection: React.FC<CommentSectionProps> = ({
   const [newComment, setNewComment] = useState('');
   const queryClient = useQueryClient();
 
+  // Live comments (episodes only): new, edited and deleted comments are applied to the cached page
+  useEffect(() => {
+    if (target.type !== 'EPISODE') return;
+    const controller = new AbortController();
+    let retry: ReturnType<typeof setTimeout> | undefined;
+
+    const connect = () => {
+      commentsAPI
+        .streamEpisodeComments(
+          target.id,
+          (event) =>
+            queryClient.setQueryData<PaginatedResponse<Comment>>(queryKey, (page) =>
+              applyStreamEvent(page, event)
+            ),
+          controller.signal
+        )
+        .catch(() => undefined)
+        .finally(() => {
+          if (controller.signal.aborted) return;
+          // Changes made while disconnected are not replayed: refetch the page and reconnect
+          queryClient.invalidateQueries({ queryKey });
+          retry = setTimeout(connect, STREAM_RETRY_MS);
+        });
+    };
+    connect();
+
+    return () => {
+      controller.abort();
+      clearTimeout(retry);
+    };
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, [target.type, target.id]);
+
   const createCommentMutation = useMutation({
     mutationFn: async (content: string) => {
       if (!user) throw new Error('Usuario no autenticado');
@@ -0,0 +1,139 @@
+import React, { useEffect, useRef, useState } from 'react';
+import { useQuery } from '@tanstack/react-query';
+import { waveformsAPI } from '../api/endpoints';
+
+interface WaveformLevel {
+  samplesPerPeak: number;
+  min: Float32Array;
+  max: Float32Array;
+}
+
+interface Waveform {
+  sampleRate: number;
+  samples: number;
+  levels: WaveformLevel[];
+}
+
+/**
+ * Lee el formato binario del backend (Waveform.java): cabecera "PHWF", niveles y pares min/max
+ * de 8 o 16 bits, normalizados a [-1, 1]
+ */
+const parseWaveform = (buffer: ArrayBuffer): Waveform | null => {
+  const view = new DataView(buffer);
+  if (buffer.byteLength < 22 || view.getUint32(0) !== 0x50485746 || view.getUint8(4) !== 1) {
+    return null;
+  }
+  const bits = view.getUint8(5);
+  const sampleRate = view.getUint32(8);
+  const samples = Number(view.getBigUint64(12));
+  const count = view.getUint16(20);
+  let offset = 22;
+  const shapes: Array<[number, number]> = [];
+  for (let i = 0; i < count; i++) {
+    shapes.push([view.getUint32(offset), view.getUint32(offset + 4)]);
+    offset += 8;
+  }
+  const scale = bits === 8 ? 128 : 32768;
+  const levels = shapes.map(([samplesPerPeak, peaks]) => {
+    const min = new Float32Array(peaks);
+    const max = new Float32Array(peaks);
+    for (let i = 0; i < peaks; i++) {
+      if (bits === 8) {
+        min[i] = view.getInt8(offset) / scale;
+        max[i] = view.getInt8(offset + 1) / scale;
+        offset += 2;
+      } else {
+        min[i] = view.getInt16(offset) / scale;
+        max[i] = view.getInt16(offset + 2) / scale;
+        offset += 4;
+      }
+    }
+    return { samplesPerPeak, min, max };
+  });
+  return { sampleRate, samples, levels };
+};
+
+interface WaveformCanvasProps {
+  audioSha256: string;
+  audioRef: React.RefObject<HTMLAudioElement | null>;
+}
+
+/**
+ * Forma de onda del episodio sobre un canvas: la parte ya reproducida se resalta y un clic salta a ese punto
+ */
+export const WaveformCanvas: React.FC<WaveformCanvasProps> = ({ audioSha256, audioRef }) => {
+  const canvasRef = useRef<HTMLCanvasElement>(null);
+  const [progress, setProgress] = useState(0);
+
+  // Los picos de un hash no cambian nunca; mientras se generan (202) se vuelve a pedir
+  const { data: waveform } = useQuery({
+    queryKey: ['waveform', audioSha256],
+    queryFn: async () => {
+      const response = await waveformsAPI.getWaveform(audioSha256);
+      return response.status === 200 ? parseWaveform(response.data) : null;
+    },
+    staleTime: Infinity,
+    refetchInterval: (query) => (query.state.data ? false : 5000),
+  });
+
+  useEffect(() => {
+    const audio = audioRef.current;
+    if (!audio) return;
+    const handleTimeUpdate = () => {
+      setProgress(audio.duration > 0 ? audio.currentTime / audio.duration : 0);
+    };
+    audio.addEventListener('timeupdate', handleTimeUpdate);
+    return () => audio.removeEventListener('timeupdate', handleTimeUpdate);
+  }, [audioRef]);
+
+  useEffect(() => {
+    const canvas = canvasRef.current;
+    if (!canvas || !waveform || waveform.levels.length === 0) return;
+    const width = canvas.clientWidth * window.devicePixelRatio;
+    const height = canvas.clientHeight * window.devicePixelRatio;
+    canvas.width = width;
+    canvas.height = height;
+    const context = canvas.getContext('2d');
+    if (!context) return;
+
+    // El nivel menos detallado que aún tiene al menos un pico por columna
+    const level =
+      [...waveform.levels].reverse().find((candidate) => candidate.min.length >= width) ??
+      waveform.levels[0];
+    const peaks = level.min.length;
+    const middle = height / 2;
+    context.clearRect(0, 0, width, height);
+    for (let x = 0; x < width; x++) {
+      const from = Math.floor((x * peaks) / width);
+      const to = Math.max(from + 1, Math.floor(((x + 1) * peaks) / width));
+      let low = 0;
+      let high = 0;
+      for (let i = from; i < Math.min(to, peaks); i++) {
+        low = Math.min(low, level.min[i]);
+        high = Math.max(high, level.max[i]);
+      }
+      context.fillStyle = x / width < progress ? 'rgba(255, 255, 255, 0.95)' : 'rgba(255, 255, 255, 0.35)';
+      context.fillRect(x, middle - high * middle, 1, Math.max(1, (high - low) * middle));
+    }
+  }, [waveform, progress]);
+
+  if (!waveform) {
+    return null;
+  }
+
+  const handleClick = (event: React.MouseEvent<HTMLCanvasElement>) => {
+    const audio = audioRef.current;
+    if (!audio || !(audio.duration > 0)) return;
+    const rect = event.currentTarget.getBoundingClientRect();
+    audio.currentTime = ((event.clientX - rect.left) / rect.width) * audio.duration;
+  };
+
+  return (
+    <canvas
+      ref={canvasRef}
+      onClick={handleClick}
+      className="w-full h-20 mb-3 cursor-pointer"
+      aria-label="Forma de onda del episodio"
+    />
+  );
+};
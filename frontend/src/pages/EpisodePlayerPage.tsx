@@ -8,8 +8,10 @@ import {
   progressAPI,
   podcastsAPI,
 } from '../api/endpoints';
+import type { ListeningProgress } from '../api/types';
 import { useAuth } from '../app/AuthProvider';
 import { CommentSection } from '../components/CommentSection';
+import { WaveformCanvas } from '../components/WaveformCanvas';
 
 export const EpisodePlayerPage: React.FC = () => {
   const { episodeId } = useParams<{ episodeId: string }>();
@@ -96,6 +98,36 @@ export const EpisodePlayerPage: React.FC = () => {
     }
   }, [savedProgress, episodeId]);
 
+  // Progress saved on the user's other devices: while paused, the player moves to it
+  useEffect(() => {
+    let socket: WebSocket | null = null;
+    let retry: ReturnType<typeof setTimeout> | undefined;
+    let closed = false;
+    const connect = () => {
+      socket = progressAPI.openProgressSync((message) => {
+        queryClient.setQueryData<ListeningProgress | null>(
+          ['progress', user.id, message.episodeId],
+          (old) => ({
+            ...(old ?? { id: '', userId: user.id, episodeId: message.episodeId, lastListenedAt: message.updatedAt }),
+            positionSeconds: message.positionSeconds,
+            completed: message.completed,
+          })
+        );
+      });
+      // Reconnect a few seconds after the connection drops (server restart, slow client, token refresh)
+      socket.onclose = () => {
+        if (!closed) retry = setTimeout(connect, 5000);
+      };
+    };
+    connect();
+    return () => {
+      closed = true;
+      clearTimeout(retry);
+      socket?.close();
+    };
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, [user.id]);
+
   // Toggle like mutation
   const toggleLikeMutation = useMutation({
     mutationFn: async () => {
@@ -253,6 +285,9 @@ export const EpisodePlayerPage: React.FC = () => {
 
               {/* Audio Player */}
               <div className="bg-white/10 backdrop-blur-sm rounded-xl p-4 mb-6">
+                {episode.audioSha256 && (
+                  <WaveformCanvas audioSha256={episode.audioSha256} audioRef={audioRef} />
+                )}
                 <audio ref={audioRef} controls className="w-full" src={episode.audioUrl}>
                   Tu navegador no soporta el elemento de audio.
                 </audio>
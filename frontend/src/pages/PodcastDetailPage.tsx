@@ -86,19 +86,22 @@ export const PodcastDetailPage: React.FC = () => {
     },
   });
 
-  // Fetch user subscriptions
-  const { data: subscriptionsData } = useQuery({
-    queryKey: ['subscriptions', user?.id],
+  // Check if subscribed (200 OK or 404)
+  const { data: isSubscribedData } = useQuery({
+    queryKey: ['subscription', user?.id, podcastId],
     queryFn: async () => {
-      if (!user) return null;
-      const response = await subscriptionsAPI.listSubscriptionsByUser(user.id, undefined, 200);
-      return response.data;
+      if (!user) return false;
+      try {
+        await subscriptionsAPI.checkSubscriptionExists(user.id, podcastId);
+        return true; // 200 OK means subscribed
+      } catch (error) {
+        return false; // 404 means not subscribed
+      }
     },
     enabled: !!user,
   });
 
-  // Check if subscribed
-  const isSubscribed = subscriptionsData?.data.some((sub) => sub.podcastId === podcastId) || false;
+  const isSubscribed = isSubscribedData || false;
 
   // Fetch subscriber count (v3.0 enhancement)
   const { data: subscriberCountData } = useQuery({
@@ -122,6 +125,7 @@ export const PodcastDetailPage: React.FC = () => {
       }
     },
     onSuccess: () => {
+      queryClient.invalidateQueries({ queryKey: ['subscription', user?.id, podcastId] });
       queryClient.invalidateQueries({ queryKey: ['subscriptions', user?.id] });
       queryClient.invalidateQueries({ queryKey: ['podcast-subscribers-count', podcastId] });
     },
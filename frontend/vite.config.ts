@@ -13,6 +13,8 @@ export default defineConfig({
         // In Docker, this will use the backend service name
         target: process.env.VITE_API_BASE_URL || 'http://localhost:8080',
         changeOrigin: true,
+        // Proxy the progress sync WebSocket (/api/ws/progress) too
+        ws: true,
       }
     }
   }
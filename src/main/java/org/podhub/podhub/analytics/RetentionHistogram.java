@@ -0,0 +1,110 @@
+package org.podhub.podhub.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Histograma de retención de un episodio: cuántos oyentes llegaron como mucho a cada tramo del 1%
+ * de su duración. El tramo de un oyente depende solo de su progreso (posición más lejana y completed),
+ * así que se mantiene sumando y restando al actualizarse el progreso y se reconstruye igual desde cero.
+ *
+ * Los tramos 0..99 son los porcentajes alcanzados sin terminar; el tramo 100 son los que lo terminaron.
+ */
+public final class RetentionHistogram {
+
+    public static final int PERCENT_BUCKETS = 100;
+    public static final int BUCKETS = PERCENT_BUCKETS + 1;
+    public static final int COMPLETED = PERCENT_BUCKETS;
+
+    private final int[] counts;
+
+    public RetentionHistogram() {
+        this.counts = new int[BUCKETS];
+    }
+
+    /**
+     * Copia de unos contadores guardados (si son más cortos, el resto queda a 0)
+     */
+    public RetentionHistogram(int[] counts) {
+        this.counts = new int[BUCKETS];
+        if (counts != null) {
+            System.arraycopy(counts, 0, this.counts, 0, Math.min(counts.length, BUCKETS));
+        }
+    }
+
+    /**
+     * Tramo de un oyente
+     *
+     * @param furthestSeconds Posición más lejana que alcanzó
+     * @param durationSec     Duración del episodio (> 0)
+     */
+    public static int bucket(int furthestSeconds, boolean completed, int durationSec) {
+        if (completed) {
+            return COMPLETED;
+        }
+        long percent = (long) Math.max(0, furthestSeconds) * PERCENT_BUCKETS / durationSec;
+        return (int) Math.min(PERCENT_BUCKETS - 1, percent);
+    }
+
+    public void add(int bucket) {
+        counts[bucket]++;
+    }
+
+    public void merge(RetentionHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+
+    public long listeners() {
+        long total = 0;
+        for (int count : counts) {
+            total += Math.max(0, count);
+        }
+        return total;
+    }
+
+    public int completed() {
+        return Math.max(0, counts[COMPLETED]);
+    }
+
+    /**
+     * Abandonos por tramo: oyentes que se quedaron en cada porcentaje (sin los que terminaron)
+     */
+    public int[] dropOffs() {
+        int[] dropOffs = new int[PERCENT_BUCKETS];
+        for (int i = 0; i < PERCENT_BUCKETS; i++) {
+            dropOffs[i] = Math.max(0, counts[i]);
+        }
+        return dropOffs;
+    }
+
+    /**
+     * Curva de retención: retention[i] es la fracción de oyentes que llegó al menos al i% (i = 0..100;
+     * retention[100] es la fracción que lo terminó). Todo ceros si no hay oyentes.
+     */
+    public double[] curve() {
+        double[] curve = new double[BUCKETS];
+        long total = listeners();
+        if (total == 0) {
+            return curve;
+        }
+        long reached = 0;
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            reached += Math.max(0, counts[i]);
+            curve[i] = (double) reached / total;
+        }
+        return curve;
+    }
+
+    /**
+     * Contadores tal y como se guardan (tramo -> oyentes)
+     */
+    public int[] counts() {
+        return counts.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "RetentionHistogram" + Arrays.toString(counts);
+    }
+}
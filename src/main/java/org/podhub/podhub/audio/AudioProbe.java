@@ -0,0 +1,53 @@
+package org.podhub.podhub.audio;
+
+import org.podhub.podhub.model.AudioMetadata;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lee duración, bitrate y capítulos de un fichero de audio sin decodificarlo.
+ * Solo se leen las cabeceras necesarias con lecturas posicionadas:
+ * - MP3: cabeceras de los frames ID3v2 (y el cuerpo de los CHAP), la primera cabecera de frame
+ *   y su etiqueta Xing/Info o VBRI; sin ella, la duración se estima con el bitrate (CBR).
+ * - MP4/M4A: cabeceras de los átomos de primer nivel (mdat se salta sin leerlo), y dentro de moov
+ *   solo mvhd, hdlr, stsd y udta/chpl; las tablas de muestras no se leen.
+ * Unos pocos KB por fichero, independientemente de su tamaño.
+ */
+public final class AudioProbe {
+
+    /**
+     * @param metadata null si el formato no se reconoce
+     * @param bytesRead Bytes leídos del fichero para obtenerlo
+     */
+    public record Result(AudioMetadata metadata, long bytesRead) {
+        public boolean recognized() {
+            return metadata != null;
+        }
+    }
+
+    private AudioProbe() {
+    }
+
+    public static Result probe(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ProbeSource source = new ProbeSource(channel);
+            AudioMetadata metadata = probe(source);
+            return new Result(metadata, source.bytesRead());
+        }
+    }
+
+    private static AudioMetadata probe(ProbeSource source) throws IOException {
+        ByteBuffer head = source.read(0, 12);
+        if (head.remaining() < 12) {
+            return null;
+        }
+        if (head.get(4) == 'f' && head.get(5) == 't' && head.get(6) == 'y' && head.get(7) == 'p') {
+            return Mp4Probe.probe(source);
+        }
+        return Mp3Probe.probe(source);
+    }
+}
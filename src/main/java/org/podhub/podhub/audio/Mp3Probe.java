@@ -0,0 +1,287 @@
+package org.podhub.podhub.audio;
+
+import org.podhub.podhub.model.AudioChapter;
+import org.podhub.podhub.model.AudioMetadata;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Cabeceras de MPEG audio (layer I/II/III, MPEG 1/2/2.5) con etiquetas ID3v2 delante
+ */
+final class Mp3Probe {
+
+    // Bytes que se buscan, por bloques de SCAN_BLOCK, hasta encontrar el primer frame tras el ID3
+    private static final int SCAN_LIMIT = 64 * 1024;
+    private static final int SCAN_BLOCK = 4 * 1024;
+    private static final int MAX_CHAPTER_FRAME = 64 * 1024;
+    static final int MAX_CHAPTERS = 500;
+
+    // [MPEG1 L1, L2, L3, MPEG2/2.5 L1, L2/L3] en kbps
+    private static final int[][] BITRATES = {
+            {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448},
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384},
+            {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320},
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},
+            {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160}
+    };
+    // Por los bits de versión: 0 = MPEG 2.5, 1 = reservado, 2 = MPEG 2, 3 = MPEG 1
+    private static final int[][] SAMPLE_RATES = {
+            {11025, 12000, 8000},
+            {},
+            {22050, 24000, 16000},
+            {44100, 48000, 32000}
+    };
+
+    record FrameHeader(int versionBits, int layer, int bitrateKbps, int sampleRate, int channels,
+                       int samplesPerFrame, int frameLength) {
+
+        boolean mpeg1() {
+            return versionBits == 3;
+        }
+
+        boolean sameStream(FrameHeader other) {
+            return other != null && other.versionBits == versionBits && other.layer == layer
+                    && other.sampleRate == sampleRate;
+        }
+
+        /**
+         * Cabecera de 4 bytes; null si no es válida (o usa bitrate libre, que no se soporta)
+         */
+        static FrameHeader parse(int header) {
+            if ((header & 0xFFE00000) != 0xFFE00000) {
+                return null;
+            }
+            int versionBits = (header >>> 19) & 3;
+            int layerBits = (header >>> 17) & 3;
+            int bitrateIndex = (header >>> 12) & 0xF;
+            int sampleRateIndex = (header >>> 10) & 3;
+            if (versionBits == 1 || layerBits == 0 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+                return null;
+            }
+            int layer = 4 - layerBits;
+            boolean mpeg1 = versionBits == 3;
+            int table = mpeg1 ? layer - 1 : (layer == 1 ? 3 : 4);
+            int bitrate = BITRATES[table][bitrateIndex];
+            int sampleRate = SAMPLE_RATES[versionBits][sampleRateIndex];
+            int padding = (header >>> 9) & 1;
+            int channels = ((header >>> 6) & 3) == 3 ? 1 : 2;
+
+            int samples = layer == 1 ? 384 : (layer == 3 && !mpeg1 ? 576 : 1152);
+            int frameLength = layer == 1
+                    ? (12_000 * bitrate / sampleRate + padding) * 4
+                    : samples / 8 * 1000 * bitrate / sampleRate + padding;
+            return new FrameHeader(versionBits, layer, bitrate, sampleRate, channels, samples, frameLength);
+        }
+    }
+
+    private Mp3Probe() {
+    }
+
+    static AudioMetadata probe(ProbeSource source) throws IOException {
+        long position = 0;
+        List<AudioChapter> chapters = new ArrayList<>();
+
+        // Una o varias etiquetas ID3v2 seguidas
+        while (true) {
+            ByteBuffer tag = source.read(position, 10);
+            if (tag.remaining() < 10 || tag.get(0) != 'I' || tag.get(1) != 'D' || tag.get(2) != '3') {
+                break;
+            }
+            int major = tag.get(3);
+            int flags = tag.get(5) & 0xFF;
+            long tagSize = syncsafe(tag, 6);
+            long framesEnd = position + 10 + tagSize;
+            // La desincronización a nivel de etiqueta (v2.3) altera los cuerpos: no se leen capítulos
+            if ((major == 3 || major == 4) && (flags & 0x80) == 0) {
+                readChapters(source, position + 10, framesEnd, major, flags, chapters);
+            }
+            position = framesEnd + ((flags & 0x10) != 0 ? 10 : 0);
+        }
+
+        long frameStart = findFirstFrame(source, position);
+        if (frameStart < 0) {
+            return null;
+        }
+        ByteBuffer frame = source.read(frameStart, 4 + 32 + 120);
+        FrameHeader header = FrameHeader.parse(frame.getInt(0));
+
+        long audioEnd = source.size();
+        if (audioEnd >= 128) {
+            ByteBuffer id3v1 = source.read(audioEnd - 128, 3);
+            if (id3v1.remaining() == 3 && id3v1.get(0) == 'T' && id3v1.get(1) == 'A' && id3v1.get(2) == 'G') {
+                audioEnd -= 128;
+            }
+        }
+
+        long frames = -1;
+        long audioBytes = audioEnd - frameStart;
+        int sideInfo = header.mpeg1() ? (header.channels() == 1 ? 17 : 32) : (header.channels() == 1 ? 9 : 17);
+        int xing = 4 + sideInfo;
+        if (header.layer() == 3 && (matches(frame, xing, "Xing") || matches(frame, xing, "Info"))) {
+            int xingFlags = frame.getInt(xing + 4);
+            int offset = xing + 8;
+            if ((xingFlags & 1) != 0 && frame.limit() >= offset + 4) {
+                frames = Integer.toUnsignedLong(frame.getInt(offset));
+                offset += 4;
+            }
+            if ((xingFlags & 2) != 0 && frame.limit() >= offset + 4) {
+                audioBytes = Integer.toUnsignedLong(frame.getInt(offset));
+            }
+        } else if (matches(frame, 4 + 32, "VBRI") && frame.limit() >= 4 + 32 + 18) {
+            audioBytes = Integer.toUnsignedLong(frame.getInt(4 + 32 + 10));
+            frames = Integer.toUnsignedLong(frame.getInt(4 + 32 + 14));
+        }
+
+        long durationMs;
+        int bitrateKbps;
+        if (frames > 0) {
+            durationMs = frames * header.samplesPerFrame() * 1000 / header.sampleRate();
+            bitrateKbps = durationMs > 0 ? (int) (audioBytes * 8 / durationMs) : header.bitrateKbps();
+        } else {
+            // CBR: kbps = bits por milisegundo
+            bitrateKbps = header.bitrateKbps();
+            durationMs = audioBytes * 8 / bitrateKbps;
+        }
+
+        chapters.sort(Comparator.comparing(AudioChapter::getStartMs));
+        return AudioMetadata.builder()
+                .format("mp3")
+                .durationMs(durationMs)
+                .bitrateKbps(bitrateKbps)
+                .sampleRate(header.sampleRate())
+                .channels(header.channels())
+                .exactDuration(frames > 0)
+                .chapters(chapters.isEmpty() ? null : chapters)
+                .build();
+    }
+
+    /**
+     * Posición de la primera cabecera de frame válida seguida de otra del mismo stream, o -1
+     */
+    private static long findFirstFrame(ProbeSource source, long from) throws IOException {
+        for (long block = from; block < from + SCAN_LIMIT && block < source.size(); block += SCAN_BLOCK) {
+            // 3 bytes de solape para no perder una cabecera partida entre dos bloques
+            ByteBuffer buffer = source.read(block, SCAN_BLOCK + 3);
+            for (int i = 0; i + 4 <= buffer.limit(); i++) {
+                if ((buffer.get(i) & 0xFF) != 0xFF || (buffer.get(i + 1) & 0xE0) != 0xE0) {
+                    continue;
+                }
+                FrameHeader header = FrameHeader.parse(buffer.getInt(i));
+                if (header == null) {
+                    continue;
+                }
+                long next = block + i + header.frameLength();
+                ByteBuffer nextHeader = next + 4 <= buffer.limit() + block
+                        ? buffer.duplicate().position((int) (next - block)).slice()
+                        : source.read(next, 4);
+                if (nextHeader.remaining() < 4) {
+                    // Un único frame hasta el final del fichero
+                    if (next == source.size()) {
+                        return block + i;
+                    }
+                    continue;
+                }
+                if (header.sameStream(FrameHeader.parse(nextHeader.getInt(0)))) {
+                    return block + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static void readChapters(ProbeSource source, long from, long to, int major, int flags,
+                                     List<AudioChapter> chapters) throws IOException {
+        long position = from;
+        if ((flags & 0x40) != 0) {
+            // Cabecera extendida: en v2.4 su tamaño (syncsafe) la incluye; en v2.3 no
+            ByteBuffer extended = source.read(position, 4);
+            if (extended.remaining() < 4) {
+                return;
+            }
+            position += major == 4 ? syncsafe(extended, 0) : 4 + Integer.toUnsignedLong(extended.getInt(0));
+        }
+        while (position + 10 <= to && chapters.size() < MAX_CHAPTERS) {
+            ByteBuffer frameHeader = source.read(position, 10);
+            if (frameHeader.remaining() < 10 || frameHeader.get(0) == 0) {
+                break; // padding
+            }
+            String id = ascii(frameHeader, 0, 4);
+            long size = major == 4 ? syncsafe(frameHeader, 4) : Integer.toUnsignedLong(frameHeader.getInt(4));
+            if ("CHAP".equals(id) && size <= MAX_CHAPTER_FRAME && position + 10 + size <= to) {
+                AudioChapter chapter = parseChapter(source.read(position + 10, (int) size), major);
+                if (chapter != null) {
+                    chapters.add(chapter);
+                }
+            }
+            position += 10 + size;
+        }
+    }
+
+    /**
+     * CHAP: id\0, inicio (ms), fin (ms), offsets, y subframes (TIT2 con el título)
+     */
+    private static AudioChapter parseChapter(ByteBuffer body, int major) {
+        int position = 0;
+        while (position < body.limit() && body.get(position) != 0) {
+            position++;
+        }
+        position++;
+        if (position + 16 > body.limit()) {
+            return null;
+        }
+        long startMs = Integer.toUnsignedLong(body.getInt(position));
+        position += 16;
+
+        String title = null;
+        while (position + 10 <= body.limit()) {
+            String id = ascii(body, position, 4);
+            int size = (int) (major == 4 ? syncsafe(body, position + 4) : Integer.toUnsignedLong(body.getInt(position + 4)));
+            if (size < 0 || position + 10 + size > body.limit()) {
+                break;
+            }
+            if ("TIT2".equals(id) && size > 0) {
+                title = text(body, position + 10, size);
+            }
+            position += 10 + size;
+        }
+        return AudioChapter.builder().startMs(startMs).title(title).build();
+    }
+
+    /**
+     * Texto de un frame ID3: byte de codificación seguido del texto, sin los \0 finales
+     */
+    private static String text(ByteBuffer body, int offset, int size) {
+        Charset charset = switch (body.get(offset)) {
+            case 1 -> StandardCharsets.UTF_16;
+            case 2 -> StandardCharsets.UTF_16BE;
+            case 3 -> StandardCharsets.UTF_8;
+            default -> StandardCharsets.ISO_8859_1;
+        };
+        byte[] bytes = new byte[size - 1];
+        body.get(offset + 1, bytes);
+        String value = new String(bytes, charset);
+        int end = value.indexOf('\0');
+        return (end >= 0 ? value.substring(0, end) : value).strip();
+    }
+
+    private static boolean matches(ByteBuffer buffer, int offset, String tag) {
+        return buffer.limit() >= offset + 8 && tag.equals(ascii(buffer, offset, 4));
+    }
+
+    private static String ascii(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private static long syncsafe(ByteBuffer buffer, int offset) {
+        return ((buffer.get(offset) & 0x7FL) << 21) | ((buffer.get(offset + 1) & 0x7FL) << 14)
+                | ((buffer.get(offset + 2) & 0x7FL) << 7) | (buffer.get(offset + 3) & 0x7FL);
+    }
+}
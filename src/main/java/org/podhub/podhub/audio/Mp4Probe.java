@@ -0,0 +1,176 @@
+package org.podhub.podhub.audio;
+
+import org.podhub.podhub.model.AudioChapter;
+import org.podhub.podhub.model.AudioMetadata;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Átomos ISO BMFF (MP4/M4A). moov puede estar antes o después de mdat: se recorren
+ * solo las cabeceras de 8/16 bytes hasta encontrarlo, sin leer los datos de audio.
+ */
+final class Mp4Probe {
+
+    private static final int MAX_CHAPTER_ATOM = 64 * 1024;
+    private static final int MAX_DEPTH = 8;
+
+    private final ProbeSource source;
+    private long timescale;
+    private long duration = -1;
+    private long mdatBytes = -1;
+    private boolean soundTrack;
+    private Integer sampleRate;
+    private Integer channels;
+    private final List<AudioChapter> chapters = new ArrayList<>();
+
+    private Mp4Probe(ProbeSource source) {
+        this.source = source;
+    }
+
+    static AudioMetadata probe(ProbeSource source) throws IOException {
+        Mp4Probe probe = new Mp4Probe(source);
+        probe.walk(0, source.size(), "", 0);
+        if (probe.timescale <= 0 || probe.duration < 0) {
+            return null;
+        }
+        long durationMs = probe.duration * 1000 / probe.timescale;
+        long audioBytes = probe.mdatBytes >= 0 ? probe.mdatBytes : source.size();
+        return AudioMetadata.builder()
+                .format("m4a")
+                .durationMs(durationMs)
+                .bitrateKbps(durationMs > 0 ? (int) (audioBytes * 8 / durationMs) : null)
+                .sampleRate(probe.sampleRate)
+                .channels(probe.channels)
+                .exactDuration(true)
+                .chapters(probe.chapters.isEmpty() ? null : probe.chapters)
+                .build();
+    }
+
+    private void walk(long from, long to, String path, int depth) throws IOException {
+        long position = from;
+        while (position + 8 <= to) {
+            ByteBuffer header = source.read(position, 16);
+            if (header.remaining() < 8) {
+                return;
+            }
+            long size = Integer.toUnsignedLong(header.getInt(0));
+            String type = ascii(header, 4, 4);
+            int headerLength = 8;
+            if (size == 1) {
+                if (header.remaining() < 16) {
+                    return;
+                }
+                size = header.getLong(8);
+                headerLength = 16;
+            } else if (size == 0) {
+                size = to - position; // hasta el final del contenedor
+            }
+            if (size < headerLength || position + size > to) {
+                return; // átomo corrupto o truncado
+            }
+            long body = position + headerLength;
+            long bodyLength = size - headerLength;
+
+            switch (path + type) {
+                case "moov", "moov/udta", "moov/trak/mdia", "moov/trak/mdia/minf", "moov/trak/mdia/minf/stbl" -> {
+                    if (depth < MAX_DEPTH) {
+                        walk(body, body + bodyLength, path + type + "/", depth + 1);
+                    }
+                }
+                case "moov/trak" -> {
+                    soundTrack = false;
+                    walk(body, body + bodyLength, "moov/trak/", depth + 1);
+                }
+                case "mdat" -> mdatBytes = Math.max(mdatBytes, 0) + bodyLength;
+                case "moov/mvhd" -> readMovieHeader(source.read(body, 32));
+                case "moov/trak/mdia/hdlr" -> {
+                    ByteBuffer handler = source.read(body, 12);
+                    soundTrack = handler.remaining() == 12 && "soun".equals(ascii(handler, 8, 4));
+                }
+                case "moov/trak/mdia/minf/stbl/stsd" -> {
+                    if (soundTrack && channels == null) {
+                        readSampleDescription(source.read(body, 44));
+                    }
+                }
+                case "moov/udta/chpl" -> {
+                    if (bodyLength <= MAX_CHAPTER_ATOM) {
+                        readChapters(source.read(body, (int) bodyLength));
+                    }
+                }
+                default -> {
+                }
+            }
+            position += size;
+        }
+    }
+
+    /**
+     * mvhd: versión 0 con campos de 32 bits, versión 1 con fechas y duración de 64 bits
+     */
+    private void readMovieHeader(ByteBuffer mvhd) {
+        if (mvhd.remaining() < 20) {
+            return;
+        }
+        if (mvhd.get(0) == 1) {
+            if (mvhd.remaining() < 32) {
+                return;
+            }
+            timescale = Integer.toUnsignedLong(mvhd.getInt(20));
+            duration = mvhd.getLong(24);
+        } else {
+            timescale = Integer.toUnsignedLong(mvhd.getInt(12));
+            duration = Integer.toUnsignedLong(mvhd.getInt(16));
+        }
+    }
+
+    /**
+     * Primera entrada de stsd (mp4a y similares): canales y frecuencia (16.16) tras 8 + 8 + 16 bytes
+     */
+    private void readSampleDescription(ByteBuffer stsd) {
+        if (stsd.remaining() < 44) {
+            return;
+        }
+        channels = (int) stsd.getShort(8 + 8 + 16);
+        sampleRate = stsd.getInt(8 + 8 + 24) >>> 16;
+    }
+
+    /**
+     * Capítulos Nero (udta/chpl): versión, flags, [reservado], número de capítulos y por cada uno
+     * inicio en unidades de 100 ns, longitud y título en UTF-8
+     */
+    private void readChapters(ByteBuffer chpl) {
+        int position = chpl.get(0) == 1 ? 8 : 4;
+        if (position >= chpl.limit()) {
+            return;
+        }
+        int count = chpl.get(position++) & 0xFF;
+        for (int i = 0; i < count && chapters.size() < Mp3Probe.MAX_CHAPTERS; i++) {
+            if (position + 9 > chpl.limit()) {
+                return;
+            }
+            long start = chpl.getLong(position);
+            int length = chpl.get(position + 8) & 0xFF;
+            position += 9;
+            if (position + length > chpl.limit()) {
+                return;
+            }
+            byte[] title = new byte[length];
+            chpl.get(position, title);
+            position += length;
+            chapters.add(AudioChapter.builder()
+                    .startMs(start / 10_000)
+                    .title(new String(title, StandardCharsets.UTF_8))
+                    .build());
+        }
+    }
+
+    private static String ascii(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,45 @@
+package org.podhub.podhub.audio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Lecturas posicionadas sobre un FileChannel que cuentan los bytes leídos.
+ * No mueve la posición del canal ni lee nada que no se pida.
+ */
+final class ProbeSource {
+
+    private final FileChannel channel;
+    private final long size;
+    private long bytesRead;
+
+    ProbeSource(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+    }
+
+    long size() {
+        return size;
+    }
+
+    long bytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Hasta length bytes desde position (menos si el fichero acaba antes), big-endian y listos para leer
+     */
+    ByteBuffer read(long position, int length) throws IOException {
+        int available = (int) Math.max(0, Math.min(length, size - position));
+        ByteBuffer buffer = ByteBuffer.allocate(available);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        bytesRead += buffer.remaining();
+        return buffer;
+    }
+}
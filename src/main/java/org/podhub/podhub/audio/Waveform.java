@@ -0,0 +1,121 @@
+package org.podhub.podhub.audio;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Picos (mínimo y máximo) de la señal mono de un audio a varios niveles de zoom.
+ * El nivel 0 es el más detallado; cada nivel siguiente agrupa FACTOR picos del anterior.
+ *
+ * Formato binario (big-endian), pensado para leerse con un DataView en el navegador:
+ * <pre>
+ * "PHWF" | versión u8 | bits u8 (8 o 16) | reservado u16 | sampleRate u32 | muestras u64 | niveles u16
+ * por nivel: muestrasPorPico u32 | picos u32
+ * por nivel: picos × (min, max) como enteros con signo de 'bits' bits
+ * </pre>
+ */
+public record Waveform(int sampleRate, long samples, List<Level> levels) {
+
+    public static final String CONTENT_TYPE = "application/vnd.podhub.waveform";
+    public static final int FACTOR = 4;
+    private static final int MAGIC = 0x50485746; // "PHWF"
+    private static final int VERSION = 1;
+
+    /**
+     * Un nivel de zoom: min[i] y max[i] de las muestras [i * samplesPerPeak, (i + 1) * samplesPerPeak)
+     */
+    public record Level(int samplesPerPeak, short[] min, short[] max) {
+        public int peaks() {
+            return min.length;
+        }
+
+        /**
+         * Nivel FACTOR veces menos detallado, exacto (mínimo de los mínimos, máximo de los máximos)
+         */
+        Level coarser() {
+            int peaks = (min.length + FACTOR - 1) / FACTOR;
+            short[] coarseMin = new short[peaks];
+            short[] coarseMax = new short[peaks];
+            for (int i = 0; i < peaks; i++) {
+                short low = Short.MAX_VALUE;
+                short high = Short.MIN_VALUE;
+                for (int j = i * FACTOR; j < Math.min(min.length, (i + 1) * FACTOR); j++) {
+                    low = (short) Math.min(low, min[j]);
+                    high = (short) Math.max(high, max[j]);
+                }
+                coarseMin[i] = low;
+                coarseMax[i] = high;
+            }
+            return new Level(samplesPerPeak * FACTOR, coarseMin, coarseMax);
+        }
+    }
+
+    /**
+     * @param bits 8 (cada pico en un byte, la mitad de tamaño) o 16
+     */
+    public void write(OutputStream out, int bits) throws IOException {
+        if (bits != 8 && bits != 16) {
+            throw new IllegalArgumentException("Waveform bits must be 8 or 16: " + bits);
+        }
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeByte(bits);
+        data.writeShort(0);
+        data.writeInt(sampleRate);
+        data.writeLong(samples);
+        data.writeShort(levels.size());
+        for (Level level : levels) {
+            data.writeInt(level.samplesPerPeak());
+            data.writeInt(level.peaks());
+        }
+        for (Level level : levels) {
+            for (int i = 0; i < level.peaks(); i++) {
+                if (bits == 8) {
+                    data.writeByte(level.min()[i] >> 8);
+                    data.writeByte(level.max()[i] >> 8);
+                } else {
+                    data.writeShort(level.min()[i]);
+                    data.writeShort(level.max()[i]);
+                }
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * Lee el formato de write(); los picos de 8 bits se devuelven escalados a 16
+     */
+    public static Waveform read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC || data.readUnsignedByte() != VERSION) {
+            throw new IOException("Not a waveform file");
+        }
+        int bits = data.readUnsignedByte();
+        data.readShort();
+        int sampleRate = data.readInt();
+        long samples = data.readLong();
+        int count = data.readUnsignedShort();
+        int[][] shapes = new int[count][2];
+        for (int[] shape : shapes) {
+            shape[0] = data.readInt();
+            shape[1] = data.readInt();
+        }
+        List<Level> levels = new ArrayList<>(count);
+        for (int[] shape : shapes) {
+            short[] min = new short[shape[1]];
+            short[] max = new short[shape[1]];
+            for (int i = 0; i < shape[1]; i++) {
+                min[i] = bits == 8 ? (short) (data.readByte() << 8) : data.readShort();
+                max[i] = bits == 8 ? (short) (data.readByte() << 8) : data.readShort();
+            }
+            levels.add(new Level(shape[0], min, max));
+        }
+        return new Waveform(sampleRate, samples, levels);
+    }
+}
@@ -0,0 +1,199 @@
+package org.podhub.podhub.audio;
+
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.JavaLayerException;
+import javazoom.jl.decoder.SampleBuffer;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Decodifica un fichero de audio completo una sola vez y calcula su Waveform.
+ * MP3 (MPEG layer I/II/III) se decodifica con JLayer; WAV, AIFF y AU con javax.sound.
+ * Los canales se mezclan a mono; el nivel 0 tiene peaksPerSecond picos por segundo y los
+ * demás se derivan de él agrupando Waveform.FACTOR picos, sin volver a leer el audio.
+ */
+public final class WaveformGenerator {
+
+    private static final int BUFFER_FRAMES = 4096;
+
+    private WaveformGenerator() {
+    }
+
+    /**
+     * @return Vacío si el formato no se puede decodificar (M4A/AAC, por ejemplo)
+     */
+    public static Optional<Waveform> generate(Path file, int peaksPerSecond, int levels) throws IOException {
+        if (peaksPerSecond <= 0 || levels <= 0) {
+            throw new IllegalArgumentException("peaksPerSecond and levels must be positive");
+        }
+        Optional<Waveform> sampled = generateSampled(file, peaksPerSecond, levels);
+        return sampled.isPresent() ? sampled : generateMpeg(file, peaksPerSecond, levels);
+    }
+
+    /**
+     * WAV, AIFF y AU: PCM convertido a 16 bits con signo, little-endian
+     */
+    private static Optional<Waveform> generateSampled(Path file, int peaksPerSecond, int levels) throws IOException {
+        AudioInputStream source;
+        try {
+            source = AudioSystem.getAudioInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        } catch (UnsupportedAudioFileException e) {
+            return Optional.empty();
+        }
+        try (AudioInputStream in = toPcm16(source)) {
+            AudioFormat format = in.getFormat();
+            int channels = format.getChannels();
+            int sampleRate = (int) format.getSampleRate();
+            Peaks peaks = new Peaks(samplesPerPeak(sampleRate, peaksPerSecond));
+            byte[] buffer = new byte[BUFFER_FRAMES * channels * 2];
+            int pending = 0;
+            int read;
+            while ((read = in.read(buffer, pending, buffer.length - pending)) != -1) {
+                int available = pending + read;
+                int frames = available / (channels * 2);
+                for (int frame = 0; frame < frames; frame++) {
+                    int sum = 0;
+                    for (int channel = 0; channel < channels; channel++) {
+                        int offset = (frame * channels + channel) * 2;
+                        sum += (short) ((buffer[offset] & 0xFF) | (buffer[offset + 1] << 8));
+                    }
+                    peaks.add((short) (sum / channels));
+                }
+                // Un frame partido entre dos lecturas
+                pending = available - frames * channels * 2;
+                System.arraycopy(buffer, frames * channels * 2, buffer, 0, pending);
+            }
+            return Optional.of(peaks.toWaveform(sampleRate, levels));
+        }
+    }
+
+    private static AudioInputStream toPcm16(AudioInputStream in) throws IOException {
+        AudioFormat format = in.getFormat();
+        if (format.getEncoding() == AudioFormat.Encoding.PCM_SIGNED && format.getSampleSizeInBits() == 16
+                && !format.isBigEndian()) {
+            return in;
+        }
+        AudioFormat target = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, format.getSampleRate(), 16,
+                format.getChannels(), format.getChannels() * 2, format.getSampleRate(), false);
+        if (!AudioSystem.isConversionSupported(target, format)) {
+            in.close();
+            throw new IOException("Unsupported PCM encoding: " + format);
+        }
+        return AudioSystem.getAudioInputStream(target, in);
+    }
+
+    /**
+     * MPEG audio con JLayer, frame a frame; las etiquetas ID3v2 del principio las salta Bitstream
+     */
+    private static Optional<Waveform> generateMpeg(Path file, int peaksPerSecond, int levels) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 64 * 1024)) {
+            Bitstream bitstream = new Bitstream(in);
+            Decoder decoder = new Decoder();
+            Peaks peaks = null;
+            int sampleRate = 0;
+            try {
+                Header header;
+                while ((header = bitstream.readFrame()) != null) {
+                    SampleBuffer output = (SampleBuffer) decoder.decodeFrame(header, bitstream);
+                    if (peaks == null) {
+                        sampleRate = output.getSampleFrequency();
+                        peaks = new Peaks(samplesPerPeak(sampleRate, peaksPerSecond));
+                    }
+                    short[] samples = output.getBuffer();
+                    int channels = output.getChannelCount();
+                    int length = output.getBufferLength();
+                    for (int i = 0; i + channels <= length; i += channels) {
+                        int sum = 0;
+                        for (int channel = 0; channel < channels; channel++) {
+                            sum += samples[i + channel];
+                        }
+                        peaks.add((short) (sum / channels));
+                    }
+                    bitstream.closeFrame();
+                }
+            } catch (JavaLayerException e) {
+                // Sin ningún frame no es MPEG; con frames, el final truncado o corrupto se ignora
+                if (peaks == null) {
+                    return Optional.empty();
+                }
+            }
+            return peaks == null ? Optional.empty() : Optional.of(peaks.toWaveform(sampleRate, levels));
+        }
+    }
+
+    private static int samplesPerPeak(int sampleRate, int peaksPerSecond) {
+        return Math.max(1, sampleRate / peaksPerSecond);
+    }
+
+    /**
+     * Mínimo y máximo de cada bloque de samplesPerPeak muestras mono, en arrays que crecen por duplicación
+     */
+    private static final class Peaks {
+        private final int samplesPerPeak;
+        private short[] min = new short[1024];
+        private short[] max = new short[1024];
+        private int count;
+        private int inPeak;
+        private long samples;
+        private short low;
+        private short high;
+
+        Peaks(int samplesPerPeak) {
+            this.samplesPerPeak = samplesPerPeak;
+        }
+
+        void add(short sample) {
+            if (inPeak == 0) {
+                low = sample;
+                high = sample;
+            } else if (sample < low) {
+                low = sample;
+            } else if (sample > high) {
+                high = sample;
+            }
+            samples++;
+            if (++inPeak == samplesPerPeak) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (count == min.length) {
+                min = Arrays.copyOf(min, count * 2);
+                max = Arrays.copyOf(max, count * 2);
+            }
+            min[count] = low;
+            max[count] = high;
+            count++;
+            inPeak = 0;
+        }
+
+        Waveform toWaveform(int sampleRate, int levels) {
+            if (inPeak > 0) {
+                flush();
+            }
+            List<Waveform.Level> result = new ArrayList<>(levels);
+            Waveform.Level level = new Waveform.Level(samplesPerPeak, Arrays.copyOf(min, count), Arrays.copyOf(max, count));
+            result.add(level);
+            for (int i = 1; i < levels; i++) {
+                level = level.coarser();
+                result.add(level);
+            }
+            return new Waveform(sampleRate, samples, List.copyOf(result));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.podhub.podhub.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Feeds RSS ya generados y comprimidos con gzip, por podcastId (y slug -> podcastId para las URLs con slug).
+ * Un poll de un agregador que acierta en la caché no toca MongoDB ni vuelve a serializar XML.
+ *
+ * Hay que llamar a evict(podcastId) cuando cambia el podcast o cualquiera de sus episodios.
+ * Las entradas caducan además tras ttl, para que los episodios programados (publishAt futuro)
+ * aparezcan sin que nadie invalide.
+ */
+@Slf4j
+@Component
+public class FeedXmlCache {
+
+    private static final int STRIPES = 64;
+
+    /**
+     * @param gzip XML del feed comprimido con gzip
+     * @param etag ETag débil calculado sobre el XML sin comprimir
+     */
+    public record RenderedFeed(String podcastId, String slug, byte[] gzip, String etag,
+                               Instant lastModified, int items, Instant renderedAt) {
+    }
+
+    private final LruCache<String, RenderedFeed> feeds;
+    private final LruCache<String, String> podcastIdBySlug;
+    private final Duration ttl;
+
+    // Como en OwnershipResolver, un render solo se instala si nadie invalidó ese podcast mientras
+    // se generaba. Contadores por franja (hash del podcastId) para no crecer con el número de podcasts
+    private final AtomicLongArray evictions = new AtomicLongArray(STRIPES);
+
+    public FeedXmlCache(
+            @Value("${podhub.cache.feed.max-entries:2000}") int maxEntries,
+            @Value("${podhub.cache.feed.ttl-seconds:300}") long ttlSeconds) {
+        this.feeds = new LruCache<>(maxEntries);
+        this.podcastIdBySlug = new LruCache<>(maxEntries);
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    /**
+     * @param idOrSlug ID o slug del podcast, tal y como llega en la URL
+     * @return Feed vigente, o null si no está en caché o ha caducado
+     */
+    public RenderedFeed get(String idOrSlug) {
+        String podcastId = podcastIdBySlug.get(idOrSlug);
+        RenderedFeed feed = feeds.get(podcastId != null ? podcastId : idOrSlug);
+        if (feed == null || feed.renderedAt().plus(ttl).isBefore(Instant.now())) {
+            return null;
+        }
+        // El slug puede haber cambiado desde que se guardó el alias
+        if (!feed.podcastId().equals(idOrSlug) && !feed.slug().equals(idOrSlug)) {
+            return null;
+        }
+        return feed;
+    }
+
+    /**
+     * Sello que hay que pasar a put: se toma antes de leer de MongoDB
+     */
+    public long stamp(String podcastId) {
+        return evictions.get(stripe(podcastId));
+    }
+
+    public synchronized void put(RenderedFeed feed, long stamp) {
+        if (evictions.get(stripe(feed.podcastId())) == stamp) {
+            feeds.put(feed.podcastId(), feed);
+            podcastIdBySlug.put(feed.slug(), feed.podcastId());
+        }
+    }
+
+    public synchronized void evict(String podcastId) {
+        evictions.incrementAndGet(stripe(podcastId));
+        feeds.remove(podcastId);
+        log.debug("Evicted RSS feed of podcast {}", podcastId);
+    }
+
+    private static int stripe(String podcastId) {
+        return Math.floorMod(podcastId.hashCode(), STRIPES);
+    }
+}
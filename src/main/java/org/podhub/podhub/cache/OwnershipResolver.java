@@ -0,0 +1,118 @@
+package org.podhub.podhub.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.exception.ResourceNotFoundException;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.repository.EpisodeRepository;
+import org.podhub.podhub.repository.PodcastRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves who owns a podcast or an episode for permission checks.
+ * Caches episodeId -> podcastId and podcastId -> creatorId in bounded LRU maps,
+ * so an authorization check usually costs zero round trips. On a miss only the
+ * needed field is read (projected query).
+ *
+ * Callers must evict entries when a podcast or episode is deleted or changes owner.
+ */
+@Slf4j
+@Component
+public class OwnershipResolver {
+
+    private final PodcastRepository podcastRepository;
+    private final EpisodeRepository episodeRepository;
+    private final LruCache<String, String> podcastByEpisode;
+    private final LruCache<String, String> creatorByPodcast;
+
+    // Bumped on every eviction: a load is only installed if no eviction happened
+    // while it was reading from MongoDB, so a concurrent delete can't be undone
+    private final AtomicLong evictions = new AtomicLong();
+
+    public OwnershipResolver(
+            PodcastRepository podcastRepository,
+            EpisodeRepository episodeRepository,
+            @Value("${podhub.cache.ownership.max-entries:50000}") int maxEntries) {
+        this.podcastRepository = podcastRepository;
+        this.episodeRepository = episodeRepository;
+        this.podcastByEpisode = new LruCache<>(maxEntries);
+        this.creatorByPodcast = new LruCache<>(maxEntries);
+    }
+
+    /**
+     * @return ID of the user that created the podcast
+     * @throws ResourceNotFoundException if the podcast doesn't exist
+     */
+    public String creatorOfPodcast(String podcastId) {
+        String creatorId = creatorByPodcast.get(podcastId);
+        if (creatorId != null) {
+            return creatorId;
+        }
+
+        long stamp = evictions.get();
+        creatorId = podcastRepository.findCreatorIdById(podcastId)
+                .map(Podcast::getCreatorId)
+                .orElseThrow(() -> new ResourceNotFoundException("Podcast not found with id: " + podcastId));
+        installIfNotEvicted(creatorByPodcast, podcastId, creatorId, stamp);
+        return creatorId;
+    }
+
+    /**
+     * @return ID of the podcast the episode belongs to
+     * @throws ResourceNotFoundException if the episode doesn't exist
+     */
+    public String podcastOfEpisode(String episodeId) {
+        String podcastId = podcastByEpisode.get(episodeId);
+        if (podcastId != null) {
+            return podcastId;
+        }
+
+        long stamp = evictions.get();
+        podcastId = episodeRepository.findPodcastIdById(episodeId)
+                .map(Episode::getPodcastId)
+                .orElseThrow(() -> new ResourceNotFoundException("Episode not found with id: " + episodeId));
+        installIfNotEvicted(podcastByEpisode, episodeId, podcastId, stamp);
+        return podcastId;
+    }
+
+    /**
+     * @throws ResourceNotFoundException if the podcast doesn't exist
+     */
+    public boolean ownsPodcast(String userId, String podcastId) {
+        return creatorOfPodcast(podcastId).equals(userId);
+    }
+
+    /**
+     * @throws ResourceNotFoundException if the episode or its podcast don't exist
+     */
+    public boolean ownsEpisode(String userId, String episodeId) {
+        return ownsPodcast(userId, podcastOfEpisode(episodeId));
+    }
+
+    /**
+     * Must be called after a podcast is deleted or its creator changes
+     */
+    public synchronized void evictPodcast(String podcastId) {
+        evictions.incrementAndGet();
+        creatorByPodcast.remove(podcastId);
+        log.debug("Evicted ownership of podcast {}", podcastId);
+    }
+
+    /**
+     * Must be called after an episode is deleted or moved to another podcast
+     */
+    public synchronized void evictEpisode(String episodeId) {
+        evictions.incrementAndGet();
+        podcastByEpisode.remove(episodeId);
+        log.debug("Evicted ownership of episode {}", episodeId);
+    }
+
+    private synchronized void installIfNotEvicted(LruCache<String, String> cache, String key, String value, long stamp) {
+        if (evictions.get() == stamp) {
+            cache.put(key, value);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.podhub.podhub.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Request-scoped identity map (first-level cache) between services and repositories.
+ * Repeated lookups of the same document by id within one HTTP request return the same
+ * loaded instance instead of going back to MongoDB. Misses are remembered too.
+ *
+ * The map lives in the request attributes, so it is discarded with the request and
+ * never shared between requests. Outside a request (schedulers, seeders) every lookup
+ * goes straight to the loader.
+ *
+ * Services must {@link #put} what they save and {@link #evict} what they delete.
+ */
+@Component
+public class RequestEntityCache {
+
+    private static final String ATTRIBUTE = RequestEntityCache.class.getName();
+
+    // Marker for ids looked up in this request that don't exist
+    private static final Object MISSING = new Object();
+
+    private record Key(Class<?> type, String id) {
+    }
+
+    /**
+     * Returns the instance loaded earlier in this request, or loads it with the given loader
+     */
+    public <T> Optional<T> findById(Class<T> type, String id, Function<String, Optional<T>> loader) {
+        Map<Key, Object> entries = entries();
+        if (entries == null || id == null) {
+            return loader.apply(id);
+        }
+
+        Key key = new Key(type, id);
+        Object cached = entries.get(key);
+        if (cached == null) {
+            Optional<T> loaded = loader.apply(id);
+            entries.put(key, loaded.isPresent() ? loaded.get() : MISSING);
+            return loaded;
+        }
+        return cached == MISSING ? Optional.empty() : Optional.of(type.cast(cached));
+    }
+
+    /**
+     * Registers the current state of a document (after insert or save)
+     */
+    public <T> T put(Class<T> type, String id, T entity) {
+        Map<Key, Object> entries = entries();
+        if (entries != null && id != null) {
+            entries.put(new Key(type, id), entity);
+        }
+        return entity;
+    }
+
+    /**
+     * Forgets a document (after delete)
+     */
+    public void evict(Class<?> type, String id) {
+        Map<Key, Object> entries = entries();
+        if (entries != null) {
+            entries.remove(new Key(type, id));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Key, Object> entries() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<Key, Object> entries = (Map<Key, Object>) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (entries == null) {
+            entries = new HashMap<>();
+            attributes.setAttribute(ATTRIBUTE, entries, RequestAttributes.SCOPE_REQUEST);
+        }
+        return entries;
+    }
+}
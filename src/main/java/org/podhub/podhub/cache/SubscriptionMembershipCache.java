@@ -0,0 +1,150 @@
+package org.podhub.podhub.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.model.Subscription;
+import org.podhub.podhub.repository.SubscriptionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-user subscription membership set.
+ * Keeps, for the most recently active users, a sorted array with the IDs of the
+ * podcasts they are subscribed to, so "am I subscribed?" is a binary search in memory.
+ *
+ * Entries are loaded with a single projected query on a miss and kept current by
+ * {@link #onSubscribed} / {@link #onUnsubscribed}. Users with more subscriptions than
+ * the per-user limit are not cached and always fall back to MongoDB.
+ */
+@Slf4j
+@Component
+public class SubscriptionMembershipCache {
+
+    private static final int STRIPES = 64;
+
+    // Marker for users whose set exceeds the per-user limit: always checked in MongoDB
+    private static final String[] OVERSIZED = new String[0];
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final LruCache<String, String[]> memberships;
+    private final int maxPerUser;
+
+    // Write stamps per stripe of users: a load is only installed if no write
+    // for a user of the same stripe happened while it was reading from MongoDB
+    private final long[] writeStamps = new long[STRIPES];
+
+    public SubscriptionMembershipCache(
+            SubscriptionRepository subscriptionRepository,
+            @Value("${podhub.cache.subscriptions.max-users:10000}") int maxUsers,
+            @Value("${podhub.cache.subscriptions.max-per-user:5000}") int maxPerUser) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.memberships = new LruCache<>(maxUsers);
+        this.maxPerUser = maxPerUser;
+    }
+
+    /**
+     * Checks whether the user is subscribed to the podcast.
+     * Zero round trips when the user's membership set is cached.
+     */
+    public boolean isSubscribed(String userId, String podcastId) {
+        String[] podcastIds = memberships.get(userId);
+        if (podcastIds == null) {
+            podcastIds = load(userId);
+        }
+        if (podcastIds == OVERSIZED) {
+            return subscriptionRepository.existsByUserIdAndPodcastId(userId, podcastId);
+        }
+        return Arrays.binarySearch(podcastIds, podcastId) >= 0;
+    }
+
+    /**
+     * Records a new subscription in the cached set of the user (if cached).
+     * Must be called after the subscription has been written to MongoDB.
+     */
+    public void onSubscribed(String userId, String podcastId) {
+        synchronized (writeStamps) {
+            writeStamps[stripe(userId)]++;
+            memberships.computeIfPresent(userId, (id, current) -> insert(current, podcastId));
+        }
+    }
+
+    /**
+     * Removes a subscription from the cached set of the user (if cached).
+     * Must be called after the subscription has been deleted from MongoDB.
+     */
+    public void onUnsubscribed(String userId, String podcastId) {
+        synchronized (writeStamps) {
+            writeStamps[stripe(userId)]++;
+            memberships.computeIfPresent(userId, (id, current) -> delete(current, podcastId));
+        }
+    }
+
+    /**
+     * Loads the membership set of a user with one projected query.
+     *
+     * @return Sorted podcast IDs, or OVERSIZED if the user exceeds the per-user limit
+     */
+    private String[] load(String userId) {
+        long stamp;
+        synchronized (writeStamps) {
+            stamp = writeStamps[stripe(userId)];
+        }
+
+        List<Subscription> subscriptions =
+                subscriptionRepository.findPodcastIdsByUser(userId, Limit.of(maxPerUser + 1));
+        String[] podcastIds;
+        if (subscriptions.size() > maxPerUser) {
+            log.debug("User {} has more than {} subscriptions, not caching membership", userId, maxPerUser);
+            podcastIds = OVERSIZED;
+        } else {
+            podcastIds = subscriptions.stream()
+                    .map(Subscription::getPodcastId)
+                    .sorted()
+                    .toArray(String[]::new);
+        }
+
+        synchronized (writeStamps) {
+            if (writeStamps[stripe(userId)] == stamp) {
+                memberships.put(userId, podcastIds);
+            }
+        }
+        return podcastIds;
+    }
+
+    private static String[] insert(String[] current, String podcastId) {
+        if (current == OVERSIZED) {
+            return current;
+        }
+        int pos = Arrays.binarySearch(current, podcastId);
+        if (pos >= 0) {
+            return current;
+        }
+        int insertAt = -pos - 1;
+        String[] updated = new String[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, insertAt);
+        updated[insertAt] = podcastId;
+        System.arraycopy(current, insertAt, updated, insertAt + 1, current.length - insertAt);
+        return updated;
+    }
+
+    private static String[] delete(String[] current, String podcastId) {
+        if (current == OVERSIZED) {
+            return current;
+        }
+        int pos = Arrays.binarySearch(current, podcastId);
+        if (pos < 0) {
+            return current;
+        }
+        String[] updated = new String[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, pos);
+        System.arraycopy(current, pos + 1, updated, pos, current.length - pos - 1);
+        return updated;
+    }
+
+    private static int stripe(String userId) {
+        return Math.floorMod(userId.hashCode(), STRIPES);
+    }
+}
@@ -0,0 +1,37 @@
+package org.podhub.podhub.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.event.DomainEventExecutor;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Activa @Async para los oyentes de eventos de dominio (@TransactionalEventListener) y los ejecuta en el
+ * pool acotado de {@link DomainEventExecutor}, no en el ejecutor de hilos virtuales sin límite de Spring Boot.
+ */
+@Slf4j
+@Configuration
+@EnableAsync
+public class AsyncConfiguration implements AsyncConfigurer {
+
+    private final DomainEventExecutor domainEventExecutor;
+
+    public AsyncConfiguration(DomainEventExecutor domainEventExecutor) {
+        this.domainEventExecutor = domainEventExecutor;
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return domainEventExecutor.executor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        // La publicación queda incompleta y se reintenta: aquí solo se deja constancia
+        return (e, method, params) -> log.warn("Async listener {} failed: {}", method.getName(), e.getMessage());
+    }
+}
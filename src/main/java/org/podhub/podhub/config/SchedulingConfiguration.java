@@ -0,0 +1,12 @@
+package org.podhub.podhub.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Activa las tareas @Scheduled (p.ej. {@link org.podhub.podhub.service.FeedRefreshScheduler}).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
@@ -0,0 +1,39 @@
+package org.podhub.podhub.config;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.controller.ProgressSyncHandler;
+import org.podhub.podhub.security.JwtHandshakeInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import java.util.Arrays;
+
+/**
+ * Configuración de WebSocket:
+ * - /api/ws/progress (sincronización del progreso entre dispositivos), autenticado en el handshake.
+ * - Los buffers por sesión de Tomcat se ajustan en application.properties (server.servlet.context-parameters):
+ *   un ServletServerContainerFactoryBean exige el contenedor real y rompería los tests con MockMvc.
+ */
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfiguration implements WebSocketConfigurer {
+
+    private final ProgressSyncHandler progressSyncHandler;
+    private final JwtHandshakeInterceptor jwtHandshakeInterceptor;
+
+    @Value("${cors.allowed-origins:http://localhost:3000}")
+    private String allowedOrigins;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(progressSyncHandler, "/api/ws/progress")
+                .addInterceptors(jwtHandshakeInterceptor)
+                .setAllowedOrigins(Arrays.stream(allowedOrigins.split(","))
+                        .map(String::trim)
+                        .toArray(String[]::new));
+    }
+}
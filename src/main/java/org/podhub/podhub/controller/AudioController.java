@@ -0,0 +1,33 @@
+package org.podhub.podhub.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.service.AudioDeliveryService;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/audio")
+@RequiredArgsConstructor
+@Tag(name = "Audio", description = "Audio delivery endpoints")
+public class AudioController {
+
+    private final AudioDeliveryService audioDeliveryService;
+
+    /**
+     * GET /api/audio/{key}
+     * Sirve un fichero del almacenamiento local de audio (la clave puede contener '/')
+     * Público, como los enlaces enclosure de los feeds: reproductores y agregadores no envían JWT
+     * Soporta Range (simple y múltiple), If-Range, If-None-Match / If-Modified-Since y HEAD
+     */
+    @GetMapping("/{*key}")
+    @Operation(summary = "Stream audio file", description = "RFC 7233 byte ranges, zero-copy when the container supports sendfile")
+    public void getAudio(@PathVariable String key, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        audioDeliveryService.serve(key, request, response);
+    }
+}
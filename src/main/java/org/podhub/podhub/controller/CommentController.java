@@ -2,21 +2,22 @@ package org.podhub.podhub.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.dto.CommentThread;
 import org.podhub.podhub.dto.PaginatedResponse;
 import org.podhub.podhub.exception.BadRequestException;
-import org.podhub.podhub.exception.ResourceNotFoundException;
 import org.podhub.podhub.model.Comment;
-import org.podhub.podhub.model.User;
 import org.podhub.podhub.model.enums.CommentStatus;
 import org.podhub.podhub.model.enums.CommentTargetType;
-import org.podhub.podhub.repository.UserRepository;
+import org.podhub.podhub.security.CurrentUser;
 import org.podhub.podhub.service.CommentService;
+import org.podhub.podhub.service.ExportService;
+import org.podhub.podhub.util.NdjsonWriter;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 
@@ -26,7 +27,7 @@ import java.time.Instant;
 public class CommentController {
 
     private final CommentService commentService;
-    private final UserRepository userRepository;
+    private final ExportService exportService;
 
     /**
      * POST /api/comments
@@ -39,6 +40,44 @@ public class CommentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    /**
+     * GET /api/comments/threads?episodeId={id}&cursor={timestamp}&limit={number}&replies={number}
+     * Lista los hilos de un episodio (comentarios raíz, más recientes primero)
+     * con las primeras respuestas de cada hilo incluidas
+     */
+    @GetMapping("/threads")
+    public ResponseEntity<PaginatedResponse<CommentThread>> getEpisodeThreads(
+            @RequestParam String episodeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "3") int replies) {
+        if (limit < 1 || limit > 100) {
+            throw new BadRequestException("'limit' debe estar entre 1 y 100");
+        }
+        if (replies < 0 || replies > 20) {
+            throw new BadRequestException("'replies' debe estar entre 0 y 20");
+        }
+        Instant cursorInstant = cursor != null ? Instant.parse(cursor) : null;
+        return ResponseEntity.ok(commentService.findThreads(episodeId, cursorInstant, limit, replies));
+    }
+
+    /**
+     * GET /api/comments/export?episodeId={id}
+     * Volcado completo de los comentarios de un episodio en NDJSON (streaming)
+     * Solo el creador del podcast o un admin
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<StreamingResponseBody> exportEpisodeComments(
+            @RequestParam String episodeId,
+            CurrentUser currentUser) {
+        StreamingResponseBody body = exportService.exportEpisodeComments(episodeId, currentUser.id(), currentUser.admin());
+        return ResponseEntity.ok()
+                .contentType(NdjsonWriter.MEDIA_TYPE)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"comments-" + episodeId + ".ndjson\"")
+                .body(body);
+    }
+
     /**
      * GET /api/comments/{id}
      * Obtiene un comentario por ID
@@ -60,11 +99,8 @@ public class CommentController {
     public ResponseEntity<Comment> updateComment(
             @PathVariable String id,
             @Valid @RequestBody Comment comment,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        String email = userDetails.getUsername();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        String userId = user.getId();
+            CurrentUser currentUser) {
+        String userId = currentUser.id();
         Comment updated = commentService.updateComment(id, comment, userId);
         return ResponseEntity.ok(updated);
     }
@@ -78,11 +114,8 @@ public class CommentController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Void> deleteComment(
             @PathVariable String id,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        String email = userDetails.getUsername();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        String userId = user.getId();
+            CurrentUser currentUser) {
+        String userId = currentUser.id();
         commentService.deleteComment(id, userId);
         return ResponseEntity.noContent().build();
     }
@@ -7,21 +7,24 @@ import lombok.RequiredArgsConstructor;
 import org.podhub.podhub.dto.CountResponse;
 import org.podhub.podhub.dto.EpisodePatchRequest;
 import org.podhub.podhub.dto.PaginatedResponse;
-import org.podhub.podhub.exception.ResourceNotFoundException;
+import org.podhub.podhub.dto.RetentionCurve;
 import org.podhub.podhub.model.Episode;
 import org.podhub.podhub.model.EpisodeLike;
-import org.podhub.podhub.model.User;
-import org.podhub.podhub.repository.UserRepository;
+import org.podhub.podhub.security.CurrentUser;
+import org.podhub.podhub.service.CommentStreamService;
 import org.podhub.podhub.service.EpisodeService;
 import org.podhub.podhub.service.EpisodeLikeService;
+import org.podhub.podhub.service.RetentionService;
+import org.podhub.podhub.util.ETags;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.Instant;
+import java.util.Optional;
 
 @Tag(name = "Episodes", description = "Episode management endpoints")
 @RestController
@@ -31,7 +34,8 @@ public class EpisodeController {
 
     private final EpisodeService episodeService;
     private final EpisodeLikeService episodeLikeService;
-    private final UserRepository userRepository;
+    private final RetentionService retentionService;
+    private final CommentStreamService commentStreamService;
 
     /**
      * POST /api/episodes
@@ -42,11 +46,8 @@ public class EpisodeController {
     @PreAuthorize("hasAuthority('EPISODE_WRITE')")
     public ResponseEntity<Episode> createEpisode(
             @Valid @RequestBody Episode episode,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        String email = userDetails.getUsername();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        String userId = user.getId();
+            CurrentUser currentUser) {
+        String userId = currentUser.id();
         Episode created = episodeService.createEpisode(episode, userId);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
@@ -56,9 +57,16 @@ public class EpisodeController {
      * Obtiene los detalles de un episodio por su ID.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Episode> getEpisodeById(@PathVariable String id) {
+    public ResponseEntity<Episode> getEpisodeById(@PathVariable String id, WebRequest request) {
+        // Revalidación: solo id + updatedAt, sin cargar el documento completo (transcript incluido)
+        if (ETags.isConditional(request)) {
+            Optional<Episode> version = episodeService.findVersionById(id);
+            if (version.isPresent() && ETags.checkNotModified(request, id, version.get().getUpdatedAt())) {
+                return ETags.notModified();
+            }
+        }
         return episodeService.findById(id)
-                .map(ResponseEntity::ok)
+                .map(episode -> ETags.ok(episode, episode.getId(), episode.getUpdatedAt()))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -72,11 +80,8 @@ public class EpisodeController {
     public ResponseEntity<Episode> updateEpisode(
             @PathVariable String id,
             @Valid @RequestBody Episode episode,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        String email = userDetails.getUsername();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        String userId = user.getId();
+            CurrentUser currentUser) {
+        String userId = currentUser.id();
         Episode updated = episodeService.updateEpisode(id, episode, userId);
         return ResponseEntity.ok(updated);
     }
@@ -93,13 +98,8 @@ public class EpisodeController {
     public ResponseEntity<Episode> patchEpisode(
             @PathVariable String id,
             @Valid @RequestBody EpisodePatchRequest patchRequest,
-            @AuthenticationPrincipal UserDetails userDetails) {
-
-        String email = userDetails.getUsername();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        Episode patched = episodeService.patchEpisode(id, patchRequest, user.getId());
+            CurrentUser currentUser) {
+        Episode patched = episodeService.patchEpisode(id, patchRequest, currentUser.id());
         return ResponseEntity.ok(patched);
     }
 
@@ -112,11 +112,8 @@ public class EpisodeController {
     @PreAuthorize("hasAuthority('EPISODE_WRITE')")
     public ResponseEntity<Void> deleteEpisode(
             @PathVariable String id,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        String email = userDetails.getUsername();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        String userId = user.getId();
+            CurrentUser currentUser) {
+        String userId = currentUser.id();
         episodeService.deleteEpisode(id, userId);
         return ResponseEntity.noContent().build();
     }
@@ -142,7 +139,8 @@ public class EpisodeController {
             @RequestParam(required = false) String title) {
         Instant cursorInstant = cursor != null ? Instant.parse(cursor) : null;
         PaginatedResponse<Episode> response = episodeService.findAll(cursorInstant, limit, isPublic, podcastId, title);
-        return ResponseEntity.ok(response);
+        return ETags.okWeak(response,
+                ETags.weak(response.getData(), Episode::getId, Episode::getUpdatedAt, response.getNextCursor()));
     }
 
     /**
@@ -170,4 +168,30 @@ public class EpisodeController {
             return ResponseEntity.ok(response);
         }
     }
+
+    /**
+     * GET /api/episodes/{id}/analytics/retention
+     * Curva de retención del episodio: qué fracción de los oyentes llega a cada 1% de su duración
+     * y en qué punto lo dejan. Se lee de un histograma mantenido al guardar el progreso.
+     * Solo el creador del podcast o un admin.
+     */
+    @GetMapping("/{id}/analytics/retention")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<RetentionCurve> getRetention(
+            @PathVariable String id,
+            CurrentUser currentUser) {
+        return ResponseEntity.ok(retentionService.getRetention(id, currentUser.id(), currentUser.admin()));
+    }
+
+    /**
+     * GET /api/episodes/{id}/comments/stream
+     * Comentarios del episodio en directo (Server-Sent Events): eventos created, edited y deleted con el
+     * comentario en JSON, y un comentario ":ping" periódico. Al reconectar hay que volver a pedir la página
+     * de comentarios: los cambios de mientras no se reenvían.
+     */
+    @GetMapping("/{id}/comments/stream")
+    @PreAuthorize("isAuthenticated()")
+    public SseEmitter streamComments(@PathVariable String id) {
+        return commentStreamService.subscribe(id);
+    }
 }
@@ -0,0 +1,28 @@
+package org.podhub.podhub.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.dto.DomainEventStats;
+import org.podhub.podhub.event.DomainEventMonitor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+public class EventController {
+
+    private final DomainEventMonitor domainEventMonitor;
+
+    /**
+     * GET /api/events/stats
+     * Entrega de eventos de dominio: retraso por tipo, cola del ejecutor y publicaciones pendientes (solo ADMIN)
+     */
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DomainEventStats> getStats() {
+        return ResponseEntity.ok(domainEventMonitor.stats());
+    }
+}
@@ -0,0 +1,58 @@
+package org.podhub.podhub.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.model.FeedImport;
+import org.podhub.podhub.security.CurrentUser;
+import org.podhub.podhub.service.FeedImportService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@RequestMapping("/api/imports")
+@RequiredArgsConstructor
+public class FeedImportController {
+
+    private final FeedImportService feedImportService;
+
+    /**
+     * POST /api/imports (multipart: file, podcastId?, publish?)
+     * Importa un feed RSS 2.0/iTunes o Atom en segundo plano
+     * Sin podcastId se crea un podcast nuevo con los datos del canal
+     * Responde 202 con la importación; el progreso se consulta en GET /api/imports/{id}
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<FeedImport> startImport(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String podcastId,
+            @RequestParam(defaultValue = "false") boolean publish,
+            CurrentUser currentUser) {
+        FeedImport started = feedImportService.startImport(file, podcastId, publish, currentUser.id());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(started);
+    }
+
+    /**
+     * GET /api/imports/{id}
+     * Estado y contadores (itemsProcessed, inserted, duplicates, skipped) de una importación
+     */
+    @GetMapping("/{id}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<FeedImport> getImport(@PathVariable String id, CurrentUser currentUser) {
+        return ResponseEntity.ok(feedImportService.findById(id, currentUser.id(), currentUser.admin()));
+    }
+
+    /**
+     * POST /api/imports/{id}/resume
+     * Reanuda una importación fallida o interrumpida desde su último checkpoint
+     */
+    @PostMapping("/{id}/resume")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<FeedImport> resumeImport(@PathVariable String id, CurrentUser currentUser) {
+        FeedImport resumed = feedImportService.resume(id, currentUser.id(), currentUser.admin());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(resumed);
+    }
+}
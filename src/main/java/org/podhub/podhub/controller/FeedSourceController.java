@@ -0,0 +1,64 @@
+package org.podhub.podhub.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.dto.FeedSourceRequest;
+import org.podhub.podhub.model.FeedSource;
+import org.podhub.podhub.security.CurrentUser;
+import org.podhub.podhub.service.FeedRefreshService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/podcasts/{podcastId}/source")
+@RequiredArgsConstructor
+public class FeedSourceController {
+
+    private final FeedRefreshService feedRefreshService;
+
+    /**
+     * PUT /api/podcasts/{podcastId}/source
+     * Registra o cambia el feed RSS/Atom de origen del podcast (solo su creador)
+     * Los episodios nuevos del feed se importan periódicamente
+     */
+    @PutMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<FeedSource> setSource(
+            @PathVariable String podcastId,
+            @Valid @RequestBody FeedSourceRequest request,
+            CurrentUser currentUser) {
+        return ResponseEntity.ok(feedRefreshService.register(podcastId, request, currentUser.id()));
+    }
+
+    /**
+     * GET /api/podcasts/{podcastId}/source
+     * Estado del feed de origen (última consulta, errores, próxima consulta)
+     */
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<FeedSource> getSource(@PathVariable String podcastId, CurrentUser currentUser) {
+        return ResponseEntity.ok(feedRefreshService.findByPodcastId(podcastId, currentUser.id()));
+    }
+
+    /**
+     * DELETE /api/podcasts/{podcastId}/source
+     * Deja de sincronizar el podcast con su feed (los episodios ya importados se conservan)
+     */
+    @DeleteMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Void> deleteSource(@PathVariable String podcastId, CurrentUser currentUser) {
+        feedRefreshService.unregister(podcastId, currentUser.id());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * POST /api/podcasts/{podcastId}/source/refresh
+     * Consulta el feed ahora, sin esperar al scheduler
+     */
+    @PostMapping("/refresh")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<FeedSource> refreshSource(@PathVariable String podcastId, CurrentUser currentUser) {
+        return ResponseEntity.ok(feedRefreshService.refreshNow(podcastId, currentUser.id()));
+    }
+}
@@ -4,24 +4,39 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.cache.FeedXmlCache.RenderedFeed;
 import org.podhub.podhub.dto.CountResponse;
 import org.podhub.podhub.dto.PaginatedResponse;
 import org.podhub.podhub.dto.PodcastPatchRequest;
-import org.podhub.podhub.exception.ResourceNotFoundException;
+import org.podhub.podhub.dto.Recommendation;
 import org.podhub.podhub.model.Podcast;
 import org.podhub.podhub.model.Subscription;
-import org.podhub.podhub.model.User;
-import org.podhub.podhub.repository.UserRepository;
+import org.podhub.podhub.security.CurrentUser;
+import org.podhub.podhub.service.ExportService;
+import org.podhub.podhub.service.PodcastFeedService;
 import org.podhub.podhub.service.PodcastService;
+import org.podhub.podhub.service.RecommendationService;
 import org.podhub.podhub.service.SubscriptionService;
+import org.podhub.podhub.util.ETags;
+import org.podhub.podhub.util.NdjsonWriter;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
 @Tag(name = "Podcasts", description = "Podcast management endpoints")
 @RestController
@@ -31,7 +46,9 @@ public class PodcastController {
 
     private final PodcastService podcastService;
     private final SubscriptionService subscriptionService;
-    private final UserRepository userRepository;
+    private final ExportService exportService;
+    private final PodcastFeedService podcastFeedService;
+    private final RecommendationService recommendationService;
 
     /**
      * POST /api/podcasts
@@ -42,14 +59,8 @@ public class PodcastController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Podcast> createPodcast(
             @Valid @RequestBody Podcast podcast,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        String email = userDetails.getUsername(); // Username es el email del usuario autenticado
-
-        // Buscar usuario por email para obtener su ID de MongoDB
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        String userId = user.getId();
+            CurrentUser currentUser) {
+        String userId = currentUser.id();
         Podcast created = podcastService.createPodcast(podcast, userId);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
@@ -58,14 +69,53 @@ public class PodcastController {
      * GET /api/podcasts/{idOrSlug}
      * Obtiene un podcast por ID o slug (URLs amigables)
      * Intenta primero como ID, si no existe intenta como slug
+     * Soporta If-None-Match / If-Modified-Since: 304 sin cargar el documento completo
      */
     @GetMapping("/{idOrSlug}")
-    public ResponseEntity<Podcast> getPodcast(@PathVariable String idOrSlug) {
+    public ResponseEntity<Podcast> getPodcast(@PathVariable String idOrSlug, WebRequest request) {
+        if (ETags.isConditional(request)) {
+            Optional<Podcast> version = podcastService.findVersionByIdOrSlug(idOrSlug);
+            if (version.isPresent() && ETags.checkNotModified(request, version.get().getId(), version.get().getUpdatedAt())) {
+                return ETags.notModified();
+            }
+        }
         return podcastService.findByIdOrSlug(idOrSlug)
-                .map(ResponseEntity::ok)
+                .map(podcast -> ETags.ok(podcast, podcast.getId(), podcast.getUpdatedAt()))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * GET /api/podcasts/{idOrSlug}/feed.xml
+     * Feed RSS 2.0 (+ iTunes) de un podcast público, sin autenticación (lo consumen los agregadores)
+     * Se sirve desde caché ya comprimido con gzip; a clientes sin Accept-Encoding: gzip se les descomprime
+     * Soporta If-None-Match / If-Modified-Since: 304 sin tocar MongoDB mientras el feed siga en caché
+     */
+    @GetMapping("/{idOrSlug}/feed.xml")
+    public ResponseEntity<byte[]> getFeed(
+            @PathVariable String idOrSlug,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+        RenderedFeed feed = podcastFeedService.getFeed(idOrSlug);
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+        if (request.checkNotModified(feed.etag(), feed.lastModified().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(feed.etag())
+                .lastModified(feed.lastModified())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_TYPE, "application/rss+xml;charset=UTF-8");
+        if (acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(feed.gzip());
+        }
+        return response.body(gunzip(feed.gzip()));
+    }
+
     /**
      * PUT /api/podcasts/{id}
      * Actualiza un podcast existente
@@ -76,11 +126,8 @@ public class PodcastController {
     public ResponseEntity<Podcast> updatePodcast(
             @PathVariable String id,
             @Valid @RequestBody Podcast podcast,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        String email = userDetails.getUsername();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        String userId = user.getId();
+            CurrentUser currentUser) {
+        String userId = currentUser.id();
         Podcast updated = podcastService.updatePodcast(id, podcast, userId);
         return ResponseEntity.ok(updated);
     }
@@ -97,13 +144,8 @@ public class PodcastController {
     public ResponseEntity<Podcast> patchPodcast(
             @PathVariable String id,
             @Valid @RequestBody PodcastPatchRequest patchRequest,
-            @AuthenticationPrincipal UserDetails userDetails) {
-
-        String email = userDetails.getUsername();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        Podcast patched = podcastService.patchPodcast(id, patchRequest, user.getId());
+            CurrentUser currentUser) {
+        Podcast patched = podcastService.patchPodcast(id, patchRequest, currentUser.id());
         return ResponseEntity.ok(patched);
     }
 
@@ -116,11 +158,8 @@ public class PodcastController {
     @PreAuthorize("hasAuthority('PODCAST_WRITE')")
     public ResponseEntity<Void> deletePodcast(
             @PathVariable String id,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        String email = userDetails.getUsername();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        String userId = user.getId();
+            CurrentUser currentUser) {
+        String userId = currentUser.id();
         podcastService.deletePodcast(id, userId);
         return ResponseEntity.noContent().build();
     }
@@ -146,7 +185,8 @@ public class PodcastController {
             @RequestParam(required = false) String title) {
         Instant cursorInstant = cursor != null ? Instant.parse(cursor) : null;
         PaginatedResponse<Podcast> response = podcastService.findAll(cursorInstant, limit, isPublic, creatorId, title);
-        return ResponseEntity.ok(response);
+        return ETags.okWeak(response,
+                ETags.weak(response.getData(), Podcast::getId, Podcast::getUpdatedAt, response.getNextCursor()));
     }
 
     /**
@@ -174,4 +214,57 @@ public class PodcastController {
             return ResponseEntity.ok(response);
         }
     }
+
+    /**
+     * GET /api/podcasts/{podcastId}/similar?limit={number}&by={listeners|content}
+     * Podcasts públicos que también escuchan los oyentes de este (co-escucha), de más a menos parecido,
+     * completados con los parecidos por contenido; by limita a una de las dos fuentes
+     */
+    @GetMapping("/{podcastId}/similar")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<Recommendation>> getSimilarPodcasts(
+            @PathVariable String podcastId,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String by) {
+        return ResponseEntity.ok(recommendationService.similar(podcastId, limit, by));
+    }
+
+    /**
+     * GET /api/podcasts/{podcastId}/subscribers/export
+     * Volcado completo de los suscriptores de un podcast en NDJSON (streaming)
+     * Solo el creador del podcast o un admin
+     */
+    @GetMapping(value = "/{podcastId}/subscribers/export", produces = "application/x-ndjson")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<StreamingResponseBody> exportPodcastSubscribers(
+            @PathVariable String podcastId,
+            CurrentUser currentUser) {
+        StreamingResponseBody body = exportService.exportPodcastSubscribers(podcastId, currentUser.id(), currentUser.admin());
+        return ResponseEntity.ok()
+                .contentType(NdjsonWriter.MEDIA_TYPE)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"subscribers-" + podcastId + ".ndjson\"")
+                .body(body);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // "gzip;q=0" es un rechazo explícito
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gunzip(byte[] gzip) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,36 @@
+package org.podhub.podhub.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.security.JwtHandshakeInterceptor;
+import org.podhub.podhub.service.ProgressSyncService;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+/**
+ * WebSocket /api/ws/progress: recibe el progreso de escucha que guardan los otros dispositivos del usuario.
+ * El cliente solo escucha; el progreso se sigue guardando con PUT /api/users/{userId}/progress/{episodeId}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProgressSyncHandler extends TextWebSocketHandler {
+
+    private static final String UNREGISTER = "progressSyncUnregister";
+
+    private final ProgressSyncService progressSyncService;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        String userId = (String) session.getAttributes().get(JwtHandshakeInterceptor.USER_ID);
+        String deviceId = (String) session.getAttributes().get(JwtHandshakeInterceptor.DEVICE_ID);
+        session.getAttributes().put(UNREGISTER, progressSyncService.register(session, userId, deviceId));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        if (session.getAttributes().remove(UNREGISTER) instanceof Runnable unregister) {
+            unregister.run();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.podhub.podhub.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.dto.StorageStats;
+import org.podhub.podhub.storage.BlobStore;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/storage")
+@RequiredArgsConstructor
+public class StorageController {
+
+    private final BlobStore blobStore;
+
+    /**
+     * GET /api/storage/stats
+     * Blobs de audio guardados, referencias y bytes ahorrados por la deduplicación (solo ADMIN)
+     */
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StorageStats> getStats() {
+        return ResponseEntity.ok(blobStore.stats());
+    }
+}
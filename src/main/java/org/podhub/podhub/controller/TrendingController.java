@@ -0,0 +1,42 @@
+package org.podhub.podhub.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.dto.TrendingItem;
+import org.podhub.podhub.service.TrendingService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for trending podcasts and episodes.
+ * Base path: /api/trending
+ */
+@RestController
+@RequestMapping("/api/trending")
+@RequiredArgsConstructor
+public class TrendingController {
+
+    private final TrendingService trendingService;
+
+    /**
+     * GET /api/trending?type={podcast|episode}&category={category}&limit={number}
+     * Public podcasts or episodes with the most recent activity (subscriptions, likes, comments,
+     * completed episodes), each event losing half its weight every podhub.trending.half-life-ms.
+     * Served from a list precomputed every few seconds
+     *
+     * @param type podcast (default) or episode
+     * @param category Optional podcast category (case-insensitive)
+     * @param limit Number of items (default: 20, max: 50)
+     * @return Trending items, highest score first
+     */
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<TrendingItem>> getTrending(
+            @RequestParam(defaultValue = "podcast") String type,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(trendingService.trending(type, category, limit));
+    }
+}
@@ -0,0 +1,115 @@
+package org.podhub.podhub.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.dto.UploadSessionRequest;
+import org.podhub.podhub.model.UploadSession;
+import org.podhub.podhub.security.CurrentUser;
+import org.podhub.podhub.service.UploadService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/uploads")
+@RequiredArgsConstructor
+public class UploadController {
+
+    // Cabeceras del protocolo tus
+    static final String UPLOAD_OFFSET = "Upload-Offset";
+    static final String UPLOAD_LENGTH = "Upload-Length";
+    static final String OFFSET_OCTET_STREAM = "application/offset+octet-stream";
+
+    private final UploadService uploadService;
+
+    /**
+     * POST /api/uploads
+     * Abre una subida reanudable del audio de un episodio (solo el creador del podcast)
+     * Responde 201 con Location: /api/uploads/{id}, a donde se envían los trozos
+     */
+    @PostMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<UploadSession> createUpload(
+            @Valid @RequestBody UploadSessionRequest request,
+            CurrentUser currentUser) {
+        UploadSession session = uploadService.create(request, currentUser.id());
+        return ResponseEntity.created(URI.create("/api/uploads/" + session.getId()))
+                .header(UPLOAD_OFFSET, "0")
+                .header(UPLOAD_LENGTH, session.getLength().toString())
+                .body(session);
+    }
+
+    /**
+     * HEAD /api/uploads/{id}
+     * Offset actual (Upload-Offset) desde el que el cliente debe reanudar
+     */
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Void> getOffset(@PathVariable String id, CurrentUser currentUser) {
+        UploadSession session = uploadService.findById(id, currentUser.id());
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header(UPLOAD_OFFSET, session.getOffset().toString())
+                .header(UPLOAD_LENGTH, session.getLength().toString())
+                .build();
+    }
+
+    /**
+     * GET /api/uploads/{id}
+     * Estado de la subida (offset, estado, SHA-256 y audioUrl al completarse)
+     */
+    @GetMapping("/{id}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<UploadSession> getUpload(@PathVariable String id, CurrentUser currentUser) {
+        return ResponseEntity.ok(uploadService.findById(id, currentUser.id()));
+    }
+
+    /**
+     * PATCH /api/uploads/{id} (Content-Type: application/offset+octet-stream, Upload-Offset: n)
+     * Añade un trozo a partir de Upload-Offset; el cuerpo se escribe a disco en streaming
+     * Responde 204 con el nuevo Upload-Offset; 409 si el offset no es el actual
+     */
+    @PatchMapping(value = "/{id}", consumes = OFFSET_OCTET_STREAM)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Void> appendChunk(
+            @PathVariable String id,
+            @RequestHeader(UPLOAD_OFFSET) long offset,
+            HttpServletRequest request,
+            CurrentUser currentUser) throws IOException {
+        UploadSession session = uploadService.appendChunk(id, offset, request.getInputStream(), currentUser.id());
+        return ResponseEntity.status(HttpStatus.NO_CONTENT)
+                .header(UPLOAD_OFFSET, session.getOffset().toString())
+                .build();
+    }
+
+    /**
+     * POST /api/uploads/{id}/complete?sha256=
+     * Cierra la subida y asocia el fichero al episodio (Episode.audioUrl)
+     * Si se envía sha256 se comprueba contra el hash calculado al recibir los trozos
+     */
+    @PostMapping("/{id}/complete")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<UploadSession> completeUpload(
+            @PathVariable String id,
+            @RequestParam(required = false) String sha256,
+            CurrentUser currentUser) {
+        return ResponseEntity.ok(uploadService.complete(id, sha256, currentUser.id()));
+    }
+
+    /**
+     * DELETE /api/uploads/{id}
+     * Cancela la subida y borra los bytes recibidos
+     */
+    @DeleteMapping("/{id}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Void> abortUpload(@PathVariable String id, CurrentUser currentUser) {
+        uploadService.abort(id, currentUser.id());
+        return ResponseEntity.noContent().build();
+    }
+}
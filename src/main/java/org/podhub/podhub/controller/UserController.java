@@ -13,15 +13,21 @@ import org.podhub.podhub.model.User;
 import org.podhub.podhub.model.enums.UserRole;
 import org.podhub.podhub.model.enums.UserStatus;
 import org.podhub.podhub.repository.RoleRepository;
+import org.podhub.podhub.security.CurrentUser;
+import org.podhub.podhub.service.ExportService;
 import org.podhub.podhub.service.UserService;
+import org.podhub.podhub.util.ETags;
+import org.podhub.podhub.util.NdjsonWriter;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
+import java.util.Optional;
 
 @Tag(name = "Users", description = "User management endpoints")
 @RestController
@@ -31,6 +37,7 @@ public class UserController {
 
     private final UserService userService;
     private final RoleRepository roleRepository;
+    private final ExportService exportService;
 
     /**
      * POST /api/users
@@ -47,9 +54,15 @@ public class UserController {
      * Obtiene un usuario por ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable String id) {
+    public ResponseEntity<User> getUserById(@PathVariable String id, WebRequest request) {
+        if (ETags.isConditional(request)) {
+            Optional<User> version = userService.findVersionById(id);
+            if (version.isPresent() && ETags.checkNotModified(request, id, version.get().getUpdatedAt())) {
+                return ETags.notModified();
+            }
+        }
         return userService.findById(id)
-                .map(ResponseEntity::ok)
+                .map(user -> ETags.ok(user, user.getId(), user.getUpdatedAt()))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -82,16 +95,9 @@ public class UserController {
     public ResponseEntity<User> patchUser(
             @PathVariable String id,
             @Valid @RequestBody UserPatchRequest patchRequest,
-            @AuthenticationPrincipal UserDetails userDetails) {
-
-        String email = userDetails.getUsername();
-        User currentUser = userService.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+            CurrentUser currentUser) {
 
-        boolean isAdmin = userDetails.getAuthorities().stream()
-                .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
-
-        User patched = userService.patchUser(id, patchRequest, currentUser.getId(), isAdmin);
+        User patched = userService.patchUser(id, patchRequest, currentUser.id(), currentUser.admin());
         return ResponseEntity.ok(patched);
     }
 
@@ -146,6 +152,21 @@ public class UserController {
         }
 
         PaginatedResponse<User> response = userService.findAll(cursorInstant, limit, name, roleId, status);
-        return ResponseEntity.ok(response);
+        return ETags.okWeak(response,
+                ETags.weak(response.getData(), User::getId, User::getUpdatedAt, response.getNextCursor()));
+    }
+
+    /**
+     * GET /api/users/export
+     * Volcado completo de usuarios en NDJSON (streaming, sin passwordHash)
+     * Solo admin
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return ResponseEntity.ok()
+                .contentType(NdjsonWriter.MEDIA_TYPE)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"")
+                .body(exportService.exportUsers());
     }
 }
@@ -0,0 +1,46 @@
+package org.podhub.podhub.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.dto.CreatorDashboard;
+import org.podhub.podhub.exception.ForbiddenException;
+import org.podhub.podhub.security.CurrentUser;
+import org.podhub.podhub.service.DashboardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the creator dashboard.
+ * Base path: /api/users/{userId}/dashboard
+ */
+@RestController
+@RequestMapping("/api/users/{userId}/dashboard")
+@RequiredArgsConstructor
+public class UserDashboardController {
+
+    private final DashboardService dashboardService;
+
+    /**
+     * GET /api/users/{userId}/dashboard?from={yyyy-MM-dd}&to={yyyy-MM-dd}
+     * New subscribers, likes, comments, listeners and completed episodes of every podcast the user created,
+     * in total, per day and per podcast. Read from pre-aggregated daily rollups (UTC days)
+     * Only the user themself or an admin
+     *
+     * @param userId The creator ID
+     * @param from First day (default: 29 days before to)
+     * @param to Last day, included (default: today)
+     * @return Dashboard for the range (at most 366 days)
+     */
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<CreatorDashboard> getDashboard(
+            @PathVariable String userId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            CurrentUser currentUser) {
+        if (!currentUser.admin() && !currentUser.id().equals(userId)) {
+            throw new ForbiddenException("You can only see your own dashboard");
+        }
+        return ResponseEntity.ok(dashboardService.dashboard(userId, from, to));
+    }
+}
@@ -0,0 +1,41 @@
+package org.podhub.podhub.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.dto.EpisodeState;
+import org.podhub.podhub.dto.EpisodeStateRequest;
+import org.podhub.podhub.service.EpisodeStateService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * REST controller for bulk per-user episode state.
+ * Replaces one HEAD like check plus one progress GET per episode when rendering a list.
+ * Base path: /api/users/{userId}/episode-state
+ */
+@RestController
+@RequestMapping("/api/users/{userId}/episode-state")
+@RequiredArgsConstructor
+public class UserEpisodeStateController {
+
+    private final EpisodeStateService episodeStateService;
+
+    /**
+     * POST /api/users/{userId}/episode-state
+     * Get liked/progress/completed state for up to 200 episodes
+     *
+     * @param userId The user ID (from path)
+     * @param request Request body containing the episode IDs
+     * @return Map of episodeId to {liked, positionSeconds, completed}
+     */
+    @PostMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, EpisodeState>> getEpisodeStates(
+            @PathVariable String userId,
+            @Valid @RequestBody EpisodeStateRequest request) {
+        return ResponseEntity.ok(episodeStateService.findStates(userId, request.getEpisodeIds()));
+    }
+}
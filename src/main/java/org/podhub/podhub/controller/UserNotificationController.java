@@ -0,0 +1,69 @@
+package org.podhub.podhub.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.dto.CountResponse;
+import org.podhub.podhub.dto.NotificationPage;
+import org.podhub.podhub.exception.ForbiddenException;
+import org.podhub.podhub.security.CurrentUser;
+import org.podhub.podhub.service.NotificationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+
+/**
+ * REST controller for user notifications.
+ * Base path: /api/users/{userId}/notifications
+ */
+@RestController
+@RequestMapping("/api/users/{userId}/notifications")
+@RequiredArgsConstructor
+public class UserNotificationController {
+
+    private final NotificationService notificationService;
+
+    /**
+     * GET /api/users/{userId}/notifications?cursor={timestamp}&limit={number}
+     * Notifications of a user, newest first, with cursor-based pagination and the number of unread ones
+     * Only the user themself or an admin
+     *
+     * @param userId The user ID
+     * @param cursor Optional timestamp cursor for pagination
+     * @param limit Page size (default: 20)
+     * @return Paginated list of notifications with the unread count
+     */
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<NotificationPage> getNotifications(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            CurrentUser currentUser) {
+        checkAccess(userId, currentUser);
+        Instant cursorInstant = cursor != null ? Instant.parse(cursor) : null;
+        return ResponseEntity.ok(notificationService.findByUserId(userId, cursorInstant, limit));
+    }
+
+    /**
+     * POST /api/users/{userId}/notifications/read
+     * Marks every unread notification of the user as read
+     *
+     * @param userId The user ID
+     * @return Number of notifications marked
+     */
+    @PostMapping("/read")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<CountResponse> markAllRead(
+            @PathVariable String userId,
+            CurrentUser currentUser) {
+        checkAccess(userId, currentUser);
+        return ResponseEntity.ok(new CountResponse(notificationService.markAllRead(userId)));
+    }
+
+    private static void checkAccess(String userId, CurrentUser currentUser) {
+        if (!currentUser.admin() && !currentUser.id().equals(userId)) {
+            throw new ForbiddenException("You can only see your own notifications");
+        }
+    }
+}
@@ -32,6 +32,7 @@ public class UserProgressController {
      * @param userId The user ID (from path)
      * @param episodeId The episode ID (from path)
      * @param request Request body containing positionSeconds and completed flag
+     * @param deviceId Optional device that saves the progress; it is pushed to the user's other devices only
      * @return Created/updated progress
      */
     @PutMapping("/{episodeId}")
@@ -39,12 +40,14 @@ public class UserProgressController {
     public ResponseEntity<ListeningProgress> upsertProgress(
             @PathVariable String userId,
             @PathVariable String episodeId,
-            @Valid @RequestBody ProgressRequest request) {
+            @Valid @RequestBody ProgressRequest request,
+            @RequestHeader(value = "X-Device-Id", required = false) String deviceId) {
         ListeningProgress saved = listeningProgressService.upsert(
                 userId,
                 episodeId,
                 request.getPositionSeconds(),
-                request.getCompleted()
+                request.getCompleted(),
+                deviceId
         );
         return ResponseEntity.ok(saved);
     }
@@ -0,0 +1,46 @@
+package org.podhub.podhub.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.dto.Recommendation;
+import org.podhub.podhub.exception.ForbiddenException;
+import org.podhub.podhub.security.CurrentUser;
+import org.podhub.podhub.service.RecommendationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for personalized podcast recommendations.
+ * Base path: /api/users/{userId}/recommendations
+ */
+@RestController
+@RequestMapping("/api/users/{userId}/recommendations")
+@RequiredArgsConstructor
+public class UserRecommendationController {
+
+    private final RecommendationService recommendationService;
+
+    /**
+     * GET /api/users/{userId}/recommendations?limit={number}
+     * Public podcasts recommended from what the user's co-listeners follow,
+     * excluding the ones the user already follows; most popular podcasts for new users
+     * Only the user themself or an admin
+     *
+     * @param userId The user ID
+     * @param limit Number of recommendations (default: 20, max: 50)
+     * @return Recommended podcasts with their score
+     */
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<Recommendation>> getRecommendations(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "20") int limit,
+            CurrentUser currentUser) {
+        if (!currentUser.admin() && !currentUser.id().equals(userId)) {
+            throw new ForbiddenException("You can only see your own recommendations");
+        }
+        return ResponseEntity.ok(recommendationService.recommend(userId, limit));
+    }
+}
@@ -30,7 +30,7 @@ public class UserSubscriptionController {
      * Subscribe a user to a podcast
      *
      * @param userId The user ID (from path)
-     * @param request Request body containing podcastId
+     * @param request Request body containing podcastId and optionally notifications (default: true)
      * @return Created subscription
      */
     @PostMapping
@@ -38,7 +38,7 @@ public class UserSubscriptionController {
     public ResponseEntity<Subscription> subscribe(
             @PathVariable String userId,
             @Valid @RequestBody SubscriptionRequest request) {
-        Subscription created = subscriptionService.subscribe(userId, request.getPodcastId());
+        Subscription created = subscriptionService.subscribe(userId, request.getPodcastId(), request.getNotifications());
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
@@ -62,6 +62,23 @@ public class UserSubscriptionController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * GET /api/users/{userId}/subscriptions/{podcastId}
+     * Check if a user is subscribed to a podcast (for existence check)
+     *
+     * @param userId The user ID
+     * @param podcastId The podcast ID
+     * @return 200 OK if subscribed, 404 Not Found if not
+     */
+    @GetMapping("/{podcastId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Void> checkSubscriptionExists(
+            @PathVariable String userId,
+            @PathVariable String podcastId) {
+        boolean exists = subscriptionService.isSubscribed(userId, podcastId);
+        return exists ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+    }
+
     /**
      * DELETE /api/users/{userId}/subscriptions/{podcastId}
      * Unsubscribe a user from a podcast
@@ -0,0 +1,52 @@
+package org.podhub.podhub.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.audio.Waveform;
+import org.podhub.podhub.service.WaveformService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/waveforms")
+@RequiredArgsConstructor
+@Tag(name = "Audio", description = "Audio delivery endpoints")
+public class WaveformController {
+
+    // Direccionado por el hash del audio: el contenido de una URL no cambia nunca
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+    private static final MediaType WAVEFORM = MediaType.parseMediaType(Waveform.CONTENT_TYPE);
+
+    private final WaveformService waveformService;
+
+    /**
+     * GET /api/waveforms/{sha256}
+     * Picos de la forma de onda del audio con ese hash (Episode.audioSha256), en el formato binario de Waveform
+     * Público, como el audio; 202 (sin cuerpo) si aún se están generando
+     */
+    @GetMapping("/{sha256}")
+    @Operation(summary = "Get waveform peaks", description = "Binary min/max peaks at several zoom levels; 202 while they are generated")
+    public ResponseEntity<Resource> getWaveform(@PathVariable String sha256) {
+        return waveformService.find(sha256)
+                .<ResponseEntity<Resource>>map(peaks -> ResponseEntity.ok()
+                        .contentType(WAVEFORM)
+                        .cacheControl(IMMUTABLE)
+                        .eTag("\"" + sha256 + "-" + waveformService.getBits() + "\"")
+                        .body(new FileSystemResource(peaks)))
+                .orElseGet(() -> ResponseEntity.accepted()
+                        .header(HttpHeaders.RETRY_AFTER, "5")
+                        .build());
+    }
+}
@@ -0,0 +1,22 @@
+package org.podhub.podhub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.podhub.podhub.model.Comment;
+
+import java.util.List;
+
+/**
+ * Comentario raíz de un hilo junto con las primeras respuestas del hilo
+ * (en orden de materialized path). comment.replyCount indica cuántas respuestas directas hay.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentThread {
+    private Comment comment;
+    private List<Comment> replies;
+}
@@ -0,0 +1,51 @@
+package org.podhub.podhub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Panel del creador entre from y to (fechas UTC, ambas incluidas): totales, serie diaria y desglose por podcast
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreatorDashboard {
+    private String from;
+    private String to;
+    private Counts totals;
+    private List<Day> days;
+    private List<PodcastStats> podcasts;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Counts {
+        private long subscribers;
+        private long likes;
+        private long comments;
+        private long listeners;
+        private long completions;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Day {
+        private String day;
+        private Counts counts;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PodcastStats {
+        private String podcastId;
+        private String title;
+        private Counts counts;
+    }
+}
@@ -0,0 +1,62 @@
+package org.podhub.podhub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Estado de la entrega de eventos de dominio.
+ * Los contadores por tipo son de este nodo desde su arranque; las publicaciones incompletas salen del
+ * registro compartido (event_publication), así que incluyen las de todos los nodos.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DomainEventStats {
+    private Executor executor;
+    private List<EventType> types;
+    private Long incomplete;
+    private Long oldestIncompleteAgeMs;
+    private List<Listener> incompleteByListener;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Executor {
+        private Integer active;
+        private Integer poolSize;
+        private Integer maxPoolSize;
+        private Integer queued;
+        private Integer queueCapacity;
+    }
+
+    /**
+     * lag: desde que ocurrió la escritura hasta que un oyente empezó a procesar el evento
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EventType {
+        private String type;
+        private Long published;
+        private Long delivered;
+        private Long failed;
+        private Long lastLagMs;
+        private Long avgLagMs;
+        private Long maxLagMs;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Listener {
+        private String listenerId;
+        private Long incomplete;
+        private Instant oldestPublishedAt;
+    }
+}
@@ -0,0 +1,22 @@
+package org.podhub.podhub.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact state of one episode for one user.
+ * positionSeconds is omitted when the user has no listening progress on the episode.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EpisodeState {
+    private boolean liked;
+    private Integer positionSeconds;
+    private boolean completed;
+}
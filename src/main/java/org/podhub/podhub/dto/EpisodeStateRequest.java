@@ -0,0 +1,26 @@
+package org.podhub.podhub.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for bulk per-user episode state lookups.
+ * Carries the episode IDs of one page of the episode list (max 200).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EpisodeStateRequest {
+
+    @NotEmpty(message = "At least one episode ID is required")
+    @Size(max = 200, message = "Cannot request more than 200 episodes at once")
+    private List<@NotBlank(message = "Episode ID cannot be blank") String> episodeIds;
+}
@@ -0,0 +1,31 @@
+package org.podhub.podhub.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para registrar o cambiar el feed de origen de un podcast
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedSourceRequest {
+
+    @NotBlank(message = "Feed URL is required")
+    @Pattern(regexp = "^https?://.+", message = "Feed URL must be an http(s) URL")
+    private String url;
+
+    @Min(value = 5, message = "Refresh interval must be at least 5 minutes")
+    @Max(value = 1440, message = "Refresh interval cannot exceed 1440 minutes")
+    private Integer intervalMinutes;
+
+    // Visibilidad de los episodios nuevos (por defecto privados, como al crear un episodio)
+    private Boolean publish;
+}
@@ -0,0 +1,24 @@
+package org.podhub.podhub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.podhub.podhub.model.Notification;
+
+import java.util.List;
+
+/**
+ * Página de notificaciones de un usuario (como PaginatedResponse) con el total sin leer
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPage {
+    private List<Notification> data;
+    private String nextCursor;
+    private boolean hasMore;
+    private int count;
+    private long unread;
+}
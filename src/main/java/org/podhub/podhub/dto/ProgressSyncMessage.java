@@ -0,0 +1,27 @@
+package org.podhub.podhub.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Progress of one episode pushed to the other devices of a user over /api/ws/progress.
+ * deviceId is the device that saved it (omitted when it was saved without X-Device-Id).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProgressSyncMessage {
+    private String type;
+    private String episodeId;
+    private Integer positionSeconds;
+    private Boolean completed;
+    private String deviceId;
+    private Instant updatedAt;
+}
@@ -0,0 +1,21 @@
+package org.podhub.podhub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.podhub.podhub.model.Podcast;
+
+/**
+ * Podcast recomendado, su puntuación (0 si viene de los más populares) y de dónde sale:
+ * "listeners" (co-escucha), "content" (parecido por contenido) o "popular"
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Recommendation {
+    private Podcast podcast;
+    private Double score;
+    private String source;
+}
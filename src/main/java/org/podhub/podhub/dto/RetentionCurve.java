@@ -0,0 +1,27 @@
+package org.podhub.podhub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Curva de retención de un episodio: retention[i] es la fracción de oyentes que llegó al menos al i%
+ * de durationSec (i = 0..100; retention[100] es la fracción que lo terminó) y dropOffs[i] cuántos
+ * se quedaron en el i% sin terminarlo
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetentionCurve {
+    private String episodeId;
+    private Integer durationSec;
+    private Long listeners;
+    private Integer completed;
+    private double[] retention;
+    private int[] dropOffs;
+    private Instant updatedAt;
+}
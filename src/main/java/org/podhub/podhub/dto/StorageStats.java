@@ -0,0 +1,23 @@
+package org.podhub.podhub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resumen del almacenamiento de audio direccionado por contenido.
+ * logicalBytes es lo que ocuparía guardar una copia por referencia; savedBytes = logicalBytes - storedBytes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorageStats {
+    private Long blobs;
+    private Long unreferencedBlobs;
+    private Long references;
+    private Long storedBytes;
+    private Long logicalBytes;
+    private Long savedBytes;
+}
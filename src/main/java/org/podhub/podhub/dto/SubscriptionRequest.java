@@ -13,4 +13,9 @@ import lombok.NoArgsConstructor;
 public class SubscriptionRequest {
     @NotBlank(message = "Podcast ID is required")
     private String podcastId;
+
+    /**
+     * Notificar los episodios nuevos del podcast (por defecto sí)
+     */
+    private Boolean notifications;
 }
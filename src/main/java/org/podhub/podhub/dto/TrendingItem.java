@@ -0,0 +1,24 @@
+package org.podhub.podhub.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.Podcast;
+
+/**
+ * Podcast o episodio en tendencia con su puntuación (suma de los pesos de sus eventos con decaimiento);
+ * los episodios llevan también su podcast
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TrendingItem {
+    private Podcast podcast;
+    private Episode episode;
+    private Double score;
+}
@@ -0,0 +1,31 @@
+package org.podhub.podhub.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para abrir una subida reanudable del audio de un episodio
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionRequest {
+
+    @NotBlank(message = "Episode ID is required")
+    private String episodeId;
+
+    // Tamaño total del fichero en bytes
+    @NotNull(message = "Upload length is required")
+    @Positive(message = "Upload length must be positive")
+    private Long length;
+
+    private String fileName;
+
+    private String contentType;
+}
@@ -0,0 +1,17 @@
+package org.podhub.podhub.event;
+
+import org.podhub.podhub.model.CommentTarget;
+import org.podhub.podhub.model.enums.CommentTargetType;
+
+import java.time.Instant;
+
+/**
+ * Comentario nuevo (raíz o respuesta) sobre un podcast o un episodio
+ */
+public record CommentPosted(String commentId, String userId, CommentTargetType targetType, String targetId,
+                            String parentId, Instant occurredAt) implements DomainEvent {
+
+    public CommentTarget target() {
+        return new CommentTarget(targetType, targetId);
+    }
+}
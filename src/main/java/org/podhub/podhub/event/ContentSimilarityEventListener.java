@@ -0,0 +1,61 @@
+package org.podhub.podhub.event;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.repository.PodcastRepository;
+import org.podhub.podhub.service.ContentSimilarityService;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Mantiene al día el índice de contenido con los podcasts creados, editados y borrados.
+ * Lee el podcast al procesar el evento: si ya se ha editado o borrado se indexa su estado actual, así que
+ * el orden en que lleguen los eventos de un mismo podcast no importa.
+ *
+ * PodcastChanged y PodcastDeleted no pasan por el registro de publicaciones (@EventListener, no
+ * @TransactionalEventListener): el PATCH de un podcast sigue siendo un único findAndModify, sin el insert de
+ * la publicación. Si alguno se pierde (caída del nodo) el índice, que está en memoria, lo recoge en la
+ * siguiente reconstrucción de RecommendationRebuildScheduler.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContentSimilarityEventListener {
+
+    private final ContentSimilarityService contentSimilarityService;
+    private final PodcastRepository podcastRepository;
+    private final DomainEventMonitor monitor;
+
+    @Async
+    @TransactionalEventListener
+    public void on(PodcastCreated event) {
+        monitor.handleInTransaction(event, () -> {
+            Podcast podcast = podcastRepository.findById(event.podcastId()).orElse(null);
+            if (podcast != null) {
+                contentSimilarityService.onPodcastCreated(podcast);
+            } else {
+                contentSimilarityService.onPodcastDeleted(event.podcastId());
+            }
+        });
+    }
+
+    @Async
+    @EventListener
+    public void on(PodcastChanged event) {
+        monitor.handle(event, () -> {
+            Podcast podcast = podcastRepository.findById(event.podcastId()).orElse(null);
+            if (podcast != null) {
+                contentSimilarityService.onPodcastChanged(podcast);
+            } else {
+                contentSimilarityService.onPodcastDeleted(event.podcastId());
+            }
+        });
+    }
+
+    @Async
+    @EventListener
+    public void on(PodcastDeleted event) {
+        monitor.handle(event, () -> contentSimilarityService.onPodcastDeleted(event.podcastId()));
+    }
+}
@@ -0,0 +1,60 @@
+package org.podhub.podhub.event;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.service.DashboardService;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Cuenta en los DailyRollup del panel del creador las suscripciones, likes, comentarios, oyentes y
+ * episodios terminados.
+ * Cada evento se cuenta una sola vez aunque se entregue varias veces: la clave que se registra con la suma
+ * sale de su contenido (los eventos son records y se reconstruyen iguales del registro de publicaciones).
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardEventListener {
+
+    private final DashboardService dashboardService;
+    private final DomainEventMonitor monitor;
+
+    @Async
+    @TransactionalEventListener
+    public void on(Subscribed event) {
+        monitor.handleInTransaction(event, () -> dashboardService.onSubscribed(key(event), event.podcastId()));
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void on(EpisodeLiked event) {
+        monitor.handleInTransaction(event, () -> dashboardService.onEpisodeLiked(key(event), event.episodeId()));
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void on(CommentPosted event) {
+        monitor.handleInTransaction(event, () -> dashboardService.onCommented(key(event), event.target()));
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void on(ProgressUpdated event) {
+        monitor.handleInTransaction(event,
+                () -> dashboardService.onEpisodeListened(key(event), event.episodeId(), event.previousUpdatedAt()));
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void on(EpisodeCompleted event) {
+        monitor.handleInTransaction(event, () -> dashboardService.onEpisodeCompleted(key(event), event.episodeId()));
+    }
+
+    private static String key(DomainEvent event) {
+        return event.getClass().getSimpleName() + ":"
+                + UUID.nameUUIDFromBytes(event.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,25 @@
+package org.podhub.podhub.event;
+
+import java.time.Instant;
+
+/**
+ * Evento de dominio publicado por los servicios al confirmar una escritura.
+ *
+ * Se publican con ApplicationEventPublisher dentro de la transacción de la escritura: el registro de
+ * publicaciones de Spring Modulith (colección event_publication) guarda una publicación por oyente en
+ * esa misma transacción y los oyentes (@Async @TransactionalEventListener) la procesan después del
+ * commit en el ejecutor de eventos, en una transacción propia que se repite si choca con otra
+ * (DomainEventMonitor.handleInTransaction). Una publicación solo se marca completada si su oyente termina
+ * sin error, así que la entrega es al menos una vez: los oyentes deben tolerar algún duplicado.
+ *
+ * Excepción: PodcastChanged y PodcastDeleted solo alimentan el índice de contenido, que está en memoria y se
+ * reconstruye periódicamente. Sus oyentes son @Async @EventListener, sin publicación en el registro, para que
+ * editar un podcast siga siendo una sola escritura (ver ContentSimilarityEventListener).
+ */
+public interface DomainEvent {
+
+    /**
+     * Momento de la escritura que generó el evento (el retraso de un oyente se mide desde aquí)
+     */
+    Instant occurredAt();
+}
@@ -0,0 +1,68 @@
+package org.podhub.podhub.event;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Pool acotado en el que se ejecutan los oyentes asíncronos de eventos de dominio
+ * (ver {@link org.podhub.podhub.config.AsyncConfiguration}).
+ *
+ * Con la cola llena el evento lo procesa el hilo que lo publicó (después del commit de su escritura):
+ * frena a los productores en lugar de perder eventos o acumular memoria sin límite. No se registra
+ * como bean Executor para no sustituir al applicationTaskExecutor de Spring Boot.
+ */
+@Component
+public class DomainEventExecutor {
+
+    private final ThreadPoolTaskExecutor executor;
+
+    public DomainEventExecutor(
+            @Value("${podhub.events.executor.core-size:4}") int coreSize,
+            @Value("${podhub.events.executor.max-size:16}") int maxSize,
+            @Value("${podhub.events.executor.queue-capacity:10000}") int queueCapacity,
+            @Value("${podhub.events.executor.shutdown-await-seconds:30}") int shutdownAwaitSeconds) {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, coreSize));
+        executor.setMaxPoolSize(Math.max(Math.max(1, coreSize), maxSize));
+        executor.setQueueCapacity(Math.max(0, queueCapacity));
+        executor.setThreadNamePrefix("domain-events-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // Lo que quede en la cola al parar se vuelve a publicar al arrancar (publicaciones incompletas)
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(shutdownAwaitSeconds);
+        executor.initialize();
+    }
+
+    public ThreadPoolTaskExecutor executor() {
+        return executor;
+    }
+
+    public int activeCount() {
+        return executor.getActiveCount();
+    }
+
+    public int poolSize() {
+        return executor.getPoolSize();
+    }
+
+    public int maxPoolSize() {
+        return executor.getMaxPoolSize();
+    }
+
+    public int queued() {
+        return executor.getQueueSize();
+    }
+
+    public int queueCapacity() {
+        return executor.getQueueCapacity();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,158 @@
+package org.podhub.podhub.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.podhub.podhub.dto.DomainEventStats;
+import org.podhub.podhub.util.TransientTransactions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de la entrega de eventos de dominio: publicados, entregados, fallidos y retraso por tipo
+ * (en memoria, de este nodo) y publicaciones incompletas del registro de Spring Modulith.
+ *
+ * Los oyentes envuelven su trabajo en {@link #handle}, que mide el retraso desde occurredAt y cuenta
+ * el resultado sin tragarse el error: la publicación tiene que quedar incompleta para reintentarse.
+ * {@link #handleInTransaction} además abre una transacción por intento y repite los que fallan con
+ * TransientTransactionError (WriteConflict de dos $inc sobre la misma fila de contadores), en vez de dejar
+ * la publicación para el reenvío de EventRepublishScheduler minutos después.
+ */
+@Slf4j
+@Component
+public class DomainEventMonitor {
+
+    private final MongoTemplate mongoTemplate;
+    private final DomainEventExecutor executor;
+    private final String publicationCollection;
+    private final TransactionTemplate transactionTemplate;
+    private final int transactionAttempts;
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public DomainEventMonitor(
+            MongoTemplate mongoTemplate,
+            DomainEventExecutor executor,
+            PlatformTransactionManager transactionManager,
+            @Value("${podhub.events.publication-collection:event_publication}") String publicationCollection,
+            @Value("${podhub.events.transaction-attempts:5}") int transactionAttempts) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = executor;
+        this.publicationCollection = publicationCollection;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionAttempts = transactionAttempts;
+    }
+
+    /**
+     * Oyente síncrono: cuenta cada evento publicado (haya o no oyentes asíncronos para él)
+     */
+    @EventListener
+    public void onPublished(DomainEvent event) {
+        counters(event).published.increment();
+    }
+
+    /**
+     * Procesa un evento en un oyente y registra su retraso y su resultado
+     */
+    public void handle(DomainEvent event, Runnable action) {
+        Counters counters = counters(event);
+        long lag = event.occurredAt() != null
+                ? Math.max(0, Duration.between(event.occurredAt(), Instant.now()).toMillis())
+                : 0;
+        counters.lagTotal.add(lag);
+        counters.lagSamples.increment();
+        counters.lastLag.set(lag);
+        counters.maxLag.accumulate(lag);
+        try {
+            action.run();
+            counters.delivered.increment();
+        } catch (RuntimeException e) {
+            counters.failed.increment();
+            log.warn("Listener for {} failed, the publication stays incomplete: {}",
+                    event.getClass().getSimpleName(), e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Como {@link #handle}, con el trabajo en una transacción propia que se repite (hasta
+     * podhub.events.transaction-attempts veces) si falla con un error transitorio
+     */
+    public void handleInTransaction(DomainEvent event, Runnable action) {
+        handle(event, () -> TransientTransactions.retry(transactionAttempts,
+                () -> transactionTemplate.execute(status -> {
+                    action.run();
+                    return null;
+                })));
+    }
+
+    public DomainEventStats stats() {
+        List<DomainEventStats.EventType> types = new ArrayList<>();
+        new TreeMap<>(counters).forEach((type, c) -> {
+            long samples = c.lagSamples.sum();
+            types.add(new DomainEventStats.EventType(type, c.published.sum(), c.delivered.sum(), c.failed.sum(),
+                    c.lastLag.get(), samples > 0 ? c.lagTotal.sum() / samples : 0, c.maxLag.get()));
+        });
+
+        // Con completion-mode=delete el registro solo guarda las pendientes; el filtro cubre también el modo update
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("completionDate").is(null)),
+                Aggregation.group("listenerId").count().as("incomplete").min("publicationDate").as("oldest"),
+                Aggregation.sort(Sort.Direction.DESC, "incomplete"));
+        List<DomainEventStats.Listener> listeners = new ArrayList<>();
+        long incomplete = 0;
+        Instant oldest = null;
+        for (Document row : mongoTemplate.aggregate(aggregation, publicationCollection, Document.class)) {
+            long count = ((Number) row.get("incomplete")).longValue();
+            Date date = row.getDate("oldest");
+            Instant oldestOfListener = date != null ? date.toInstant() : null;
+            listeners.add(new DomainEventStats.Listener(row.getString("_id"), count, oldestOfListener));
+            incomplete += count;
+            if (oldestOfListener != null && (oldest == null || oldestOfListener.isBefore(oldest))) {
+                oldest = oldestOfListener;
+            }
+        }
+
+        return DomainEventStats.builder()
+                .executor(new DomainEventStats.Executor(executor.activeCount(), executor.poolSize(),
+                        executor.maxPoolSize(), executor.queued(), executor.queueCapacity()))
+                .types(types)
+                .incomplete(incomplete)
+                .oldestIncompleteAgeMs(oldest != null ? Duration.between(oldest, Instant.now()).toMillis() : null)
+                .incompleteByListener(listeners)
+                .build();
+    }
+
+    private Counters counters(DomainEvent event) {
+        return counters.computeIfAbsent(event.getClass().getSimpleName(), type -> new Counters());
+    }
+
+    private static final class Counters {
+        final LongAdder published = new LongAdder();
+        final LongAdder delivered = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder lagTotal = new LongAdder();
+        final LongAdder lagSamples = new LongAdder();
+        final AtomicLong lastLag = new AtomicLong();
+        final LongAccumulator maxLag = new LongAccumulator(Math::max, 0);
+    }
+}
@@ -0,0 +1,10 @@
+package org.podhub.podhub.event;
+
+import java.time.Instant;
+
+/**
+ * Un oyente ha terminado un episodio (su progreso pasa a completed).
+ * Se publica junto al ProgressUpdated para que quien solo necesita los terminados no reciba cada guardado.
+ */
+public record EpisodeCompleted(String userId, String episodeId, Instant occurredAt) implements DomainEvent {
+}
@@ -0,0 +1,9 @@
+package org.podhub.podhub.event;
+
+import java.time.Instant;
+
+/**
+ * Un episodio ha pasado a ser público (creado público o isPublic de false a true)
+ */
+public record EpisodePublished(String episodeId, String podcastId, Instant occurredAt) implements DomainEvent {
+}
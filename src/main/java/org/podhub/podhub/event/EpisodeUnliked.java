@@ -0,0 +1,6 @@
+package org.podhub.podhub.event;
+
+import java.time.Instant;
+
+public record EpisodeUnliked(String userId, String episodeId, Instant occurredAt) implements DomainEvent {
+}
@@ -0,0 +1,29 @@
+package org.podhub.podhub.event;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.service.NotificationService;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Notifica a los suscriptores los episodios recién publicados.
+ *
+ * Es un @TransactionalEventListener asíncrono (también pasa por el registro de publicaciones) como los demás
+ * oyentes, pero sin handleInTransaction: el reparto puede escribir un millón de documentos y no cabe en una
+ * transacción.
+ * NotificationService guarda su propio checkpoint y no duplica notificaciones al repetirse.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationEventListener {
+
+    private final NotificationService notificationService;
+    private final DomainEventMonitor monitor;
+
+    @Async
+    @TransactionalEventListener
+    public void on(EpisodePublished event) {
+        monitor.handle(event, () -> notificationService.fanOut(event.episodeId(), event.podcastId(), event.occurredAt()));
+    }
+}
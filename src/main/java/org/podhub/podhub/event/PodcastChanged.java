@@ -0,0 +1,9 @@
+package org.podhub.podhub.event;
+
+import java.time.Instant;
+
+/**
+ * Han cambiado los datos de un podcast (PUT o PATCH)
+ */
+public record PodcastChanged(String podcastId, Instant occurredAt) implements DomainEvent {
+}
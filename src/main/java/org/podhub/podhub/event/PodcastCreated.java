@@ -0,0 +1,6 @@
+package org.podhub.podhub.event;
+
+import java.time.Instant;
+
+public record PodcastCreated(String podcastId, String creatorId, Instant occurredAt) implements DomainEvent {
+}
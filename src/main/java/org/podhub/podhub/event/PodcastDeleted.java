@@ -0,0 +1,6 @@
+package org.podhub.podhub.event;
+
+import java.time.Instant;
+
+public record PodcastDeleted(String podcastId, Instant occurredAt) implements DomainEvent {
+}
@@ -0,0 +1,10 @@
+package org.podhub.podhub.event;
+
+import java.time.Instant;
+
+/**
+ * Se ha borrado el progreso de un oyente en un episodio (con el estado que tenía)
+ */
+public record ProgressDeleted(String userId, String episodeId, int furthestPositionSeconds, boolean completed,
+                              Instant occurredAt) implements DomainEvent {
+}
@@ -0,0 +1,17 @@
+package org.podhub.podhub.event;
+
+import java.time.Instant;
+
+/**
+ * Un oyente ha guardado su progreso en un episodio.
+ * Lleva también el estado anterior para que los oyentes no tengan que leerlo (y no dependa del orden
+ * en que se procesen los eventos del mismo oyente).
+ *
+ * @param furthestPositionSeconds Posición más lejana alcanzada tras el cambio
+ * @param previousFurthest        Posición más lejana antes del cambio, o null si es su primer progreso
+ * @param previousUpdatedAt       Anterior guardado del progreso, o null si es el primero
+ */
+public record ProgressUpdated(String userId, String episodeId, int positionSeconds, int furthestPositionSeconds,
+                              boolean completed, Integer previousFurthest, boolean previousCompleted,
+                              Instant previousUpdatedAt, Instant occurredAt) implements DomainEvent {
+}
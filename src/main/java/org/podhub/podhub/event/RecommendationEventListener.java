@@ -0,0 +1,38 @@
+package org.podhub.podhub.event;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.service.RecommendationService;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Alimenta el modelo de co-escucha con suscripciones, likes y episodios terminados
+ */
+@Component
+@RequiredArgsConstructor
+public class RecommendationEventListener {
+
+    private final RecommendationService recommendationService;
+    private final DomainEventMonitor monitor;
+
+    @Async
+    @TransactionalEventListener
+    public void on(Subscribed event) {
+        monitor.handleInTransaction(event, () -> recommendationService.onSubscribed(event.userId(), event.podcastId()));
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void on(EpisodeLiked event) {
+        monitor.handleInTransaction(event,
+                () -> recommendationService.onEpisodeLiked(event.userId(), event.episodeId()));
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void on(EpisodeCompleted event) {
+        monitor.handleInTransaction(event,
+                () -> recommendationService.onEpisodeCompleted(event.userId(), event.episodeId()));
+    }
+}
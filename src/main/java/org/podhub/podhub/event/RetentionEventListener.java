@@ -0,0 +1,33 @@
+package org.podhub.podhub.event;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.service.RetentionService;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Mueve a los oyentes entre tramos del histograma de retención cuando cambia o se borra su progreso
+ */
+@Component
+@RequiredArgsConstructor
+public class RetentionEventListener {
+
+    private final RetentionService retentionService;
+    private final DomainEventMonitor monitor;
+
+    @Async
+    @TransactionalEventListener
+    public void on(ProgressUpdated event) {
+        monitor.handleInTransaction(event, () -> retentionService.onProgressChanged(event.episodeId(),
+                event.previousFurthest(), event.previousCompleted(), event.furthestPositionSeconds(),
+                event.completed()));
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void on(ProgressDeleted event) {
+        monitor.handleInTransaction(event, () -> retentionService.onProgressDeleted(event.episodeId(),
+                event.furthestPositionSeconds(), event.completed()));
+    }
+}
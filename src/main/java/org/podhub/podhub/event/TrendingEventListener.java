@@ -0,0 +1,42 @@
+package org.podhub.podhub.event;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.service.TrendingService;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Suma a las tendencias las suscripciones, likes, comentarios y episodios terminados
+ */
+@Component
+@RequiredArgsConstructor
+public class TrendingEventListener {
+
+    private final TrendingService trendingService;
+    private final DomainEventMonitor monitor;
+
+    @Async
+    @TransactionalEventListener
+    public void on(Subscribed event) {
+        monitor.handleInTransaction(event, () -> trendingService.onSubscribed(event.podcastId()));
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void on(EpisodeLiked event) {
+        monitor.handleInTransaction(event, () -> trendingService.onEpisodeLiked(event.episodeId()));
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void on(CommentPosted event) {
+        monitor.handleInTransaction(event, () -> trendingService.onCommented(event.target()));
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void on(EpisodeCompleted event) {
+        monitor.handleInTransaction(event, () -> trendingService.onEpisodeCompleted(event.episodeId()));
+    }
+}
@@ -0,0 +1,6 @@
+package org.podhub.podhub.event;
+
+import java.time.Instant;
+
+public record Unsubscribed(String userId, String podcastId, Instant occurredAt) implements DomainEvent {
+}
@@ -0,0 +1,18 @@
+package org.podhub.podhub.feed;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Metadatos del canal (RSS &lt;channel&gt; / Atom &lt;feed&gt;) tal y como vienen en el feed
+ */
+@Data
+@NoArgsConstructor
+public class FeedChannel {
+    private String title;
+    private String description;
+    private String language;
+    private String category;
+    private String imageUrl;
+    private Boolean explicit;
+}
@@ -0,0 +1,77 @@
+package org.podhub.podhub.feed;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.podhub.podhub.model.Episode;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Un elemento del feed (RSS &lt;item&gt; / Atom &lt;entry&gt;) ya normalizado
+ */
+@Data
+@NoArgsConstructor
+public class FeedItem {
+    private String guid;
+    private String title;
+    private String description;
+    private String link;
+    private String audioUrl;
+    private Integer durationSec;
+    private Integer season;
+    private Integer number;
+    private Boolean explicit;
+    private Instant publishAt;
+
+    /**
+     * Clave estable para deduplicar: guid, o en su defecto la URL del audio, el enlace
+     * o título + fecha (feeds antiguos sin guid)
+     */
+    public String dedupeKey() {
+        if (guid != null && !guid.isBlank()) {
+            return guid.trim();
+        }
+        if (audioUrl != null && !audioUrl.isBlank()) {
+            return audioUrl.trim();
+        }
+        if (link != null && !link.isBlank()) {
+            return link.trim();
+        }
+        return title + "|" + publishAt;
+    }
+
+    /**
+     * SHA-256 (hex) de dedupeKey: es lo que se guarda en Episode.guidHash
+     */
+    public String guidHash() {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(dedupeKey().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Episodio con los campos del item; createdAt/updatedAt los pone quien lo guarda
+     */
+    public Episode toEpisode(String podcastId, Boolean isPublic) {
+        return Episode.builder()
+                .podcastId(podcastId)
+                .title(title != null ? title : "Untitled episode")
+                .description(description)
+                .audioUrl(audioUrl)
+                .durationSec(durationSec)
+                .season(season)
+                .number(number)
+                .explicit(explicit)
+                .publishAt(publishAt)
+                .isPublic(isPublic)
+                .guidHash(guidHash())
+                .build();
+    }
+}
@@ -0,0 +1,350 @@
+package org.podhub.podhub.feed;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Parser en streaming (StAX) de feeds RSS 2.0 con extensiones iTunes, y de feeds Atom.
+ * Lee el documento evento a evento y entrega cada item al listener en cuanto se cierra,
+ * así que la memoria no depende del número de items del feed.
+ *
+ * El canal se entrega una sola vez, antes del primer item (o al final si no hay items):
+ * los campos del canal que aparezcan después de los items se ignoran. El listener puede
+ * cortar la lectura en cualquier item (isDone), p.ej. al llegar a uno ya conocido.
+ * DTDs y entidades externas están deshabilitadas (XXE).
+ */
+public class FeedParser {
+
+    public static final String ITUNES_NS = "http://www.itunes.com/dtds/podcast-1.0.dtd";
+    public static final String ATOM_NS = "http://www.w3.org/2005/Atom";
+
+    // RFC 822 admite el día con un dígito y sin día de la semana
+    private static final DateTimeFormatter RFC_822_NO_WEEKDAY =
+            DateTimeFormatter.ofPattern("d MMM yyyy HH:mm[:ss] [Z][z]", Locale.ENGLISH);
+
+    public interface Listener {
+        void onChannel(FeedChannel channel);
+
+        void onItem(FeedItem item);
+
+        /**
+         * Consultado tras cada item: true para dejar de leer (el resto del documento no se descarga)
+         */
+        default boolean isDone() {
+            return false;
+        }
+    }
+
+    private final XMLInputFactory factory;
+
+    public FeedParser() {
+        factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    }
+
+    /**
+     * Recorre el feed hasta el final o hasta que el listener pida parar
+     *
+     * @return Número de items entregados al listener
+     * @throws XMLStreamException si el XML está mal formado
+     */
+    public long parse(InputStream in, Listener listener) throws XMLStreamException {
+        XMLStreamReader reader = factory.createXMLStreamReader(in);
+        try {
+            return parse(reader, listener);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private long parse(XMLStreamReader reader, Listener listener) throws XMLStreamException {
+        FeedChannel channel = new FeedChannel();
+        boolean channelEmitted = false;
+        FeedItem item = null;
+        int depth = 0;
+        int channelDepth = 0;
+        int itemDepth = 0;
+        long items = 0;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                String ns = namespace(reader);
+                String name = reader.getLocalName();
+
+                if (item == null && channelDepth > 0 && isItem(ns, name)) {
+                    if (!channelEmitted) {
+                        listener.onChannel(channel);
+                        channelEmitted = true;
+                    }
+                    item = new FeedItem();
+                    itemDepth = depth;
+                } else if (item != null) {
+                    // Solo hijos directos del item: los anidados (p.ej. media:group) se ignoran
+                    if (depth == itemDepth + 1 && readItemField(reader, ns, name, item)) {
+                        depth--;
+                    }
+                } else if (channelDepth == 0 && isChannel(ns, name)) {
+                    channelDepth = depth;
+                } else if (channelDepth > 0 && depth == channelDepth + 1 && !channelEmitted
+                        && readChannelField(reader, ns, name, channel)) {
+                    depth--;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (item != null && depth == itemDepth) {
+                    listener.onItem(item);
+                    items++;
+                    item = null;
+                    if (listener.isDone()) {
+                        return items;
+                    }
+                }
+                depth--;
+            }
+        }
+
+        if (!channelEmitted) {
+            listener.onChannel(channel);
+        }
+        return items;
+    }
+
+    private static boolean isChannel(String ns, String name) {
+        return (ns.isEmpty() && name.equals("channel")) || (ns.equals(ATOM_NS) && name.equals("feed"));
+    }
+
+    private static boolean isItem(String ns, String name) {
+        return (ns.isEmpty() && name.equals("item")) || (ns.equals(ATOM_NS) && name.equals("entry"));
+    }
+
+    /**
+     * @return true si se ha consumido el texto del elemento (el reader queda en su END_ELEMENT)
+     */
+    private static boolean readChannelField(XMLStreamReader reader, String ns, String name, FeedChannel channel)
+            throws XMLStreamException {
+        if (ns.isEmpty() || ns.equals(ATOM_NS)) {
+            switch (name) {
+                case "title" -> channel.setTitle(text(reader));
+                case "description", "subtitle" -> channel.setDescription(text(reader));
+                case "language" -> channel.setLanguage(text(reader));
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (ns.equals(ITUNES_NS)) {
+            switch (name) {
+                case "image" -> channel.setImageUrl(reader.getAttributeValue(null, "href"));
+                case "category" -> {
+                    if (channel.getCategory() == null) {
+                        channel.setCategory(reader.getAttributeValue(null, "text"));
+                    }
+                }
+                case "summary" -> {
+                    String summary = text(reader);
+                    if (channel.getDescription() == null) {
+                        channel.setDescription(summary);
+                    }
+                    return true;
+                }
+                case "explicit" -> {
+                    channel.setExplicit(parseExplicit(text(reader)));
+                    return true;
+                }
+                default -> {
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true si se ha consumido el texto del elemento (el reader queda en su END_ELEMENT)
+     */
+    private static boolean readItemField(XMLStreamReader reader, String ns, String name, FeedItem item)
+            throws XMLStreamException {
+        if (ns.isEmpty()) {
+            switch (name) {
+                case "guid" -> item.setGuid(text(reader));
+                case "title" -> item.setTitle(text(reader));
+                case "description" -> item.setDescription(text(reader));
+                case "link" -> item.setLink(text(reader));
+                case "pubDate" -> item.setPublishAt(parseDate(text(reader)));
+                case "enclosure" -> {
+                    item.setAudioUrl(reader.getAttributeValue(null, "url"));
+                    return false;
+                }
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (ns.equals(ITUNES_NS)) {
+            switch (name) {
+                case "duration" -> item.setDurationSec(parseDuration(text(reader)));
+                case "season" -> item.setSeason(parseInteger(text(reader)));
+                case "episode" -> item.setNumber(parseInteger(text(reader)));
+                case "explicit" -> item.setExplicit(parseExplicit(text(reader)));
+                case "title" -> {
+                    String title = text(reader);
+                    if (item.getTitle() == null) {
+                        item.setTitle(title);
+                    }
+                }
+                case "summary" -> {
+                    String summary = text(reader);
+                    if (item.getDescription() == null) {
+                        item.setDescription(summary);
+                    }
+                }
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (ns.equals(ATOM_NS)) {
+            switch (name) {
+                case "id" -> item.setGuid(text(reader));
+                case "title" -> item.setTitle(text(reader));
+                case "summary" -> item.setDescription(text(reader));
+                case "published" -> item.setPublishAt(parseDate(text(reader)));
+                case "updated" -> {
+                    Instant updated = parseDate(text(reader));
+                    if (item.getPublishAt() == null) {
+                        item.setPublishAt(updated);
+                    }
+                }
+                case "link" -> {
+                    String rel = reader.getAttributeValue(null, "rel");
+                    String href = reader.getAttributeValue(null, "href");
+                    if ("enclosure".equals(rel)) {
+                        item.setAudioUrl(href);
+                    } else if (rel == null || "alternate".equals(rel)) {
+                        item.setLink(href);
+                    }
+                    return false;
+                }
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static String namespace(XMLStreamReader reader) {
+        String ns = reader.getNamespaceURI();
+        return ns == null ? XMLConstants.NULL_NS_URI : ns;
+    }
+
+    /**
+     * Texto del elemento, dejando el reader en su END_ELEMENT. A diferencia de getElementText() admite hijos
+     * (Atom type="xhtml", HTML sin escapar en RSS): se queda con el texto de los descendientes, como textContent
+     * en el DOM, con los espacios en blanco colapsados.
+     */
+    private static String text(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        boolean markup = false;
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE,
+                     XMLStreamConstants.ENTITY_REFERENCE -> text.append(reader.getText());
+                case XMLStreamConstants.START_ELEMENT -> {
+                    depth++;
+                    markup = true;
+                }
+                case XMLStreamConstants.END_ELEMENT -> depth--;
+                case XMLStreamConstants.END_DOCUMENT ->
+                        throw new XMLStreamException("Unexpected end of document", reader.getLocation());
+                default -> {
+                }
+            }
+        }
+        String value = markup ? text.toString().replaceAll("\\s+", " ").trim() : text.toString().trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Acepta segundos ("3600"), "MM:SS" y "HH:MM:SS" (con fracción opcional)
+     */
+    static Integer parseDuration(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            int seconds = 0;
+            for (String part : value.split(":")) {
+                seconds = seconds * 60 + (int) Double.parseDouble(part.trim());
+            }
+            return seconds >= 0 ? seconds : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static Integer parseInteger(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static Boolean parseExplicit(String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "yes", "true", "explicit" -> true;
+            case "no", "false", "clean" -> false;
+            default -> null;
+        };
+    }
+
+    /**
+     * RFC 822 (RSS) o ISO-8601 (Atom). Fechas ilegibles se ignoran en lugar de abortar la importación
+     */
+    static Instant parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+        } catch (DateTimeParseException ignored) {
+            // siguiente formato
+        }
+        try {
+            return OffsetDateTime.parse(value).toInstant();
+        } catch (DateTimeParseException ignored) {
+            // siguiente formato
+        }
+        try {
+            int comma = value.indexOf(',');
+            return ZonedDateTime.parse(value.substring(comma + 1).trim(), RFC_822_NO_WEEKDAY).toInstant();
+        } catch (DateTimeParseException ignored) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.podhub.podhub.feed;
+
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.Podcast;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Genera el feed RSS 2.0 + iTunes de un podcast con un XMLStreamWriter (StAX):
+ * cada episodio se escribe según llega del cursor de MongoDB, sin construir el documento en memoria.
+ *
+ * La salida solo depende de los datos (no incluye la hora de generación), así que dos renders
+ * del mismo contenido producen los mismos bytes y el mismo ETag.
+ */
+public class FeedWriter {
+
+    private static final String ITUNES_NS = FeedParser.ITUNES_NS;
+    private static final String GENERATOR = "PodHub";
+
+    private final XMLOutputFactory factory = XMLOutputFactory.newFactory();
+    private final String publicBaseUrl;
+
+    /**
+     * @param publicBaseUrl URL pública del frontend, para los enlaces &lt;link&gt; del canal
+     */
+    public FeedWriter(String publicBaseUrl) {
+        this.publicBaseUrl = publicBaseUrl.endsWith("/")
+                ? publicBaseUrl.substring(0, publicBaseUrl.length() - 1)
+                : publicBaseUrl;
+    }
+
+    /**
+     * @param items Número de episodios escritos
+     * @param lastModified Mayor updatedAt entre el podcast y sus episodios
+     */
+    public record Result(int items, Instant lastModified) {
+    }
+
+    /**
+     * Escribe el feed completo en out (UTF-8). No cierra out; sí cierra el Stream de episodios.
+     */
+    public Result write(Podcast podcast, Stream<Episode> episodes, OutputStream out) throws XMLStreamException {
+        XMLStreamWriter xml = factory.createXMLStreamWriter(out, "UTF-8");
+        Instant lastModified = podcast.getUpdatedAt();
+        int items = 0;
+
+        xml.writeStartDocument("UTF-8", "1.0");
+        xml.writeStartElement("rss");
+        xml.writeAttribute("version", "2.0");
+        xml.writeNamespace("itunes", ITUNES_NS);
+        xml.writeStartElement("channel");
+
+        element(xml, "title", podcast.getTitle());
+        element(xml, "link", publicBaseUrl + "/podcasts/" + podcast.getSlug());
+        element(xml, "description", podcast.getDescription() != null ? podcast.getDescription() : "");
+        element(xml, "language", podcast.getLanguage());
+        element(xml, "generator", GENERATOR);
+        if (podcast.getCoverImageUrl() != null) {
+            xml.writeEmptyElement("itunes", "image", ITUNES_NS);
+            xml.writeAttribute("href", podcast.getCoverImageUrl());
+        }
+        if (podcast.getCategory() != null) {
+            xml.writeEmptyElement("itunes", "category", ITUNES_NS);
+            xml.writeAttribute("text", podcast.getCategory());
+        }
+
+        try (episodes) {
+            Iterator<Episode> iterator = episodes.iterator();
+            while (iterator.hasNext()) {
+                Episode episode = iterator.next();
+                writeItem(xml, episode);
+                items++;
+                if (episode.getUpdatedAt() != null && (lastModified == null || episode.getUpdatedAt().isAfter(lastModified))) {
+                    lastModified = episode.getUpdatedAt();
+                }
+            }
+        }
+
+        if (lastModified != null) {
+            // Después de los items: lastBuildDate depende de ellos
+            element(xml, "lastBuildDate", rfc1123(lastModified));
+        }
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeEndDocument();
+        xml.flush();
+        xml.close();
+        return new Result(items, lastModified);
+    }
+
+    private void writeItem(XMLStreamWriter xml, Episode episode) throws XMLStreamException {
+        xml.writeStartElement("item");
+        element(xml, "title", episode.getTitle());
+        xml.writeStartElement("guid");
+        xml.writeAttribute("isPermaLink", "false");
+        xml.writeCharacters(episode.getId());
+        xml.writeEndElement();
+        Instant published = episode.getPublishAt() != null ? episode.getPublishAt() : episode.getCreatedAt();
+        if (published != null) {
+            element(xml, "pubDate", rfc1123(published));
+        }
+        element(xml, "description", episode.getDescription());
+        if (episode.getAudioUrl() != null) {
+            xml.writeEmptyElement("enclosure");
+            xml.writeAttribute("url", episode.getAudioUrl());
+            // Tamaño desconocido: 0 es lo que aceptan los agregadores
+            xml.writeAttribute("length", "0");
+            xml.writeAttribute("type", audioType(episode.getAudioUrl()));
+        }
+        if (episode.getDurationSec() != null) {
+            itunes(xml, "duration", episode.getDurationSec().toString());
+        }
+        if (episode.getSeason() != null) {
+            itunes(xml, "season", episode.getSeason().toString());
+        }
+        if (episode.getNumber() != null) {
+            itunes(xml, "episode", episode.getNumber().toString());
+        }
+        if (episode.getExplicit() != null) {
+            itunes(xml, "explicit", episode.getExplicit() ? "true" : "false");
+        }
+        xml.writeEndElement();
+    }
+
+    private static void element(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        if (text == null) {
+            return;
+        }
+        xml.writeStartElement(name);
+        xml.writeCharacters(text);
+        xml.writeEndElement();
+    }
+
+    private static void itunes(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        xml.writeStartElement("itunes", name, ITUNES_NS);
+        xml.writeCharacters(text);
+        xml.writeEndElement();
+    }
+
+    private static String rfc1123(Instant instant) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(instant.atOffset(ZoneOffset.UTC));
+    }
+
+    static String audioType(String url) {
+        String path = url.toLowerCase(Locale.ROOT);
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        if (path.endsWith(".m4a") || path.endsWith(".mp4")) {
+            return "audio/mp4";
+        }
+        if (path.endsWith(".ogg") || path.endsWith(".oga")) {
+            return "audio/ogg";
+        }
+        if (path.endsWith(".opus")) {
+            return "audio/opus";
+        }
+        if (path.endsWith(".aac")) {
+            return "audio/aac";
+        }
+        if (path.endsWith(".wav")) {
+            return "audio/wav";
+        }
+        return "audio/mpeg";
+    }
+}
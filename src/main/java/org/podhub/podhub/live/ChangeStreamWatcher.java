@@ -0,0 +1,115 @@
+package org.podhub.podhub.live;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Change stream de MongoDB que se mantiene abierto en un hilo virtual propio y pasa cada cambio a un handler.
+ *
+ * Si el stream se corta se reanuda desde el último resume token (con espera exponencial hasta 30 s); si ese
+ * token ya no está en el oplog se abre de nuevo desde ahora y los cambios intermedios se pierden. Un error del
+ * handler solo se registra: no detiene el stream.
+ */
+@Slf4j
+public final class ChangeStreamWatcher {
+
+    // Código de MongoDB cuando el resume token ya no está en el oplog
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final String name;
+    private final MongoCollection<Document> collection;
+    private final List<Bson> pipeline;
+    private final Consumer<ChangeStreamDocument<Document>> handler;
+    private volatile boolean running;
+    private volatile boolean watching;
+    private volatile Thread thread;
+
+    public ChangeStreamWatcher(String name, MongoCollection<Document> collection, List<Bson> pipeline,
+                               Consumer<ChangeStreamDocument<Document>> handler) {
+        this.name = name;
+        this.collection = collection;
+        this.pipeline = pipeline;
+        this.handler = handler;
+    }
+
+    public void start() {
+        running = true;
+        thread = Thread.ofVirtual().name(name).start(this::watch);
+    }
+
+    public void stop() {
+        running = false;
+        Thread current = thread;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    /**
+     * Si el stream está abierto (los cambios de antes de abrirlo no llegan)
+     */
+    public boolean isWatching() {
+        return watching;
+    }
+
+    private void watch() {
+        BsonDocument resumeToken = null;
+        long backoffMs = 1_000;
+        while (running) {
+            ChangeStreamIterable<Document> stream = collection.watch(pipeline)
+                    .fullDocument(FullDocument.UPDATE_LOOKUP)
+                    .maxAwaitTime(1, TimeUnit.SECONDS);
+            if (resumeToken != null) {
+                stream = stream.resumeAfter(resumeToken);
+            }
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+                log.info("Change stream {} open{}", name, resumeToken != null ? " (resumed)" : "");
+                watching = true;
+                backoffMs = 1_000;
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null) {
+                        try {
+                            handler.accept(change);
+                        } catch (RuntimeException e) {
+                            log.warn("Change stream {} could not handle a change: {}", name, e.getMessage());
+                        }
+                    }
+                    if (cursor.getResumeToken() != null) {
+                        resumeToken = cursor.getResumeToken();
+                    }
+                }
+            } catch (RuntimeException e) {
+                watching = false;
+                if (!running) {
+                    break;
+                }
+                if (e instanceof MongoException mongoException && mongoException.getCode() == CHANGE_STREAM_HISTORY_LOST) {
+                    resumeToken = null;
+                }
+                log.warn("Change stream {} failed, retrying in {} ms: {}", name, backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+            }
+        }
+        watching = false;
+    }
+}
@@ -0,0 +1,60 @@
+package org.podhub.podhub.live;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+
+/**
+ * Cambios pendientes por tema y clave, de los que solo se guarda el último (p. ej. el progreso de un usuario
+ * por episodio): por muchas veces que cambie una clave entre dos drain(), se entrega una sola vez.
+ *
+ * offer() y drain() usan operaciones atómicas del mapa por tema, así que un cambio que llega mientras se
+ * vacía un tema queda para el siguiente drain() y nunca se pierde.
+ */
+public final class Coalescer<V> {
+
+    private final BinaryOperator<V> merge;
+    private final Map<String, Map<String, V>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * @param merge Valor que se queda cuando una clave ya tiene uno pendiente (anterior, nuevo)
+     */
+    public Coalescer(BinaryOperator<V> merge) {
+        this.merge = merge;
+    }
+
+    public void offer(String topic, String key, V value) {
+        pending.compute(topic, (t, values) -> {
+            Map<String, V> map = values != null ? values : new HashMap<>();
+            map.merge(key, value, merge);
+            return map;
+        });
+    }
+
+    /**
+     * Entrega y olvida los cambios pendientes de todos los temas
+     *
+     * @return Temas entregados
+     */
+    public int drain(BiConsumer<String, Collection<V>> consumer) {
+        int drained = 0;
+        for (String topic : pending.keySet()) {
+            Map<String, V> values = pending.remove(topic);
+            if (values != null) {
+                consumer.accept(topic, values.values());
+                drained++;
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Temas con cambios pendientes
+     */
+    public int size() {
+        return pending.size();
+    }
+}
@@ -0,0 +1,219 @@
+package org.podhub.podhub.live;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Difusión en proceso de mensajes por tema (p. ej. un episodio) a suscriptores conectados.
+ *
+ * Cada suscriptor tiene una cola acotada de bufferSize mensajes. publish() solo encola y, si el suscriptor no
+ * se estaba vaciando, lanza una tarea en el executor (hilos virtuales) que envía lo pendiente y termina: un
+ * suscriptor sin mensajes no ocupa ningún hilo. Si la cola de un suscriptor está llena (no lee lo bastante
+ * rápido), se le expulsa (Reason.SLOW) en lugar de bloquear al resto o acumular memoria; el cliente se vuelve
+ * a conectar. Un error al enviar lo expulsa con Reason.FAILED.
+ */
+public final class TopicBroadcaster<T> {
+
+    public enum Reason {
+        /** El suscriptor se ha dado de baja */
+        CLOSED,
+        /** Su cola se llenó */
+        SLOW,
+        /** Falló un envío */
+        FAILED
+    }
+
+    public interface Sink<T> {
+        void send(T message) throws Exception;
+
+        /**
+         * El broadcaster ya no le enviará nada (no se llama con Reason.CLOSED)
+         */
+        void evicted(Reason reason);
+    }
+
+    private final int bufferSize;
+    private final Executor executor;
+    private final Map<String, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong slow = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * @param bufferSize Mensajes pendientes por suscriptor antes de expulsarlo
+     * @param executor   Donde se envían los mensajes (una tarea por suscriptor con mensajes pendientes)
+     */
+    public TopicBroadcaster(int bufferSize, Executor executor) {
+        this.bufferSize = Math.max(1, bufferSize);
+        this.executor = executor;
+    }
+
+    public final class Subscriber implements Runnable {
+
+        private final String topic;
+        private final Sink<T> sink;
+        private final ArrayBlockingQueue<T> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(String topic, Sink<T> sink) {
+            this.topic = topic;
+            this.sink = sink;
+        }
+
+        public String topic() {
+            return topic;
+        }
+
+        /**
+         * Da de baja al suscriptor (idempotente); los mensajes pendientes se descartan
+         */
+        public void close() {
+            remove(this, Reason.CLOSED);
+        }
+
+        private void offer(T message) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(message)) {
+                remove(this, Reason.SLOW);
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                    remove(this, Reason.FAILED);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                T message;
+                while (!closed.get() && (message = queue.poll()) != null) {
+                    sink.send(message);
+                    delivered.incrementAndGet();
+                }
+            } catch (Exception e) {
+                remove(this, Reason.FAILED);
+            } finally {
+                draining.set(false);
+            }
+            // Un mensaje encolado mientras se soltaba el turno: nadie más lo enviaría
+            if (!closed.get() && !queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    public Subscriber subscribe(String topic, Sink<T> sink) {
+        Subscriber subscriber = new Subscriber(topic, sink);
+        // Dentro de compute: una baja simultánea podría quitar del mapa el conjunto al que se añade
+        topics.compute(topic, (t, subscribed) -> {
+            Set<Subscriber> set = subscribed != null ? subscribed : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        subscribers.incrementAndGet();
+        return subscriber;
+    }
+
+    /**
+     * Encola un mensaje para los suscriptores de un tema
+     *
+     * @return Suscriptores del tema
+     */
+    public int publish(String topic, T message) {
+        Set<Subscriber> subscribed = topics.get(topic);
+        if (subscribed == null) {
+            return 0;
+        }
+        published.incrementAndGet();
+        int queued = 0;
+        for (Subscriber subscriber : subscribed) {
+            subscriber.offer(message);
+            queued++;
+        }
+        return queued;
+    }
+
+    /**
+     * Encola un mensaje para todos los suscriptores (p. ej. un latido para detectar conexiones muertas)
+     */
+    public int broadcast(T message) {
+        int queued = 0;
+        for (Set<Subscriber> subscribed : topics.values()) {
+            for (Subscriber subscriber : subscribed) {
+                subscriber.offer(message);
+                queued++;
+            }
+        }
+        return queued;
+    }
+
+    public int subscribers() {
+        return subscribers.get();
+    }
+
+    public int subscribers(String topic) {
+        Set<Subscriber> subscribed = topics.get(topic);
+        return subscribed != null ? subscribed.size() : 0;
+    }
+
+    public int topics() {
+        return topics.size();
+    }
+
+    public long published() {
+        return published.get();
+    }
+
+    public long delivered() {
+        return delivered.get();
+    }
+
+    public long evictedSlow() {
+        return slow.get();
+    }
+
+    public long evictedFailed() {
+        return failed.get();
+    }
+
+    private void remove(Subscriber subscriber, Reason reason) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        topics.computeIfPresent(subscriber.topic, (topic, subscribed) -> {
+            subscribed.remove(subscriber);
+            return subscribed.isEmpty() ? null : subscribed;
+        });
+        subscribers.decrementAndGet();
+        subscriber.queue.clear();
+        if (reason == Reason.SLOW) {
+            slow.incrementAndGet();
+        } else if (reason == Reason.FAILED) {
+            failed.incrementAndGet();
+        }
+        if (reason != Reason.CLOSED) {
+            subscriber.sink.evicted(reason);
+        }
+    }
+}
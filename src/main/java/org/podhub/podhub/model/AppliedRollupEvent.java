@@ -0,0 +1,30 @@
+package org.podhub.podhub.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Evento de dominio ya sumado en DailyRollup (id = clave del evento).
+ *
+ * Se escribe en la misma transacción que el $inc del contador, así que una segunda entrega del mismo evento
+ * (reenvío de una publicación que aún estaba en cola o procesándose, o caída entre la suma y la marca de
+ * publicación completada) lo encuentra y no vuelve a sumar. Caduca a los 14 días, mucho más de lo que puede
+ * tardar cualquier reenvío.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "daily_rollup_events")
+public class AppliedRollupEvent {
+    @Id
+    private String id;
+
+    @Indexed(expireAfter = "14d")
+    private Instant appliedAt;
+}
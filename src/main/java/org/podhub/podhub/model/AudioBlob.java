@@ -0,0 +1,36 @@
+package org.podhub.podhub.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Fichero de audio del almacenamiento local direccionado por contenido.
+ * El id es el SHA-256 (hex) de sus bytes: subidas idénticas comparten un único fichero.
+ * refCount cuenta los episodios que lo referencian (Episode.audioSha256); al llegar a 0
+ * se anota unreferencedSince y, pasado el periodo de gracia, el GC borra documento y fichero.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "audio_blobs")
+@CompoundIndex(name = "unreferenced", def = "{'refCount': 1, 'unreferencedSince': 1}")
+public class AudioBlob {
+    @Id
+    private String id;
+
+    // Clave en AudioStorage: blobs/ab/cd/{sha256}{ext}
+    private String key;
+    private Long size;
+    private Long refCount;
+
+    private Instant createdAt;
+    private Instant unreferencedSince;
+}
@@ -0,0 +1,18 @@
+package org.podhub.podhub.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Capítulo del audio (ID3 CHAP o Nero chpl)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AudioChapter {
+    private Long startMs;
+    private String title;
+}
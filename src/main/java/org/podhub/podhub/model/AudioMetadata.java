@@ -0,0 +1,29 @@
+package org.podhub.podhub.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Datos técnicos del audio local de un episodio, leídos de las cabeceras del fichero (AudioProbe).
+ * Embebido en Episode; los campos que el formato no aporta quedan a null.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AudioMetadata {
+    private String format; // mp3, m4a
+    private Long durationMs;
+    private Integer bitrateKbps;
+    private Integer sampleRate;
+    private Integer channels;
+    // true si la duración sale de una cabecera Xing/VBRI o del moov, no estimada a partir del bitrate
+    private Boolean exactDuration;
+    private List<AudioChapter> chapters;
+    private Instant probedAt;
+}
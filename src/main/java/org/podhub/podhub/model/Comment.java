@@ -22,7 +22,9 @@ import java.time.Instant;
 @Document(collection = "comments")
 @CompoundIndexes({
     @CompoundIndex(name = "target_created", def = "{'target.id': 1, 'createdAt': -1}"),
-    @CompoundIndex(name = "parent_idx", def = "{'parentId': 1}")
+    @CompoundIndex(name = "parent_idx", def = "{'parentId': 1}"),
+    @CompoundIndex(name = "target_threads", def = "{'target.id': 1, 'parentId': 1, 'createdAt': -1}"),
+    @CompoundIndex(name = "root_path", def = "{'rootId': 1, 'path': 1}")
 })
 
 
@@ -34,6 +36,16 @@ public class Comment {
     private CommentTarget target;
     private String content;
     private String parentId;
+
+    // Hilo: raíz del hilo (su propio id en comentarios raíz), profundidad (0 = raíz)
+    // y materialized path ordenable "rootId/.../id" (los ObjectId crecen con el tiempo)
+    private String rootId;
+    private Integer depth;
+    private String path;
+
+    // Número de respuestas directas (desnormalizado)
+    private Integer replyCount;
+
     private CommentStatus status;
     //@CreatedDate
     private Instant createdAt;
@@ -0,0 +1,50 @@
+package org.podhub.podhub.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Contadores diarios de la actividad de un podcast para el panel del creador.
+ *
+ * Las escrituras suman ($inc) en la fila de (podcastId, episodeId, day); episodeId es null para lo que
+ * no es de un episodio (suscripciones, comentarios al podcast). Cada noche los días cerrados se resumen
+ * en una fila total por (podcastId, day) (total = true) y las filas de episodio se marcan compacted;
+ * pasados unos días se borran. El id es determinista ("podcastId:episodeId:day") para que el upsert
+ * de cada evento no dependa de un índice único.
+ *
+ * day es la fecha UTC en formato ISO (yyyy-MM-dd): se ordena como texto y no depende de la zona del servidor.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "daily_rollups")
+@CompoundIndexes({
+    @CompoundIndex(name = "podcast_total_day", def = "{'podcastId': 1, 'total': 1, 'day': 1}"),
+    @CompoundIndex(name = "compacted_day", def = "{'compacted': 1, 'day': 1}")
+})
+public class DailyRollup {
+    @Id
+    private String id;
+
+    private String podcastId;
+    private String episodeId;
+    private String day;
+    private Boolean total;
+    private Boolean compacted;
+
+    private Long subscribers;
+    private Long likes;
+    private Long comments;
+    private Long listeners;
+    private Long completions;
+    private Instant updatedAt;
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -15,7 +16,12 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "episodes")
-@CompoundIndex(name = "podcast_publish", def = "{'podcastId': 1, 'publishAt': -1}")
+@CompoundIndexes({
+    @CompoundIndex(name = "podcast_publish", def = "{'podcastId': 1, 'publishAt': -1}"),
+    // Deduplicación de episodios importados desde un feed (solo los que tienen guidHash)
+    @CompoundIndex(name = "podcast_guid_unique", def = "{'podcastId': 1, 'guidHash': 1}", unique = true,
+            partialFilter = "{'guidHash': {'$exists': true}}")
+})
 public class Episode {
     @Id
     private String id;
@@ -26,11 +32,18 @@ public class Episode {
     private Integer number;
     private String description;
     private String audioUrl;
+    // SHA-256 (hex) del audio si está en el almacenamiento local (AudioBlob); null para URLs externas
+    private String audioSha256;
+    // Con audio local se rellena a partir de audioMetadata
     private Integer durationSec;
+    private AudioMetadata audioMetadata;
     private Boolean explicit;
     private Instant publishAt;
     private String transcript;
     private Instant createdAt;
     private Instant updatedAt;
     private Boolean isPublic;
+
+    // SHA-256 (hex) del guid del item del feed de origen; null si el episodio no es importado
+    private String guidHash;
 }
@@ -0,0 +1,32 @@
+package org.podhub.podhub.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Histograma de retención de un episodio (el id es el del episodio): counts[i] es el número de oyentes
+ * cuya posición más lejana cae en el tramo i de RetentionHistogram, calculado con durationSec.
+ * Se mantiene con $inc al actualizarse el progreso y se reconstruye entero en el backfill.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "episode_retention")
+public class EpisodeRetention {
+    @Id
+    private String id;
+
+    @Indexed
+    private String podcastId;
+    private Integer durationSec;
+    private int[] counts;
+    private Instant updatedAt;
+}
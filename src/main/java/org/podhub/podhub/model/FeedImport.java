@@ -0,0 +1,44 @@
+package org.podhub.podhub.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.podhub.podhub.model.enums.ImportStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Importación de un feed RSS/Atom a un podcast.
+ * itemsProcessed es el checkpoint: los items anteriores ya están escritos en MongoDB,
+ * así que una importación interrumpida se reanuda a partir de ahí.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "feed_imports")
+@CompoundIndex(name = "user_created", def = "{'userId': 1, 'createdAt': -1}")
+public class FeedImport {
+    @Id
+    private String id;
+
+    private String userId;
+    private String podcastId;
+    private String fileName;
+    private Boolean publish;
+    private ImportStatus status;
+
+    private Long itemsProcessed;
+    private Long inserted;
+    private Long duplicates;
+    private Long skipped;
+    private String error;
+
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Instant finishedAt;
+}
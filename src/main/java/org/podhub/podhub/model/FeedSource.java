@@ -0,0 +1,49 @@
+package org.podhub.podhub.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Feed RSS/Atom de origen de un podcast, consultado periódicamente para traer episodios nuevos.
+ * etag / lastModified son los validadores de la última respuesta 200 (peticiones condicionales).
+ * leaseUntil marca que una instancia lo está procesando: nadie más lo reclama hasta entonces.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "feed_sources")
+public class FeedSource {
+    @Id
+    private String id;
+
+    @Indexed(unique = true)
+    private String podcastId;
+
+    private String url;
+    private Integer intervalMinutes;
+    private Boolean publish;
+
+    private String etag;
+    private String lastModified;
+
+    @Indexed(name = "due")
+    private Instant nextFetchAt;
+    private Instant leaseUntil;
+
+    private Instant lastFetchedAt;
+    private Integer lastHttpStatus;
+    private String lastError;
+    private Integer consecutiveFailures;
+    private Long episodesAdded;
+
+    private Instant createdAt;
+    private Instant updatedAt;
+}
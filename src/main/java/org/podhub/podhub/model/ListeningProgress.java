@@ -18,7 +18,8 @@ import java.time.Instant;
 @Document(collection = "listening_progress")
 @CompoundIndexes({
     @CompoundIndex(name = "user_episode_unique", def = "{'userId': 1, 'episodeId': 1}", unique = true),
-    @CompoundIndex(name = "user_updated", def = "{'userId': 1, 'updatedAt': -1}")
+    @CompoundIndex(name = "user_updated", def = "{'userId': 1, 'updatedAt': -1}"),
+    @CompoundIndex(name = "episode_created", def = "{'episodeId': 1, 'createdAt': -1}")
 })
 public class ListeningProgress {
     @Id
@@ -27,7 +28,11 @@ public class ListeningProgress {
     private String userId;
     private String episodeId;
     private Integer positionSeconds;
+    // Posición más lejana alcanzada (positionSeconds retrocede al saltar hacia atrás); null en progresos antiguos
+    private Integer furthestPositionSeconds;
     private Boolean completed;
+    // Dispositivo que lo guardó por última vez (cabecera X-Device-Id); no se le reenvía su propio progreso
+    private String deviceId;
     private Instant createdAt;
     private Instant updatedAt;
 }
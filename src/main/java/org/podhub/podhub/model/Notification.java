@@ -0,0 +1,44 @@
+package org.podhub.podhub.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.podhub.podhub.model.enums.NotificationType;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Notificación de un usuario.
+ * El id de las de episodio nuevo es episodeId:userId, así que repetir un reparto no duplica ninguna.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "notifications")
+@CompoundIndexes({
+    @CompoundIndex(name = "user_created", def = "{'userId': 1, 'createdAt': -1}"),
+    @CompoundIndex(name = "user_read", def = "{'userId': 1, 'read': 1}")
+})
+public class Notification {
+    @Id
+    private String id;
+
+    private String userId;
+    private NotificationType type;
+    private String podcastId;
+    private String podcastTitle;
+    private String episodeId;
+    private String episodeTitle;
+    private Boolean read;
+    private Instant createdAt;
+
+    public static String newEpisodeId(String episodeId, String userId) {
+        return episodeId + ":" + userId;
+    }
+}
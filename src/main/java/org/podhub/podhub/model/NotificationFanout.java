@@ -0,0 +1,44 @@
+package org.podhub.podhub.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.podhub.podhub.model.enums.FanoutStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Reparto de las notificaciones de un episodio recién publicado (id = episodeId).
+ * lastUserId es el checkpoint: los suscriptores hasta él (por orden de userId) ya tienen su notificación,
+ * así que un reparto interrumpido se reanuda a partir de ahí.
+ * Un episodio programado (publishAt futuro) espera en SCHEDULED hasta dueAt; NotificationFanoutScheduler
+ * lo reparte cuando vence.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "notification_fanouts")
+public class NotificationFanout {
+    @Id
+    private String id;
+
+    private String podcastId;
+    private FanoutStatus status;
+    private String lastUserId;
+    private Long recipients;
+    private Long written;
+    private String error;
+
+    private Instant publishedAt;
+    // Solo en SCHEDULED: índice disperso con los repartos pendientes de publicarse
+    @Indexed(sparse = true)
+    private Instant dueAt;
+    private Instant startedAt;
+    private Instant updatedAt;
+    private Instant finishedAt;
+}
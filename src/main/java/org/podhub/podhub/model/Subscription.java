@@ -20,7 +20,9 @@ import java.time.Instant;
 @CompoundIndexes({
     @CompoundIndex(name = "user_podcast_unique", def = "{'userId': 1, 'podcastId': 1}", unique = true),
     @CompoundIndex(name = "user_created", def = "{'userId': 1, 'createdAt': -1}"),
-    @CompoundIndex(name = "podcast_idx", def = "{'podcastId': 1}")
+    @CompoundIndex(name = "podcast_idx", def = "{'podcastId': 1}"),
+    // Cubre el reparto de notificaciones: suscriptores con notificaciones de un podcast por orden de userId
+    @CompoundIndex(name = "podcast_notifications", def = "{'podcastId': 1, 'notifications': 1, 'userId': 1}")
 })
 public class Subscription {
     @Id
@@ -0,0 +1,38 @@
+package org.podhub.podhub.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Instantánea de las listas de tendencias de un tipo (el id es el TrendingType) para no empezar
+ * de cero tras un reinicio. logScore es la puntuación en logaritmo con decaimiento hacia delante:
+ * no depende del momento en que se tomó, así que se recarga tal cual.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "trending_snapshots")
+public class TrendingSnapshot {
+    @Id
+    private String id;
+
+    private List<Item> items;
+    private Instant takenAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private String id;
+        private String category;
+        private Double logScore;
+    }
+}
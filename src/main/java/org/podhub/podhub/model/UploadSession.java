@@ -0,0 +1,49 @@
+package org.podhub.podhub.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.podhub.podhub.model.enums.UploadStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Subida reanudable del audio de un episodio, por trozos (al estilo tus).
+ * offset es el número de bytes ya escritos y sincronizados en disco: el cliente
+ * reanuda enviando el siguiente trozo a partir de ahí.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "upload_sessions")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_created", def = "{'userId': 1, 'createdAt': -1}"),
+        @CompoundIndex(name = "status_updated", def = "{'status': 1, 'updatedAt': 1}")
+})
+public class UploadSession {
+    @Id
+    private String id;
+
+    private String userId;
+    private String episodeId;
+    private String fileName;
+    private String contentType;
+    private UploadStatus status;
+
+    private Long length;
+    private Long offset;
+
+    // Al completar: hash del fichero y URL con la que se ha asociado al episodio
+    private String sha256;
+    private String audioUrl;
+
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Instant completedAt;
+}
@@ -0,0 +1,8 @@
+package org.podhub.podhub.model.enums;
+
+public enum FanoutStatus {
+    SCHEDULED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
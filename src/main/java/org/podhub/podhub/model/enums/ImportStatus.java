@@ -0,0 +1,8 @@
+package org.podhub.podhub.model.enums;
+
+public enum ImportStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
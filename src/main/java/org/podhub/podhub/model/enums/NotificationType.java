@@ -0,0 +1,5 @@
+package org.podhub.podhub.model.enums;
+
+public enum NotificationType {
+    NEW_EPISODE
+}
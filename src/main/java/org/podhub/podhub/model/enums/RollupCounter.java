@@ -0,0 +1,22 @@
+package org.podhub.podhub.model.enums;
+
+/**
+ * Contadores de DailyRollup (field es el nombre del campo en el documento)
+ */
+public enum RollupCounter {
+    SUBSCRIBERS("subscribers"),
+    LIKES("likes"),
+    COMMENTS("comments"),
+    LISTENERS("listeners"),
+    COMPLETIONS("completions");
+
+    private final String field;
+
+    RollupCounter(String field) {
+        this.field = field;
+    }
+
+    public String field() {
+        return field;
+    }
+}
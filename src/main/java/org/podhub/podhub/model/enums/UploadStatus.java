@@ -0,0 +1,6 @@
+package org.podhub.podhub.model.enums;
+
+public enum UploadStatus {
+    UPLOADING,
+    COMPLETED
+}
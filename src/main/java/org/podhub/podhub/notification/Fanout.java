@@ -0,0 +1,79 @@
+package org.podhub.podhub.notification;
+
+import java.util.List;
+
+/**
+ * Reparto de una notificación a los suscriptores de un podcast por tramos.
+ *
+ * Los suscriptores se leen ordenados por userId en tramos de chunkSize a partir del último ya escrito
+ * (una consulta por rango sobre el índice, sin cursores abiertos durante todo el reparto), cada tramo se
+ * escribe con una sola escritura en bloque después de reservar su parte del WriteBudget y al terminarlo
+ * se guarda el punto de control: un reparto interrumpido sigue desde el último tramo escrito.
+ */
+public final class Fanout {
+
+    /**
+     * Suscriptores con las notificaciones activadas, ordenados por userId
+     */
+    public interface Source {
+        /**
+         * @param afterUserId Último userId ya procesado ("" para empezar)
+         */
+        List<String> next(String afterUserId, int limit);
+    }
+
+    public interface Sink {
+        /**
+         * Escribe una notificación por usuario
+         *
+         * @return Notificaciones nuevas (las ya existentes de un intento anterior no cuentan)
+         */
+        int write(List<String> userIds);
+    }
+
+    public interface Checkpoint {
+        void chunkWritten(String lastUserId, long recipients, long written);
+    }
+
+    /**
+     * @param waitedMs Tiempo dormido por el presupuesto de escrituras
+     */
+    public record Result(long recipients, long written, int chunks, long elapsedMs, long waitedMs) {
+    }
+
+    private Fanout() {
+    }
+
+    /**
+     * @param startAfter Último userId del reparto anterior (o null para empezar desde el principio)
+     */
+    public static Result run(String startAfter, int chunkSize, Source source, WriteBudget budget, Sink sink,
+                             Checkpoint checkpoint) throws InterruptedException {
+        long start = System.nanoTime();
+        String after = startAfter != null ? startAfter : "";
+        int limit = Math.max(1, chunkSize);
+        long recipients = 0;
+        long written = 0;
+        long waited = 0;
+        int chunks = 0;
+        while (true) {
+            List<String> userIds = source.next(after, limit);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            waited += budget.acquire(userIds.size());
+            written += sink.write(userIds);
+            recipients += userIds.size();
+            chunks++;
+            after = userIds.get(userIds.size() - 1);
+            checkpoint.chunkWritten(after, recipients, written);
+            if (userIds.size() < limit) {
+                break;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException("Fan-out interrupted after " + recipients + " recipients");
+            }
+        }
+        return new Result(recipients, written, chunks, (System.nanoTime() - start) / 1_000_000, waited / 1_000_000);
+    }
+}
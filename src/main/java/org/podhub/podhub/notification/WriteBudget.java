@@ -0,0 +1,72 @@
+package org.podhub.podhub.notification;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Presupuesto de escrituras por segundo (token bucket) compartido por los trabajos que escriben en masa.
+ *
+ * acquire(n) reserva n escrituras y, si el cubo no las tiene, duerme lo que falte para generarlas: la
+ * deuda la paga quien llega después, así que un lote mayor que burst también pasa (esperando su parte).
+ * Con perSecond <= 0 no limita nada.
+ */
+public final class WriteBudget {
+
+    public interface Sleeper {
+        void sleepNanos(long nanos) throws InterruptedException;
+    }
+
+    private final double perNano;
+    private final double burst;
+    private final LongSupplier nanoClock;
+    private final Sleeper sleeper;
+    private double tokens;
+    private long refilledAt;
+
+    /**
+     * @param perSecond Escrituras por segundo (<= 0: sin límite)
+     * @param burst     Escrituras que se pueden acumular sin usar
+     */
+    public WriteBudget(double perSecond, long burst) {
+        this(perSecond, burst, System::nanoTime, WriteBudget::sleep);
+    }
+
+    WriteBudget(double perSecond, long burst, LongSupplier nanoClock, Sleeper sleeper) {
+        this.perNano = perSecond > 0 ? perSecond / 1e9 : 0;
+        this.burst = Math.max(1, burst);
+        this.nanoClock = nanoClock;
+        this.sleeper = sleeper;
+        this.refilledAt = nanoClock.getAsLong();
+        this.tokens = this.burst;
+    }
+
+    public boolean limited() {
+        return perNano > 0;
+    }
+
+    /**
+     * Reserva permits escrituras, esperando si hace falta
+     *
+     * @return Nanosegundos esperados
+     */
+    public long acquire(int permits) throws InterruptedException {
+        if (perNano == 0 || permits <= 0) {
+            return 0;
+        }
+        long wait;
+        synchronized (this) {
+            long now = nanoClock.getAsLong();
+            tokens = Math.min(burst, tokens + (now - refilledAt) * perNano);
+            refilledAt = now;
+            tokens -= permits;
+            wait = tokens >= 0 ? 0 : (long) Math.ceil(-tokens / perNano);
+        }
+        if (wait > 0) {
+            sleeper.sleepNanos(wait);
+        }
+        return wait;
+    }
+
+    private static void sleep(long nanos) throws InterruptedException {
+        Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+    }
+}
@@ -0,0 +1,411 @@
+package org.podhub.podhub.recommend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Modelo ítem-ítem de co-escucha ("los oyentes de esto también escuchan").
+ * Un usuario interactúa con un ítem (podcast) si se suscribe, da like a un episodio o lo termina;
+ * la similitud de dos ítems es el coseno de sus conjuntos de usuarios:
+ * oyentes en común / sqrt(oyentes de i * oyentes de j).
+ *
+ * Todo se guarda indexado por enteros en estructuras de primitivos:
+ * - IdIndex para los ids de usuarios e ítems
+ * - int[] ordenado con los ítems de cada usuario
+ * - IntIntMap por ítem con los oyentes en común con cada vecino (fila dispersa)
+ * - los K mejores vecinos de cada ítem en int[] / float[] ordenados por puntuación
+ *
+ * add() actualiza el modelo de forma incremental: las filas y los K vecinos del ítem nuevo y de los
+ * ítems del usuario. No se vuelven a puntuar los demás vecinos del ítem (su número de oyentes ha cambiado
+ * muy poco) ni se procesan bajas: ambas cosas se corrigen en la siguiente reconstrucción completa (Builder),
+ * que calcula las filas en paralelo, un ítem por tarea.
+ *
+ * Lecturas concurrentes con un lock de lectura; add() toma el de escritura.
+ */
+public final class CoListenModel {
+
+    /**
+     * Los usuarios con más ítems (cuentas de prueba, bots) cuentan como oyentes pero no generan
+     * co-ocurrencias: su coste es cuadrático y apenas aportan información
+     */
+    static final int MAX_USER_ITEMS = 1000;
+
+    public record Stats(int users, int items, long interactions, long pairs, long memoryBytes) {
+    }
+
+    private final int neighbors;
+    private final int minSupport;
+    private final IdIndex users;
+    private final IdIndex items;
+    private int[][] userItems;
+    private int[] userSizes;
+    private int[] listeners;
+    private IntIntMap[] rows;
+    private int[][] topIds;
+    private float[][] topScores;
+    private long interactions;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    private CoListenModel(int neighbors, int minSupport, IdIndex users, IdIndex items, int[][] userItems,
+                          int[] userSizes, int[] listeners, IntIntMap[] rows, int[][] topIds, float[][] topScores,
+                          long interactions) {
+        this.neighbors = neighbors;
+        this.minSupport = minSupport;
+        this.users = users;
+        this.items = items;
+        this.userItems = userItems;
+        this.userSizes = userSizes;
+        this.listeners = listeners;
+        this.rows = rows;
+        this.topIds = topIds;
+        this.topScores = topScores;
+        this.interactions = interactions;
+    }
+
+    /**
+     * @param neighbors  Vecinos que se guardan por ítem (K)
+     * @param minSupport Oyentes en común mínimos para que dos ítems sean vecinos
+     */
+    public static Builder builder(int neighbors, int minSupport) {
+        return new Builder(neighbors, minSupport);
+    }
+
+    public static CoListenModel empty(int neighbors, int minSupport) {
+        return new CoListenModel(neighbors, minSupport, new IdIndex(16), new IdIndex(16), new int[0][], new int[0],
+                new int[0], new IntIntMap[0], new int[0][], new float[0][], 0);
+    }
+
+    /**
+     * Añade la interacción de un usuario con un ítem
+     *
+     * @return false si ya existía
+     */
+    public boolean add(String userId, String itemId) {
+        lock.writeLock().lock();
+        try {
+            int user = users.add(userId);
+            int item = items.add(itemId);
+            ensureCapacity(users.size(), items.size());
+            int[] owned = userItems[user];
+            int size = userSizes[user];
+            int position = Arrays.binarySearch(owned, 0, size, item);
+            if (position >= 0) {
+                return false;
+            }
+            listeners[item]++;
+            if (size < MAX_USER_ITEMS) {
+                for (int i = 0; i < size; i++) {
+                    int other = owned[i];
+                    row(item).increment(other, 1);
+                    row(other).increment(item, 1);
+                    int common = rows[other].get(item);
+                    if (common >= minSupport) {
+                        offer(other, item, score(common, other, item));
+                    }
+                }
+                topNeighbors(item);
+            }
+
+            int insert = -position - 1;
+            if (size == owned.length) {
+                owned = userItems[user] = Arrays.copyOf(owned, Math.max(4, size * 2));
+            }
+            System.arraycopy(owned, insert, owned, insert + 1, size - insert);
+            owned[insert] = item;
+            userSizes[user]++;
+            interactions++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ítems más parecidos a itemId, de mayor a menor similitud
+     */
+    public List<Scored> similar(String itemId, int limit) {
+        lock.readLock().lock();
+        try {
+            int item = items.indexOf(itemId);
+            if (item < 0 || topIds[item] == null) {
+                return List.of();
+            }
+            int count = Math.min(limit, topIds[item].length);
+            List<Scored> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(new Scored(items.id(topIds[item][i]), topScores[item][i]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ítems recomendados a un usuario: suma de las similitudes de los vecinos de sus ítems,
+     * sin los que ya tiene. Se completa con los más populares (puntuación 0) si no hay suficientes.
+     */
+    public List<Scored> recommend(String userId, int limit) {
+        lock.readLock().lock();
+        try {
+            int user = users.indexOf(userId);
+            int[] owned = user >= 0 ? userItems[user] : new int[0];
+            int size = user >= 0 ? userSizes[user] : 0;
+
+            Scratch work = scratch.get();
+            work.ensure(items.size());
+            for (int i = 0; i < size; i++) {
+                int[] ids = topIds[owned[i]];
+                if (ids == null) {
+                    continue;
+                }
+                float[] scores = topScores[owned[i]];
+                for (int n = 0; n < ids.length; n++) {
+                    work.add(ids[n], scores[n]);
+                }
+            }
+
+            TopK best = new TopK(limit);
+            for (int i = 0; i < work.touchedCount; i++) {
+                int candidate = work.touched[i];
+                if (Arrays.binarySearch(owned, 0, size, candidate) < 0) {
+                    best.offer(candidate, work.scores[candidate]);
+                }
+            }
+            work.clear();
+
+            List<Scored> result = new ArrayList<>(limit);
+            for (int i = 0; i < best.size(); i++) {
+                result.add(new Scored(items.id(best.ids[i]), best.scores[i]));
+            }
+            if (result.size() < limit) {
+                // Un recorrido de los contadores de oyentes: hay pocos ítems (podcasts) y solo pasa con pocos datos
+                TopK popular = new TopK(limit);
+                for (int item = 0; item < items.size(); item++) {
+                    if (Arrays.binarySearch(owned, 0, size, item) < 0 && !best.contains(item)) {
+                        popular.offer(item, listeners[item]);
+                    }
+                }
+                for (int i = 0; i < popular.size() && result.size() < limit; i++) {
+                    result.add(new Scored(items.id(popular.ids[i]), 0));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            long pairs = 0;
+            long bytes = users.memoryBytes() + items.memoryBytes();
+            for (int user = 0; user < users.size(); user++) {
+                bytes += 16 + 4L * userItems[user].length;
+            }
+            for (int item = 0; item < items.size(); item++) {
+                if (rows[item] != null) {
+                    pairs += rows[item].size();
+                    bytes += rows[item].memoryBytes();
+                }
+                if (topIds[item] != null) {
+                    bytes += 2 * (16 + 4L * topIds[item].length);
+                }
+            }
+            // Arrays de primer nivel: referencias y contadores
+            bytes += 8L * userItems.length + 4L * userSizes.length + 4L * listeners.length + 12L * rows.length;
+            return new Stats(users.size(), items.size(), interactions, pairs, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private IntIntMap row(int item) {
+        if (rows[item] == null) {
+            rows[item] = new IntIntMap(8);
+        }
+        return rows[item];
+    }
+
+    private float score(int common, int a, int b) {
+        return (float) (common / Math.sqrt((double) listeners[a] * listeners[b]));
+    }
+
+    /**
+     * Recalcula los K vecinos de un ítem desde su fila
+     */
+    private void topNeighbors(int item) {
+        IntIntMap row = rows[item];
+        if (row == null) {
+            return;
+        }
+        TopK best = new TopK(neighbors);
+        for (int slot = 0; slot < row.capacity(); slot++) {
+            int other = row.keyAt(slot);
+            if (other >= 0 && row.valueAt(slot) >= minSupport) {
+                best.offer(other, score(row.valueAt(slot), item, other));
+            }
+        }
+        topIds[item] = Arrays.copyOf(best.ids, best.size());
+        topScores[item] = Arrays.copyOf(best.scores, best.size());
+    }
+
+    /**
+     * Actualiza la puntuación de un único vecino en la lista de item, sin recorrer su fila
+     */
+    private void offer(int item, int candidate, float score) {
+        TopK best = new TopK(neighbors);
+        int[] ids = topIds[item];
+        if (ids != null) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] != candidate) {
+                    best.offer(ids[i], topScores[item][i]);
+                }
+            }
+        }
+        best.offer(candidate, score);
+        topIds[item] = Arrays.copyOf(best.ids, best.size());
+        topScores[item] = Arrays.copyOf(best.scores, best.size());
+    }
+
+    private void ensureCapacity(int userCount, int itemCount) {
+        if (userCount > userItems.length) {
+            int capacity = Math.max(userCount, userItems.length * 2);
+            int from = userItems.length;
+            userItems = Arrays.copyOf(userItems, capacity);
+            userSizes = Arrays.copyOf(userSizes, capacity);
+            for (int i = from; i < capacity; i++) {
+                userItems[i] = new int[0];
+            }
+        }
+        if (itemCount > listeners.length) {
+            int capacity = Math.max(itemCount, listeners.length * 2);
+            listeners = Arrays.copyOf(listeners, capacity);
+            rows = Arrays.copyOf(rows, capacity);
+            topIds = Arrays.copyOf(topIds, capacity);
+            topScores = Arrays.copyOf(topScores, capacity);
+        }
+    }
+
+    /**
+     * Reconstrucción completa: se añaden todas las interacciones (en cualquier orden, con duplicados)
+     * y build() calcula las co-ocurrencias en paralelo
+     */
+    public static final class Builder {
+        private final int neighbors;
+        private final int minSupport;
+        private final IdIndex users = new IdIndex(1024);
+        private final IdIndex items = new IdIndex(1024);
+        private long[] pairs = new long[1024];
+        private int size;
+
+        private Builder(int neighbors, int minSupport) {
+            this.neighbors = neighbors;
+            this.minSupport = minSupport;
+        }
+
+        public Builder add(String userId, String itemId) {
+            if (size == pairs.length) {
+                pairs = Arrays.copyOf(pairs, size * 2);
+            }
+            pairs[size++] = ((long) users.add(userId) << 32) | items.add(itemId);
+            return this;
+        }
+
+        public CoListenModel build(ForkJoinPool pool) {
+            int userCount = users.size();
+            int itemCount = items.size();
+
+            // Pares (usuario, ítem) ordenados y sin duplicados: los ítems de cada usuario quedan ordenados
+            long[] sorted = Arrays.copyOf(pairs, size);
+            pairs = null;
+            Arrays.sort(sorted);
+            int[][] userItems = new int[userCount][];
+            int[] userSizes = new int[userCount];
+            int[] listeners = new int[itemCount];
+            long interactions = 0;
+            int start = 0;
+            for (int user = 0; user < userCount; user++) {
+                int end = start;
+                int distinct = 0;
+                int[] owned = new int[countUser(sorted, start, user)];
+                while (end < sorted.length && (int) (sorted[end] >>> 32) == user) {
+                    int item = (int) sorted[end];
+                    if (distinct == 0 || owned[distinct - 1] != item) {
+                        owned[distinct++] = item;
+                        listeners[item]++;
+                    }
+                    end++;
+                }
+                userItems[user] = distinct == owned.length ? owned : Arrays.copyOf(owned, distinct);
+                userSizes[user] = distinct;
+                interactions += distinct;
+                start = end;
+            }
+
+            // Índice inverso: usuarios de cada ítem (CSR), solo los que generan co-ocurrencias
+            int[] offsets = new int[itemCount + 1];
+            for (int user = 0; user < userCount; user++) {
+                if (userSizes[user] <= MAX_USER_ITEMS) {
+                    for (int item : userItems[user]) {
+                        offsets[item + 1]++;
+                    }
+                }
+            }
+            for (int item = 0; item < itemCount; item++) {
+                offsets[item + 1] += offsets[item];
+            }
+            int[] itemUsers = new int[offsets[itemCount]];
+            int[] fill = Arrays.copyOf(offsets, itemCount);
+            for (int user = 0; user < userCount; user++) {
+                if (userSizes[user] <= MAX_USER_ITEMS) {
+                    for (int item : userItems[user]) {
+                        itemUsers[fill[item]++] = user;
+                    }
+                }
+            }
+
+            CoListenModel model = new CoListenModel(neighbors, minSupport, users, items, userItems, userSizes,
+                    listeners, new IntIntMap[itemCount], new int[itemCount][], new float[itemCount][], interactions);
+
+            // Cada fila es independiente: un ítem por tarea, con un contador denso por hilo
+            ThreadLocal<int[][]> counters = ThreadLocal.withInitial(() -> new int[][]{new int[itemCount], new int[itemCount]});
+            pool.submit(() -> IntStream.range(0, itemCount).parallel().forEach(item -> {
+                int[][] counter = counters.get();
+                int[] counts = counter[0];
+                int[] touched = counter[1];
+                int touchedCount = 0;
+                for (int i = offsets[item]; i < offsets[item + 1]; i++) {
+                    int user = itemUsers[i];
+                    for (int other : userItems[user]) {
+                        if (other != item && counts[other]++ == 0) {
+                            touched[touchedCount++] = other;
+                        }
+                    }
+                }
+                IntIntMap row = new IntIntMap(touchedCount);
+                for (int i = 0; i < touchedCount; i++) {
+                    row.increment(touched[i], counts[touched[i]]);
+                    counts[touched[i]] = 0;
+                }
+                model.rows[item] = row;
+                model.topNeighbors(item);
+            })).join();
+            return model;
+        }
+
+        private static int countUser(long[] sorted, int start, int user) {
+            int end = start;
+            while (end < sorted.length && (int) (sorted[end] >>> 32) == user) {
+                end++;
+            }
+            return end - start;
+        }
+    }
+}
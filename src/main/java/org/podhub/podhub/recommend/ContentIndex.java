@@ -0,0 +1,567 @@
+package org.podhub.podhub.recommend;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Índice de similitud por contenido ("podcasts que hablan de lo mismo"): sirve para los podcasts nuevos,
+ * que todavía no tienen oyentes con los que CoListenModel pueda situarlos.
+ *
+ * Cada podcast es un vector TF-IDF disperso de los términos de su título y categoría (peso doble),
+ * descripción, idioma y títulos de episodios: tf = 1 + ln(apariciones), idf = ln((1 + N) / (1 + df)) + 1.
+ * Solo se guardan los T términos de más peso de cada podcast, normalizados (L2), así que la similitud
+ * es el coseno de esos vectores truncados.
+ *
+ * Los K vecinos de cada podcast se precalculan con listas invertidas (término -> podcasts, de mayor a
+ * menor peso) limitadas a los maxPostings podcasts de más peso por término: acota el coste de los términos
+ * muy comunes a cambio de ignorar coincidencias que apenas suman. La reconstrucción completa (Builder)
+ * reparte el trabajo en lotes de podcasts contiguos, uno por tarea del ForkJoinPool.
+ *
+ * update() reindexa un único podcast con el idf de la última reconstrucción (no se recalcula el de los demás):
+ * su vector, sus listas invertidas, sus K vecinos y su puesto en las listas de esos vecinos.
+ *
+ * Lecturas concurrentes con un lock de lectura; update() y remove() toman el de escritura.
+ */
+public final class ContentIndex {
+
+    /**
+     * Podcasts por tarea en la reconstrucción: reutilizan el mismo acumulador
+     */
+    static final int BATCH_SIZE = 2048;
+
+    private static final int MAX_TOKEN_LENGTH = 40;
+
+    private static final Set<String> STOPWORDS = Set.of(
+            // Español
+            "a", "al", "algo", "ante", "antes", "aqui", "asi", "aun", "bien", "cada", "como", "con", "contra",
+            "cual", "cuando", "de", "del", "desde", "donde", "dos", "el", "ella", "ellos", "en", "entre", "era",
+            "es", "esa", "ese", "eso", "esta", "estas", "este", "esto", "estos", "fue", "ha", "han", "hasta", "hay",
+            "la", "las", "le", "les", "lo", "los", "mas", "me", "mi", "muy", "nada", "ni", "no", "nos", "nuestro",
+            "o", "otra", "otro", "para", "pero", "poco", "por", "porque", "que", "se", "sea", "ser", "si",
+            "sin", "sobre", "son", "su", "sus", "tambien", "te", "tiene", "todo", "todos", "tu", "un", "una",
+            "uno", "unos", "y", "ya", "yo",
+            // English
+            "about", "after", "all", "also", "an", "and", "any", "are", "as", "at", "be", "been", "but", "by",
+            "can", "do", "does", "for", "from", "get", "has", "have", "he", "her", "his", "how", "i", "if", "in",
+            "into", "is", "it", "its", "just", "more", "most", "my", "new", "not", "of", "on", "one", "or", "our",
+            "out", "over", "she", "so", "some", "than", "that", "the", "their", "them", "there", "these", "they",
+            "this", "to", "up", "us", "was", "we", "what", "when", "which", "who", "will", "with", "you", "your",
+            // Comunes en títulos de episodios
+            "ep", "episode", "episodio", "part", "parte");
+
+    /**
+     * Campos de texto de un podcast
+     */
+    public record Text(String title, String description, String category, String language, List<String> episodeTitles) {
+    }
+
+    public record Stats(int documents, int terms, long postings, long memoryBytes) {
+    }
+
+    private final int neighbors;
+    private final int termsPerDocument;
+    private final int maxPostings;
+    private final IdIndex docs;
+    private final IdIndex terms;
+    private final int[] df;
+    private final int documentCount;
+    private int[][] docTerms;
+    private float[][] docWeights;
+    private int[][] postingDocs;
+    private float[][] postingWeights;
+    private int[] postingSizes;
+    private int[][] topIds;
+    private float[][] topScores;
+    private int indexed;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    private ContentIndex(int neighbors, int termsPerDocument, int maxPostings, IdIndex docs, IdIndex terms,
+                         int[] df, int documentCount) {
+        this.neighbors = neighbors;
+        this.termsPerDocument = termsPerDocument;
+        this.maxPostings = maxPostings;
+        this.docs = docs;
+        this.terms = terms;
+        this.df = df;
+        this.documentCount = documentCount;
+        this.docTerms = new int[docs.size()][];
+        this.docWeights = new float[docs.size()][];
+        this.postingDocs = new int[terms.size()][];
+        this.postingWeights = new float[terms.size()][];
+        this.postingSizes = new int[terms.size()];
+        this.topIds = new int[docs.size()][];
+        this.topScores = new float[docs.size()][];
+    }
+
+    /**
+     * @param neighbors        Vecinos que se guardan por podcast (K)
+     * @param termsPerDocument Términos de más peso que se guardan por podcast (T)
+     * @param maxPostings      Podcasts de más peso que se recorren por término
+     */
+    public static Builder builder(int neighbors, int termsPerDocument, int maxPostings) {
+        return new Builder(neighbors, termsPerDocument, maxPostings);
+    }
+
+    public static ContentIndex empty(int neighbors, int termsPerDocument, int maxPostings) {
+        return new ContentIndex(neighbors, termsPerDocument, maxPostings, new IdIndex(16), new IdIndex(16), new int[0], 0);
+    }
+
+    /**
+     * Indexa (o reindexa) un podcast y actualiza sus vecinos
+     */
+    public void update(String id, Text text) {
+        lock.writeLock().lock();
+        try {
+            IntIntMap counts = count(text, terms);
+            int doc = docs.add(id);
+            ensureCapacity(docs.size(), terms.size());
+            boolean existed = docTerms[doc] != null;
+            if (existed) {
+                unlink(doc);
+            }
+            vectorize(doc, counts);
+            for (int i = 0; i < docTerms[doc].length; i++) {
+                insertPosting(docTerms[doc][i], doc, docWeights[doc][i]);
+            }
+            Scratch work = scratch.get();
+            work.ensure(docs.size());
+            topNeighbors(doc, work);
+            for (int i = 0; i < topIds[doc].length; i++) {
+                offer(topIds[doc][i], doc, topScores[doc][i]);
+            }
+            if (!existed) {
+                indexed++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Saca un podcast del índice (y de las listas de sus vecinos)
+     */
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            int doc = docs.indexOf(id);
+            if (doc >= 0 && docTerms[doc] != null) {
+                unlink(doc);
+                docTerms[doc] = null;
+                docWeights[doc] = null;
+                topIds[doc] = null;
+                topScores[doc] = null;
+                indexed--;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Podcasts más parecidos a id, de mayor a menor similitud
+     */
+    public List<Scored> similar(String id, int limit) {
+        lock.readLock().lock();
+        try {
+            int doc = docs.indexOf(id);
+            if (doc < 0 || topIds[doc] == null) {
+                return List.of();
+            }
+            int count = Math.min(limit, topIds[doc].length);
+            List<Scored> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(new Scored(docs.id(topIds[doc][i]), topScores[doc][i]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            long postings = 0;
+            long bytes = docs.memoryBytes() + terms.memoryBytes() + 4L * df.length;
+            for (int doc = 0; doc < docs.size(); doc++) {
+                if (docTerms[doc] != null) {
+                    bytes += 2 * (16 + 4L * docTerms[doc].length) + 2 * (16 + 4L * topIds[doc].length);
+                }
+            }
+            for (int term = 0; term < terms.size(); term++) {
+                if (postingDocs[term] != null) {
+                    postings += postingSizes[term];
+                    bytes += 2 * (16 + 4L * postingDocs[term].length);
+                }
+            }
+            // Arrays de primer nivel: referencias y contadores
+            bytes += 16L * docTerms.length + 12L * postingDocs.length;
+            return new Stats(indexed, terms.size(), postings, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vector del podcast: los T términos de más peso, normalizados
+     */
+    private void vectorize(int doc, IntIntMap counts) {
+        TopK best = new TopK(Math.min(termsPerDocument, counts.size()));
+        for (int slot = 0; slot < counts.capacity(); slot++) {
+            int term = counts.keyAt(slot);
+            if (term >= 0) {
+                best.offer(term, (float) ((1 + Math.log(counts.valueAt(slot))) * idf(term)));
+            }
+        }
+        int size = best.size();
+        double norm = 0;
+        for (int i = 0; i < size; i++) {
+            norm += (double) best.scores[i] * best.scores[i];
+        }
+        norm = Math.sqrt(norm);
+        int[] ids = Arrays.copyOf(best.ids, size);
+        float[] weights = new float[size];
+        for (int i = 0; i < size; i++) {
+            weights[i] = (float) (best.scores[i] / norm);
+        }
+        docTerms[doc] = ids;
+        docWeights[doc] = weights;
+    }
+
+    private double idf(int term) {
+        int frequency = term < df.length ? df[term] : 0;
+        return Math.log((1.0 + documentCount) / (1.0 + frequency)) + 1;
+    }
+
+    /**
+     * Recalcula los K vecinos de un podcast: producto escalar con los podcasts de sus listas invertidas
+     */
+    private void topNeighbors(int doc, Scratch work) {
+        int[] ids = docTerms[doc];
+        float[] weights = docWeights[doc];
+        for (int i = 0; i < ids.length; i++) {
+            int term = ids[i];
+            int[] postings = postingDocs[term];
+            float[] postingWeight = postingWeights[term];
+            for (int p = 0; p < postingSizes[term]; p++) {
+                if (postings[p] != doc) {
+                    work.add(postings[p], weights[i] * postingWeight[p]);
+                }
+            }
+        }
+        TopK best = new TopK(neighbors);
+        for (int i = 0; i < work.touchedCount; i++) {
+            best.offer(work.touched[i], work.scores[work.touched[i]]);
+        }
+        work.clear();
+        topIds[doc] = Arrays.copyOf(best.ids, best.size());
+        topScores[doc] = Arrays.copyOf(best.scores, best.size());
+    }
+
+    /**
+     * Quita el vector actual de doc de las listas invertidas y a doc de las listas de sus vecinos
+     */
+    private void unlink(int doc) {
+        for (int term : docTerms[doc]) {
+            int[] postings = postingDocs[term];
+            int size = postingSizes[term];
+            for (int p = 0; p < size; p++) {
+                if (postings[p] == doc) {
+                    System.arraycopy(postings, p + 1, postings, p, size - p - 1);
+                    System.arraycopy(postingWeights[term], p + 1, postingWeights[term], p, size - p - 1);
+                    postingSizes[term]--;
+                    break;
+                }
+            }
+        }
+        for (int other : topIds[doc]) {
+            drop(other, doc);
+        }
+    }
+
+    /**
+     * Inserta doc en la lista de term manteniendo el orden por peso y el límite de maxPostings
+     */
+    private void insertPosting(int term, int doc, float weight) {
+        int size = postingSizes[term];
+        if (size == maxPostings && weight <= postingWeights[term][size - 1]) {
+            return;
+        }
+        if (postingDocs[term] == null) {
+            postingDocs[term] = new int[4];
+            postingWeights[term] = new float[4];
+        } else if (size == postingDocs[term].length) {
+            int capacity = Math.min(maxPostings, Math.max(4, size * 2));
+            postingDocs[term] = Arrays.copyOf(postingDocs[term], capacity);
+            postingWeights[term] = Arrays.copyOf(postingWeights[term], capacity);
+        }
+        int[] postings = postingDocs[term];
+        float[] weights = postingWeights[term];
+        int position = 0;
+        while (position < size && weights[position] >= weight) {
+            position++;
+        }
+        int moved = Math.min(size, postings.length - 1) - position;
+        System.arraycopy(postings, position, postings, position + 1, moved);
+        System.arraycopy(weights, position, weights, position + 1, moved);
+        postings[position] = doc;
+        weights[position] = weight;
+        postingSizes[term] = Math.min(size + 1, maxPostings);
+    }
+
+    /**
+     * Actualiza la puntuación de un único vecino en la lista de doc
+     */
+    private void offer(int doc, int candidate, float score) {
+        TopK best = new TopK(neighbors);
+        int[] ids = topIds[doc];
+        if (ids != null) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] != candidate) {
+                    best.offer(ids[i], topScores[doc][i]);
+                }
+            }
+        }
+        best.offer(candidate, score);
+        topIds[doc] = Arrays.copyOf(best.ids, best.size());
+        topScores[doc] = Arrays.copyOf(best.scores, best.size());
+    }
+
+    private void drop(int doc, int candidate) {
+        int[] ids = topIds[doc];
+        if (ids == null) {
+            return;
+        }
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == candidate) {
+                int[] keptIds = new int[ids.length - 1];
+                float[] keptScores = new float[ids.length - 1];
+                System.arraycopy(ids, 0, keptIds, 0, i);
+                System.arraycopy(ids, i + 1, keptIds, i, ids.length - i - 1);
+                System.arraycopy(topScores[doc], 0, keptScores, 0, i);
+                System.arraycopy(topScores[doc], i + 1, keptScores, i, ids.length - i - 1);
+                topIds[doc] = keptIds;
+                topScores[doc] = keptScores;
+                return;
+            }
+        }
+    }
+
+    private void ensureCapacity(int docCount, int termCount) {
+        if (docCount > docTerms.length) {
+            int capacity = Math.max(docCount, docTerms.length * 2);
+            docTerms = Arrays.copyOf(docTerms, capacity);
+            docWeights = Arrays.copyOf(docWeights, capacity);
+            topIds = Arrays.copyOf(topIds, capacity);
+            topScores = Arrays.copyOf(topScores, capacity);
+        }
+        if (termCount > postingDocs.length) {
+            int capacity = Math.max(termCount, postingDocs.length * 2);
+            postingDocs = Arrays.copyOf(postingDocs, capacity);
+            postingWeights = Arrays.copyOf(postingWeights, capacity);
+            postingSizes = Arrays.copyOf(postingSizes, capacity);
+        }
+    }
+
+    /**
+     * Apariciones de cada término en los campos del podcast; el título y la categoría cuentan doble
+     */
+    static IntIntMap count(Text text, IdIndex terms) {
+        IntIntMap counts = new IntIntMap(32);
+        IntConsumer once = term -> counts.increment(term, 1);
+        IntConsumer twice = term -> counts.increment(term, 2);
+        tokenize(text.title(), terms, twice);
+        tokenize(text.category(), terms, twice);
+        tokenize(text.description(), terms, once);
+        if (text.episodeTitles() != null) {
+            for (String title : text.episodeTitles()) {
+                tokenize(title, terms, once);
+            }
+        }
+        if (text.language() != null && !text.language().isBlank()) {
+            once.accept(terms.add("lang:" + text.language().trim().toLowerCase()));
+        }
+        return counts;
+    }
+
+    /**
+     * Palabras en minúsculas y sin tildes (letras y dígitos), sin las vacías ni las de una letra
+     */
+    static void tokenize(String text, IdIndex terms, IntConsumer consumer) {
+        for (String token : tokens(text)) {
+            consumer.accept(terms.add(token));
+        }
+    }
+
+    static List<String> tokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String folded = text;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7F) {
+                folded = Normalizer.normalize(text, Normalizer.Form.NFD);
+                break;
+            }
+        }
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= folded.length(); i++) {
+            char c = i < folded.length() ? folded.charAt(i) : ' ';
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (!token.isEmpty()) {
+                if (token.length() > 1 && token.length() <= MAX_TOKEN_LENGTH) {
+                    String word = token.toString();
+                    if (!STOPWORDS.contains(word)) {
+                        tokens.add(word);
+                    }
+                }
+                token.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Reparte [0, count) en lotes contiguos de BATCH_SIZE, una tarea por lote
+     */
+    private static void forEachBatch(ForkJoinPool pool, int count, IntConsumer body) {
+        int batches = (count + BATCH_SIZE - 1) / BATCH_SIZE;
+        pool.submit(() -> IntStream.range(0, batches).parallel().forEach(batch -> {
+            int end = Math.min(count, (batch + 1) * BATCH_SIZE);
+            for (int i = batch * BATCH_SIZE; i < end; i++) {
+                body.accept(i);
+            }
+        })).join();
+    }
+
+    /**
+     * Reconstrucción completa: se añaden todos los podcasts (tokenizados al vuelo) y build() calcula
+     * el idf, los vectores, las listas invertidas y los vecinos en paralelo
+     */
+    public static final class Builder {
+        private final int neighbors;
+        private final int termsPerDocument;
+        private final int maxPostings;
+        private final IdIndex docs = new IdIndex(1024);
+        private final IdIndex terms = new IdIndex(1024);
+        // Términos distintos de cada podcast seguidos de sus apariciones: [t0, t1, ..., c0, c1, ...]
+        private int[][] counts = new int[1024][];
+        private int[] df = new int[1024];
+
+        private Builder(int neighbors, int termsPerDocument, int maxPostings) {
+            this.neighbors = neighbors;
+            this.termsPerDocument = termsPerDocument;
+            this.maxPostings = maxPostings;
+        }
+
+        public Builder add(String id, Text text) {
+            IntIntMap map = count(text, terms);
+            int doc = docs.add(id);
+            if (doc == counts.length) {
+                counts = Arrays.copyOf(counts, doc * 2);
+            }
+            if (terms.size() > df.length) {
+                df = Arrays.copyOf(df, Math.max(terms.size(), df.length * 2));
+            }
+            if (counts[doc] != null) {
+                int[] previous = counts[doc];
+                for (int i = 0; i < previous.length / 2; i++) {
+                    df[previous[i]]--;
+                }
+            }
+            int size = map.size();
+            int[] packed = new int[size * 2];
+            int n = 0;
+            for (int slot = 0; slot < map.capacity(); slot++) {
+                int term = map.keyAt(slot);
+                if (term >= 0) {
+                    packed[n] = term;
+                    packed[size + n] = map.valueAt(slot);
+                    df[term]++;
+                    n++;
+                }
+            }
+            counts[doc] = packed;
+            return this;
+        }
+
+        public ContentIndex build(ForkJoinPool pool) {
+            int docCount = docs.size();
+            int termCount = terms.size();
+            ContentIndex index = new ContentIndex(neighbors, termsPerDocument, maxPostings, docs, terms,
+                    Arrays.copyOf(df, termCount), docCount);
+            index.indexed = docCount;
+
+            // Vectores: independientes entre sí
+            int[][] raw = counts;
+            counts = null;
+            forEachBatch(pool, docCount, doc -> {
+                int[] packed = raw[doc];
+                int size = packed.length / 2;
+                IntIntMap map = new IntIntMap(size);
+                for (int i = 0; i < size; i++) {
+                    map.increment(packed[i], packed[size + i]);
+                }
+                index.vectorize(doc, map);
+                raw[doc] = null;
+            });
+
+            // Listas invertidas (peso en los 32 bits altos: los float positivos se ordenan igual que sus bits)
+            int[] sizes = new int[termCount];
+            for (int doc = 0; doc < docCount; doc++) {
+                for (int term : index.docTerms[doc]) {
+                    sizes[term]++;
+                }
+            }
+            long[][] entries = new long[termCount][];
+            for (int term = 0; term < termCount; term++) {
+                entries[term] = new long[sizes[term]];
+                sizes[term] = 0;
+            }
+            for (int doc = 0; doc < docCount; doc++) {
+                int[] ids = index.docTerms[doc];
+                float[] weights = index.docWeights[doc];
+                for (int i = 0; i < ids.length; i++) {
+                    entries[ids[i]][sizes[ids[i]]++] = ((long) Float.floatToIntBits(weights[i]) << 32) | doc;
+                }
+            }
+            forEachBatch(pool, termCount, term -> {
+                long[] sorted = entries[term];
+                entries[term] = null;
+                Arrays.sort(sorted);
+                int kept = Math.min(sorted.length, maxPostings);
+                int[] postings = new int[kept];
+                float[] weights = new float[kept];
+                for (int i = 0; i < kept; i++) {
+                    long entry = sorted[sorted.length - 1 - i];
+                    postings[i] = (int) entry;
+                    weights[i] = Float.intBitsToFloat((int) (entry >>> 32));
+                }
+                index.postingDocs[term] = postings;
+                index.postingWeights[term] = weights;
+                index.postingSizes[term] = kept;
+            });
+
+            // Vecinos: un acumulador denso por hilo, reutilizado en todo el lote
+            forEachBatch(pool, docCount, doc -> {
+                Scratch work = index.scratch.get();
+                work.ensure(docCount);
+                index.topNeighbors(doc, work);
+            });
+            return index;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.podhub.podhub.recommend;
+
+import java.util.Arrays;
+
+/**
+ * Diccionario String -> int denso (0, 1, 2...) con direccionamiento abierto: los índices
+ * permiten guardar el resto del modelo en arrays de primitivos en vez de mapas de objetos.
+ * No es thread-safe; CoListenModel y ContentIndex lo protegen con su lock.
+ */
+final class IdIndex {
+
+    private String[] ids;
+    private int[] slots; // índice + 1; 0 = vacío
+    private int size;
+
+    IdIndex(int expected) {
+        ids = new String[Math.max(16, expected)];
+        slots = new int[tableSize(expected)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    String id(int index) {
+        return ids[index];
+    }
+
+    /**
+     * @return Índice del id o -1
+     */
+    int indexOf(String id) {
+        int mask = slots.length - 1;
+        for (int slot = hash(id) & mask; ; slot = (slot + 1) & mask) {
+            int value = slots[slot];
+            if (value == 0) {
+                return -1;
+            }
+            if (ids[value - 1].equals(id)) {
+                return value - 1;
+            }
+        }
+    }
+
+    /**
+     * @return Índice del id, añadiéndolo al final si no existía
+     */
+    int add(String id) {
+        int mask = slots.length - 1;
+        int slot = hash(id) & mask;
+        for (; slots[slot] != 0; slot = (slot + 1) & mask) {
+            if (ids[slots[slot] - 1].equals(id)) {
+                return slots[slot] - 1;
+            }
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size] = id;
+        slots[slot] = ++size;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    long memoryBytes() {
+        // Referencias comprimidas de 4 bytes; los String ya existen en los documentos leídos
+        return 4L * ids.length + 4L * slots.length + (long) size * (40 + 24);
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(ids[i]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i + 1;
+        }
+    }
+
+    private static int tableSize(int expected) {
+        return Integer.highestOneBit(Math.max(16, expected) * 2 - 1) << 1;
+    }
+
+    private static int hash(String id) {
+        int h = id.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,91 @@
+package org.podhub.podhub.recommend;
+
+/**
+ * Mapa int -> int con direccionamiento abierto sobre dos arrays (sin boxing):
+ * una fila dispersa de la matriz de co-ocurrencias (ítem vecino -> oyentes en común).
+ * Las claves son índices >= 0.
+ */
+final class IntIntMap {
+
+    private int[] keys;   // clave + 1; 0 = vacío
+    private int[] values;
+    private int size;
+
+    IntIntMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected) * 2 - 1) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key + 1) {
+                return values[slot];
+            }
+        }
+        return 0;
+    }
+
+    void increment(int key, int delta) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        for (; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key + 1) {
+                values[slot] += delta;
+                return;
+            }
+        }
+        keys[slot] = key + 1;
+        values[slot] = delta;
+        if (++size * 2 > keys.length) {
+            rehash();
+        }
+    }
+
+    /**
+     * Número de posiciones para recorrer con keyAt/valueAt (las vacías devuelven keyAt = -1)
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    int keyAt(int slot) {
+        return keys[slot] - 1;
+    }
+
+    int valueAt(int slot) {
+        return values[slot];
+    }
+
+    long memoryBytes() {
+        return 16 + 2 * (16 + 4L * keys.length);
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = hash(oldKeys[i] - 1) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,7 @@
+package org.podhub.podhub.recommend;
+
+/**
+ * Un ítem (id de podcast) con su puntuación de similitud o recomendación
+ */
+public record Scored(String id, double score) {
+}
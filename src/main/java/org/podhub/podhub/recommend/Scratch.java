@@ -0,0 +1,31 @@
+package org.podhub.podhub.recommend;
+
+/**
+ * Acumulador denso por hilo (puntuaciones y posiciones tocadas) para no reservar memoria en cada petición
+ */
+final class Scratch {
+    float[] scores = new float[0];
+    int[] touched = new int[0];
+    int touchedCount;
+
+    void ensure(int items) {
+        if (scores.length < items) {
+            scores = new float[items];
+            touched = new int[items];
+        }
+    }
+
+    void add(int item, float score) {
+        if (scores[item] == 0) {
+            touched[touchedCount++] = item;
+        }
+        scores[item] += score;
+    }
+
+    void clear() {
+        for (int i = 0; i < touchedCount; i++) {
+            scores[touched[i]] = 0;
+        }
+        touchedCount = 0;
+    }
+}
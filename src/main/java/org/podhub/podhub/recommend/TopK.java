@@ -0,0 +1,102 @@
+package org.podhub.podhub.recommend;
+
+/**
+ * Los K mejores (id, puntuación) en un min-heap sobre arrays; sorted() los deja de mayor a menor
+ */
+final class TopK {
+    private final int capacity;
+    final int[] ids;
+    final float[] scores;
+    private int size;
+    private boolean sorted;
+
+    TopK(int capacity) {
+        this.capacity = capacity;
+        this.ids = new int[capacity];
+        this.scores = new float[capacity];
+    }
+
+    void offer(int id, float score) {
+        if (capacity == 0) {
+            return;
+        }
+        if (size < capacity) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (score > scores[0]) {
+            ids[0] = id;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    int size() {
+        if (!sorted) {
+            sort();
+        }
+        return size;
+    }
+
+    boolean contains(int id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extrae del heap en orden: el mínimo va quedando al final
+     */
+    private void sort() {
+        for (int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            int saved = size;
+            size = end;
+            siftDown(0);
+            size = saved;
+        }
+        sorted = true;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (scores[parent] <= scores[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && scores[left] < scores[smallest]) {
+                smallest = left;
+            }
+            if (right < size && scores[right] < scores[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
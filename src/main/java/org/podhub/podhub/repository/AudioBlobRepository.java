@@ -0,0 +1,14 @@
+package org.podhub.podhub.repository;
+
+import org.podhub.podhub.model.AudioBlob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface AudioBlobRepository extends MongoRepository<AudioBlob, String>, AudioBlobRepositoryCustom {
+
+    List<AudioBlob> findByRefCountLessThanEqualAndUnreferencedSinceBefore(long refCount, Instant unreferencedBefore);
+}
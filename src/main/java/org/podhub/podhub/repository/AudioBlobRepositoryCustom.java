@@ -0,0 +1,38 @@
+package org.podhub.podhub.repository;
+
+import org.podhub.podhub.dto.StorageStats;
+import org.podhub.podhub.model.AudioBlob;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Contadores de referencias de AudioBlob como actualizaciones atómicas,
+ * para que varias instancias puedan compartir el mismo almacenamiento.
+ */
+public interface AudioBlobRepositoryCustom {
+
+    /**
+     * Suma una referencia al blob, creándolo si no existe (upsert)
+     *
+     * @param key Clave a usar si el blob es nuevo; si ya existía se conserva la suya
+     * @return Blob tras el incremento
+     */
+    AudioBlob retain(String sha256, String key, long size);
+
+    /**
+     * Resta una referencia; si llega a 0 anota unreferencedSince
+     *
+     * @return Blob tras el decremento, o vacío si no existe
+     */
+    Optional<AudioBlob> release(String sha256);
+
+    /**
+     * Borra el blob solo si sigue sin referencias desde antes de unreferencedBefore
+     *
+     * @return true si se ha borrado
+     */
+    boolean removeIfUnreferenced(String sha256, Instant unreferencedBefore);
+
+    StorageStats stats();
+}
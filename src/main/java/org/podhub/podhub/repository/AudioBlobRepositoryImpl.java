@@ -0,0 +1,99 @@
+package org.podhub.podhub.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.podhub.podhub.dto.StorageStats;
+import org.podhub.podhub.model.AudioBlob;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class AudioBlobRepositoryImpl implements AudioBlobRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public AudioBlob retain(String sha256, String key, long size) {
+        Update update = new Update()
+                .inc("refCount", 1)
+                .unset("unreferencedSince")
+                .setOnInsert("key", key)
+                .setOnInsert("size", size)
+                .setOnInsert("createdAt", Instant.now());
+        return mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(sha256)),
+                update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                AudioBlob.class);
+    }
+
+    @Override
+    public Optional<AudioBlob> release(String sha256) {
+        AudioBlob released = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(sha256).and("refCount").gt(0)),
+                new Update().inc("refCount", -1),
+                FindAndModifyOptions.options().returnNew(true),
+                AudioBlob.class);
+        if (released != null && released.getRefCount() <= 0) {
+            // Condicionado a refCount 0: un retain concurrente ya lo habrá vuelto a referenciar
+            Instant now = Instant.now();
+            mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(sha256).and("refCount").lte(0)
+                            .and("unreferencedSince").exists(false)),
+                    new Update().set("unreferencedSince", now),
+                    AudioBlob.class);
+            released.setUnreferencedSince(now);
+        }
+        return Optional.ofNullable(released);
+    }
+
+    @Override
+    public boolean removeIfUnreferenced(String sha256, Instant unreferencedBefore) {
+        return mongoTemplate.remove(
+                Query.query(Criteria.where("_id").is(sha256)
+                        .and("refCount").lte(0)
+                        .and("unreferencedSince").lt(unreferencedBefore)),
+                AudioBlob.class).getDeletedCount() == 1;
+    }
+
+    @Override
+    public StorageStats stats() {
+        // Un único $group sobre la colección; logicalBytes = sum(size * refCount)
+        AggregationOperation totals = context -> new Document("$group",
+                new Document("_id", null)
+                        .append("blobs", new Document("$sum", 1))
+                        .append("unreferencedBlobs", new Document("$sum",
+                                new Document("$cond", List.of(new Document("$lte", List.of("$refCount", 0)), 1, 0))))
+                        .append("references", new Document("$sum", "$refCount"))
+                        .append("storedBytes", new Document("$sum", "$size"))
+                        .append("logicalBytes", new Document("$sum",
+                                new Document("$multiply", List.of("$size", "$refCount")))));
+
+        Document result = mongoTemplate.aggregate(Aggregation.newAggregation(totals),
+                        mongoTemplate.getCollectionName(AudioBlob.class), Document.class)
+                .getUniqueMappedResult();
+
+        long blobs = result != null ? ((Number) result.get("blobs")).longValue() : 0;
+        long unreferenced = result != null ? ((Number) result.get("unreferencedBlobs")).longValue() : 0;
+        long references = result != null ? ((Number) result.get("references")).longValue() : 0;
+        long stored = result != null ? ((Number) result.get("storedBytes")).longValue() : 0;
+        long logical = result != null ? ((Number) result.get("logicalBytes")).longValue() : 0;
+        return StorageStats.builder()
+                .blobs(blobs)
+                .unreferencedBlobs(unreferenced)
+                .references(references)
+                .storedBytes(stored)
+                .logicalBytes(logical)
+                .savedBytes(logical - stored)
+                .build();
+    }
+}
@@ -3,6 +3,7 @@ package org.podhub.podhub.repository;
 import org.podhub.podhub.model.Comment;
 import org.podhub.podhub.model.enums.CommentStatus;
 import org.podhub.podhub.model.enums.CommentTargetType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
@@ -13,7 +14,7 @@ import java.time.Instant;
 import java.util.List;
 
 @Repository
-public interface CommentRepository extends MongoRepository<Comment, String> {
+public interface CommentRepository extends MongoRepository<Comment, String>, CommentRepositoryCustom {
 
     Page<Comment> findByUserId(String userId, Pageable pageable);
 
@@ -28,6 +29,9 @@ public interface CommentRepository extends MongoRepository<Comment, String> {
 
     long countByTargetId(String targetId);
 
+    // Comentarios anteriores a los hilos, sin rootId/depth/path (índice root_path)
+    List<Comment> findByRootIdIsNull(Limit limit);
+
     // ========== Paginación cursor-based: Por usuario ==========
 
     @Query(value = "{ 'userId': ?0 }", sort = "{ 'createdAt': -1 }")
@@ -60,6 +64,14 @@ public interface CommentRepository extends MongoRepository<Comment, String> {
     @Query(value = "{ 'target.id': ?0, 'parentId': null, 'createdAt': { $lt: ?1 } }", sort = "{ 'createdAt': -1 }")
     List<Comment> findNextThreadComments(String targetId, Instant cursor, int limit);
 
+    // ========== Paginación cursor-based: Hilos de un episodio (índice target_threads) ==========
+
+    @Query(value = "{ 'target.type': 'EPISODE', 'target.id': ?0, 'parentId': null }", sort = "{ 'createdAt': -1 }")
+    List<Comment> findFirstEpisodeThreads(String episodeId, Limit limit);
+
+    @Query(value = "{ 'target.type': 'EPISODE', 'target.id': ?0, 'parentId': null, 'createdAt': { $lt: ?1 } }", sort = "{ 'createdAt': -1 }")
+    List<Comment> findNextEpisodeThreads(String episodeId, Instant cursor, Limit limit);
+
     // ========== Paginación cursor-based: Respuestas a comentario ==========
 
     @Query(value = "{ 'parentId': ?0 }", sort = "{ 'createdAt': -1 }")
@@ -0,0 +1,67 @@
+package org.podhub.podhub.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.podhub.podhub.model.Comment;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Operaciones de CommentRepository que no se pueden expresar con queries derivadas
+ * (actualizaciones atómicas y agregaciones de hilos).
+ */
+public interface CommentRepositoryCustom {
+
+    /**
+     * Incrementa atómicamente ($inc) el contador de respuestas directas de un comentario
+     */
+    void incrementReplyCount(String commentId);
+
+    /**
+     * Actualización parcial atómica (findAndModify) de un comentario: a diferencia de save(), no pisa
+     * el replyCount que otra petición haya incrementado entretanto
+     *
+     * @param update $set con solo los campos a modificar
+     * @return Documento actualizado, o vacío si no existe
+     */
+    Optional<Comment> patch(String commentId, Update update);
+
+    /**
+     * Primeras respuestas (en orden de materialized path) de cada hilo, en una sola agregación
+     *
+     * @param rootIds IDs de los comentarios raíz
+     * @param perThread Número máximo de respuestas por hilo
+     * @return Una entrada por hilo que tenga respuestas
+     */
+    List<ThreadReplies> findReplyPreviews(Collection<String> rootIds, int perThread);
+
+    /**
+     * Número de respuestas directas de cada comentario, contadas en una sola agregación
+     *
+     * @return Respuestas por parentId (los comentarios sin respuestas no aparecen)
+     */
+    Map<String, Integer> countReplies(Collection<String> parentIds);
+
+    /**
+     * Escribe rootId, depth, path y replyCount de comentarios anteriores a los hilos, en una escritura en bloque
+     * Solo toca los que siguen sin rootId, para no pisar uno que otro proceso ya haya completado
+     *
+     * @return Comentarios actualizados
+     */
+    int backfillThreads(Collection<Comment> comments);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    class ThreadReplies {
+        @Id
+        private String rootId;
+        private List<Comment> replies;
+    }
+}
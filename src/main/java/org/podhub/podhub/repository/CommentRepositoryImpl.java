@@ -0,0 +1,95 @@
+package org.podhub.podhub.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.podhub.podhub.model.Comment;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class CommentRepositoryImpl implements CommentRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void incrementReplyCount(String commentId) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(commentId)),
+                new Update().inc("replyCount", 1),
+                Comment.class);
+    }
+
+    @Override
+    public Optional<Comment> patch(String commentId, Update update) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(commentId)),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                Comment.class));
+    }
+
+    @Override
+    public List<ThreadReplies> findReplyPreviews(Collection<String> rootIds, int perThread) {
+        // $match + $sort servidos por el índice root_path; $firstN (MongoDB 5.2+) solo
+        // retiene las primeras perThread respuestas de cada hilo durante el $group
+        AggregationOperation firstRepliesPerRoot = context -> new Document("$group",
+                new Document("_id", "$rootId")
+                        .append("replies", new Document("$firstN",
+                                new Document("input", "$$ROOT").append("n", perThread))));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("rootId").in(rootIds).and("depth").gt(0)),
+                Aggregation.sort(Sort.by(Sort.Order.asc("rootId"), Sort.Order.asc("path"))),
+                firstRepliesPerRoot
+        );
+
+        return mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Comment.class), ThreadReplies.class)
+                .getMappedResults();
+    }
+
+    @Override
+    public Map<String, Integer> countReplies(Collection<String> parentIds) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("parentId").in(parentIds)),
+                Aggregation.group("parentId").count().as("replies")
+        );
+
+        Map<String, Integer> replies = new HashMap<>();
+        for (Document group : mongoTemplate.aggregate(aggregation,
+                mongoTemplate.getCollectionName(Comment.class), Document.class).getMappedResults()) {
+            replies.put(group.getString("_id"), group.getInteger("replies"));
+        }
+        return replies;
+    }
+
+    @Override
+    public int backfillThreads(Collection<Comment> comments) {
+        if (comments.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Comment.class);
+        for (Comment comment : comments) {
+            bulk.updateOne(
+                    Query.query(Criteria.where("_id").is(comment.getId()).and("rootId").is(null)),
+                    new Update()
+                            .set("rootId", comment.getRootId())
+                            .set("depth", comment.getDepth())
+                            .set("path", comment.getPath())
+                            .set("replyCount", comment.getReplyCount()));
+        }
+        return bulk.execute().getModifiedCount();
+    }
+}
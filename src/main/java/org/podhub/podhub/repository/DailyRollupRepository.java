@@ -0,0 +1,9 @@
+package org.podhub.podhub.repository;
+
+import org.podhub.podhub.model.DailyRollup;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DailyRollupRepository extends MongoRepository<DailyRollup, String>, DailyRollupRepositoryCustom {
+}
@@ -0,0 +1,55 @@
+package org.podhub.podhub.repository;
+
+import org.podhub.podhub.model.DailyRollup;
+import org.podhub.podhub.model.enums.RollupCounter;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Escrituras atómicas y lecturas por rango de los contadores diarios
+ */
+public interface DailyRollupRepositoryCustom {
+
+    /**
+     * Suma 1 al contador de la fila (podcastId, episodeId, day), creándola si no existe
+     *
+     * @param episodeId null para lo que no es de un episodio
+     */
+    void increment(String podcastId, String episodeId, String day, RollupCounter counter);
+
+    /**
+     * Registra que el evento eventKey se ha sumado; llamarlo en la misma transacción que increment
+     *
+     * @return false si ya estaba registrado (entrega repetida: no hay que volver a sumar)
+     */
+    boolean markApplied(String eventKey);
+
+    /**
+     * Días anteriores a beforeDay con filas de episodio aún sin resumir
+     */
+    List<String> findUncompactedDays(String beforeDay);
+
+    /**
+     * Resume las filas de un día en una fila total por podcast y las marca compacted
+     *
+     * @return Filas totales escritas
+     */
+    int compactDay(String day);
+
+    /**
+     * Borra las filas de episodio ya resumidas anteriores a beforeDay
+     */
+    long deleteCompactedBefore(String beforeDay);
+
+    /**
+     * Filas totales de los podcasts entre from y to (ambos incluidos)
+     */
+    List<DailyRollup> findTotals(Collection<String> podcastIds, String from, String to);
+
+    /**
+     * Filas de episodio sin resumir de los podcasts entre from y to (ambos incluidos): el día en curso
+     * y los que aún no ha alcanzado la compactación
+     */
+    List<DailyRollup> findUncompacted(Collection<String> podcastIds, String from, String to);
+}
@@ -0,0 +1,115 @@
+package org.podhub.podhub.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.podhub.podhub.model.AppliedRollupEvent;
+import org.podhub.podhub.model.DailyRollup;
+import org.podhub.podhub.model.enums.RollupCounter;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class DailyRollupRepositoryImpl implements DailyRollupRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void increment(String podcastId, String episodeId, String day, RollupCounter counter) {
+        String id = podcastId + ":" + (episodeId != null ? episodeId : "-") + ":" + day;
+        Update update = new Update()
+                .inc(counter.field(), 1)
+                // Un evento tardío sobre un día ya resumido hace que la compactación lo vuelva a resumir
+                .set("compacted", false)
+                .set("updatedAt", Instant.now())
+                .setOnInsert("podcastId", podcastId)
+                .setOnInsert("episodeId", episodeId)
+                .setOnInsert("day", day)
+                .setOnInsert("total", false);
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(id)), update, DailyRollup.class);
+    }
+
+    @Override
+    public boolean markApplied(String eventKey) {
+        // Upsert en vez de insert: un duplicado no es un error de escritura, que abortaría la transacción
+        Update update = new Update().setOnInsert("appliedAt", Instant.now());
+        return mongoTemplate.upsert(Query.query(Criteria.where("_id").is(eventKey)), update, AppliedRollupEvent.class)
+                .getUpsertedId() != null;
+    }
+
+    @Override
+    public List<String> findUncompactedDays(String beforeDay) {
+        Query query = Query.query(Criteria.where("compacted").is(false).and("day").lt(beforeDay));
+        return mongoTemplate.findDistinct(query, "day", DailyRollup.class, String.class);
+    }
+
+    @Override
+    public int compactDay(String day) {
+        Instant started = Instant.now();
+        Criteria rows = Criteria.where("day").is(day).and("total").is(false);
+        GroupOperation sums = Aggregation.group("podcastId");
+        for (RollupCounter counter : RollupCounter.values()) {
+            sums = sums.sum(counter.field()).as(counter.field());
+        }
+        List<Document> totals = mongoTemplate.aggregate(
+                        Aggregation.newAggregation(Aggregation.match(rows), sums),
+                        mongoTemplate.getCollectionName(DailyRollup.class), Document.class)
+                .getMappedResults();
+        if (totals.isEmpty()) {
+            return 0;
+        }
+
+        // La fila total se reescribe entera: compactar dos veces el mismo día da lo mismo
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DailyRollup.class);
+        for (Document total : totals) {
+            String podcastId = total.getString("_id");
+            Update update = new Update()
+                    .set("podcastId", podcastId)
+                    .set("day", day)
+                    .set("total", true)
+                    .set("compacted", true)
+                    .set("updatedAt", started);
+            for (RollupCounter counter : RollupCounter.values()) {
+                update.set(counter.field(), ((Number) total.get(counter.field())).longValue());
+            }
+            bulk.upsert(Query.query(Criteria.where("_id").is(podcastId + ":total:" + day)), update);
+        }
+        bulk.execute();
+
+        // Las filas que han cambiado mientras tanto siguen pendientes para la próxima vez
+        mongoTemplate.updateMulti(Query.query(Criteria.where("day").is(day).and("total").is(false).and("updatedAt").lt(started)),
+                new Update().set("compacted", true), DailyRollup.class);
+        return totals.size();
+    }
+
+    @Override
+    public long deleteCompactedBefore(String beforeDay) {
+        return mongoTemplate.remove(Query.query(Criteria.where("total").is(false)
+                        .and("compacted").is(true)
+                        .and("day").lt(beforeDay)),
+                DailyRollup.class).getDeletedCount();
+    }
+
+    @Override
+    public List<DailyRollup> findTotals(Collection<String> podcastIds, String from, String to) {
+        return mongoTemplate.find(Query.query(Criteria.where("podcastId").in(podcastIds)
+                .and("total").is(true)
+                .and("day").gte(from).lte(to)), DailyRollup.class);
+    }
+
+    @Override
+    public List<DailyRollup> findUncompacted(Collection<String> podcastIds, String from, String to) {
+        return mongoTemplate.find(Query.query(Criteria.where("podcastId").in(podcastIds)
+                .and("total").is(false)
+                .and("day").gte(from).lte(to)
+                .and("compacted").is(false)), DailyRollup.class);
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,4 +40,10 @@ public interface EpisodeLikeRepository extends MongoRepository<EpisodeLike, Stri
 
     @Query(value = "{ 'userId': ?0, 'createdAt': { $lt: ?1 } }", sort = "{ 'createdAt': -1 }")
     List<EpisodeLike> findNextLikesByUser(String userId, Instant cursor, int limit);
+
+    // ========== Estado en bloque: likes de un usuario sobre varios episodios ==========
+    // Proyección cubierta por el índice user_episode_unique (sin _id)
+
+    @Query(value = "{ 'userId': ?0, 'episodeId': { $in: ?1 } }", fields = "{ 'episodeId': 1, '_id': 0 }")
+    List<EpisodeLike> findLikedEpisodeIds(String userId, Collection<String> episodeIds);
 }
@@ -1,6 +1,7 @@
 package org.podhub.podhub.repository;
 
 import org.podhub.podhub.model.Episode;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
@@ -9,9 +10,11 @@ import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface EpisodeRepository extends MongoRepository<Episode, String> {
+public interface EpisodeRepository extends MongoRepository<Episode, String>, EpisodeRepositoryCustom {
 
     Page<Episode> findByPodcastId(String podcastId, Pageable pageable);
 
@@ -21,6 +24,26 @@ public interface EpisodeRepository extends MongoRepository<Episode, String> {
 
     long countByPodcastId(String podcastId);
 
+    // Usa el índice único podcast_guid_unique (refresco incremental de feeds)
+    boolean existsByPodcastIdAndGuidHash(String podcastId, String guidHash);
+
+    // ========== Proyecciones para GET condicionales (ETag / Last-Modified) ==========
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'updatedAt': 1 }")
+    Optional<Episode> findVersionById(String id);
+
+    // ========== Feed RSS público (cursor, sin transcript) ==========
+
+    @Query(value = "{ 'podcastId': ?0, 'isPublic': true, $or: [ { 'publishAt': null }, { 'publishAt': { $lte: ?1 } } ] }",
+           fields = "{ 'transcript': 0 }",
+           sort = "{ 'publishAt': -1, 'createdAt': -1 }")
+    Stream<Episode> streamFeedEpisodes(String podcastId, Instant now, Limit limit);
+
+    // ========== Proyecciones para comprobaciones de permisos ==========
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'podcastId': 1 }")
+    Optional<Episode> findPodcastIdById(String id);
+
     // ========== Paginación cursor-based: Todos los episodios ==========
 
     @Query(value = "{}", sort = "{ 'createdAt': -1 }")
@@ -0,0 +1,53 @@
+package org.podhub.podhub.repository;
+
+import org.podhub.podhub.model.Episode;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Operaciones de EpisodeRepository que no se pueden expresar con queries derivadas.
+ */
+public interface EpisodeRepositoryCustom {
+
+    /**
+     * Actualización parcial atómica (findAndModify) de un episodio de un podcast concreto
+     *
+     * @param id ID del episodio
+     * @param podcastId Podcast al que debe pertenecer el episodio
+     * @param update $set con solo los campos a modificar
+     * @return Documento actualizado, o vacío si ningún documento cumple el filtro
+     */
+    Optional<Episode> patchInPodcast(String id, String podcastId, Update update);
+
+    /**
+     * Como patchInPodcast, pero devuelve el documento anterior a la actualización
+     * (p.ej. para liberar el blob de audio que deja de referenciar)
+     */
+    Optional<Episode> patchInPodcastReturningOld(String id, String podcastId, Update update);
+
+    /**
+     * Actualiza el episodio solo si su audioUrl sigue siendo audioUrl
+     * (resultados de un procesado en segundo plano de un audio que ya se ha sustituido se descartan)
+     *
+     * @return Episodio actualizado, o vacío si no existe o su audio ha cambiado
+     */
+    Optional<Episode> patchIfAudioUrl(String id, String audioUrl, Update update);
+
+    /**
+     * Borra un episodio y devuelve su podcastId y audioSha256
+     *
+     * @return Documento borrado (solo esos campos), o vacío si no existía
+     */
+    Optional<Episode> findAndRemoveById(String id);
+
+    /**
+     * Inserta un lote con un único bulk write desordenado.
+     * Los duplicados (índice único podcastId + guidHash) no interrumpen el lote: se descartan
+     * y se descuentan del total; cualquier otro error se propaga.
+     *
+     * @return Número de episodios realmente insertados
+     */
+    int insertIgnoringDuplicates(List<Episode> episodes);
+}
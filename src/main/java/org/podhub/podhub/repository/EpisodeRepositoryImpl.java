@@ -0,0 +1,77 @@
+package org.podhub.podhub.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.model.Episode;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class EpisodeRepositoryImpl implements EpisodeRepositoryCustom {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<Episode> patchInPodcast(String id, String podcastId, Update update) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id).and("podcastId").is(podcastId)),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                Episode.class));
+    }
+
+    @Override
+    public Optional<Episode> patchInPodcastReturningOld(String id, String podcastId, Update update) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id).and("podcastId").is(podcastId)),
+                update,
+                FindAndModifyOptions.options().returnNew(false),
+                Episode.class));
+    }
+
+    @Override
+    public Optional<Episode> patchIfAudioUrl(String id, String audioUrl, Update update) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id).and("audioUrl").is(audioUrl)),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                Episode.class));
+    }
+
+    @Override
+    public Optional<Episode> findAndRemoveById(String id) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include("podcastId", "audioSha256");
+        return Optional.ofNullable(mongoTemplate.findAndRemove(query, Episode.class));
+    }
+
+    @Override
+    public int insertIgnoringDuplicates(List<Episode> episodes) {
+        if (episodes.isEmpty()) {
+            return 0;
+        }
+        try {
+            return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Episode.class)
+                    .insert(episodes)
+                    .execute()
+                    .getInsertedCount();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+            return e.getResult().getInsertedCount();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.podhub.podhub.repository;
+
+import org.podhub.podhub.model.EpisodeRetention;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EpisodeRetentionRepository extends MongoRepository<EpisodeRetention, String>, EpisodeRetentionRepositoryCustom {
+}
@@ -0,0 +1,25 @@
+package org.podhub.podhub.repository;
+
+import org.podhub.podhub.model.EpisodeRetention;
+
+import java.util.List;
+
+/**
+ * Actualizaciones atómicas de los histogramas de retención
+ */
+public interface EpisodeRetentionRepositoryCustom {
+
+    /**
+     * Mueve un oyente de un tramo a otro ($inc), creando el histograma si no existe
+     *
+     * @param fromBucket Tramo anterior, o -1 si es un oyente nuevo
+     * @param toBucket   Tramo nuevo, o -1 si el oyente desaparece
+     * @return false si el histograma guardado se calculó con otra duración (no se toca)
+     */
+    boolean move(String episodeId, String podcastId, int durationSec, int fromBucket, int toBucket);
+
+    /**
+     * Sustituye (o crea) los histogramas en una sola escritura en bloque
+     */
+    void replaceAll(List<EpisodeRetention> retentions);
+}
@@ -0,0 +1,71 @@
+package org.podhub.podhub.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.analytics.RetentionHistogram;
+import org.podhub.podhub.model.EpisodeRetention;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class EpisodeRetentionRepositoryImpl implements EpisodeRetentionRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean move(String episodeId, String podcastId, int durationSec, int fromBucket, int toBucket) {
+        if (fromBucket == toBucket) {
+            return true;
+        }
+        Query query = Query.query(Criteria.where("_id").is(episodeId).and("durationSec").is(durationSec));
+        Update update = increments(fromBucket, toBucket);
+        if (mongoTemplate.updateFirst(query, update, EpisodeRetention.class).getMatchedCount() > 0) {
+            return true;
+        }
+
+        // $inc no puede crear posiciones de un array que no existe: primero el histograma a cero
+        Update create = new Update()
+                .setOnInsert("podcastId", podcastId)
+                .setOnInsert("durationSec", durationSec)
+                .setOnInsert("counts", new int[RetentionHistogram.BUCKETS]);
+        boolean created = mongoTemplate.upsert(Query.query(Criteria.where("_id").is(episodeId)), create, EpisodeRetention.class)
+                .getUpsertedId() != null;
+        if (created && fromBucket >= 0) {
+            // Histograma nuevo: el oyente aún no estaba contado en su tramo anterior
+            update = increments(-1, toBucket);
+        }
+        return mongoTemplate.updateFirst(query, update, EpisodeRetention.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public void replaceAll(List<EpisodeRetention> retentions) {
+        if (retentions.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, EpisodeRetention.class);
+        for (EpisodeRetention retention : retentions) {
+            bulk.upsert(Query.query(Criteria.where("_id").is(retention.getId())), new Update()
+                    .set("podcastId", retention.getPodcastId())
+                    .set("durationSec", retention.getDurationSec())
+                    .set("counts", retention.getCounts())
+                    .set("updatedAt", retention.getUpdatedAt()));
+        }
+        bulk.execute();
+    }
+
+    private static Update increments(int fromBucket, int toBucket) {
+        Update update = new Update().set("updatedAt", Instant.now());
+        if (fromBucket >= 0) {
+            update.inc("counts." + fromBucket, -1);
+        }
+        if (toBucket >= 0) {
+            update.inc("counts." + toBucket, 1);
+        }
+        return update;
+    }
+}
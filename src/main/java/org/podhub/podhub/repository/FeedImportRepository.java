@@ -0,0 +1,9 @@
+package org.podhub.podhub.repository;
+
+import org.podhub.podhub.model.FeedImport;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FeedImportRepository extends MongoRepository<FeedImport, String>, FeedImportRepositoryCustom {
+}
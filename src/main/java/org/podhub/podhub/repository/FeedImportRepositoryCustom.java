@@ -0,0 +1,30 @@
+package org.podhub.podhub.repository;
+
+import org.podhub.podhub.model.FeedImport;
+import org.podhub.podhub.model.enums.ImportStatus;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Transiciones de estado de FeedImport como actualizaciones atómicas.
+ */
+public interface FeedImportRepositoryCustom {
+
+    /**
+     * Pasa a RUNNING una importación que se puede (re)lanzar: PENDING, FAILED,
+     * o RUNNING sin checkpoint desde staleBefore (el proceso que la ejecutaba murió)
+     *
+     * @return Importación reclamada, o vacío si otro proceso la está ejecutando o ya terminó
+     */
+    Optional<FeedImport> claim(String id, Instant staleBefore);
+
+    /**
+     * Guarda el progreso tras escribir un lote (y renueva updatedAt como latido)
+     */
+    void checkpoint(String id, long itemsProcessed, long inserted, long duplicates, long skipped);
+
+    void setPodcastId(String id, String podcastId);
+
+    void finish(String id, ImportStatus status, String error);
+}
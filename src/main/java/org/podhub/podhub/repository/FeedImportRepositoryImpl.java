@@ -0,0 +1,69 @@
+package org.podhub.podhub.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.model.FeedImport;
+import org.podhub.podhub.model.enums.ImportStatus;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class FeedImportRepositoryImpl implements FeedImportRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<FeedImport> claim(String id, Instant staleBefore) {
+        Criteria claimable = new Criteria().orOperator(
+                Criteria.where("status").in(ImportStatus.PENDING, ImportStatus.FAILED),
+                Criteria.where("status").is(ImportStatus.RUNNING).and("updatedAt").lt(staleBefore));
+        Update update = new Update()
+                .set("status", ImportStatus.RUNNING)
+                .set("updatedAt", Instant.now())
+                .unset("error");
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id)).addCriteria(claimable),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                FeedImport.class));
+    }
+
+    @Override
+    public void checkpoint(String id, long itemsProcessed, long inserted, long duplicates, long skipped) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(id)),
+                new Update()
+                        .set("itemsProcessed", itemsProcessed)
+                        .set("inserted", inserted)
+                        .set("duplicates", duplicates)
+                        .set("skipped", skipped)
+                        .set("updatedAt", Instant.now()),
+                FeedImport.class);
+    }
+
+    @Override
+    public void setPodcastId(String id, String podcastId) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(id)),
+                new Update().set("podcastId", podcastId).set("updatedAt", Instant.now()),
+                FeedImport.class);
+    }
+
+    @Override
+    public void finish(String id, ImportStatus status, String error) {
+        Instant now = Instant.now();
+        Update update = new Update()
+                .set("status", status)
+                .set("updatedAt", now)
+                .set("finishedAt", now);
+        if (error != null) {
+            update.set("error", error);
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)), update, FeedImport.class);
+    }
+}
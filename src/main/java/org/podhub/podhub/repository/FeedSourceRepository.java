@@ -0,0 +1,15 @@
+package org.podhub.podhub.repository;
+
+import org.podhub.podhub.model.FeedSource;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface FeedSourceRepository extends MongoRepository<FeedSource, String>, FeedSourceRepositoryCustom {
+
+    Optional<FeedSource> findByPodcastId(String podcastId);
+
+    void deleteByPodcastId(String podcastId);
+}
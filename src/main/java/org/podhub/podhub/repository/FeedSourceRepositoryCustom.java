@@ -0,0 +1,33 @@
+package org.podhub.podhub.repository;
+
+import org.podhub.podhub.model.FeedSource;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Reparto de feeds entre instancias mediante leases (findAndModify atómico).
+ */
+public interface FeedSourceRepositoryCustom {
+
+    /**
+     * Reclama el feed pendiente más antiguo (nextFetchAt &lt;= now) que nadie tenga reclamado
+     *
+     * @param leaseUntil Hasta cuándo queda reservado para quien lo reclama
+     * @return Feed reclamado, o vacío si no queda ninguno pendiente
+     */
+    Optional<FeedSource> claimDue(Instant now, Instant leaseUntil);
+
+    /**
+     * Reclama el feed de un podcast aunque no le toque todavía (refresco manual)
+     *
+     * @return Feed reclamado, o vacío si no existe o ya está reclamado
+     */
+    Optional<FeedSource> claimByPodcastId(String podcastId, Instant now, Instant leaseUntil);
+
+    /**
+     * Aplica el resultado de una consulta y libera el lease
+     */
+    void release(String id, Update update);
+}
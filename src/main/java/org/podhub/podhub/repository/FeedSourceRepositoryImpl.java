@@ -0,0 +1,45 @@
+package org.podhub.podhub.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.model.FeedSource;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class FeedSourceRepositoryImpl implements FeedSourceRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<FeedSource> claimDue(Instant now, Instant leaseUntil) {
+        Query query = Query.query(Criteria.where("nextFetchAt").lte(now).and("leaseUntil").not().gt(now))
+                .with(Sort.by(Sort.Direction.ASC, "nextFetchAt"));
+        return claim(query, leaseUntil);
+    }
+
+    @Override
+    public Optional<FeedSource> claimByPodcastId(String podcastId, Instant now, Instant leaseUntil) {
+        Query query = Query.query(Criteria.where("podcastId").is(podcastId).and("leaseUntil").not().gt(now));
+        return claim(query, leaseUntil);
+    }
+
+    @Override
+    public void release(String id, Update update) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)), update.unset("leaseUntil"), FeedSource.class);
+    }
+
+    private Optional<FeedSource> claim(Query query, Instant leaseUntil) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                query,
+                new Update().set("leaseUntil", leaseUntil),
+                FindAndModifyOptions.options().returnNew(true),
+                FeedSource.class));
+    }
+}
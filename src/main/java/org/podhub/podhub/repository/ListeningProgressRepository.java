@@ -8,6 +8,7 @@ import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,4 +38,10 @@ public interface ListeningProgressRepository extends MongoRepository<ListeningPr
 
     @Query(value = "{ 'episodeId': ?0, 'createdAt': { $lt: ?1 } }", sort = "{ 'createdAt': -1 }")
     List<ListeningProgress> findNextProgressByEpisode(String episodeId, Instant cursor, int limit);
+
+    // ========== Estado en bloque: progreso de un usuario sobre varios episodios ==========
+
+    @Query(value = "{ 'userId': ?0, 'episodeId': { $in: ?1 } }",
+           fields = "{ 'episodeId': 1, 'positionSeconds': 1, 'completed': 1, '_id': 0 }")
+    List<ListeningProgress> findProgressForEpisodes(String userId, Collection<String> episodeIds);
 }
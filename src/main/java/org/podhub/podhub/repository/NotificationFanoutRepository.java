@@ -0,0 +1,16 @@
+package org.podhub.podhub.repository;
+
+import org.podhub.podhub.model.NotificationFanout;
+import org.podhub.podhub.model.enums.FanoutStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface NotificationFanoutRepository extends MongoRepository<NotificationFanout, String>, NotificationFanoutRepositoryCustom {
+
+    List<NotificationFanout> findByStatusAndDueAtLessThanEqual(FanoutStatus status, Instant dueAt, Limit limit);
+}
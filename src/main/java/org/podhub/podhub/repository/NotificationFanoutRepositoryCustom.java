@@ -0,0 +1,33 @@
+package org.podhub.podhub.repository;
+
+import org.podhub.podhub.model.NotificationFanout;
+import org.podhub.podhub.model.enums.FanoutStatus;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Transiciones de estado de NotificationFanout como actualizaciones atómicas.
+ */
+public interface NotificationFanoutRepositoryCustom {
+
+    /**
+     * Pasa a RUNNING el reparto de un episodio si no existe, está programado, falló o lleva desde staleBefore
+     * sin checkpoint (el proceso que lo ejecutaba murió)
+     *
+     * @return Reparto reclamado (con su checkpoint), o vacío si otro proceso lo está ejecutando o ya terminó
+     */
+    Optional<NotificationFanout> claim(String episodeId, String podcastId, Instant publishedAt, Instant staleBefore);
+
+    /**
+     * Guarda el progreso tras escribir un tramo (y renueva updatedAt como latido)
+     */
+    void checkpoint(String episodeId, String lastUserId, long recipients, long written);
+
+    void finish(String episodeId, FanoutStatus status, String error);
+
+    /**
+     * Aplaza un reparto reclamado hasta dueAt (publishAt del episodio), que pasa a ser también su publishedAt
+     */
+    void schedule(String episodeId, Instant dueAt);
+}
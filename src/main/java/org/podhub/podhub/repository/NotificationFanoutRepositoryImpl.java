@@ -0,0 +1,86 @@
+package org.podhub.podhub.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.model.NotificationFanout;
+import org.podhub.podhub.model.enums.FanoutStatus;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class NotificationFanoutRepositoryImpl implements NotificationFanoutRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<NotificationFanout> claim(String episodeId, String podcastId, Instant publishedAt, Instant staleBefore) {
+        Criteria claimable = new Criteria().orOperator(
+                Criteria.where("status").is(FanoutStatus.FAILED),
+                Criteria.where("status").is(FanoutStatus.SCHEDULED),
+                Criteria.where("status").is(FanoutStatus.RUNNING).and("updatedAt").lt(staleBefore));
+        Instant now = Instant.now();
+        Update update = new Update()
+                .set("status", FanoutStatus.RUNNING)
+                .set("updatedAt", now)
+                .unset("error")
+                .unset("dueAt")
+                .setOnInsert("podcastId", podcastId)
+                .setOnInsert("publishedAt", publishedAt)
+                .setOnInsert("recipients", 0L)
+                .setOnInsert("written", 0L)
+                .setOnInsert("startedAt", now);
+        try {
+            // Si no existe se crea; si existe y no se puede reclamar, el upsert choca con su _id
+            return Optional.ofNullable(mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("_id").is(episodeId)).addCriteria(claimable),
+                    update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    NotificationFanout.class));
+        } catch (DuplicateKeyException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void checkpoint(String episodeId, String lastUserId, long recipients, long written) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(episodeId)),
+                new Update()
+                        .set("lastUserId", lastUserId)
+                        .set("recipients", recipients)
+                        .set("written", written)
+                        .set("updatedAt", Instant.now()),
+                NotificationFanout.class);
+    }
+
+    @Override
+    public void finish(String episodeId, FanoutStatus status, String error) {
+        Instant now = Instant.now();
+        Update update = new Update()
+                .set("status", status)
+                .set("updatedAt", now)
+                .set("finishedAt", now);
+        if (error != null) {
+            update.set("error", error);
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(episodeId)), update, NotificationFanout.class);
+    }
+
+    @Override
+    public void schedule(String episodeId, Instant dueAt) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(episodeId)),
+                new Update()
+                        .set("status", FanoutStatus.SCHEDULED)
+                        .set("dueAt", dueAt)
+                        .set("publishedAt", dueAt)
+                        .set("updatedAt", Instant.now()),
+                NotificationFanout.class);
+    }
+}
@@ -0,0 +1,24 @@
+package org.podhub.podhub.repository;
+
+import org.podhub.podhub.model.Notification;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface NotificationRepository extends MongoRepository<Notification, String>, NotificationRepositoryCustom {
+
+    long countByUserIdAndReadFalse(String userId);
+
+    // ========== Paginación cursor-based: Por usuario ==========
+
+    @Query(value = "{ 'userId': ?0 }", sort = "{ 'createdAt': -1 }")
+    List<Notification> findFirstNotificationsByUser(String userId, Limit limit);
+
+    @Query(value = "{ 'userId': ?0, 'createdAt': { $lt: ?1 } }", sort = "{ 'createdAt': -1 }")
+    List<Notification> findNextNotificationsByUser(String userId, Instant cursor, Limit limit);
+}
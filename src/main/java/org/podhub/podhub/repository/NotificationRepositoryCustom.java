@@ -0,0 +1,25 @@
+package org.podhub.podhub.repository;
+
+import org.podhub.podhub.model.Notification;
+
+import java.util.List;
+
+/**
+ * Escrituras en bloque de notificaciones.
+ */
+public interface NotificationRepositoryCustom {
+
+    /**
+     * Inserta un tramo con una sola escritura en bloque sin orden; las que ya existían (mismo _id) se ignoran
+     *
+     * @return Notificaciones insertadas
+     */
+    int insertIgnoringDuplicates(List<Notification> notifications);
+
+    /**
+     * Marca como leídas todas las notificaciones sin leer de un usuario
+     *
+     * @return Notificaciones marcadas
+     */
+    long markAllRead(String userId);
+}
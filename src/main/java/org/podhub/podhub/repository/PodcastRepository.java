@@ -10,7 +10,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PodcastRepository extends MongoRepository<Podcast, String> {
+public interface PodcastRepository extends MongoRepository<Podcast, String>, PodcastRepositoryCustom {
 
     // ========== Búsquedas individuales ==========
 
@@ -18,6 +18,19 @@ public interface PodcastRepository extends MongoRepository<Podcast, String> {
 
     boolean existsBySlug(String slug);
 
+    // ========== Proyecciones para GET condicionales (ETag / Last-Modified) ==========
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'updatedAt': 1 }")
+    Optional<Podcast> findVersionById(String id);
+
+    @Query(value = "{ 'slug': ?0 }", fields = "{ 'updatedAt': 1 }")
+    Optional<Podcast> findVersionBySlug(String slug);
+
+    // ========== Proyecciones para comprobaciones de permisos ==========
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'creatorId': 1 }")
+    Optional<Podcast> findCreatorIdById(String id);
+
     // ========== Paginación cursor-based: Todos los podcasts ==========
 
     @Query(value = "{}", sort = "{ 'createdAt': -1 }")
@@ -0,0 +1,22 @@
+package org.podhub.podhub.repository;
+
+import org.podhub.podhub.model.Podcast;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Optional;
+
+/**
+ * Operaciones de PodcastRepository que no se pueden expresar con queries derivadas.
+ */
+public interface PodcastRepositoryCustom {
+
+    /**
+     * Actualización parcial atómica (findAndModify) de un podcast de un creador concreto
+     *
+     * @param id ID del podcast
+     * @param creatorId Creador que debe tener el podcast
+     * @param update $set con solo los campos a modificar
+     * @return Documento actualizado, o vacío si ningún documento cumple el filtro
+     */
+    Optional<Podcast> patchOwnedBy(String id, String creatorId, Update update);
+}
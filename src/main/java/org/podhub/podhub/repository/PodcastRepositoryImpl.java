@@ -0,0 +1,26 @@
+package org.podhub.podhub.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.model.Podcast;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class PodcastRepositoryImpl implements PodcastRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<Podcast> patchOwnedBy(String id, String creatorId, Update update) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id).and("creatorId").is(creatorId)),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                Podcast.class));
+    }
+}
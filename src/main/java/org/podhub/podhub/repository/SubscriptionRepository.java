@@ -1,6 +1,7 @@
 package org.podhub.podhub.repository;
 
 import org.podhub.podhub.model.Subscription;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
@@ -24,6 +25,19 @@ public interface SubscriptionRepository extends MongoRepository<Subscription, St
 
     long countByPodcastId(String podcastId);
 
+    long deleteByUserIdAndPodcastId(String userId, String podcastId);
+
+    // ========== Membresía: IDs de podcasts suscritos por usuario (proyección) ==========
+
+    @Query(value = "{ 'userId': ?0 }", fields = "{ 'podcastId': 1, '_id': 0 }")
+    List<Subscription> findPodcastIdsByUser(String userId, Limit limit);
+
+    // ========== Notificaciones: suscriptores de un podcast por tramos de userId (índice podcast_notifications) ==========
+
+    @Query(value = "{ 'podcastId': ?0, 'notifications': true, 'userId': { $gt: ?1 } }",
+           fields = "{ 'userId': 1, '_id': 0 }", sort = "{ 'userId': 1 }")
+    List<Subscription> findNotifiedUserIdsAfter(String podcastId, String afterUserId, Limit limit);
+
     // ========== Paginación cursor-based: Por usuario ==========
 
     @Query(value = "{ 'userId': ?0 }", sort = "{ 'createdAt': -1 }")
@@ -0,0 +1,9 @@
+package org.podhub.podhub.repository;
+
+import org.podhub.podhub.model.TrendingSnapshot;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TrendingSnapshotRepository extends MongoRepository<TrendingSnapshot, String> {
+}
@@ -0,0 +1,15 @@
+package org.podhub.podhub.repository;
+
+import org.podhub.podhub.model.UploadSession;
+import org.podhub.podhub.model.enums.UploadStatus;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface UploadSessionRepository extends MongoRepository<UploadSession, String>, UploadSessionRepositoryCustom {
+
+    List<UploadSession> findByStatusAndUpdatedAtBefore(UploadStatus status, Instant updatedBefore);
+}
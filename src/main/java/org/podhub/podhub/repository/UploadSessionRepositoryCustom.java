@@ -0,0 +1,26 @@
+package org.podhub.podhub.repository;
+
+import org.podhub.podhub.model.UploadSession;
+
+import java.util.Optional;
+
+/**
+ * Avance y cierre de UploadSession como actualizaciones atómicas condicionadas al offset,
+ * para que dos instancias no puedan aceptar el mismo trozo.
+ */
+public interface UploadSessionRepositoryCustom {
+
+    /**
+     * Mueve offset de expectedOffset a newOffset (y renueva updatedAt)
+     *
+     * @return Sesión actualizada, o vacío si ya no está en UPLOADING o su offset ha cambiado
+     */
+    Optional<UploadSession> advance(String id, long expectedOffset, long newOffset);
+
+    /**
+     * Pasa a COMPLETED una sesión en UPLOADING con todos sus bytes recibidos
+     *
+     * @return Sesión completada, o vacío si otra petición la completó antes
+     */
+    Optional<UploadSession> complete(String id, long length, String sha256, String audioUrl);
+}
@@ -0,0 +1,47 @@
+package org.podhub.podhub.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.model.UploadSession;
+import org.podhub.podhub.model.enums.UploadStatus;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class UploadSessionRepositoryImpl implements UploadSessionRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<UploadSession> advance(String id, long expectedOffset, long newOffset) {
+        Query query = Query.query(Criteria.where("_id").is(id)
+                .and("status").is(UploadStatus.UPLOADING)
+                .and("offset").is(expectedOffset));
+        Update update = new Update()
+                .set("offset", newOffset)
+                .set("updatedAt", Instant.now());
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), UploadSession.class));
+    }
+
+    @Override
+    public Optional<UploadSession> complete(String id, long length, String sha256, String audioUrl) {
+        Query query = Query.query(Criteria.where("_id").is(id)
+                .and("status").is(UploadStatus.UPLOADING)
+                .and("offset").is(length));
+        Instant now = Instant.now();
+        Update update = new Update()
+                .set("status", UploadStatus.COMPLETED)
+                .set("sha256", sha256)
+                .set("audioUrl", audioUrl)
+                .set("updatedAt", now)
+                .set("completedAt", now);
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), UploadSession.class));
+    }
+}
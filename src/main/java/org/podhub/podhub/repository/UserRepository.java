@@ -14,7 +14,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
 
     Optional<User> findByUsername(String username);
 
@@ -24,6 +24,11 @@ public interface UserRepository extends MongoRepository<User, String> {
 
     boolean existsByUsername(String username);
 
+    // ========== Proyecciones para GET condicionales (ETag / Last-Modified) ==========
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'updatedAt': 1 }")
+    Optional<User> findVersionById(String id);
+
     Page<User> findByStatus(UserStatus status, Pageable pageable);
 
     @Query(value = "{ 'roleIds': ?0 }")
@@ -0,0 +1,21 @@
+package org.podhub.podhub.repository;
+
+import org.podhub.podhub.model.User;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Optional;
+
+/**
+ * Operaciones de UserRepository que no se pueden expresar con queries derivadas.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Actualización parcial atómica (findAndModify) de un usuario
+     *
+     * @param id ID del usuario
+     * @param update $set con solo los campos a modificar
+     * @return Documento actualizado, o vacío si ningún documento cumple el filtro
+     */
+    Optional<User> patch(String id, Update update);
+}
@@ -0,0 +1,12 @@
+package org.podhub.podhub.security;
+
+/**
+ * Usuario autenticado que realiza la petición, resuelto una sola vez por
+ * {@link CurrentUserArgumentResolver}. Se declara como parámetro de un método de controlador.
+ *
+ * @param id ID de MongoDB del usuario
+ * @param email Email del usuario (username interno de Spring Security)
+ * @param admin Si el usuario tiene el rol ADMIN
+ */
+public record CurrentUser(String id, String email, boolean admin) {
+}
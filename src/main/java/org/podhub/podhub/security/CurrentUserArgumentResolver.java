@@ -0,0 +1,59 @@
+package org.podhub.podhub.security;
+
+import lombok.RequiredArgsConstructor;
+import org.podhub.podhub.exception.ResourceNotFoundException;
+import org.podhub.podhub.model.User;
+import org.podhub.podhub.repository.UserRepository;
+import org.podhub.podhub.security.userdetails.PodhubUserDetails;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resuelve los parámetros {@link CurrentUser} de los controladores.
+ * Con un {@link PodhubUserDetails} (el caso normal tras el filtro JWT) no hace ninguna
+ * consulta: el ID viaja en el principal. Para otros principales busca el usuario por
+ * email una sola vez. Sin autenticación resuelve null (como @AuthenticationPrincipal).
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String ADMIN_AUTHORITY = "ROLE_ADMIN";
+
+    private final UserRepository userRepository;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return CurrentUser.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(auth -> ADMIN_AUTHORITY.equals(auth.getAuthority()));
+
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof PodhubUserDetails details) {
+            return new CurrentUser(details.getUserId(), details.getUsername(), admin);
+        }
+
+        String email = principal instanceof UserDetails details ? details.getUsername() : authentication.getName();
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        return new CurrentUser(user.getId(), user.getEmail(), admin);
+    }
+}
@@ -0,0 +1,82 @@
+package org.podhub.podhub.security;
+
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.security.jwt.JwtService;
+import org.podhub.podhub.security.userdetails.MongoUserDetailsService;
+import org.podhub.podhub.security.userdetails.PodhubUserDetails;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+
+/**
+ * Autentica el handshake de los WebSocket con el access token.
+ *
+ * El WebSocket del navegador no permite añadir cabeceras, así que además de Authorization: Bearer se acepta
+ * el token en el parámetro access_token. Guarda en los atributos de la sesión el ID del usuario (USER_ID) y
+ * el dispositivo del parámetro device (DEVICE_ID, opcional); sin token válido responde 401.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JwtHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String USER_ID = "userId";
+    public static final String DEVICE_ID = "deviceId";
+
+    private static final int MAX_DEVICE_ID_LENGTH = 64;
+
+    private final JwtService jwtService;
+    private final MongoUserDetailsService userDetailsService;
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        var params = UriComponentsBuilder.fromUri(request.getURI()).build(true).getQueryParams();
+        String jwt = params.getFirst("access_token");
+        String authHeader = request.getHeaders().getFirst("Authorization");
+        if (jwt == null && authHeader != null && authHeader.startsWith("Bearer ")) {
+            jwt = authHeader.substring(7);
+        }
+
+        PodhubUserDetails user = jwt != null ? authenticate(jwt) : null;
+        if (user == null) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+        attributes.put(USER_ID, user.getUserId());
+        String deviceId = params.getFirst("device");
+        if (deviceId != null && !deviceId.isBlank() && deviceId.length() <= MAX_DEVICE_ID_LENGTH) {
+            attributes.put(DEVICE_ID, deviceId);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+
+    private PodhubUserDetails authenticate(String jwt) {
+        try {
+            String username = jwtService.extractUsername(jwt);
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (jwtService.isTokenValid(jwt, userDetails.getUsername())
+                    && userDetails instanceof PodhubUserDetails podhubUser) {
+                return podhubUser;
+            }
+        } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+            log.debug("WebSocket handshake rejected: {}", e.getMessage());
+        }
+        return null;
+    }
+}
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.podhub.podhub.security.filter.JwtAuthenticationFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -53,6 +54,16 @@ public class SecurityConfiguration {
                                 "/swagger-ui.html"
                         ).permitAll()
 
+                        // Feeds RSS públicos: los agregadores no envían JWT
+                        .requestMatchers(HttpMethod.GET, "/api/podcasts/*/feed.xml").permitAll()
+                        // Audio: los reproductores (<audio>, apps) tampoco
+                        .requestMatchers(HttpMethod.GET, "/api/audio/**").permitAll()
+                        .requestMatchers(HttpMethod.HEAD, "/api/audio/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/waveforms/*").permitAll()
+                        // WebSocket: el navegador no envía Authorization, el token se valida en el handshake
+                        // (JwtHandshakeInterceptor)
+                        .requestMatchers(HttpMethod.GET, "/api/ws/progress").permitAll()
+
 
                         // Todo lo demás → requiere JWT
                         .anyRequest().authenticated()
@@ -53,12 +53,7 @@ public class MongoUserDetailsService implements UserDetailsService {
                 .toList();
 
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail()) // username interno para security
-                .password(user.getPasswordHash())
-                .authorities(authorities)
-                .accountLocked(false)
-                .disabled(false)
-                .build();
+        // username interno para security = email; el ID viaja con el principal
+        return new PodhubUserDetails(user.getId(), user.getEmail(), user.getPasswordHash(), authorities);
     }
 }
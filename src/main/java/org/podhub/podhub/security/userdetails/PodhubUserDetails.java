@@ -0,0 +1,23 @@
+package org.podhub.podhub.security.userdetails;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * UserDetails de PodHub: además del email (username interno) guarda el ID de MongoDB
+ * del usuario, para que los controladores no tengan que volver a buscarlo por email.
+ */
+@Getter
+public class PodhubUserDetails extends User {
+
+    private final String userId;
+
+    public PodhubUserDetails(String userId, String email, String password,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(email, password, authorities);
+        this.userId = userId;
+    }
+}
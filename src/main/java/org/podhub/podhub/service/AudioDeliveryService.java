@@ -0,0 +1,214 @@
+package org.podhub.podhub.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.exception.ResourceNotFoundException;
+import org.podhub.podhub.storage.AudioStorage;
+import org.podhub.podhub.storage.BlobStore;
+import org.podhub.podhub.util.ByteRanges;
+import org.podhub.podhub.util.ByteRanges.Range;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Entrega de audio desde AudioStorage con peticiones parciales (RFC 7233): Range simple y múltiple
+ * (multipart/byteranges), If-Range y GET condicional (If-None-Match / If-Modified-Since).
+ *
+ * El fichero nunca se carga en memoria:
+ * - Con Tomcat (NIO) la respuesta de un solo rango se delega en su sendfile, que hace FileChannel.transferTo
+ *   directamente al socket (copia en el kernel) desde su poller, sin ocupar el hilo de la petición.
+ * - Si no hay sendfile (multi-rango, otros contenedores, MockMvc) se usa FileChannel.transferTo sobre el
+ *   canal de la respuesta, que copia por bloques con un buffer pequeño.
+ * Un cliente que corta la conexión (p.ej. al saltar a otro punto del episodio) no es un error.
+ */
+@Slf4j
+@Service
+public class AudioDeliveryService {
+
+    // Atributos de petición de Tomcat para sendfile (org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String CRLF = "\r\n";
+
+    private final AudioStorage audioStorage;
+    private final BlobStore blobStore;
+    private final String cacheControl;
+    private final String blobCacheControl;
+
+    public AudioDeliveryService(
+            AudioStorage audioStorage,
+            BlobStore blobStore,
+            @Value("${podhub.audio.cache-max-age:30d}") Duration cacheMaxAge) {
+        this.audioStorage = audioStorage;
+        this.blobStore = blobStore;
+        this.cacheControl = CacheControl.maxAge(cacheMaxAge).cachePublic().getHeaderValue();
+        // La URL de un blob incluye el hash de su contenido: nunca cambia
+        this.blobCacheControl = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable().getHeaderValue();
+    }
+
+    /**
+     * Escribe la respuesta completa (cabeceras y cuerpo) para GET o HEAD de una clave
+     *
+     * @throws ResourceNotFoundException si la clave no corresponde a un fichero de audio
+     */
+    public void serve(String key, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = audioStorage.resolve(key)
+                .orElseThrow(() -> new ResourceNotFoundException("Audio not found: " + key));
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, blobStore.contains(file) ? blobCacheControl : cacheControl);
+        // Fija ETag y Last-Modified; responde 304 / 412 si procede
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        String contentType = MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+        List<Range> ranges = ifRangeMatches(request, etag, lastModified)
+                ? ByteRanges.parse(request.getHeader(HttpHeaders.RANGE), length)
+                : null;
+        boolean head = "HEAD".equals(request.getMethod());
+
+        if (ranges != null && ranges.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.setContentLengthLong(0);
+            return;
+        }
+
+        if (ranges == null || ranges.size() == 1) {
+            Range range = ranges == null ? new Range(0, length - 1) : ranges.get(0);
+            if (ranges != null) {
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, range.contentRange(length));
+            }
+            response.setContentType(contentType);
+            response.setContentLengthLong(range.length());
+            if (head || range.length() == 0) {
+                return;
+            }
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+                request.setAttribute(SENDFILE_FILENAME, file.toString());
+                request.setAttribute(SENDFILE_START, range.start());
+                request.setAttribute(SENDFILE_END, range.end() + 1);
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                transfer(channel, range, response.getOutputStream());
+            } catch (IOException e) {
+                clientGone(key, e);
+            }
+            return;
+        }
+
+        try {
+            writeMultipart(file, ranges, length, contentType, head, response);
+        } catch (IOException e) {
+            clientGone(key, e);
+        }
+    }
+
+    private static void clientGone(String key, IOException e) throws IOException {
+        if (e instanceof EOFException) {
+            throw e;
+        }
+        log.debug("Audio {} stream closed by client: {}", key, e.getMessage());
+    }
+
+    /**
+     * If-Range: el Range solo se aplica si el recurso no ha cambiado. Acepta un ETag fuerte
+     * (comparación exacta; un ETag débil nunca coincide) o la fecha Last-Modified exacta
+     */
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void writeMultipart(Path file, List<Range> ranges, long length, String contentType, boolean head,
+                                HttpServletResponse response) throws IOException {
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long contentLength = 0;
+        for (Range range : ranges) {
+            byte[] header = (CRLF + "--" + boundary + CRLF
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + CRLF
+                    + HttpHeaders.CONTENT_RANGE + ": " + range.contentRange(length) + CRLF + CRLF)
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(header);
+            contentLength += header.length + range.length();
+        }
+        byte[] trailer = (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII);
+        contentLength += trailer.length;
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (head) {
+            return;
+        }
+
+        OutputStream out = response.getOutputStream();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int i = 0; i < ranges.size(); i++) {
+                out.write(partHeaders.get(i));
+                transfer(channel, ranges.get(i), out);
+            }
+        }
+        out.write(trailer);
+    }
+
+    private static void transfer(FileChannel channel, Range range, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        long position = range.start();
+        long remaining = range.length();
+        while (remaining > 0) {
+            long sent = channel.transferTo(position, remaining, target);
+            if (sent <= 0) {
+                // El fichero se ha truncado mientras se servía
+                throw new EOFException("Audio file shrank while streaming at byte " + position);
+            }
+            position += sent;
+            remaining -= sent;
+        }
+    }
+}
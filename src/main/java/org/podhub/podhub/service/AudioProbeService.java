@@ -0,0 +1,118 @@
+package org.podhub.podhub.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.audio.AudioProbe;
+import org.podhub.podhub.cache.FeedXmlCache;
+import org.podhub.podhub.model.AudioMetadata;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.repository.EpisodeRepository;
+import org.podhub.podhub.storage.AudioStorage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analiza en segundo plano el audio local de los episodios (AudioProbe) y guarda en el episodio
+ * audioMetadata y durationSec, sustituyendo la duración que haya enviado el cliente.
+ *
+ * Los análisis se ejecutan en un pool fijo de threads con una cola acotada; con la cola llena,
+ * el hilo que lo pide lo ejecuta él mismo (es una lectura de unos pocos KB), así que nunca se pierde.
+ * El resultado solo se guarda si el episodio sigue apuntando al mismo audio.
+ */
+@Slf4j
+@Service
+public class AudioProbeService {
+
+    private final AudioStorage audioStorage;
+    private final EpisodeRepository episodeRepository;
+    private final FeedXmlCache feedXmlCache;
+    private final ThreadPoolExecutor workers;
+
+    public AudioProbeService(
+            AudioStorage audioStorage,
+            EpisodeRepository episodeRepository,
+            FeedXmlCache feedXmlCache,
+            @Value("${podhub.audio.probe.threads:2}") int threads,
+            @Value("${podhub.audio.probe.queue-capacity:256}") int queueCapacity) {
+        this.audioStorage = audioStorage;
+        this.episodeRepository = episodeRepository;
+        this.feedXmlCache = feedXmlCache;
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("audio-probe-", 0).daemon().factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Programa el análisis del audio del episodio; no hace nada si su audioUrl no es local
+     */
+    public void submit(Episode episode) {
+        String audioUrl = episode.getAudioUrl();
+        if (audioUrl == null || !audioUrl.startsWith(AudioStorage.PUBLIC_PATH)) {
+            return;
+        }
+        String id = episode.getId();
+        workers.execute(() -> probeEpisode(id, audioUrl));
+    }
+
+    /**
+     * Analiza un fichero en el pool de análisis
+     */
+    public CompletableFuture<AudioProbe.Result> probe(Path file) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return AudioProbe.probe(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, workers);
+    }
+
+    private void probeEpisode(String id, String audioUrl) {
+        try {
+            Optional<Path> file = audioStorage.resolveUrl(audioUrl);
+            if (file.isEmpty()) {
+                log.warn("Audio {} of episode {} not found in local storage", audioUrl, id);
+                return;
+            }
+            AudioProbe.Result result = AudioProbe.probe(file.get());
+            if (!result.recognized()) {
+                log.info("Audio {} of episode {} not recognized ({} bytes read)", audioUrl, id, result.bytesRead());
+                return;
+            }
+
+            AudioMetadata metadata = result.metadata();
+            Instant now = Instant.now();
+            metadata.setProbedAt(now);
+            Update update = new Update()
+                    .set("audioMetadata", metadata)
+                    .set("durationSec", (int) Math.round(metadata.getDurationMs() / 1000.0))
+                    .set("updatedAt", now);
+            episodeRepository.patchIfAudioUrl(id, audioUrl, update).ifPresentOrElse(
+                    saved -> {
+                        feedXmlCache.evict(saved.getPodcastId());
+                        log.info("Audio of episode {} probed: {} ms, {} kbps, {} bytes read",
+                                id, metadata.getDurationMs(), metadata.getBitrateKbps(), result.bytesRead());
+                    },
+                    () -> log.debug("Episode {} was deleted or its audio replaced while probing", id));
+        } catch (Exception e) {
+            log.warn("Could not probe audio {} of episode {}: {}", audioUrl, id, e.getMessage());
+        }
+    }
+}
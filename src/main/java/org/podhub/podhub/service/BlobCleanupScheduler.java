@@ -0,0 +1,28 @@
+package org.podhub.podhub.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.storage.BlobStore;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Borra periódicamente los blobs de audio sin referencias (BlobStore.collectGarbage)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BlobCleanupScheduler {
+
+    private final BlobStore blobStore;
+
+    @Scheduled(fixedDelayString = "${podhub.storage.blob-gc-interval-ms:3600000}",
+               initialDelayString = "${podhub.storage.blob-gc-initial-delay-ms:120000}")
+    public void collectGarbage() {
+        try {
+            blobStore.collectGarbage();
+        } catch (Exception e) {
+            log.error("Blob garbage collection failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -2,21 +2,31 @@ package org.podhub.podhub.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.podhub.podhub.cache.OwnershipResolver;
+import org.podhub.podhub.cache.RequestEntityCache;
+import org.podhub.podhub.dto.CommentThread;
 import org.podhub.podhub.dto.PaginatedResponse;
+import org.podhub.podhub.event.CommentPosted;
 import org.podhub.podhub.exception.ForbiddenException;
 import org.podhub.podhub.exception.ResourceNotFoundException;
 import org.podhub.podhub.model.Comment;
-import org.podhub.podhub.model.Episode;
-import org.podhub.podhub.model.Podcast;
 import org.podhub.podhub.model.enums.CommentStatus;
 import org.podhub.podhub.model.enums.CommentTargetType;
 import org.podhub.podhub.repository.CommentRepository;
-import org.podhub.podhub.repository.EpisodeRepository;
-import org.podhub.podhub.repository.PodcastRepository;
+import org.podhub.podhub.repository.CommentRepositoryCustom.ThreadReplies;
+import org.podhub.podhub.util.AfterCommit;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
@@ -24,21 +34,22 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class CommentService {
 
+    private static final String PATH_SEPARATOR = "/";
+
     private final CommentRepository commentRepository;
-    private final PodcastRepository podcastRepository;
-    private final EpisodeRepository episodeRepository;
+    private final RequestEntityCache requestEntityCache;
+    private final OwnershipResolver ownershipResolver;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Checks if a user can edit a specific comment
      * Only the comment owner can edit their own comments
      *
      * @param userId User attempting to edit
-     * @param commentId Comment to edit
+     * @param comment Comment to edit
      * @return true if user can edit, false otherwise
      */
-    private boolean canEditComment(String userId, String commentId) {
-        Comment comment = commentRepository.findById(commentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Comment not found"));
+    private boolean canEditComment(String userId, Comment comment) {
         return comment.getUserId().equals(userId);
     }
 
@@ -46,48 +57,83 @@ public class CommentService {
      * Checks if a user can delete a specific comment
      * Comment owner can delete their own comment
      * Podcast/episode creator can delete any comment on their content
+     * Ownership is resolved through the cache, usually without round trips
      *
      * @param userId User attempting to delete
-     * @param commentId Comment to delete
+     * @param comment Comment to delete
      * @return true if user can delete, false otherwise
      */
-    private boolean canDeleteComment(String userId, String commentId) {
-        Comment comment = commentRepository.findById(commentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Comment not found"));
-
+    private boolean canDeleteComment(String userId, Comment comment) {
         // User can delete their own comment
         if (comment.getUserId().equals(userId)) {
             return true;
         }
 
         // Podcast/episode creator can delete comments on their content
-        if (comment.getTarget().getType().equals("PODCAST")) {
-            Podcast podcast = podcastRepository.findById(comment.getTarget().getId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Podcast not found"));
-            return podcast.getCreatorId().equals(userId);
-        } else if (comment.getTarget().getType().equals("EPISODE")) {
-            Episode episode = episodeRepository.findById(comment.getTarget().getId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Episode not found"));
-            Podcast podcast = podcastRepository.findById(episode.getPodcastId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Podcast not found"));
-            return podcast.getCreatorId().equals(userId);
+        if (comment.getTarget().getType() == CommentTargetType.PODCAST) {
+            return ownershipResolver.ownsPodcast(userId, comment.getTarget().getId());
+        } else if (comment.getTarget().getType() == CommentTargetType.EPISODE) {
+            return ownershipResolver.ownsEpisode(userId, comment.getTarget().getId());
         }
 
         return false;
     }
 
+    /**
+     * Crea un comentario o una respuesta
+     * El id se genera aquí para poder construir el materialized path antes del insert:
+     * - raíz: rootId = id, depth = 0, path = id
+     * - respuesta: hereda target y rootId del padre, depth = padre + 1, path = padre.path/id
+     * y se incrementa atómicamente el replyCount del padre, después del commit
+     *
+     * @param comment Comentario a crear
+     * @return Comentario creado
+     * @throws ResourceNotFoundException si el comentario padre no existe
+     */
+    @Transactional
     public Comment createComment(Comment comment) {
         log.debug("Creating comment by user: {}", comment.getUserId());
+        String id = new ObjectId().toHexString();
+        comment.setId(id);
+        comment.setReplyCount(0);
+
+        if (comment.getParentId() != null) {
+            Comment parent = requestEntityCache.findById(Comment.class, comment.getParentId(), commentRepository::findById)
+                    .orElseThrow(() -> new ResourceNotFoundException("Parent comment not found: " + comment.getParentId()));
+
+            // Los comentarios anteriores a los hilos no tienen rootId/path: se tratan como raíz
+            String parentPath = parent.getPath() != null ? parent.getPath() : parent.getId();
+            int parentDepth = parent.getDepth() != null ? parent.getDepth() : 0;
+
+            comment.setTarget(parent.getTarget());
+            comment.setRootId(parent.getRootId() != null ? parent.getRootId() : parent.getId());
+            comment.setDepth(parentDepth + 1);
+            comment.setPath(parentPath + PATH_SEPARATOR + id);
+        } else {
+            comment.setRootId(id);
+            comment.setDepth(0);
+            comment.setPath(id);
+        }
+
         Instant now = Instant.now();
         comment.setCreatedAt(now);
         comment.setEditedAt(now);
-        Comment saved = commentRepository.save(comment);
+        Comment saved = commentRepository.insert(comment);
+        requestEntityCache.put(Comment.class, saved.getId(), saved);
+
+        if (saved.getParentId() != null) {
+            incrementReplyCountAfterCommit(saved.getParentId());
+        }
+        eventPublisher.publishEvent(new CommentPosted(saved.getId(), saved.getUserId(),
+                saved.getTarget() != null ? saved.getTarget().getType() : null,
+                saved.getTarget() != null ? saved.getTarget().getId() : null,
+                saved.getParentId(), now));
         log.info("Comment created with id {}", saved.getId());
         return saved;
     }
 
     public Optional<Comment> findById(String id) {
-        return commentRepository.findById(id);
+        return requestEntityCache.findById(Comment.class, id, commentRepository::findById);
     }
 
     /**
@@ -146,6 +192,138 @@ public class CommentService {
         return buildPaginatedResponse(comments, limit);
     }
 
+    /**
+     * Obtiene los hilos de un episodio con paginación cursor-based
+     * Cada hilo incluye las primeras respuestas (en orden de path), obtenidas para toda
+     * la página con una única agregación: 2 consultas en total, sin N+1
+     *
+     * @param episodeId ID del episodio
+     * @param cursor Timestamp del último hilo (null para primera página)
+     * @param limit Número máximo de hilos a retornar
+     * @param repliesPerThread Número máximo de respuestas por hilo
+     * @return Respuesta paginada de hilos
+     */
+    public PaginatedResponse<CommentThread> findThreads(String episodeId, Instant cursor, int limit, int repliesPerThread) {
+        log.debug("Finding threads for episode: {} with cursor: {}, limit: {}, replies: {}",
+                  episodeId, cursor, limit, repliesPerThread);
+
+        List<Comment> roots;
+        if (cursor == null) {
+            roots = commentRepository.findFirstEpisodeThreads(episodeId, Limit.of(limit + 1));
+        } else {
+            roots = commentRepository.findNextEpisodeThreads(episodeId, cursor, Limit.of(limit + 1));
+        }
+
+        PaginatedResponse<Comment> page = buildPaginatedResponse(roots, limit);
+
+        Map<String, List<Comment>> repliesByRoot = new HashMap<>();
+        if (repliesPerThread > 0 && !page.getData().isEmpty()) {
+            List<String> rootIds = page.getData().stream().map(Comment::getId).toList();
+            for (ThreadReplies preview : commentRepository.findReplyPreviews(rootIds, repliesPerThread)) {
+                repliesByRoot.put(preview.getRootId(), preview.getReplies());
+            }
+        }
+
+        List<CommentThread> threads = page.getData().stream()
+                .map(root -> CommentThread.builder()
+                        .comment(root)
+                        .replies(repliesByRoot.getOrDefault(root.getId(), List.of()))
+                        .build())
+                .toList();
+
+        return PaginatedResponse.<CommentThread>builder()
+                .data(threads)
+                .nextCursor(page.getNextCursor())
+                .hasMore(page.isHasMore())
+                .count(threads.size())
+                .build();
+    }
+
+    /**
+     * Completa rootId, depth, path y replyCount de los comentarios creados antes de los hilos, por lotes
+     * Sin ellos sus respuestas no aparecen en findThreads. Cada lote resuelve también los antepasados sin
+     * completar (que pueden quedar fuera del lote), así que siempre avanza. Una respuesta cuyo padre se
+     * borró pasa a ser la raíz de su propio hilo.
+     * Cuando ya no quedan comentarios antiguos cuesta una consulta por el índice root_path.
+     *
+     * @param batchSize Comentarios por lote
+     * @return Comentarios actualizados
+     */
+    public long backfillThreads(int batchSize) {
+        long updated = 0;
+        while (true) {
+            List<Comment> legacy = commentRepository.findByRootIdIsNull(Limit.of(batchSize));
+            if (legacy.isEmpty()) {
+                break;
+            }
+
+            Map<String, Comment> known = new HashMap<>();
+            legacy.forEach(comment -> known.put(comment.getId(), comment));
+            List<String> missingParents = legacy.stream()
+                    .map(Comment::getParentId)
+                    .filter(parentId -> parentId != null && !known.containsKey(parentId))
+                    .distinct()
+                    .toList();
+            commentRepository.findAllById(missingParents).forEach(parent -> known.put(parent.getId(), parent));
+
+            Map<String, Comment> resolved = new LinkedHashMap<>();
+            for (Comment comment : legacy) {
+                resolveThread(comment, known, resolved);
+            }
+            Map<String, Integer> replies = commentRepository.countReplies(resolved.keySet());
+            resolved.values().forEach(comment -> comment.setReplyCount(replies.getOrDefault(comment.getId(), 0)));
+
+            int written = commentRepository.backfillThreads(resolved.values());
+            updated += written;
+            if (written == 0) {
+                // Otro proceso completó el lote entretanto: se deja el resto para la siguiente pasada
+                log.debug("Thread backfill batch of {} comments was already applied", resolved.size());
+                break;
+            }
+        }
+        if (updated > 0) {
+            log.info("Backfilled thread fields of {} legacy comments", updated);
+        }
+        return updated;
+    }
+
+    /**
+     * Calcula rootId, depth y path de un comentario antiguo a partir de su padre (resolviéndolo antes si
+     * tampoco los tiene) y lo añade a resolved
+     */
+    private Comment resolveThread(Comment comment, Map<String, Comment> known, Map<String, Comment> resolved) {
+        if (comment.getRootId() != null) {
+            return comment;
+        }
+        Comment done = resolved.get(comment.getId());
+        if (done != null) {
+            return done;
+        }
+        Comment parent = null;
+        if (comment.getParentId() != null) {
+            parent = known.get(comment.getParentId());
+            if (parent == null) {
+                parent = commentRepository.findById(comment.getParentId()).orElse(null);
+                if (parent != null) {
+                    known.put(parent.getId(), parent);
+                }
+            }
+        }
+        if (parent == null) {
+            comment.setRootId(comment.getId());
+            comment.setDepth(0);
+            comment.setPath(comment.getId());
+        } else {
+            Comment parentThread = resolveThread(parent, known, resolved);
+            int parentDepth = parentThread.getDepth() != null ? parentThread.getDepth() : 0;
+            comment.setRootId(parentThread.getRootId());
+            comment.setDepth(parentDepth + 1);
+            comment.setPath(parentThread.getPath() + PATH_SEPARATOR + comment.getId());
+        }
+        resolved.put(comment.getId(), comment);
+        return comment;
+    }
+
     /**
      * @deprecated Use findAll(cursor, limit, null, null, null, status) instead
      */
@@ -222,18 +400,19 @@ public class CommentService {
      * @throws ForbiddenException if user cannot edit this comment
      */
     public Comment updateComment(String id, Comment updated, String userId) {
-        if (!canEditComment(userId, id)) {
+        Comment existing = requestEntityCache.findById(Comment.class, id, commentRepository::findById)
+                .orElseThrow(() -> new ResourceNotFoundException("Comment not found: " + id));
+
+        if (!canEditComment(userId, existing)) {
             throw new ForbiddenException("You can only edit your own comments");
         }
 
-        Comment existing = commentRepository.findById(id)
+        // Only update content: a $set keeps the replyCount incremented by concurrent replies
+        Comment saved = commentRepository.patch(id, new Update()
+                        .set("content", updated.getContent())
+                        .set("editedAt", Instant.now()))
                 .orElseThrow(() -> new ResourceNotFoundException("Comment not found: " + id));
-
-        // Only update content, preserve other fields
-        existing.setContent(updated.getContent());
-        existing.setEditedAt(Instant.now());
-
-        Comment saved = commentRepository.save(existing);
+        requestEntityCache.put(Comment.class, saved.getId(), saved);
         log.info("Comment updated {} by user {}", id, userId);
         return saved;
     }
@@ -248,22 +427,33 @@ public class CommentService {
      * @throws ForbiddenException if user cannot delete this comment
      */
     public void deleteComment(String id, String userId) {
-        if (!canDeleteComment(userId, id)) {
-            throw new ForbiddenException("You do not have permission to delete this comment");
-        }
-
-        Comment comment = commentRepository.findById(id)
+        Comment comment = requestEntityCache.findById(Comment.class, id, commentRepository::findById)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment not found: " + id));
 
-        // Soft delete: change status to DELETED and replace content
-        comment.setStatus(CommentStatus.DELETED);
-        comment.setContent("[comentario eliminado]");
-        comment.setEditedAt(Instant.now());
+        if (!canDeleteComment(userId, comment)) {
+            throw new ForbiddenException("You do not have permission to delete this comment");
+        }
 
-        commentRepository.save(comment);
+        // Soft delete: change status to DELETED and replace content ($set, replyCount untouched)
+        commentRepository.patch(id, new Update()
+                        .set("status", CommentStatus.DELETED)
+                        .set("content", "[comentario eliminado]")
+                        .set("editedAt", Instant.now()))
+                .ifPresent(deleted -> requestEntityCache.put(Comment.class, id, deleted));
         log.info("Comment deleted {} by user {}", id, userId);
     }
 
+    /**
+     * Incrementa el replyCount del padre fuera de la transacción: dentro, dos respuestas simultáneas al mismo
+     * comentario chocan (WriteConflict) y una de ellas fallaría; un $inc suelto lo serializa el servidor
+     */
+    private void incrementReplyCountAfterCommit(String parentId) {
+        AfterCommit.run(() -> {
+            commentRepository.incrementReplyCount(parentId);
+            requestEntityCache.evict(Comment.class, parentId);
+        });
+    }
+
     private PaginatedResponse<Comment> buildPaginatedResponse(List<Comment> comments, int limit) {
         boolean hasMore = comments.size() > limit;
 
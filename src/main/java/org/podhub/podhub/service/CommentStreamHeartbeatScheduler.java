@@ -0,0 +1,28 @@
+package org.podhub.podhub.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Latido periódico a los streams de comentarios abiertos (CommentStreamService.heartbeat)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommentStreamHeartbeatScheduler {
+
+    private final CommentStreamService commentStreamService;
+
+    @Scheduled(fixedDelayString = "${podhub.comments.stream.heartbeat-ms:25000}",
+               initialDelayString = "${podhub.comments.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        try {
+            int connections = commentStreamService.heartbeat();
+            log.debug("Comment stream heartbeat sent to {} connections", connections);
+        } catch (Exception e) {
+            log.error("Comment stream heartbeat failed: {}", e.getMessage(), e);
+        }
+    }
+}
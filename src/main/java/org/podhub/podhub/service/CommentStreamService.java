@@ -0,0 +1,192 @@
+package org.podhub.podhub.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.podhub.podhub.cache.OwnershipResolver;
+import org.podhub.podhub.exception.ResourceNotFoundException;
+import org.podhub.podhub.live.ChangeStreamWatcher;
+import org.podhub.podhub.live.TopicBroadcaster;
+import org.podhub.podhub.model.Comment;
+import org.podhub.podhub.model.enums.CommentStatus;
+import org.podhub.podhub.model.enums.CommentTargetType;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Comentarios en directo de los episodios por Server-Sent Events.
+ *
+ * Cada nodo abre un único change stream sobre comments (solo los de episodios, sin los $inc de replyCount)
+ * y reparte cada cambio a los clientes conectados a ese episodio a través de un TopicBroadcaster: así llegan
+ * también los comentarios escritos en otros nodos, y solo los ya confirmados. Cada cambio se serializa una
+ * vez por nodo, no una por cliente.
+ *
+ * Eventos: created (comentario o respuesta nuevos), edited y deleted (borrado u ocultado; en ese caso sin
+ * contenido). Una conexión sin mensajes no ocupa ningún hilo (petición asíncrona del servlet) y los envíos
+ * se hacen en hilos virtuales; un cliente que no lee se expulsa al llenarse su cola y vuelve a conectar.
+ * Si el change stream se corta se reanuda desde el último resume token (ChangeStreamWatcher).
+ */
+@Slf4j
+@Service
+public class CommentStreamService {
+
+    private static final String COLLECTION = "comments";
+
+    private static final List<Bson> PIPELINE = List.of(Aggregates.match(Filters.and(
+            Filters.in("operationType", List.of("insert", "replace", "update")),
+            Filters.eq("fullDocument.target.type", CommentTargetType.EPISODE.name()),
+            // Las respuestas cambian el replyCount del padre: la respuesta ya llega como created
+            Filters.exists("updateDescription.updatedFields.replyCount", false))));
+
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("ping").build();
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final OwnershipResolver ownershipResolver;
+    private final TaskExecutor taskExecutor;
+    private final TopicBroadcaster<Set<ResponseBodyEmitter.DataWithMediaType>> broadcaster;
+    private final ChangeStreamWatcher watcher;
+    private final long timeoutMs;
+
+    public CommentStreamService(
+            MongoTemplate mongoTemplate,
+            ObjectMapper objectMapper,
+            OwnershipResolver ownershipResolver,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${podhub.comments.stream.buffer-size:64}") int bufferSize,
+            @Value("${podhub.comments.stream.timeout-ms:1800000}") long timeoutMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.ownershipResolver = ownershipResolver;
+        this.taskExecutor = taskExecutor;
+        this.broadcaster = new TopicBroadcaster<>(bufferSize, taskExecutor);
+        this.watcher = new ChangeStreamWatcher("comments-change-stream", mongoTemplate.getCollection(COLLECTION),
+                PIPELINE, this::dispatch);
+        this.timeoutMs = timeoutMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        watcher.start();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        watcher.stop();
+    }
+
+    /**
+     * Abre el stream de comentarios de un episodio
+     *
+     * @throws ResourceNotFoundException si el episodio no existe
+     */
+    public SseEmitter subscribe(String episodeId) {
+        ownershipResolver.podcastOfEpisode(episodeId);
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        TopicBroadcaster<Set<ResponseBodyEmitter.DataWithMediaType>>.Subscriber subscriber =
+                broadcaster.subscribe(episodeId, new TopicBroadcaster.Sink<>() {
+                    @Override
+                    public void send(Set<ResponseBodyEmitter.DataWithMediaType> message) throws IOException {
+                        emitter.send(message);
+                    }
+
+                    @Override
+                    public void evicted(TopicBroadcaster.Reason reason) {
+                        log.debug("Comment stream of episode {} closed: {}", episodeId, reason);
+                        // Fuera del hilo que publica: un envío atascado retiene el emitter
+                        taskExecutor.execute(emitter::complete);
+                    }
+                });
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(() -> {
+            subscriber.close();
+            emitter.complete();
+        });
+        emitter.onError(e -> subscriber.close());
+        try {
+            // Envía las cabeceras ya: el cliente sabe que está conectado aunque no haya comentarios
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            subscriber.close();
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * Latido a todas las conexiones: mantiene abiertos los proxies y detecta los clientes que se fueron
+     */
+    public int heartbeat() {
+        return broadcaster.broadcast(HEARTBEAT);
+    }
+
+    public int connections() {
+        return broadcaster.subscribers();
+    }
+
+    /**
+     * Si el change stream está abierto (los cambios de antes de abrirlo no se reparten)
+     */
+    public boolean isWatching() {
+        return watcher.isWatching();
+    }
+
+    private void dispatch(ChangeStreamDocument<Document> change) {
+        Document document = change.getFullDocument();
+        if (document == null) {
+            // Borrado físico antes de la consulta del updateLookup
+            return;
+        }
+        Comment comment = mongoTemplate.getConverter().read(Comment.class, document);
+        if (comment.getTarget() == null || comment.getTarget().getId() == null) {
+            return;
+        }
+        String episodeId = comment.getTarget().getId();
+        if (broadcaster.subscribers(episodeId) == 0) {
+            return;
+        }
+
+        boolean insert = change.getOperationType() == OperationType.INSERT;
+        boolean removed = comment.getStatus() == CommentStatus.DELETED || comment.getStatus() == CommentStatus.HIDDEN;
+        if (insert && removed) {
+            return;
+        }
+        String type;
+        if (removed) {
+            type = "deleted";
+            comment.setContent(null);
+        } else if (insert) {
+            type = "created";
+        } else {
+            type = "edited";
+        }
+        try {
+            broadcaster.publish(episodeId, SseEmitter.event()
+                    .name(type)
+                    .id(comment.getId())
+                    .data(objectMapper.writeValueAsString(comment))
+                    .build());
+        } catch (JsonProcessingException e) {
+            log.warn("Comment {} could not be serialized: {}", comment.getId(), e.getMessage());
+        }
+    }
+}
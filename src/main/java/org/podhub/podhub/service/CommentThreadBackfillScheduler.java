@@ -0,0 +1,35 @@
+package org.podhub.podhub.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Completa los campos de hilo de los comentarios antiguos (CommentService.backfillThreads) poco después
+ * del arranque. Tras la primera pasada ya no quedan, y las siguientes solo comprueban que siga siendo así.
+ */
+@Slf4j
+@Component
+public class CommentThreadBackfillScheduler {
+
+    private final CommentService commentService;
+    private final int batchSize;
+
+    public CommentThreadBackfillScheduler(
+            CommentService commentService,
+            @Value("${podhub.comments.threads.backfill-batch-size:1000}") int batchSize) {
+        this.commentService = commentService;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${podhub.comments.threads.backfill-interval-ms:86400000}",
+               initialDelayString = "${podhub.comments.threads.backfill-initial-delay-ms:60000}")
+    public void backfill() {
+        try {
+            commentService.backfillThreads(batchSize);
+        } catch (Exception e) {
+            log.error("Comment thread backfill failed: {}", e.getMessage(), e);
+        }
+    }
+}
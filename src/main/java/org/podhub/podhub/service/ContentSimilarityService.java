@@ -0,0 +1,192 @@
+package org.podhub.podhub.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.recommend.ContentIndex;
+import org.podhub.podhub.recommend.Scored;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Podcasts parecidos por contenido (TF-IDF sobre título, descripción, categoría, idioma y títulos de
+ * episodios) sobre ContentIndex: completa la co-escucha de RecommendationService para los podcasts que
+ * aún no tienen oyentes.
+ *
+ * ContentSimilarityEventListener llama a on* con los eventos PodcastCreated, PodcastChanged y PodcastDeleted,
+ * así que los cambios llegan al índice poco después de confirmarse;
+ * rebuild() lo reconstruye entero desde MongoDB en un ForkJoinPool propio (recalcula el idf y recoge los
+ * cambios de episodios). Los cambios que llegan durante una reconstrucción se repiten sobre el índice nuevo.
+ */
+@Slf4j
+@Service
+public class ContentSimilarityService {
+
+    private final MongoTemplate mongoTemplate;
+    private final int neighbors;
+    private final int termsPerPodcast;
+    private final int maxPostings;
+    private final int episodeTitles;
+    private final ForkJoinPool rebuildPool;
+    private final Object rebuildLock = new Object();
+    private volatile ContentIndex index;
+    // No nulo mientras hay una reconstrucción en curso (id -> texto, null si se borró); protegido por this
+    private Map<String, ContentIndex.Text> pending;
+
+    public ContentSimilarityService(
+            MongoTemplate mongoTemplate,
+            @Value("${podhub.recommend.content.neighbors:20}") int neighbors,
+            @Value("${podhub.recommend.content.terms-per-podcast:16}") int termsPerPodcast,
+            @Value("${podhub.recommend.content.max-postings:256}") int maxPostings,
+            @Value("${podhub.recommend.content.episode-titles:100}") int episodeTitles,
+            @Value("${podhub.recommend.rebuild-parallelism:0}") int parallelism) {
+        this.mongoTemplate = mongoTemplate;
+        this.neighbors = neighbors;
+        this.termsPerPodcast = termsPerPodcast;
+        this.maxPostings = maxPostings;
+        this.episodeTitles = episodeTitles;
+        this.rebuildPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.index = ContentIndex.empty(neighbors, termsPerPodcast, maxPostings);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuildPool.shutdownNow();
+    }
+
+    /**
+     * Podcast nuevo: todavía no tiene episodios
+     */
+    public void onPodcastCreated(Podcast podcast) {
+        update(podcast.getId(), text(podcast, List.of()));
+    }
+
+    public void onPodcastChanged(Podcast podcast) {
+        try {
+            update(podcast.getId(), text(podcast, findEpisodeTitles(podcast.getId())));
+        } catch (RuntimeException e) {
+            log.warn("Could not load episode titles of podcast {}: {}", podcast.getId(), e.getMessage());
+        }
+    }
+
+    public void onPodcastDeleted(String podcastId) {
+        update(podcastId, null);
+    }
+
+    /**
+     * Podcasts más parecidos por contenido (de cualquier visibilidad: filtra quien los muestre)
+     */
+    public List<Scored> similar(String podcastId, int limit) {
+        return index.similar(podcastId, limit);
+    }
+
+    public ContentIndex.Stats stats() {
+        return index.stats();
+    }
+
+    /**
+     * Reconstruye el índice completo desde los podcasts y los títulos de sus episodios
+     */
+    public ContentIndex.Stats rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.nanoTime();
+            synchronized (this) {
+                pending = new LinkedHashMap<>();
+            }
+            try {
+                ContentIndex.Builder builder = ContentIndex.builder(neighbors, termsPerPodcast, maxPostings);
+
+                // Dos cursores ordenados por id de podcast (los ObjectId se ordenan igual que su forma hexadecimal)
+                Query podcasts = new Query().with(Sort.by(Sort.Direction.ASC, "_id"));
+                podcasts.fields().include("title", "description", "category", "language");
+                Query episodes = new Query().with(Sort.by(Sort.Order.asc("podcastId"), Sort.Order.desc("publishAt")));
+                episodes.fields().include("podcastId", "title");
+                try (Stream<Podcast> podcastStream = mongoTemplate.stream(podcasts, Podcast.class);
+                     Stream<Episode> episodeStream = mongoTemplate.stream(episodes, Episode.class)) {
+                    Iterator<Episode> episodeIterator = episodeStream.iterator();
+                    Episode next = episodeIterator.hasNext() ? episodeIterator.next() : null;
+                    for (Iterator<Podcast> it = podcastStream.iterator(); it.hasNext(); ) {
+                        Podcast podcast = it.next();
+                        while (next != null && (next.getPodcastId() == null || next.getPodcastId().compareTo(podcast.getId()) < 0)) {
+                            next = episodeIterator.hasNext() ? episodeIterator.next() : null;
+                        }
+                        List<String> titles = new ArrayList<>();
+                        while (next != null && podcast.getId().equals(next.getPodcastId())) {
+                            if (titles.size() < episodeTitles) {
+                                titles.add(next.getTitle());
+                            }
+                            next = episodeIterator.hasNext() ? episodeIterator.next() : null;
+                        }
+                        builder.add(podcast.getId(), text(podcast, titles));
+                    }
+                }
+
+                ContentIndex built = builder.build(rebuildPool);
+                int replayed;
+                synchronized (this) {
+                    replayed = pending.size();
+                    pending.forEach((podcastId, text) -> apply(built, podcastId, text));
+                    index = built;
+                    pending = null;
+                }
+                ContentIndex.Stats stats = built.stats();
+                log.info("Content index rebuilt in {} ms: {} podcasts, {} terms, {} postings, ~{} KB ({} changes replayed)",
+                        (System.nanoTime() - start) / 1_000_000, stats.documents(), stats.terms(), stats.postings(),
+                        stats.memoryBytes() / 1024, replayed);
+                return stats;
+            } finally {
+                synchronized (this) {
+                    pending = null;
+                }
+            }
+        }
+    }
+
+    private void update(String podcastId, ContentIndex.Text text) {
+        try {
+            synchronized (this) {
+                if (pending != null) {
+                    pending.put(podcastId, text);
+                }
+            }
+            apply(index, podcastId, text);
+        } catch (RuntimeException e) {
+            // Un índice desactualizado nunca debe hacer fallar la operación sobre el podcast
+            log.warn("Could not update content index for podcast {}: {}", podcastId, e.getMessage());
+        }
+    }
+
+    private static void apply(ContentIndex target, String podcastId, ContentIndex.Text text) {
+        if (text == null) {
+            target.remove(podcastId);
+        } else {
+            target.update(podcastId, text);
+        }
+    }
+
+    private List<String> findEpisodeTitles(String podcastId) {
+        Query query = Query.query(Criteria.where("podcastId").is(podcastId))
+                .with(Sort.by(Sort.Direction.DESC, "publishAt"))
+                .limit(episodeTitles);
+        query.fields().include("title");
+        return mongoTemplate.find(query, Episode.class).stream().map(Episode::getTitle).toList();
+    }
+
+    private static ContentIndex.Text text(Podcast podcast, List<String> episodeTitles) {
+        return new ContentIndex.Text(podcast.getTitle(), podcast.getDescription(), podcast.getCategory(),
+                podcast.getLanguage(), episodeTitles);
+    }
+}
@@ -0,0 +1,27 @@
+package org.podhub.podhub.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compacta cada noche los contadores del panel del creador (DashboardService.compact), poco después
+ * de que cierre el día UTC
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardCompactionScheduler {
+
+    private final DashboardService dashboardService;
+
+    @Scheduled(cron = "${podhub.dashboard.compaction-cron:0 15 0 * * *}", zone = "UTC")
+    public void compact() {
+        try {
+            dashboardService.compact();
+        } catch (Exception e) {
+            log.error("Dashboard rollup compaction failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package org.podhub.podhub.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.cache.OwnershipResolver;
+import org.podhub.podhub.dto.CreatorDashboard;
+import org.podhub.podhub.exception.BadRequestException;
+import org.podhub.podhub.exception.ResourceNotFoundException;
+import org.podhub.podhub.model.CommentTarget;
+import org.podhub.podhub.model.DailyRollup;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.model.enums.CommentTargetType;
+import org.podhub.podhub.model.enums.RollupCounter;
+import org.podhub.podhub.repository.DailyRollupRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Panel del creador sobre contadores diarios ya agregados (DailyRollup), sin contar likes, suscripciones,
+ * comentarios ni progresos al pedirlo.
+ *
+ * DashboardEventListener llama a on* con cada evento de dominio y se suma 1 en la fila del día (UTC) con un
+ * upsert; un oyente cuenta una vez por episodio y día. Los errores se propagan para que la publicación del
+ * evento quede incompleta y se reintente. Cada suma registra la clave del evento en la misma transacción
+ * (DailyRollupRepository.markApplied), así que una publicación reenviada o entregada dos veces no cuenta
+ * doble. compact() resume cada noche los días cerrados en una fila por
+ * podcast y día, así que el panel lee como mucho podcasts x días filas más las del día en curso, y borra
+ * las filas de episodio resumidas hace más de podhub.dashboard.episode-rows-days días.
+ */
+@Slf4j
+@Service
+public class DashboardService {
+
+    public static final int MAX_DAYS = 366;
+    private static final int DEFAULT_DAYS = 30;
+
+    private final MongoTemplate mongoTemplate;
+    private final DailyRollupRepository rollupRepository;
+    private final OwnershipResolver ownershipResolver;
+    private final int episodeRowsDays;
+
+    public DashboardService(
+            MongoTemplate mongoTemplate,
+            DailyRollupRepository rollupRepository,
+            OwnershipResolver ownershipResolver,
+            @Value("${podhub.dashboard.episode-rows-days:90}") int episodeRowsDays) {
+        this.mongoTemplate = mongoTemplate;
+        this.rollupRepository = rollupRepository;
+        this.ownershipResolver = ownershipResolver;
+        this.episodeRowsDays = episodeRowsDays;
+    }
+
+    /**
+     * @param eventKey Clave estable del evento que se cuenta (la misma en cada entrega)
+     */
+    public void onSubscribed(String eventKey, String podcastId) {
+        incrementPodcast(eventKey, podcastId, RollupCounter.SUBSCRIBERS);
+    }
+
+    public void onEpisodeLiked(String eventKey, String episodeId) {
+        incrementEpisode(eventKey, episodeId, RollupCounter.LIKES);
+    }
+
+    public void onCommented(String eventKey, CommentTarget target) {
+        if (target == null || target.getId() == null) {
+            return;
+        }
+        if (target.getType() == CommentTargetType.EPISODE) {
+            incrementEpisode(eventKey, target.getId(), RollupCounter.COMMENTS);
+        } else if (target.getType() == CommentTargetType.PODCAST) {
+            incrementPodcast(eventKey, target.getId(), RollupCounter.COMMENTS);
+        }
+    }
+
+    /**
+     * Un oyente ha guardado su progreso en un episodio
+     *
+     * @param previousUpdate Su anterior progreso en ese episodio, o null si es el primero: solo cuenta
+     *                       si fue otro día
+     */
+    public void onEpisodeListened(String eventKey, String episodeId, Instant previousUpdate) {
+        if (previousUpdate == null || !day(previousUpdate).equals(today())) {
+            incrementEpisode(eventKey, episodeId, RollupCounter.LISTENERS);
+        }
+    }
+
+    public void onEpisodeCompleted(String eventKey, String episodeId) {
+        incrementEpisode(eventKey, episodeId, RollupCounter.COMPLETIONS);
+    }
+
+    /**
+     * Panel de los podcasts de un creador
+     *
+     * @param from Fecha inicial (yyyy-MM-dd, UTC); por defecto hace 29 días
+     * @param to   Fecha final incluida (yyyy-MM-dd, UTC); por defecto hoy
+     * @throws BadRequestException si las fechas no son válidas o el rango supera MAX_DAYS
+     */
+    public CreatorDashboard dashboard(String creatorId, String from, String to) {
+        LocalDate end = to != null ? parseDay(to) : today();
+        LocalDate start = from != null ? parseDay(from) : end.minusDays(DEFAULT_DAYS - 1);
+        if (start.isAfter(end)) {
+            throw new BadRequestException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_DAYS) {
+            throw new BadRequestException("The range can span at most " + MAX_DAYS + " days");
+        }
+
+        Query podcastsQuery = Query.query(Criteria.where("creatorId").is(creatorId));
+        podcastsQuery.fields().include("title");
+        Map<String, String> titles = new LinkedHashMap<>();
+        for (Podcast podcast : mongoTemplate.find(podcastsQuery, Podcast.class)) {
+            titles.put(podcast.getId(), podcast.getTitle());
+        }
+
+        Map<String, CreatorDashboard.Counts> byDay = new LinkedHashMap<>();
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            byDay.put(day.toString(), new CreatorDashboard.Counts());
+        }
+        Map<String, CreatorDashboard.Counts> byPodcast = new LinkedHashMap<>();
+        titles.keySet().forEach(id -> byPodcast.put(id, new CreatorDashboard.Counts()));
+        CreatorDashboard.Counts totals = new CreatorDashboard.Counts();
+
+        if (!titles.isEmpty()) {
+            String fromDay = start.toString();
+            String toDay = end.toString();
+            // Si un día ya tiene su fila total, las de episodio que aún no se hayan marcado no se suman otra vez
+            Set<String> summarized = new HashSet<>();
+            List<DailyRollup> rows = new ArrayList<>(rollupRepository.findTotals(titles.keySet(), fromDay, toDay));
+            rows.forEach(row -> summarized.add(row.getPodcastId() + ":" + row.getDay()));
+            for (DailyRollup row : rollupRepository.findUncompacted(titles.keySet(), fromDay, toDay)) {
+                if (!summarized.contains(row.getPodcastId() + ":" + row.getDay())) {
+                    rows.add(row);
+                }
+            }
+            for (DailyRollup row : rows) {
+                add(totals, row);
+                add(byDay.get(row.getDay()), row);
+                add(byPodcast.get(row.getPodcastId()), row);
+            }
+        }
+
+        List<CreatorDashboard.Day> days = new ArrayList<>(byDay.size());
+        byDay.forEach((day, counts) -> days.add(new CreatorDashboard.Day(day, counts)));
+        List<CreatorDashboard.PodcastStats> podcasts = new ArrayList<>(byPodcast.size());
+        byPodcast.forEach((id, counts) -> podcasts.add(new CreatorDashboard.PodcastStats(id, titles.get(id), counts)));
+        return CreatorDashboard.builder()
+                .from(start.toString())
+                .to(end.toString())
+                .totals(totals)
+                .days(days)
+                .podcasts(podcasts)
+                .build();
+    }
+
+    /**
+     * Resume los días cerrados pendientes en filas por podcast y borra las filas de episodio antiguas
+     *
+     * @return Días resumidos
+     */
+    public int compact() {
+        long start = System.nanoTime();
+        LocalDate today = today();
+        Map<String, Integer> compacted = new HashMap<>();
+        for (String day : rollupRepository.findUncompactedDays(today.toString())) {
+            compacted.put(day, rollupRepository.compactDay(day));
+        }
+        long deleted = rollupRepository.deleteCompactedBefore(today.minusDays(episodeRowsDays).toString());
+        log.info("Dashboard rollups compacted: {} days ({} podcast rows), {} old episode rows deleted in {} ms",
+                compacted.size(), compacted.values().stream().mapToInt(Integer::intValue).sum(), deleted,
+                (System.nanoTime() - start) / 1_000_000);
+        return compacted.size();
+    }
+
+    private void incrementPodcast(String eventKey, String podcastId, RollupCounter counter) {
+        if (rollupRepository.markApplied(eventKey)) {
+            rollupRepository.increment(podcastId, null, today().toString(), counter);
+        }
+    }
+
+    private void incrementEpisode(String eventKey, String episodeId, RollupCounter counter) {
+        try {
+            String podcastId = ownershipResolver.podcastOfEpisode(episodeId);
+            if (rollupRepository.markApplied(eventKey)) {
+                rollupRepository.increment(podcastId, episodeId, today().toString(), counter);
+            }
+        } catch (ResourceNotFoundException e) {
+            // Episodio borrado antes de procesar el evento: no hay nada que reintentar
+            log.debug("Episode {} not found, dashboard event ignored", episodeId);
+        }
+    }
+
+    private static void add(CreatorDashboard.Counts counts, DailyRollup row) {
+        if (counts == null) {
+            return;
+        }
+        counts.setSubscribers(counts.getSubscribers() + value(row.getSubscribers()));
+        counts.setLikes(counts.getLikes() + value(row.getLikes()));
+        counts.setComments(counts.getComments() + value(row.getComments()));
+        counts.setListeners(counts.getListeners() + value(row.getListeners()));
+        counts.setCompletions(counts.getCompletions() + value(row.getCompletions()));
+    }
+
+    private static long value(Long value) {
+        return value != null ? value : 0;
+    }
+
+    private static LocalDate parseDay(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid date (expected yyyy-MM-dd): " + value);
+        }
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+
+    private static LocalDate day(Instant instant) {
+        return instant.atZone(ZoneOffset.UTC).toLocalDate();
+    }
+}
@@ -3,11 +3,15 @@ package org.podhub.podhub.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.podhub.podhub.dto.PaginatedResponse;
+import org.podhub.podhub.event.EpisodeLiked;
+import org.podhub.podhub.event.EpisodeUnliked;
 import org.podhub.podhub.exception.ConflictException;
 import org.podhub.podhub.exception.ResourceNotFoundException;
 import org.podhub.podhub.model.EpisodeLike;
 import org.podhub.podhub.repository.EpisodeLikeRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
@@ -20,7 +24,9 @@ import java.util.Optional;
 public class EpisodeLikeService {
 
     private final EpisodeLikeRepository episodeLikeRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Transactional
     public EpisodeLike like(String userId, String episodeId) {
         log.debug("User {} liking episode {}", userId, episodeId);
         if (episodeLikeRepository.existsByUserIdAndEpisodeId(userId, episodeId)) {
@@ -32,22 +38,24 @@ public class EpisodeLikeService {
                 .createdAt(Instant.now())
                 .build();
         EpisodeLike saved = episodeLikeRepository.save(like);
+        eventPublisher.publishEvent(new EpisodeLiked(userId, episodeId, saved.getCreatedAt()));
         log.info("Like created {}", saved.getId());
         return saved;
     }
 
+    @Transactional
     public void unlike(String userId, String episodeId) {
         log.debug("User {} unliking episode {}", userId, episodeId);
         Optional<EpisodeLike> existing = episodeLikeRepository.findByUserIdAndEpisodeId(userId, episodeId);
         EpisodeLike toDelete = existing.orElseThrow(() ->
                 new ResourceNotFoundException("Like not found for user and episode"));
         episodeLikeRepository.delete(toDelete);
+        eventPublisher.publishEvent(new EpisodeUnliked(userId, episodeId, Instant.now()));
     }
 
     public boolean exists(String userId, String episodeId) {
-        log.debug("Checking if like exists for user={}, episode={}", userId, episodeId);
         boolean exists = episodeLikeRepository.existsByUserIdAndEpisodeId(userId, episodeId);
-        log.info("Like exists for user={}, episode={} => {}", userId, episodeId, exists);
+        log.debug("Like exists for user={}, episode={} => {}", userId, episodeId, exists);
         return exists;
     }
 
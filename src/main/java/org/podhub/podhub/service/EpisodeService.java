@@ -2,18 +2,26 @@ package org.podhub.podhub.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.cache.FeedXmlCache;
+import org.podhub.podhub.cache.OwnershipResolver;
+import org.podhub.podhub.cache.RequestEntityCache;
 import org.podhub.podhub.dto.EpisodePatchRequest;
 import org.podhub.podhub.dto.PaginatedResponse;
+import org.podhub.podhub.event.EpisodePublished;
 import org.podhub.podhub.exception.ForbiddenException;
 import org.podhub.podhub.exception.ResourceNotFoundException;
 import org.podhub.podhub.model.Episode;
-import org.podhub.podhub.model.Podcast;
 import org.podhub.podhub.repository.EpisodeRepository;
-import org.podhub.podhub.repository.PodcastRepository;
+import org.podhub.podhub.storage.BlobStore;
+import org.podhub.podhub.util.AfterCommit;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Slf4j
@@ -22,7 +30,13 @@ import java.util.Optional;
 public class EpisodeService {
 
     private final EpisodeRepository episodeRepository;
-    private final PodcastRepository podcastRepository;
+    private final RequestEntityCache requestEntityCache;
+    private final OwnershipResolver ownershipResolver;
+    private final FeedXmlCache feedXmlCache;
+    private final BlobStore blobStore;
+    private final AudioProbeService audioProbeService;
+    private final WaveformService waveformService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Validates that the given user owns the podcast to which the episode belongs
@@ -33,10 +47,7 @@ public class EpisodeService {
      * @throws ForbiddenException if user doesn't own the podcast
      */
     private void validatePodcastOwnership(String podcastId, String userId) {
-        Podcast podcast = podcastRepository.findById(podcastId)
-                .orElseThrow(() -> new ResourceNotFoundException("Podcast not found with id: " + podcastId));
-
-        if (!podcast.getCreatorId().equals(userId)) {
+        if (!ownershipResolver.ownsPodcast(userId, podcastId)) {
             throw new ForbiddenException("You do not have permission to modify episodes in this podcast");
         }
     }
@@ -44,12 +55,14 @@ public class EpisodeService {
     /**
      * Creates a new episode
      * Validates that the user owns the podcast
+     * Publishes EpisodePublished if it is created public
      *
      * @param episode Episode to create
      * @param userId ID of the user creating the episode
      * @return Created episode
      * @throws ForbiddenException if user doesn't own the podcast
      */
+    @Transactional
     public Episode createEpisode(Episode episode, String userId) {
         log.debug("Creating episode '{}' in podcast {} by user {}", episode.getTitle(), episode.getPodcastId(), userId);
 
@@ -59,16 +72,31 @@ public class EpisodeService {
         Instant now = Instant.now();
         episode.setCreatedAt(now);
         episode.setUpdatedAt(now);
+        // Only set by attachAudio, once the blob has been retained
+        episode.setAudioSha256(null);
+        // Only set by AudioProbeService
+        episode.setAudioMetadata(null);
         if (episode.getIsPublic() == null) {
             episode.setIsPublic(false);
         }
         Episode saved = episodeRepository.save(episode);
+        requestEntityCache.put(Episode.class, saved.getId(), saved);
+        AfterCommit.run(() -> feedXmlCache.evict(saved.getPodcastId()));
+        audioChanged(saved);
+        publishIfPublished(false, false, saved);
         log.info("Episode created {} by user {}", saved.getId(), userId);
         return saved;
     }
 
+    /**
+     * Current version (id + updatedAt only) of an episode, for conditional GETs
+     */
+    public Optional<Episode> findVersionById(String id) {
+        return episodeRepository.findVersionById(id);
+    }
+
     public Optional<Episode> findById(String id) {
-        return episodeRepository.findById(id);
+        return requestEntityCache.findById(Episode.class, id, episodeRepository::findById);
     }
 
     /**
@@ -159,8 +187,9 @@ public class EpisodeService {
      * @return Updated episode
      * @throws ForbiddenException if user doesn't own the podcast
      */
+    @Transactional
     public Episode updateEpisode(String id, Episode updated, String userId) {
-        Episode existing = episodeRepository.findById(id)
+        Episode existing = requestEntityCache.findById(Episode.class, id, episodeRepository::findById)
                 .orElseThrow(() -> new ResourceNotFoundException("Episode not found: " + id));
 
         // Verify that user owns the podcast
@@ -170,7 +199,25 @@ public class EpisodeService {
         updated.setPodcastId(existing.getPodcastId()); // Preserve podcast ID
         updated.setCreatedAt(existing.getCreatedAt());
         updated.setUpdatedAt(Instant.now());
+        // Dedup key of imported episodes: without it the next import or refresh would create a duplicate
+        updated.setGuidHash(existing.getGuidHash());
+        // The audio hash is server-managed: it is kept while audioUrl is unchanged, otherwise the blob is released
+        boolean sameAudio = existing.getAudioUrl() != null && existing.getAudioUrl().equals(updated.getAudioUrl());
+        updated.setAudioSha256(sameAudio ? existing.getAudioSha256() : null);
+        // Probed metadata (and the duration taken from it) also belongs to the audio file
+        updated.setAudioMetadata(sameAudio ? existing.getAudioMetadata() : null);
+        if (sameAudio && existing.getAudioMetadata() != null) {
+            updated.setDurationSec(existing.getDurationSec());
+        }
         Episode saved = episodeRepository.save(updated);
+        if (!sameAudio) {
+            blobStore.release(existing.getAudioSha256());
+            audioChanged(saved);
+        }
+        requestEntityCache.put(Episode.class, saved.getId(), saved);
+        AfterCommit.run(() -> feedXmlCache.evict(saved.getPodcastId()));
+        publishIfPublished(Boolean.TRUE.equals(existing.getIsPublic()),
+                !Objects.equals(existing.getPublishAt(), saved.getPublishAt()), saved);
         log.info("Episode updated {} by user {}", id, userId);
         return saved;
     }
@@ -178,6 +225,9 @@ public class EpisodeService {
     /**
      * Partially updates an episode with only the provided fields.
      * Only the podcast owner can update episodes of their podcast.
+     * Ownership is resolved from the cache, then a single findAndModify filtered by
+     * _id + podcastId $sets only the provided fields (large fields like transcript
+     * are not rewritten unless they are part of the patch).
      *
      * @param id Episode ID to update
      * @param patchRequest DTO with nullable fields to update
@@ -186,61 +236,115 @@ public class EpisodeService {
      * @throws ResourceNotFoundException if episode not found
      * @throws ForbiddenException if user is not the podcast owner
      */
+    @Transactional
     public Episode patchEpisode(String id, EpisodePatchRequest patchRequest, String userId) {
         log.debug("Patching episode {} by user {}", id, userId);
 
-        Episode existing = episodeRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Episode not found with id: " + id));
-
-        // Verify podcast ownership
-        validatePodcastOwnership(existing.getPodcastId(), userId);
+        // Verify podcast ownership (throws 404 if the episode doesn't exist)
+        String podcastId = ownershipResolver.podcastOfEpisode(id);
+        validatePodcastOwnership(podcastId, userId);
 
+        Update update = new Update();
         boolean changed = false;
 
         // Apply only non-null fields
         if (patchRequest.getTitle() != null) {
-            existing.setTitle(patchRequest.getTitle());
+            update.set("title", patchRequest.getTitle());
             changed = true;
         }
         if (patchRequest.getSeason() != null) {
-            existing.setSeason(patchRequest.getSeason());
+            update.set("season", patchRequest.getSeason());
             changed = true;
         }
         if (patchRequest.getNumber() != null) {
-            existing.setNumber(patchRequest.getNumber());
+            update.set("number", patchRequest.getNumber());
             changed = true;
         }
         if (patchRequest.getDescription() != null) {
-            existing.setDescription(patchRequest.getDescription());
+            update.set("description", patchRequest.getDescription());
             changed = true;
         }
         if (patchRequest.getTranscript() != null) {
-            existing.setTranscript(patchRequest.getTranscript());
+            update.set("transcript", patchRequest.getTranscript());
             changed = true;
         }
         if (patchRequest.getExplicit() != null) {
-            existing.setExplicit(patchRequest.getExplicit());
+            update.set("explicit", patchRequest.getExplicit());
             changed = true;
         }
         if (patchRequest.getIsPublic() != null) {
-            existing.setIsPublic(patchRequest.getIsPublic());
+            update.set("isPublic", patchRequest.getIsPublic());
             changed = true;
         }
         if (patchRequest.getPublishAt() != null) {
-            existing.setPublishAt(patchRequest.getPublishAt());
+            update.set("publishAt", patchRequest.getPublishAt());
             changed = true;
         }
 
-        // Only update timestamp and save if something changed
-        if (changed) {
-            existing.setUpdatedAt(Instant.now());
-            Episode saved = episodeRepository.save(existing);
-            log.info("Episode {} patched successfully by user {}", id, userId);
-            return saved;
+        if (!changed) {
+            log.debug("No changes to apply for episode {}", id);
+            return requestEntityCache.findById(Episode.class, id, episodeRepository::findById)
+                    .orElseThrow(() -> new ResourceNotFoundException("Episode not found with id: " + id));
         }
 
-        log.debug("No changes to apply for episode {}", id);
-        return existing;
+        update.set("updatedAt", Instant.now());
+
+        // Only a patch that makes the episode public needs its previous visibility
+        boolean wasPublic = !Boolean.TRUE.equals(patchRequest.getIsPublic()) || requestEntityCache
+                .findById(Episode.class, id, episodeRepository::findById)
+                .map(previous -> Boolean.TRUE.equals(previous.getIsPublic()))
+                .orElse(false);
+
+        // Empty only if the episode was deleted since the ownership lookup
+        Episode saved = episodeRepository.patchInPodcast(id, podcastId, update)
+                .orElseThrow(() -> new ResourceNotFoundException("Episode not found with id: " + id));
+        requestEntityCache.put(Episode.class, saved.getId(), saved);
+        AfterCommit.run(() -> feedXmlCache.evict(podcastId));
+        publishIfPublished(wasPublic, patchRequest.getPublishAt() != null, saved);
+        log.info("Episode {} patched successfully by user {}", id, userId);
+        return saved;
+    }
+
+    /**
+     * Points an episode at an uploaded audio file
+     * Validates that the user owns the podcast
+     * The caller has already retained the blob of audioSha256; the blob previously referenced
+     * by the episode (if any and different) is released
+     *
+     * @param id Episode ID
+     * @param audioUrl Public URL of the stored audio
+     * @param audioSha256 Content hash of the stored audio (AudioBlob id)
+     * @param userId ID of the user that uploaded the file (must be podcast owner)
+     * @return Updated episode
+     * @throws ResourceNotFoundException if episode not found
+     * @throws ForbiddenException if user is not the podcast owner
+     */
+    public Episode attachAudio(String id, String audioUrl, String audioSha256, String userId) {
+        String podcastId = ownershipResolver.podcastOfEpisode(id);
+        validatePodcastOwnership(podcastId, userId);
+
+        Instant now = Instant.now();
+        Update update = new Update()
+                .set("audioUrl", audioUrl)
+                .set("audioSha256", audioSha256)
+                .unset("audioMetadata")
+                .set("updatedAt", now);
+        Episode saved = episodeRepository.patchInPodcastReturningOld(id, podcastId, update)
+                .orElseThrow(() -> new ResourceNotFoundException("Episode not found with id: " + id));
+        String previousSha256 = saved.getAudioSha256();
+        if (previousSha256 != null) {
+            // Re-uploading the same audio adds a reference too, so the old one is always released
+            blobStore.release(previousSha256);
+        }
+        saved.setAudioUrl(audioUrl);
+        saved.setAudioSha256(audioSha256);
+        saved.setAudioMetadata(null);
+        saved.setUpdatedAt(now);
+        requestEntityCache.put(Episode.class, saved.getId(), saved);
+        feedXmlCache.evict(podcastId);
+        audioChanged(saved);
+        log.info("Audio {} attached to episode {} by user {}", audioUrl, id, userId);
+        return saved;
     }
 
     /**
@@ -252,14 +356,38 @@ public class EpisodeService {
      * @throws ForbiddenException if user doesn't own the podcast
      */
     public void deleteEpisode(String id, String userId) {
-        Episode episode = episodeRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Episode not found: " + id));
+        // Verify that user owns the podcast (throws 404 if the episode doesn't exist)
+        String podcastId = ownershipResolver.podcastOfEpisode(id);
+        validatePodcastOwnership(podcastId, userId);
+
+        episodeRepository.findAndRemoveById(id)
+                .ifPresent(deleted -> blobStore.release(deleted.getAudioSha256()));
+        requestEntityCache.evict(Episode.class, id);
+        ownershipResolver.evictEpisode(id);
+        feedXmlCache.evict(podcastId);
+        log.info("Episode deleted {} by user {}", id, userId);
+    }
 
-        // Verify that user owns the podcast
-        validatePodcastOwnership(episode.getPodcastId(), userId);
+    /**
+     * Schedules the background processing of a new local audio file (metadata probing and waveform peaks)
+     * Inside a transaction it waits for the commit, otherwise the workers could look for an episode they cannot see yet
+     */
+    private void audioChanged(Episode episode) {
+        AfterCommit.run(() -> {
+            audioProbeService.submit(episode);
+            waveformService.submit(episode);
+        });
+    }
 
-        episodeRepository.deleteById(id);
-        log.info("Episode deleted {} by user {}", id, userId);
+    /**
+     * Publishes EpisodePublished when the saved episode is public and was not before
+     * It is published again when a public episode changes its publishAt: the notification of a scheduled
+     * episode waits for publishAt, and NotificationService moves the pending fan-out to the new date
+     */
+    private void publishIfPublished(boolean wasPublic, boolean publishAtChanged, Episode saved) {
+        if ((!wasPublic || publishAtChanged) && Boolean.TRUE.equals(saved.getIsPublic())) {
+            eventPublisher.publishEvent(new EpisodePublished(saved.getId(), saved.getPodcastId(), saved.getUpdatedAt()));
+        }
     }
 
     private PaginatedResponse<Episode> buildPaginatedResponse(List<Episode> episodes, int limit) {
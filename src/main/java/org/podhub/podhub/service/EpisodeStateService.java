@@ -0,0 +1,56 @@
+package org.podhub.podhub.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.dto.EpisodeState;
+import org.podhub.podhub.model.EpisodeLike;
+import org.podhub.podhub.model.ListeningProgress;
+import org.podhub.podhub.repository.EpisodeLikeRepository;
+import org.podhub.podhub.repository.ListeningProgressRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EpisodeStateService {
+
+    private final EpisodeLikeRepository episodeLikeRepository;
+    private final ListeningProgressRepository listeningProgressRepository;
+
+    /**
+     * Resolves liked/progress/completed state of several episodes for one user.
+     * Runs exactly two $in queries (likes and progress), both served by the
+     * user_episode_unique indexes, instead of one request per episode.
+     *
+     * @param userId User whose state is requested
+     * @param episodeIds Episode IDs of the page being rendered
+     * @return Map episodeId -> state, in request order, with an entry for every requested ID
+     */
+    public Map<String, EpisodeState> findStates(String userId, List<String> episodeIds) {
+        Set<String> ids = new LinkedHashSet<>(episodeIds);
+        log.debug("Resolving episode state for user={} on {} episodes", userId, ids.size());
+
+        Map<String, EpisodeState> states = new LinkedHashMap<>();
+        for (String id : ids) {
+            states.put(id, new EpisodeState());
+        }
+
+        for (EpisodeLike like : episodeLikeRepository.findLikedEpisodeIds(userId, ids)) {
+            states.get(like.getEpisodeId()).setLiked(true);
+        }
+
+        for (ListeningProgress progress : listeningProgressRepository.findProgressForEpisodes(userId, ids)) {
+            EpisodeState state = states.get(progress.getEpisodeId());
+            state.setPositionSeconds(progress.getPositionSeconds());
+            state.setCompleted(Boolean.TRUE.equals(progress.getCompleted()));
+        }
+
+        return states;
+    }
+}
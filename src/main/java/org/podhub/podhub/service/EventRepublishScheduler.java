@@ -0,0 +1,42 @@
+package org.podhub.podhub.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.modulith.events.IncompleteEventPublications;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Vuelve a entregar las publicaciones de eventos de dominio que llevan más de
+ * podhub.events.resubmit-older-than-ms sin completarse (su oyente falló o el nodo se paró con ellas en la cola).
+ * Al arrancar ya se reenvían todas las pendientes (spring.modulith.events.republish-outstanding-events-on-restart);
+ * esto cubre los fallos sin reinicio. El umbral debe superar lo que tarda la cola en vaciarse, o se repetirían
+ * eventos que aún esperan turno: con una cola atascada puede ocurrir, así que los oyentes que escriben contadores
+ * no dependen de él (DashboardService registra cada evento que suma y no cuenta dos veces el mismo).
+ */
+@Slf4j
+@Component
+public class EventRepublishScheduler {
+
+    private final IncompleteEventPublications incompleteEventPublications;
+    private final Duration olderThan;
+
+    public EventRepublishScheduler(
+            IncompleteEventPublications incompleteEventPublications,
+            @Value("${podhub.events.resubmit-older-than-ms:300000}") long olderThanMs) {
+        this.incompleteEventPublications = incompleteEventPublications;
+        this.olderThan = Duration.ofMillis(olderThanMs);
+    }
+
+    @Scheduled(fixedDelayString = "${podhub.events.resubmit-interval-ms:60000}",
+               initialDelayString = "${podhub.events.resubmit-interval-ms:60000}")
+    public void resubmit() {
+        try {
+            incompleteEventPublications.resubmitIncompletePublicationsOlderThan(olderThan);
+        } catch (Exception e) {
+            log.error("Resubmitting incomplete event publications failed: {}", e.getMessage(), e);
+        }
+    }
+}
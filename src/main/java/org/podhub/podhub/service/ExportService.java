@@ -0,0 +1,81 @@
+package org.podhub.podhub.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.cache.OwnershipResolver;
+import org.podhub.podhub.exception.ForbiddenException;
+import org.podhub.podhub.model.Comment;
+import org.podhub.podhub.model.Subscription;
+import org.podhub.podhub.model.User;
+import org.podhub.podhub.model.enums.CommentTargetType;
+import org.podhub.podhub.util.NdjsonWriter;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Volcados completos en NDJSON para administradores y creadores.
+ * Los documentos se leen con MongoTemplate.stream (un único cursor, lotes de CURSOR_BATCH_SIZE)
+ * y se escriben en la respuesta según se decodifican, sin construir listas en memoria.
+ * Los permisos se comprueban antes de empezar a escribir, para poder responder 403/404.
+ */
+@Slf4j
+@Service
+public class ExportService {
+
+    private static final int CURSOR_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final OwnershipResolver ownershipResolver;
+    private final NdjsonWriter ndjsonWriter;
+
+    public ExportService(MongoTemplate mongoTemplate, OwnershipResolver ownershipResolver, ObjectMapper objectMapper) {
+        this.mongoTemplate = mongoTemplate;
+        this.ownershipResolver = ownershipResolver;
+        this.ndjsonWriter = new NdjsonWriter(objectMapper);
+    }
+
+    /**
+     * Todos los suscriptores de un podcast (solo su creador o un admin)
+     */
+    public StreamingResponseBody exportPodcastSubscribers(String podcastId, String userId, boolean isAdmin) {
+        if (!isAdmin && !ownershipResolver.ownsPodcast(userId, podcastId)) {
+            throw new ForbiddenException("You do not have permission to export subscribers of this podcast");
+        }
+        Query query = Query.query(Criteria.where("podcastId").is(podcastId));
+        return stream(query, Subscription.class, "subscribers of podcast " + podcastId);
+    }
+
+    /**
+     * Todos los comentarios de un episodio (solo el creador del podcast o un admin)
+     */
+    public StreamingResponseBody exportEpisodeComments(String episodeId, String userId, boolean isAdmin) {
+        if (!isAdmin && !ownershipResolver.ownsEpisode(userId, episodeId)) {
+            throw new ForbiddenException("You do not have permission to export comments of this episode");
+        }
+        Query query = Query.query(Criteria.where("target.type").is(CommentTargetType.EPISODE)
+                .and("target.id").is(episodeId));
+        return stream(query, Comment.class, "comments of episode " + episodeId);
+    }
+
+    /**
+     * Todos los usuarios (solo admin, comprobado en el controlador)
+     * El hash de la contraseña se excluye en la proyección: nunca sale de MongoDB
+     */
+    public StreamingResponseBody exportUsers() {
+        Query query = new Query();
+        query.fields().exclude("passwordHash");
+        return stream(query, User.class, "users");
+    }
+
+    private <T> StreamingResponseBody stream(Query query, Class<T> type, String description) {
+        query.cursorBatchSize(CURSOR_BATCH_SIZE);
+        return out -> {
+            long start = System.currentTimeMillis();
+            long written = ndjsonWriter.write(mongoTemplate.stream(query, type), out);
+            log.info("Exported {} {} in {} ms", written, description, System.currentTimeMillis() - start);
+        };
+    }
+}
@@ -0,0 +1,295 @@
+package org.podhub.podhub.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.cache.FeedXmlCache;
+import org.podhub.podhub.cache.OwnershipResolver;
+import org.podhub.podhub.exception.BadRequestException;
+import org.podhub.podhub.exception.ConflictException;
+import org.podhub.podhub.exception.ForbiddenException;
+import org.podhub.podhub.exception.ResourceNotFoundException;
+import org.podhub.podhub.feed.FeedChannel;
+import org.podhub.podhub.feed.FeedItem;
+import org.podhub.podhub.feed.FeedParser;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.FeedImport;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.model.enums.ImportStatus;
+import org.podhub.podhub.repository.EpisodeRepository;
+import org.podhub.podhub.repository.FeedImportRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Importa un feed RSS/Atom completo a un podcast (nuevo o existente) en segundo plano.
+ *
+ * El fichero subido se guarda en work-dir y se procesa en streaming (FeedParser): los items
+ * se convierten en episodios y se insertan en lotes con bulk writes desordenados. Cada item
+ * lleva guidHash y el índice único (podcastId, guidHash) descarta los ya importados, así que
+ * reimportar un feed solo añade los episodios nuevos.
+ *
+ * Tras cada lote se guarda un checkpoint (itemsProcessed). Si el proceso falla o muere,
+ * POST /api/imports/{id}/resume continúa desde el checkpoint con el mismo fichero.
+ */
+@Slf4j
+@Service
+public class FeedImportService {
+
+    private static final String UNTITLED_PODCAST = "Imported podcast";
+
+    private final FeedImportRepository feedImportRepository;
+    private final EpisodeRepository episodeRepository;
+    private final PodcastService podcastService;
+    private final OwnershipResolver ownershipResolver;
+    private final FeedXmlCache feedXmlCache;
+    private final TaskExecutor taskExecutor;
+    private final FeedParser feedParser = new FeedParser();
+    private final Path workDir;
+    private final int batchSize;
+    private final long staleAfterSeconds;
+
+    public FeedImportService(
+            FeedImportRepository feedImportRepository,
+            EpisodeRepository episodeRepository,
+            PodcastService podcastService,
+            OwnershipResolver ownershipResolver,
+            FeedXmlCache feedXmlCache,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${podhub.import.work-dir:${java.io.tmpdir}/podhub-imports}") Path workDir,
+            @Value("${podhub.import.batch-size:1000}") int batchSize,
+            @Value("${podhub.import.stale-after-seconds:120}") long staleAfterSeconds) {
+        this.feedImportRepository = feedImportRepository;
+        this.episodeRepository = episodeRepository;
+        this.podcastService = podcastService;
+        this.ownershipResolver = ownershipResolver;
+        this.feedXmlCache = feedXmlCache;
+        this.taskExecutor = taskExecutor;
+        this.workDir = workDir;
+        this.batchSize = batchSize;
+        this.staleAfterSeconds = staleAfterSeconds;
+    }
+
+    /**
+     * Guarda el feed y lanza la importación
+     *
+     * @param podcastId Podcast destino; null para crear uno nuevo con los datos del canal
+     * @param publish Visibilidad de los episodios (y del podcast, si se crea)
+     * @return Importación en estado RUNNING
+     * @throws ForbiddenException si el usuario no es el creador del podcast destino
+     */
+    public FeedImport startImport(MultipartFile file, String podcastId, boolean publish, String userId) {
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("Feed file is required");
+        }
+        if (podcastId != null && !ownershipResolver.ownsPodcast(userId, podcastId)) {
+            throw new ForbiddenException("You do not have permission to import episodes into this podcast");
+        }
+
+        // En milisegundos, como se guarda en MongoDB: createdAt se reutiliza al reanudar
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        FeedImport feedImport = feedImportRepository.save(FeedImport.builder()
+                .userId(userId)
+                .podcastId(podcastId)
+                .fileName(file.getOriginalFilename())
+                .publish(publish)
+                .status(ImportStatus.RUNNING)
+                .itemsProcessed(0L)
+                .inserted(0L)
+                .duplicates(0L)
+                .skipped(0L)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+
+        try {
+            Files.createDirectories(workDir);
+            file.transferTo(workFile(feedImport.getId()));
+        } catch (IOException e) {
+            feedImportRepository.finish(feedImport.getId(), ImportStatus.FAILED, "Could not store feed file");
+            throw new UncheckedIOException("Could not store feed file for import " + feedImport.getId(), e);
+        }
+
+        log.info("Feed import {} started by user {} ({} bytes, podcast {})",
+                feedImport.getId(), userId, file.getSize(), podcastId != null ? podcastId : "new");
+        taskExecutor.execute(() -> run(feedImport));
+        return feedImport;
+    }
+
+    /**
+     * Progreso de una importación (solo su autor o un admin)
+     */
+    public FeedImport findById(String id, String userId, boolean isAdmin) {
+        FeedImport feedImport = feedImportRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Import not found with id: " + id));
+        if (!isAdmin && !feedImport.getUserId().equals(userId)) {
+            throw new ForbiddenException("You do not have permission to access this import");
+        }
+        return feedImport;
+    }
+
+    /**
+     * Relanza una importación fallida o abandonada desde su último checkpoint
+     *
+     * @throws ConflictException si ya terminó, si se está ejecutando o si el fichero ya no existe
+     */
+    public FeedImport resume(String id, String userId, boolean isAdmin) {
+        FeedImport existing = findById(id, userId, isAdmin);
+        if (existing.getStatus() == ImportStatus.COMPLETED) {
+            throw new ConflictException("Import " + id + " is already completed");
+        }
+        if (!Files.exists(workFile(id))) {
+            throw new ConflictException("Feed file for import " + id + " is no longer available, start a new import");
+        }
+
+        FeedImport claimed = feedImportRepository.claim(id, Instant.now().minusSeconds(staleAfterSeconds))
+                .orElseThrow(() -> new ConflictException("Import " + id + " is already running"));
+        log.info("Feed import {} resumed by user {} from item {}", id, userId, claimed.getItemsProcessed());
+        taskExecutor.execute(() -> run(claimed));
+        return claimed;
+    }
+
+    private void run(FeedImport feedImport) {
+        String id = feedImport.getId();
+        long start = System.nanoTime();
+        ImportRun importRun = new ImportRun(feedImport);
+
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(workFile(id)), 64 * 1024)) {
+            feedParser.parse(in, importRun);
+            importRun.flush();
+            feedImportRepository.finish(id, ImportStatus.COMPLETED, null);
+            Files.deleteIfExists(workFile(id));
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long items = importRun.index - importRun.resumeFrom;
+            log.info("Feed import {} completed: {} items in {} s ({} items/s), {} inserted, {} duplicates, {} skipped",
+                    id, items, String.format(Locale.ROOT, "%.1f", seconds),
+                    seconds > 0 ? Math.round(items / seconds) : items,
+                    importRun.inserted, importRun.duplicates, importRun.skipped);
+        } catch (Exception e) {
+            // El lote en curso se pierde: al reanudar se vuelve a procesar desde el checkpoint
+            log.error("Feed import {} failed after item {}: {}", id, importRun.processed, e.getMessage(), e);
+            feedImportRepository.finish(id, ImportStatus.FAILED, e.getMessage());
+        }
+    }
+
+    private Path workFile(String importId) {
+        return workDir.resolve(importId + ".xml");
+    }
+
+    /**
+     * Estado de una ejecución: recibe los eventos del parser y acumula el lote actual
+     */
+    private class ImportRun implements FeedParser.Listener {
+
+        private final FeedImport feedImport;
+        private final long resumeFrom;
+        private final List<Episode> batch = new ArrayList<>(batchSize);
+        private String podcastId;
+        private long index;
+        private long processed;
+        private long inserted;
+        private long duplicates;
+        private long skipped;
+
+        ImportRun(FeedImport feedImport) {
+            this.feedImport = feedImport;
+            this.podcastId = feedImport.getPodcastId();
+            this.resumeFrom = feedImport.getItemsProcessed();
+            this.processed = resumeFrom;
+            this.inserted = feedImport.getInserted();
+            this.duplicates = feedImport.getDuplicates();
+            this.skipped = feedImport.getSkipped();
+        }
+
+        @Override
+        public void onChannel(FeedChannel channel) {
+            if (podcastId != null) {
+                return;
+            }
+            String title = channel.getTitle() != null ? channel.getTitle() : UNTITLED_PODCAST;
+            Podcast podcast = Podcast.builder()
+                    .title(title)
+                    .slug(uniqueSlug(title))
+                    .description(channel.getDescription())
+                    .language(channel.getLanguage())
+                    .category(channel.getCategory())
+                    .coverImageUrl(channel.getImageUrl())
+                    .isPublic(feedImport.getPublish())
+                    .build();
+            podcastId = podcastService.createPodcast(podcast, feedImport.getUserId()).getId();
+            // Se guarda ya: si la importación se reanuda, no se crea otro podcast
+            feedImportRepository.setPodcastId(feedImport.getId(), podcastId);
+        }
+
+        @Override
+        public void onItem(FeedItem item) {
+            index++;
+            if (index <= resumeFrom) {
+                return;
+            }
+            if (item.getAudioUrl() == null) {
+                // Sin enclosure no hay audio que reproducir (entradas de blog, anuncios...)
+                skipped++;
+            } else {
+                batch.add(toEpisode(item));
+            }
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            int written = episodeRepository.insertIgnoringDuplicates(batch);
+            inserted += written;
+            duplicates += batch.size() - written;
+            processed = index;
+            batch.clear();
+            if (written > 0) {
+                feedXmlCache.evict(podcastId);
+            }
+            feedImportRepository.checkpoint(feedImport.getId(), processed, inserted, duplicates, skipped);
+        }
+
+        private Episode toEpisode(FeedItem item) {
+            Episode episode = item.toEpisode(podcastId, feedImport.getPublish());
+            // Distinto por item y en el orden del feed, para que la paginación por createdAt
+            // no salte episodios de un mismo lote
+            episode.setCreatedAt(feedImport.getCreatedAt().minusMillis(index));
+            episode.setUpdatedAt(Instant.now());
+            return episode;
+        }
+
+        private String uniqueSlug(String title) {
+            String slug = Normalizer.normalize(title, Normalizer.Form.NFD)
+                    .replaceAll("\\p{M}", "")
+                    .toLowerCase(Locale.ROOT)
+                    .replaceAll("[^a-z0-9]+", "-")
+                    .replaceAll("(^-+|-+$)", "");
+            if (slug.length() > 80) {
+                slug = slug.substring(0, 80);
+            }
+            if (slug.isEmpty()) {
+                slug = "podcast";
+            }
+            if (podcastService.findBySlug(slug).isPresent()) {
+                slug = slug + "-" + feedImport.getId().substring(feedImport.getId().length() - 6);
+            }
+            return slug;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.podhub.podhub.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lanza una pasada de FeedRefreshService cada tick-ms.
+ * La pasada solo repone workers: mientras haya feeds pendientes los workers encadenan consultas solos,
+ * así que el tick marca la latencia con la que se atiende un feed que acaba de vencer, no el ritmo.
+ * Se desactiva con podhub.feeds.refresh.enabled=false (tests, instancias sin salida a internet).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "podhub.feeds.refresh.enabled", havingValue = "true", matchIfMissing = true)
+public class FeedRefreshScheduler {
+
+    private final FeedRefreshService feedRefreshService;
+
+    @Scheduled(fixedDelayString = "${podhub.feeds.refresh.tick-ms:1000}",
+               initialDelayString = "${podhub.feeds.refresh.initial-delay-ms:30000}")
+    public void tick() {
+        try {
+            feedRefreshService.refreshDue();
+        } catch (Exception e) {
+            // Un fallo de MongoDB no debe cancelar las siguientes pasadas
+            log.error("Feed refresh tick failed: {}", e.getMessage(), e);
+        }
+    }
+}
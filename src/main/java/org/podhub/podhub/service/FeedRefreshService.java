@@ -0,0 +1,474 @@
+package org.podhub.podhub.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.cache.OwnershipResolver;
+import org.podhub.podhub.dto.FeedSourceRequest;
+import org.podhub.podhub.exception.ConflictException;
+import org.podhub.podhub.exception.ForbiddenException;
+import org.podhub.podhub.exception.ResourceNotFoundException;
+import org.podhub.podhub.feed.FeedChannel;
+import org.podhub.podhub.feed.FeedItem;
+import org.podhub.podhub.feed.FeedParser;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.FeedSource;
+import org.podhub.podhub.repository.EpisodeRepository;
+import org.podhub.podhub.repository.FeedSourceRepository;
+import org.podhub.podhub.util.ClaimingWorkers;
+import org.podhub.podhub.util.PublicAddresses;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Refresco periódico de los feeds de origen de los podcasts.
+ *
+ * Cada pasada (refreshDue, lanzada por FeedRefreshScheduler) arranca workers que reclaman feeds
+ * pendientes con un lease en MongoDB, así que varias instancias pueden compartir los mismos feeds
+ * sin repetir trabajo. Cada worker reclama el siguiente feed al terminar el anterior, de modo que el
+ * ritmo lo marca la duración de las descargas y no el intervalo del scheduler. Las descargas:
+ * - son condicionales (If-None-Match / If-Modified-Since): un 304 no descarga nada;
+ * - se limitan por host (per-host) además del límite global de workers;
+ * - se leen en streaming y se cortan en el primer item ya conocido (feeds del más nuevo al más antiguo);
+ * - solo van a hosts con direcciones públicas (PublicAddresses): la URL la pone el creador y lastError /
+ *   lastHttpStatus se le muestran, así que no puede servir para sondear la red interna. Las redirecciones
+ *   se siguen a mano para comprobar también cada salto.
+ * Los items nuevos se crean con EpisodeService.createEpisode, del más antiguo al más nuevo.
+ *
+ * La siguiente consulta se programa a intervalMinutes ±10% (jitter, para no sincronizar miles de
+ * feeds en el mismo instante) y con backoff exponencial tras fallos consecutivos.
+ */
+@Slf4j
+@Service
+public class FeedRefreshService {
+
+    private static final String USER_AGENT = "PodHub-FeedRefresher/1.0";
+    private static final int DEFAULT_INTERVAL_MINUTES = 60;
+    private static final Duration MAX_BACKOFF = Duration.ofHours(24);
+    private static final Duration HOST_BUSY_RETRY = Duration.ofSeconds(30);
+    private static final int MAX_REDIRECTS = 5;
+
+    private final FeedSourceRepository feedSourceRepository;
+    private final EpisodeRepository episodeRepository;
+    private final EpisodeService episodeService;
+    private final OwnershipResolver ownershipResolver;
+    private final FeedParser feedParser = new FeedParser();
+    private final HttpClient httpClient;
+    private final ExecutorService workers;
+    private final ClaimingWorkers<FeedSource> dueWorkers;
+    private final ConcurrentHashMap<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    private final int perHost;
+    private final int maxNewItems;
+    private final Duration lease;
+    private final Duration requestTimeout;
+    private final Set<String> privateHostAllowlist;
+
+    public FeedRefreshService(
+            FeedSourceRepository feedSourceRepository,
+            EpisodeRepository episodeRepository,
+            EpisodeService episodeService,
+            OwnershipResolver ownershipResolver,
+            @Value("${podhub.feeds.max-concurrent:32}") int maxConcurrent,
+            @Value("${podhub.feeds.per-host:2}") int perHost,
+            @Value("${podhub.feeds.max-new-items:200}") int maxNewItems,
+            @Value("${podhub.feeds.lease-seconds:300}") long leaseSeconds,
+            @Value("${podhub.feeds.timeout-seconds:30}") long timeoutSeconds,
+            @Value("${podhub.feeds.private-host-allowlist:}") Set<String> privateHostAllowlist) {
+        this.feedSourceRepository = feedSourceRepository;
+        this.episodeRepository = episodeRepository;
+        this.episodeService = episodeService;
+        this.ownershipResolver = ownershipResolver;
+        this.perHost = perHost;
+        this.maxNewItems = maxNewItems;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.requestTimeout = Duration.ofSeconds(timeoutSeconds);
+        this.privateHostAllowlist = privateHostAllowlist.stream()
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .filter(host -> !host.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.workers = Executors.newFixedThreadPool(maxConcurrent);
+        this.dueWorkers = new ClaimingWorkers<>(maxConcurrent, workers, this::claimDue, this::refreshWithHostLimit);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // ===== Gestión del feed de origen =====
+
+    /**
+     * Registra o cambia el feed de origen de un podcast (solo su creador).
+     * Un feed nuevo (o una URL nueva) se consulta en la siguiente pasada del scheduler.
+     */
+    public FeedSource register(String podcastId, FeedSourceRequest request, String userId) {
+        validateOwnership(podcastId, userId);
+
+        Instant now = Instant.now();
+        int interval = request.getIntervalMinutes() != null ? request.getIntervalMinutes() : DEFAULT_INTERVAL_MINUTES;
+        FeedSource source = feedSourceRepository.findByPodcastId(podcastId)
+                .orElseGet(() -> FeedSource.builder()
+                        .podcastId(podcastId)
+                        .consecutiveFailures(0)
+                        .episodesAdded(0L)
+                        .createdAt(now)
+                        .build());
+
+        if (!request.getUrl().equals(source.getUrl())) {
+            // Los validadores de la URL anterior no sirven para la nueva
+            source.setEtag(null);
+            source.setLastModified(null);
+            source.setNextFetchAt(now);
+        } else if (source.getNextFetchAt() == null) {
+            source.setNextFetchAt(now);
+        }
+        source.setUrl(request.getUrl());
+        source.setIntervalMinutes(interval);
+        source.setPublish(Boolean.TRUE.equals(request.getPublish()));
+        source.setUpdatedAt(now);
+
+        FeedSource saved = feedSourceRepository.save(source);
+        log.info("Feed source for podcast {} set to {} every {} min by user {}", podcastId, saved.getUrl(), interval, userId);
+        return saved;
+    }
+
+    public FeedSource findByPodcastId(String podcastId, String userId) {
+        validateOwnership(podcastId, userId);
+        return feedSourceRepository.findByPodcastId(podcastId)
+                .orElseThrow(() -> new ResourceNotFoundException("Podcast " + podcastId + " has no feed source"));
+    }
+
+    public void unregister(String podcastId, String userId) {
+        findByPodcastId(podcastId, userId);
+        feedSourceRepository.deleteByPodcastId(podcastId);
+        log.info("Feed source for podcast {} removed by user {}", podcastId, userId);
+    }
+
+    /**
+     * Consulta el feed ahora mismo, sin esperar al scheduler
+     *
+     * @return Estado del feed tras la consulta
+     * @throws ConflictException si otra instancia lo está consultando
+     */
+    public FeedSource refreshNow(String podcastId, String userId) {
+        validateOwnership(podcastId, userId);
+        Instant now = Instant.now();
+        FeedSource source = feedSourceRepository.claimByPodcastId(podcastId, now, now.plus(lease))
+                .orElseThrow(() -> feedSourceRepository.findByPodcastId(podcastId).isPresent()
+                        ? new ConflictException("Feed of podcast " + podcastId + " is already being refreshed")
+                        : new ResourceNotFoundException("Podcast " + podcastId + " has no feed source"));
+
+        Semaphore permits = permitsFor(source.getUrl());
+        try {
+            if (!permits.tryAcquire(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                reschedule(source, HOST_BUSY_RETRY);
+                throw new ConflictException("Too many concurrent fetches to the host of " + source.getUrl());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reschedule(source, HOST_BUSY_RETRY);
+            throw new ConflictException("Refresh interrupted");
+        }
+        try {
+            refresh(source);
+        } finally {
+            permits.release();
+        }
+        return feedSourceRepository.findByPodcastId(podcastId).orElse(source);
+    }
+
+    // ===== Refresco programado =====
+
+    /**
+     * Arranca workers (hasta max-concurrent) si hay feeds pendientes.
+     * Cada worker sigue reclamando feeds hasta que no quede ninguno, así que una pasada basta para
+     * vaciar la cola: con 32 workers y descargas de ~300 ms salen ~100 consultas/s.
+     * Cada feed se reclama justo antes de descargarlo, así que su lease no caduca esperando.
+     *
+     * @return Número de workers arrancados en esta pasada
+     */
+    public int refreshDue() {
+        int started = dueWorkers.fill();
+        if (started > 0) {
+            log.debug("Started {} feed refresh workers ({} active)", started, dueWorkers.active());
+        }
+        return started;
+    }
+
+    /**
+     * El siguiente feed pendiente, o null si no hay ninguno.
+     * Un fallo de MongoDB termina el worker (se registra aquí); la siguiente pasada lo repone.
+     */
+    private FeedSource claimDue() {
+        Instant now = Instant.now();
+        try {
+            return feedSourceRepository.claimDue(now, now.plus(lease)).orElse(null);
+        } catch (RuntimeException e) {
+            log.error("Could not claim due feed sources: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private void refreshWithHostLimit(FeedSource source) {
+        Semaphore permits = permitsFor(source.getUrl());
+        if (!permits.tryAcquire()) {
+            // Host ocupado: no bloquear un worker, se reintenta en la siguiente pasada
+            reschedule(source, HOST_BUSY_RETRY);
+            return;
+        }
+        try {
+            refresh(source);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Una consulta completa: GET condicional, lectura incremental, creación de episodios y liberación del lease.
+     * Nunca lanza: los errores quedan en lastError y retrasan la siguiente consulta.
+     */
+    void refresh(FeedSource source) {
+        Instant start = Instant.now();
+        Update update = new Update().set("lastFetchedAt", start).set("updatedAt", start);
+        try {
+            String creatorId = ownershipResolver.creatorOfPodcast(source.getPodcastId());
+            HttpResponse<InputStream> response = fetch(source);
+            update.set("lastHttpStatus", response.statusCode());
+
+            int added = 0;
+            try (InputStream body = response.body()) {
+                if (response.statusCode() == 304) {
+                    log.debug("Feed {} not modified", source.getUrl());
+                } else if (response.statusCode() == 200) {
+                    added = importNewItems(source, creatorId, decode(response, body));
+                    setOrUnset(update, "etag", response.headers().firstValue("ETag").orElse(null));
+                    setOrUnset(update, "lastModified", response.headers().firstValue("Last-Modified").orElse(null));
+                } else {
+                    throw new IOException("HTTP " + response.statusCode());
+                }
+            }
+
+            update.inc("episodesAdded", added)
+                    .set("consecutiveFailures", 0)
+                    .unset("lastError")
+                    .set("nextFetchAt", start.plus(jitter(Duration.ofMinutes(source.getIntervalMinutes()))));
+            feedSourceRepository.release(source.getId(), update);
+            if (added > 0) {
+                log.info("Feed {} refreshed: {} new episodes for podcast {}", source.getUrl(), added, source.getPodcastId());
+            }
+        } catch (ResourceNotFoundException e) {
+            // El podcast ya no existe: el feed no tiene a dónde importar
+            log.info("Removing feed source {} of deleted podcast {}", source.getId(), source.getPodcastId());
+            feedSourceRepository.deleteById(source.getId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reschedule(source, HOST_BUSY_RETRY);
+        } catch (Exception e) {
+            int failures = (source.getConsecutiveFailures() != null ? source.getConsecutiveFailures() : 0) + 1;
+            log.warn("Feed {} refresh failed ({} in a row): {}", source.getUrl(), failures, e.getMessage());
+            update.set("consecutiveFailures", failures)
+                    .set("lastError", e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName())
+                    .set("nextFetchAt", start.plus(jitter(backoff(source.getIntervalMinutes(), failures))));
+            feedSourceRepository.release(source.getId(), update);
+        }
+    }
+
+    /**
+     * Lee el feed hasta el primer item ya importado (o maxNewItems) y crea los nuevos
+     *
+     * @return Número de episodios creados
+     */
+    private int importNewItems(FeedSource source, String creatorId, InputStream body) throws Exception {
+        NewItemCollector collector = new NewItemCollector(source);
+        feedParser.parse(body, collector);
+
+        int added = 0;
+        // El feed va del más nuevo al más antiguo: se crean al revés para que createdAt siga el orden de publicación
+        for (int i = collector.fresh.size() - 1; i >= 0; i--) {
+            try {
+                episodeService.createEpisode(collector.fresh.get(i), creatorId);
+                added++;
+            } catch (DuplicateKeyException e) {
+                // Importado a la vez por otra vía (importación manual, otra instancia)
+                log.debug("Episode already present in podcast {}, skipping", source.getPodcastId());
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Acumula los items anteriores al primero conocido; isDone corta la descarga
+     */
+    private class NewItemCollector implements FeedParser.Listener {
+
+        private final FeedSource source;
+        private final List<Episode> fresh = new ArrayList<>();
+        private boolean done;
+
+        NewItemCollector(FeedSource source) {
+            this.source = source;
+        }
+
+        @Override
+        public void onChannel(FeedChannel channel) {
+        }
+
+        @Override
+        public void onItem(FeedItem item) {
+            if (item.getAudioUrl() == null) {
+                return;
+            }
+            Episode episode = item.toEpisode(source.getPodcastId(), source.getPublish());
+            if (episodeRepository.existsByPodcastIdAndGuidHash(source.getPodcastId(), episode.getGuidHash())) {
+                done = true;
+                return;
+            }
+            fresh.add(episode);
+            done = fresh.size() >= maxNewItems;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done;
+        }
+    }
+
+    /**
+     * GET condicional que sigue como mucho MAX_REDIRECTS redirecciones, comprobando el host de cada salto
+     */
+    private HttpResponse<InputStream> fetch(FeedSource source) throws IOException, InterruptedException {
+        URI uri = URI.create(source.getUrl());
+        for (int redirects = 0; ; redirects++) {
+            checkPublicHost(uri);
+            HttpResponse<InputStream> response = httpClient.send(conditionalGet(source, uri),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            Optional<String> location = response.headers().firstValue("Location");
+            if (!isRedirect(response.statusCode()) || location.isEmpty()) {
+                return response;
+            }
+            response.body().close();
+            if (redirects >= MAX_REDIRECTS) {
+                throw new IOException("Too many redirects");
+            }
+            uri = uri.resolve(location.get());
+        }
+    }
+
+    /**
+     * Solo http(s) y hosts cuyas direcciones son todas públicas (o están en private-host-allowlist)
+     *
+     * @throws IOException con un mensaje que no revela a qué resuelve el host
+     */
+    private void checkPublicHost(URI uri) throws IOException {
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : "";
+        if (!scheme.equals("http") && !scheme.equals("https")) {
+            throw new IOException("Unsupported URL scheme: " + uri.getScheme());
+        }
+        String host = uri.getHost();
+        if (host == null) {
+            throw new IOException("URL without host: " + uri);
+        }
+        if (privateHostAllowlist.contains(host.toLowerCase(Locale.ROOT))) {
+            return;
+        }
+        for (InetAddress address : InetAddress.getAllByName(host)) {
+            if (!PublicAddresses.isPublic(address)) {
+                throw new IOException("Host " + host + " is not a public address");
+            }
+        }
+    }
+
+    private static boolean isRedirect(int status) {
+        return status == 301 || status == 302 || status == 303 || status == 307 || status == 308;
+    }
+
+    private HttpRequest conditionalGet(FeedSource source, URI uri) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "application/rss+xml, application/atom+xml, application/xml;q=0.9, */*;q=0.8")
+                .header("Accept-Encoding", "gzip")
+                .GET();
+        if (source.getEtag() != null) {
+            request.header("If-None-Match", source.getEtag());
+        }
+        if (source.getLastModified() != null) {
+            request.header("If-Modified-Since", source.getLastModified());
+        }
+        return request.build();
+    }
+
+    private static InputStream decode(HttpResponse<InputStream> response, InputStream body) throws IOException {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("");
+        return "gzip".equals(encoding.toLowerCase(Locale.ROOT)) ? new GZIPInputStream(body, 16 * 1024) : body;
+    }
+
+    private void reschedule(FeedSource source, Duration delay) {
+        feedSourceRepository.release(source.getId(), new Update().set("nextFetchAt", Instant.now().plus(jitter(delay))));
+    }
+
+    private Semaphore permitsFor(String url) {
+        String host = URI.create(url).getHost();
+        return hostPermits.computeIfAbsent(host != null ? host.toLowerCase(Locale.ROOT) : "", h -> new Semaphore(perHost));
+    }
+
+    private void validateOwnership(String podcastId, String userId) {
+        if (!ownershipResolver.ownsPodcast(userId, podcastId)) {
+            throw new ForbiddenException("You do not have permission to manage the feed of this podcast");
+        }
+    }
+
+    private static void setOrUnset(Update update, String field, String value) {
+        if (value != null) {
+            update.set(field, value);
+        } else {
+            update.unset(field);
+        }
+    }
+
+    /**
+     * intervalo * 2^fallos, con tope MAX_BACKOFF
+     */
+    static Duration backoff(int intervalMinutes, int failures) {
+        long minutes = (long) intervalMinutes << Math.min(failures, 10);
+        return minutes > MAX_BACKOFF.toMinutes() ? MAX_BACKOFF : Duration.ofMinutes(minutes);
+    }
+
+    /**
+     * ±10% aleatorio
+     */
+    static Duration jitter(Duration base) {
+        long millis = base.toMillis();
+        long spread = millis / 10;
+        return Duration.ofMillis(millis + ThreadLocalRandom.current().nextLong(-spread, spread + 1));
+    }
+}
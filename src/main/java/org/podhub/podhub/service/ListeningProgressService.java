@@ -3,10 +3,15 @@ package org.podhub.podhub.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.podhub.podhub.dto.PaginatedResponse;
+import org.podhub.podhub.event.EpisodeCompleted;
+import org.podhub.podhub.event.ProgressDeleted;
+import org.podhub.podhub.event.ProgressUpdated;
 import org.podhub.podhub.exception.ResourceNotFoundException;
 import org.podhub.podhub.model.ListeningProgress;
 import org.podhub.podhub.repository.ListeningProgressRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
@@ -18,8 +23,25 @@ import java.util.Optional;
 public class ListeningProgressService {
 
     private final ListeningProgressRepository listeningProgressRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * Guarda el progreso de un oyente y publica ProgressUpdated (y EpisodeCompleted si acaba de terminarlo)
+     * con el estado anterior, en la misma transacción
+     */
+    @Transactional
     public ListeningProgress upsert(String userId, String episodeId, int positionSeconds, boolean completed) {
+        return upsert(userId, episodeId, positionSeconds, completed, null);
+    }
+
+    /**
+     * Igual que upsert, recordando el dispositivo que lo guarda para que ProgressSyncService no se lo reenvíe
+     *
+     * @param deviceId Dispositivo del oyente, o null si no se conoce
+     */
+    @Transactional
+    public ListeningProgress upsert(String userId, String episodeId, int positionSeconds, boolean completed,
+                                    String deviceId) {
         log.debug("Upsert progress user={}, episode={}, pos={}s, completed={}", userId, episodeId, positionSeconds, completed);
 
         ListeningProgress progress = listeningProgressRepository
@@ -30,11 +52,24 @@ public class ListeningProgressService {
                         .createdAt(Instant.now())
                         .build());
 
+        boolean previousCompleted = Boolean.TRUE.equals(progress.getCompleted());
+        boolean newlyCompleted = completed && !previousCompleted;
+        Instant previousUpdate = progress.getId() != null ? progress.getUpdatedAt() : null;
+        Integer previousFurthest = progress.getId() != null ? RetentionService.furthest(progress) : null;
+        int furthest = previousFurthest != null ? Math.max(previousFurthest, positionSeconds) : positionSeconds;
         progress.setPositionSeconds(positionSeconds);
+        progress.setFurthestPositionSeconds(furthest);
         progress.setCompleted(completed);
-        progress.setUpdatedAt(Instant.now());
+        progress.setDeviceId(deviceId);
+        Instant now = Instant.now();
+        progress.setUpdatedAt(now);
 
         ListeningProgress saved = listeningProgressRepository.save(progress);
+        eventPublisher.publishEvent(new ProgressUpdated(userId, episodeId, positionSeconds, furthest, completed,
+                previousFurthest, previousCompleted, previousUpdate, now));
+        if (newlyCompleted) {
+            eventPublisher.publishEvent(new EpisodeCompleted(userId, episodeId, now));
+        }
 
         log.info("Progress saved {} (completed={})", saved.getId(), saved.getCompleted());
         return saved;
@@ -75,6 +110,7 @@ public class ListeningProgressService {
         return buildPaginatedResponse(progressList, limit);
     }
 
+    @Transactional
     public void delete(String userId, String episodeId) {
         log.debug("Deleting progress for user={}, episode={}", userId, episodeId);
 
@@ -85,6 +121,8 @@ public class ListeningProgressService {
                 );
 
         listeningProgressRepository.delete(progress);
+        eventPublisher.publishEvent(new ProgressDeleted(userId, episodeId, RetentionService.furthest(progress),
+                Boolean.TRUE.equals(progress.getCompleted()), Instant.now()));
         log.info("Progress deleted for user={}, episode={}", userId, episodeId);
     }
 
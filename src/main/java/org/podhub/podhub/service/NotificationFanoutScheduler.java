@@ -0,0 +1,42 @@
+package org.podhub.podhub.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reparte cada tick-ms las notificaciones de los episodios programados cuyo publishAt ya ha llegado.
+ * El tick marca el retraso máximo entre publishAt y el inicio del reparto.
+ * Se desactiva con podhub.notifications.fanout.scheduled.enabled=false.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "podhub.notifications.fanout.scheduled.enabled", havingValue = "true", matchIfMissing = true)
+public class NotificationFanoutScheduler {
+
+    private final NotificationService notificationService;
+    private final int batchSize;
+
+    public NotificationFanoutScheduler(
+            NotificationService notificationService,
+            @Value("${podhub.notifications.fanout.scheduled.batch-size:100}") int batchSize) {
+        this.notificationService = notificationService;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${podhub.notifications.fanout.scheduled.tick-ms:30000}",
+               initialDelayString = "${podhub.notifications.fanout.scheduled.initial-delay-ms:30000}")
+    public void tick() {
+        try {
+            int started = notificationService.fanOutDue(batchSize);
+            if (started > 0) {
+                log.info("Started {} scheduled notification fan-outs", started);
+            }
+        } catch (Exception e) {
+            // Un fallo de MongoDB no debe cancelar las siguientes pasadas
+            log.error("Scheduled fan-out tick failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package org.podhub.podhub.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.dto.NotificationPage;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.Notification;
+import org.podhub.podhub.model.NotificationFanout;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.model.Subscription;
+import org.podhub.podhub.model.enums.FanoutStatus;
+import org.podhub.podhub.model.enums.NotificationType;
+import org.podhub.podhub.notification.Fanout;
+import org.podhub.podhub.notification.WriteBudget;
+import org.podhub.podhub.repository.NotificationFanoutRepository;
+import org.podhub.podhub.repository.NotificationRepository;
+import org.podhub.podhub.repository.SubscriptionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Notificaciones de episodios nuevos a los suscriptores que las tienen activadas.
+ *
+ * NotificationEventListener llama a fanOut con cada EpisodePublished. El reparto lee los suscriptores por
+ * tramos de userId del índice podcast_notifications (una consulta cubierta por tramo), escribe cada tramo
+ * con una inserción en bloque y reserva antes su parte de un presupuesto de escrituras por segundo común a
+ * todos los repartos del nodo, para que un podcast con un millón de suscriptores no sature MongoDB.
+ * El progreso se guarda en NotificationFanout tras cada tramo: un reparto interrumpido se reanuda desde
+ * su último tramo y repetirlo entero no duplica notificaciones (su _id es episodeId:userId).
+ * Un episodio con publishAt futuro no está aún en el feed: su reparto se aplaza a publishAt (SCHEDULED) y lo
+ * lanza NotificationFanoutScheduler con fanOutDue. Si publishAt cambia, EpisodeService vuelve a publicar
+ * EpisodePublished y el reparto pendiente se reprograma a la nueva fecha.
+ */
+@Slf4j
+@Service
+public class NotificationService {
+
+    private final MongoTemplate mongoTemplate;
+    private final NotificationRepository notificationRepository;
+    private final NotificationFanoutRepository fanoutRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final WriteBudget writeBudget;
+    private final int chunkSize;
+    private final Duration staleAfter;
+
+    public NotificationService(
+            MongoTemplate mongoTemplate,
+            NotificationRepository notificationRepository,
+            NotificationFanoutRepository fanoutRepository,
+            SubscriptionRepository subscriptionRepository,
+            @Value("${podhub.notifications.fanout.chunk-size:1000}") int chunkSize,
+            @Value("${podhub.notifications.fanout.writes-per-second:20000}") double writesPerSecond,
+            @Value("${podhub.notifications.fanout.stale-seconds:300}") long staleSeconds) {
+        this.mongoTemplate = mongoTemplate;
+        this.notificationRepository = notificationRepository;
+        this.fanoutRepository = fanoutRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.chunkSize = Math.max(1, chunkSize);
+        // Se puede acumular como mucho un tramo: el primero no espera, los demás van al ritmo del presupuesto
+        this.writeBudget = new WriteBudget(writesPerSecond, this.chunkSize);
+        this.staleAfter = Duration.ofSeconds(staleSeconds);
+    }
+
+    /**
+     * Reparte la notificación de un episodio recién publicado, o la aplaza hasta su publishAt si es futuro
+     *
+     * @return Resultado del reparto, o vacío si otro proceso lo está haciendo, ya se hizo o se ha aplazado
+     */
+    public Optional<Fanout.Result> fanOut(String episodeId, String podcastId, Instant publishedAt) {
+        Optional<NotificationFanout> claimed = fanoutRepository.claim(episodeId, podcastId, publishedAt,
+                Instant.now().minus(staleAfter));
+        if (claimed.isEmpty()) {
+            log.debug("Fan-out of episode {} is running elsewhere or already completed", episodeId);
+            return Optional.empty();
+        }
+        NotificationFanout fanout = claimed.get();
+        try {
+            Episode episode = findTitle(episodeId, Episode.class);
+            if (episode == null || !Boolean.TRUE.equals(episode.getIsPublic())) {
+                // Borrado u ocultado antes de repartirlo
+                fanoutRepository.finish(episodeId, FanoutStatus.COMPLETED, null);
+                return Optional.empty();
+            }
+            if (episode.getPublishAt() != null && episode.getPublishAt().isAfter(Instant.now())) {
+                // Programado: sus suscriptores no lo verán en el feed hasta publishAt
+                fanoutRepository.schedule(episodeId, episode.getPublishAt());
+                log.debug("Fan-out of episode {} scheduled for {}", episodeId, episode.getPublishAt());
+                return Optional.empty();
+            }
+            Podcast podcast = findTitle(podcastId, Podcast.class);
+            Instant createdAt = fanout.getPublishedAt() != null ? fanout.getPublishedAt() : publishedAt;
+            long baseRecipients = fanout.getRecipients() != null ? fanout.getRecipients() : 0;
+            long baseWritten = fanout.getWritten() != null ? fanout.getWritten() : 0;
+
+            Fanout.Result result = Fanout.run(fanout.getLastUserId(), chunkSize,
+                    (after, limit) -> subscriptionRepository.findNotifiedUserIdsAfter(podcastId, after, Limit.of(limit))
+                            .stream()
+                            .map(Subscription::getUserId)
+                            .toList(),
+                    writeBudget,
+                    userIds -> {
+                        List<Notification> notifications = new ArrayList<>(userIds.size());
+                        for (String userId : userIds) {
+                            notifications.add(Notification.builder()
+                                    .id(Notification.newEpisodeId(episodeId, userId))
+                                    .userId(userId)
+                                    .type(NotificationType.NEW_EPISODE)
+                                    .podcastId(podcastId)
+                                    .podcastTitle(podcast != null ? podcast.getTitle() : null)
+                                    .episodeId(episodeId)
+                                    .episodeTitle(episode.getTitle())
+                                    .read(false)
+                                    .createdAt(createdAt)
+                                    .build());
+                        }
+                        return notificationRepository.insertIgnoringDuplicates(notifications);
+                    },
+                    (lastUserId, recipients, written) -> fanoutRepository.checkpoint(episodeId, lastUserId,
+                            baseRecipients + recipients, baseWritten + written));
+
+            fanoutRepository.finish(episodeId, FanoutStatus.COMPLETED, null);
+            log.info("Episode {} notified to {} subscribers ({} new) in {} chunks, {} ms ({} ms waiting for the write budget)",
+                    episodeId, baseRecipients + result.recipients(), result.written(), result.chunks(),
+                    result.elapsedMs(), result.waitedMs());
+            return Optional.of(result);
+        } catch (InterruptedException e) {
+            // Se queda en RUNNING: otro proceso lo reanuda cuando deje de renovarse
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Fan-out of episode " + episodeId + " interrupted", e);
+        } catch (RuntimeException e) {
+            fanoutRepository.finish(episodeId, FanoutStatus.FAILED, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Reparte los episodios programados cuyo publishAt ya ha llegado, como mucho limit por llamada
+     *
+     * @return Repartos lanzados
+     */
+    public int fanOutDue(int limit) {
+        int started = 0;
+        for (NotificationFanout due : fanoutRepository.findByStatusAndDueAtLessThanEqual(
+                FanoutStatus.SCHEDULED, Instant.now(), Limit.of(limit))) {
+            try {
+                if (fanOut(due.getId(), due.getPodcastId(), due.getPublishedAt()).isPresent()) {
+                    started++;
+                }
+            } catch (RuntimeException e) {
+                // Su EpisodePublished ya se completó y nadie lo reentregaría: vuelve a la cola de programados
+                log.error("Scheduled fan-out of episode {} failed: {}", due.getId(), e.getMessage(), e);
+                fanoutRepository.schedule(due.getId(), due.getPublishedAt());
+            }
+        }
+        return started;
+    }
+
+    public Optional<NotificationFanout> findFanout(String episodeId) {
+        return fanoutRepository.findById(episodeId);
+    }
+
+    public NotificationPage findByUserId(String userId, Instant cursor, int limit) {
+        log.debug("Finding notifications by user: {} with cursor: {} and limit: {}", userId, cursor, limit);
+
+        List<Notification> notifications;
+        if (cursor == null) {
+            notifications = notificationRepository.findFirstNotificationsByUser(userId, Limit.of(limit + 1));
+        } else {
+            notifications = notificationRepository.findNextNotificationsByUser(userId, cursor, Limit.of(limit + 1));
+        }
+
+        boolean hasMore = notifications.size() > limit;
+        List<Notification> data = hasMore ? notifications.subList(0, limit) : notifications;
+        String nextCursor = hasMore && !data.isEmpty() ? data.get(data.size() - 1).getCreatedAt().toString() : null;
+        return NotificationPage.builder()
+                .data(data)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .count(data.size())
+                .unread(notificationRepository.countByUserIdAndReadFalse(userId))
+                .build();
+    }
+
+    /**
+     * @return Notificaciones marcadas como leídas
+     */
+    public long markAllRead(String userId) {
+        long marked = notificationRepository.markAllRead(userId);
+        log.debug("Marked {} notifications of user {} as read", marked, userId);
+        return marked;
+    }
+
+    private <T> T findTitle(String id, Class<T> type) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include("title", "isPublic", "publishAt");
+        return mongoTemplate.findOne(query, type);
+    }
+}
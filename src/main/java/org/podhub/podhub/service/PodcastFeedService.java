@@ -0,0 +1,135 @@
+package org.podhub.podhub.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.cache.FeedXmlCache;
+import org.podhub.podhub.cache.FeedXmlCache.RenderedFeed;
+import org.podhub.podhub.exception.ResourceNotFoundException;
+import org.podhub.podhub.feed.FeedWriter;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.repository.EpisodeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Feed RSS público de cada podcast (GET /api/podcasts/{idOrSlug}/feed.xml).
+ *
+ * El XML se genera en streaming (FeedWriter) directamente sobre un GZIPOutputStream y se guarda
+ * comprimido en FeedXmlCache. Si muchos agregadores piden el mismo feed justo tras invalidarlo,
+ * solo uno lo genera y el resto espera ese mismo resultado.
+ */
+@Slf4j
+@Service
+public class PodcastFeedService {
+
+    private final PodcastService podcastService;
+    private final EpisodeRepository episodeRepository;
+    private final FeedXmlCache feedXmlCache;
+    private final FeedWriter feedWriter;
+    private final int maxItems;
+    private final ConcurrentHashMap<String, CompletableFuture<RenderedFeed>> rendering = new ConcurrentHashMap<>();
+
+    public PodcastFeedService(
+            PodcastService podcastService,
+            EpisodeRepository episodeRepository,
+            FeedXmlCache feedXmlCache,
+            @Value("${podhub.public-base-url:http://localhost:5173}") String publicBaseUrl,
+            @Value("${podhub.feed.max-items:1000}") int maxItems) {
+        this.podcastService = podcastService;
+        this.episodeRepository = episodeRepository;
+        this.feedXmlCache = feedXmlCache;
+        this.feedWriter = new FeedWriter(publicBaseUrl);
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Feed de un podcast público, desde la caché o generado en el momento
+     *
+     * @throws ResourceNotFoundException si el podcast no existe o no es público
+     */
+    public RenderedFeed getFeed(String idOrSlug) {
+        RenderedFeed cached = feedXmlCache.get(idOrSlug);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<RenderedFeed> mine = new CompletableFuture<>();
+        CompletableFuture<RenderedFeed> inProgress = rendering.putIfAbsent(idOrSlug, mine);
+        if (inProgress != null) {
+            try {
+                return inProgress.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            RenderedFeed feed = render(idOrSlug);
+            mine.complete(feed);
+            return feed;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            rendering.remove(idOrSlug, mine);
+        }
+    }
+
+    private RenderedFeed render(String idOrSlug) {
+        // El sello se toma antes de leer el podcast y sus episodios: si cambian durante el render, no se cachea
+        String podcastId = podcastService.findVersionByIdOrSlug(idOrSlug)
+                .map(Podcast::getId)
+                .orElseThrow(() -> new ResourceNotFoundException("Podcast not found: " + idOrSlug));
+        long stamp = feedXmlCache.stamp(podcastId);
+        Podcast podcast = podcastService.findById(podcastId)
+                .filter(p -> Boolean.TRUE.equals(p.getIsPublic()))
+                .orElseThrow(() -> new ResourceNotFoundException("Podcast not found: " + idOrSlug));
+        Instant now = Instant.now();
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(16 * 1024);
+        MessageDigest sha256 = sha256();
+        FeedWriter.Result result;
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer, 8 * 1024);
+             OutputStream xml = new DigestOutputStream(gzip, sha256)) {
+            result = feedWriter.write(podcast,
+                    episodeRepository.streamFeedEpisodes(podcast.getId(), now, Limit.of(maxItems)), xml);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Could not render feed of podcast " + podcast.getId(), e);
+        }
+
+        String etag = "W/\"" + HexFormat.of().formatHex(sha256.digest(), 0, 16) + "\"";
+        Instant lastModified = result.lastModified() != null ? result.lastModified()
+                : podcast.getCreatedAt() != null ? podcast.getCreatedAt() : now;
+        RenderedFeed feed = new RenderedFeed(podcast.getId(), podcast.getSlug(), buffer.toByteArray(), etag,
+                lastModified, result.items(), now);
+        feedXmlCache.put(feed, stamp);
+        log.debug("Rendered RSS feed of podcast {}: {} items, {} bytes gzip in {} ms",
+                podcast.getId(), result.items(), feed.gzip().length, Instant.now().toEpochMilli() - now.toEpochMilli());
+        return feed;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
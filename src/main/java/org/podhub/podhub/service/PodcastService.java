@@ -2,12 +2,22 @@ package org.podhub.podhub.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.cache.FeedXmlCache;
+import org.podhub.podhub.cache.OwnershipResolver;
+import org.podhub.podhub.cache.RequestEntityCache;
 import org.podhub.podhub.dto.PaginatedResponse;
 import org.podhub.podhub.dto.PodcastPatchRequest;
+import org.podhub.podhub.event.PodcastChanged;
+import org.podhub.podhub.event.PodcastCreated;
+import org.podhub.podhub.event.PodcastDeleted;
 import org.podhub.podhub.model.Podcast;
 import org.podhub.podhub.repository.PodcastRepository;
 import org.podhub.podhub.security.AuthenticationService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.podhub.podhub.exception.ConflictException;
 import org.podhub.podhub.exception.ForbiddenException;
 import org.podhub.podhub.exception.ResourceNotFoundException;
@@ -22,7 +32,11 @@ import java.util.Optional;
 public class PodcastService {
 
     private final PodcastRepository podcastRepository;
+    private final RequestEntityCache requestEntityCache;
     private final AuthenticationService authenticationService;
+    private final OwnershipResolver ownershipResolver;
+    private final FeedXmlCache feedXmlCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Validates that the given user owns the specified podcast
@@ -33,10 +47,7 @@ public class PodcastService {
      * @throws ForbiddenException if user doesn't own the podcast
      */
     private void validateOwnership(String podcastId, String userId) {
-        Podcast podcast = podcastRepository.findById(podcastId)
-                .orElseThrow(() -> new ResourceNotFoundException("Podcast not found with id: " + podcastId));
-
-        if (!podcast.getCreatorId().equals(userId)) {
+        if (!ownershipResolver.ownsPodcast(userId, podcastId)) {
             throw new ForbiddenException("You do not have permission to modify this podcast");
         }
     }
@@ -44,12 +55,13 @@ public class PodcastService {
     /**
      * Crea un nuevo podcast en la base de datos
      * Valida que el slug sea único y establece fechas automáticamente
-     * Asigna el creador del podcast
+     * Asigna el creador del podcast y publica PodcastCreated (el índice de contenido lo escucha)
      *
      * @param podcast Podcast a crear
      * @param creatorUserId ID del usuario que crea el podcast
      * @return Podcast creado
      */
+    @Transactional
     public Podcast createPodcast(Podcast podcast, String creatorUserId) {
         log.debug("Creating new podcast with title: {} by creator: {}", podcast.getTitle(), creatorUserId);
 
@@ -69,9 +81,11 @@ public class PodcastService {
         }
 
         Podcast saved = podcastRepository.save(podcast);
+        requestEntityCache.put(Podcast.class, saved.getId(), saved);
 
         // Promote user to CREATOR on first podcast creation
         authenticationService.promoteToCreator(creatorUserId);
+        eventPublisher.publishEvent(new PodcastCreated(saved.getId(), creatorUserId, now));
 
         log.info("Podcast created successfully with id: {} by creator: {}", saved.getId(), creatorUserId);
         return saved;
@@ -83,7 +97,7 @@ public class PodcastService {
      */
     public Optional<Podcast> findById(String id) {
         log.debug("Finding podcast by id: {}", id);
-        return podcastRepository.findById(id);
+        return requestEntityCache.findById(Podcast.class, id, podcastRepository::findById);
     }
 
     /**
@@ -95,6 +109,18 @@ public class PodcastService {
         return podcastRepository.findBySlug(slug);
     }
 
+    /**
+     * Versión actual (solo id + updatedAt) de un podcast por ID o slug
+     * Para GET condicionales: no carga el documento completo
+     */
+    public Optional<Podcast> findVersionByIdOrSlug(String idOrSlug) {
+        Optional<Podcast> result = podcastRepository.findVersionById(idOrSlug);
+        if (result.isEmpty()) {
+            result = podcastRepository.findVersionBySlug(idOrSlug);
+        }
+        return result;
+    }
+
     /**
      * Busca un podcast por ID o slug
      * Intenta primero como ID, si no existe intenta como slug
@@ -188,6 +214,7 @@ public class PodcastService {
     /**
      * Actualiza un podcast existente
      * Valida que exista, que el usuario sea el creador, y que el slug no esté en uso si cambió
+     * Publica PodcastChanged (el índice de contenido lo re-indexa en segundo plano)
      *
      * @param id ID del podcast a actualizar
      * @param updatedPodcast Datos actualizados del podcast
@@ -201,7 +228,7 @@ public class PodcastService {
         // Verify ownership first
         validateOwnership(id, userId);
 
-        Podcast existingPodcast = podcastRepository.findById(id)
+        Podcast existingPodcast = requestEntityCache.findById(Podcast.class, id, podcastRepository::findById)
                 .orElseThrow(() -> new ResourceNotFoundException("Podcast not found with id: " + id));
 
         // Verificar si el slug cambió y si ya existe
@@ -217,6 +244,9 @@ public class PodcastService {
         updatedPodcast.setUpdatedAt(Instant.now());
 
         Podcast saved = podcastRepository.save(updatedPodcast);
+        requestEntityCache.put(Podcast.class, saved.getId(), saved);
+        feedXmlCache.evict(saved.getId());
+        eventPublisher.publishEvent(new PodcastChanged(saved.getId(), saved.getUpdatedAt()));
         log.info("Podcast updated successfully with id: {} by user: {}", saved.getId(), userId);
         return saved;
     }
@@ -224,6 +254,9 @@ public class PodcastService {
     /**
      * Partially updates a podcast with only the provided fields.
      * Only the podcast creator can update their podcast.
+     * Single findAndModify filtered by _id + creatorId that $sets only the provided fields,
+     * so concurrent patches of different fields don't overwrite each other.
+     * Content changes are re-indexed from a PodcastChanged event, off the request thread.
      *
      * @param id Podcast ID to update
      * @param patchRequest DTO with nullable fields to update
@@ -236,65 +269,77 @@ public class PodcastService {
     public Podcast patchPodcast(String id, PodcastPatchRequest patchRequest, String userId) {
         log.debug("Patching podcast {} by user {}", id, userId);
 
-        // Verify ownership
-        validateOwnership(id, userId);
-
-        Podcast existing = podcastRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Podcast not found with id: " + id));
-
+        Update update = new Update();
         boolean changed = false;
 
         // Apply only non-null fields
         if (patchRequest.getTitle() != null) {
-            existing.setTitle(patchRequest.getTitle());
+            update.set("title", patchRequest.getTitle());
             changed = true;
         }
         if (patchRequest.getSlug() != null) {
-            // Validate slug uniqueness if changed
-            if (!existing.getSlug().equals(patchRequest.getSlug())) {
-                if (podcastRepository.existsBySlug(patchRequest.getSlug())) {
-                    throw new ConflictException("Podcast with slug '" + patchRequest.getSlug() + "' already exists");
-                }
-            }
-            existing.setSlug(patchRequest.getSlug());
+            update.set("slug", patchRequest.getSlug());
             changed = true;
         }
         if (patchRequest.getDescription() != null) {
-            existing.setDescription(patchRequest.getDescription());
+            update.set("description", patchRequest.getDescription());
             changed = true;
         }
         if (patchRequest.getLanguage() != null) {
-            existing.setLanguage(patchRequest.getLanguage());
+            update.set("language", patchRequest.getLanguage());
             changed = true;
         }
         if (patchRequest.getCategory() != null) {
-            existing.setCategory(patchRequest.getCategory());
+            update.set("category", patchRequest.getCategory());
             changed = true;
         }
         if (patchRequest.getCoverImageUrl() != null) {
-            existing.setCoverImageUrl(patchRequest.getCoverImageUrl());
+            update.set("coverImageUrl", patchRequest.getCoverImageUrl());
             changed = true;
         }
         if (patchRequest.getIsPublic() != null) {
-            existing.setIsPublic(patchRequest.getIsPublic());
+            update.set("isPublic", patchRequest.getIsPublic());
             changed = true;
         }
 
-        // Only update timestamp and save if something changed
-        if (changed) {
-            existing.setUpdatedAt(Instant.now());
-            Podcast saved = podcastRepository.save(existing);
-            log.info("Podcast {} patched successfully by user {}", id, userId);
-            return saved;
+        if (!changed) {
+            log.debug("No changes to apply for podcast {}", id);
+            validateOwnership(id, userId);
+            return requestEntityCache.findById(Podcast.class, id, podcastRepository::findById)
+                    .orElseThrow(() -> new ResourceNotFoundException("Podcast not found with id: " + id));
+        }
+
+        update.set("updatedAt", Instant.now());
+
+        Optional<Podcast> patched;
+        try {
+            patched = podcastRepository.patchOwnedBy(id, userId, update);
+        } catch (DuplicateKeyException e) {
+            // Unique index on slug
+            throw new ConflictException("Podcast with slug '" + patchRequest.getSlug() + "' already exists");
+        }
+
+        if (patched.isEmpty()) {
+            // Nothing matched _id + creatorId: either it doesn't exist (404) or it isn't theirs (403)
+            validateOwnership(id, userId);
+            throw new ResourceNotFoundException("Podcast not found with id: " + id);
         }
 
-        log.debug("No changes to apply for podcast {}", id);
-        return existing;
+        Podcast saved = patched.get();
+        requestEntityCache.put(Podcast.class, saved.getId(), saved);
+        feedXmlCache.evict(saved.getId());
+        if (patchRequest.getTitle() != null || patchRequest.getDescription() != null
+                || patchRequest.getLanguage() != null || patchRequest.getCategory() != null) {
+            eventPublisher.publishEvent(new PodcastChanged(saved.getId(), saved.getUpdatedAt()));
+        }
+        log.info("Podcast {} patched successfully by user {}", id, userId);
+        return saved;
     }
 
     /**
      * Elimina un podcast por ID
      * Valida que exista y que el usuario sea el creador antes de borrar
+     * Publica PodcastDeleted (el índice de contenido lo retira en segundo plano)
      *
      * @param id ID del podcast a eliminar
      * @param userId ID del usuario que intenta eliminar
@@ -307,6 +352,10 @@ public class PodcastService {
         validateOwnership(id, userId);
 
         podcastRepository.deleteById(id);
+        requestEntityCache.evict(Podcast.class, id);
+        ownershipResolver.evictPodcast(id);
+        feedXmlCache.evict(id);
+        eventPublisher.publishEvent(new PodcastDeleted(id, Instant.now()));
         log.info("Podcast deleted successfully with id: {} by user: {}", id, userId);
     }
 
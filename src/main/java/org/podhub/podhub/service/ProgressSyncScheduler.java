@@ -0,0 +1,43 @@
+package org.podhub.podhub.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Envíos periódicos de la sincronización de progreso (ProgressSyncService):
+ * - Cada throttle-ms, los cambios acumulados (uno por usuario y episodio).
+ * - Cada heartbeat-ms, un ping a todas las sesiones.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProgressSyncScheduler {
+
+    private final ProgressSyncService progressSyncService;
+
+    @Scheduled(fixedDelayString = "${podhub.progress.sync.throttle-ms:2000}",
+               initialDelayString = "${podhub.progress.sync.throttle-ms:2000}")
+    public void flush() {
+        try {
+            int users = progressSyncService.flush();
+            if (users > 0) {
+                log.debug("Progress sync sent to {} users", users);
+            }
+        } catch (Exception e) {
+            log.error("Progress sync flush failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${podhub.progress.sync.heartbeat-ms:25000}",
+               initialDelayString = "${podhub.progress.sync.heartbeat-ms:25000}")
+    public void heartbeat() {
+        try {
+            int sessions = progressSyncService.heartbeat();
+            log.debug("Progress sync heartbeat sent to {} sessions", sessions);
+        } catch (Exception e) {
+            log.error("Progress sync heartbeat failed: {}", e.getMessage(), e);
+        }
+    }
+}
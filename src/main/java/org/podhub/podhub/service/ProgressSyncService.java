@@ -0,0 +1,188 @@
+package org.podhub.podhub.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.podhub.podhub.dto.ProgressSyncMessage;
+import org.podhub.podhub.live.ChangeStreamWatcher;
+import org.podhub.podhub.live.Coalescer;
+import org.podhub.podhub.live.TopicBroadcaster;
+import org.podhub.podhub.model.ListeningProgress;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Sincronización del progreso de escucha entre los dispositivos de un usuario por WebSocket (/api/ws/progress).
+ *
+ * Cada nodo sigue listening_progress con un change stream (lo que guarda ListeningProgressService.upsert en
+ * cualquier nodo) y, si el usuario tiene sesiones abiertas aquí, deja el cambio en un Coalescer: cada
+ * podhub.progress.sync.throttle-ms se envía como mucho un mensaje por usuario y episodio, con el último
+ * progreso. Así los guardados periódicos del reproductor no se multiplican en envíos. A la sesión del
+ * dispositivo que lo guardó (X-Device-Id) no se le reenvía.
+ *
+ * Las sesiones se registran en un TopicBroadcaster (tema = usuario): una sesión sin mensajes no ocupa ningún
+ * hilo y su cola es de podhub.progress.sync.buffer-size mensajes; si se llena se cierra la sesión y el
+ * cliente reconecta y vuelve a pedir el progreso por REST.
+ */
+@Slf4j
+@Service
+public class ProgressSyncService {
+
+    private static final String COLLECTION = "listening_progress";
+
+    private static final List<Bson> PIPELINE = List.of(Aggregates.match(
+            Filters.in("operationType", List.of("insert", "replace", "update"))));
+
+    private static final Frame PING = new Frame(null, new PingMessage());
+
+    /**
+     * Mensaje ya serializado para las sesiones de un usuario
+     *
+     * @param deviceId Dispositivo que originó el cambio (no se le envía), o null
+     */
+    private record Frame(String deviceId, WebSocketMessage<?> message) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor taskExecutor;
+    private final TopicBroadcaster<Frame> broadcaster;
+    private final Coalescer<ListeningProgress> pending;
+    private final ChangeStreamWatcher watcher;
+
+    public ProgressSyncService(
+            MongoTemplate mongoTemplate,
+            ObjectMapper objectMapper,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${podhub.progress.sync.buffer-size:16}") int bufferSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.taskExecutor = taskExecutor;
+        this.broadcaster = new TopicBroadcaster<>(bufferSize, taskExecutor);
+        // Si llegan desordenados, se queda el guardado más reciente
+        this.pending = new Coalescer<>((previous, next) -> previous.getUpdatedAt() != null && next.getUpdatedAt() != null
+                && previous.getUpdatedAt().isAfter(next.getUpdatedAt()) ? previous : next);
+        this.watcher = new ChangeStreamWatcher("progress-change-stream", mongoTemplate.getCollection(COLLECTION),
+                PIPELINE, this::dispatch);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        watcher.start();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        watcher.stop();
+    }
+
+    /**
+     * Registra la sesión WebSocket de un dispositivo
+     *
+     * @return Baja de la sesión, para cuando se cierre
+     */
+    public Runnable register(WebSocketSession session, String userId, String deviceId) {
+        TopicBroadcaster<Frame>.Subscriber subscriber = broadcaster.subscribe(userId, new TopicBroadcaster.Sink<>() {
+            @Override
+            public void send(Frame frame) throws IOException {
+                if (frame.deviceId() == null || !frame.deviceId().equals(deviceId)) {
+                    session.sendMessage(frame.message());
+                }
+            }
+
+            @Override
+            public void evicted(TopicBroadcaster.Reason reason) {
+                log.debug("Progress sync session {} of user {} closed: {}", session.getId(), userId, reason);
+                // Fuera del hilo que publica: un envío atascado retiene la sesión
+                taskExecutor.execute(() -> {
+                    try {
+                        session.close(CloseStatus.SESSION_NOT_RELIABLE);
+                    } catch (IOException e) {
+                        log.debug("Progress sync session {} could not be closed: {}", session.getId(), e.getMessage());
+                    }
+                });
+            }
+        });
+        return subscriber::close;
+    }
+
+    /**
+     * Envía los cambios acumulados desde la última vez: uno por usuario y episodio
+     *
+     * @return Usuarios a los que se ha enviado algo
+     */
+    public int flush() {
+        return pending.drain(this::publish);
+    }
+
+    /**
+     * Ping a todas las sesiones: mantiene abiertos los proxies y detecta los clientes que se fueron
+     */
+    public int heartbeat() {
+        return broadcaster.broadcast(PING);
+    }
+
+    public int sessions() {
+        return broadcaster.subscribers();
+    }
+
+    /**
+     * Si el change stream está abierto (los cambios de antes de abrirlo no se envían)
+     */
+    public boolean isWatching() {
+        return watcher.isWatching();
+    }
+
+    private void dispatch(ChangeStreamDocument<Document> change) {
+        Document document = change.getFullDocument();
+        if (document == null) {
+            return;
+        }
+        String userId = document.getString("userId");
+        // La mayoría de los guardados son de usuarios sin sesiones en este nodo
+        if (userId == null || broadcaster.subscribers(userId) == 0) {
+            return;
+        }
+        ListeningProgress progress = mongoTemplate.getConverter().read(ListeningProgress.class, document);
+        pending.offer(userId, progress.getEpisodeId(), progress);
+    }
+
+    private void publish(String userId, Collection<ListeningProgress> changes) {
+        for (ListeningProgress progress : changes) {
+            ProgressSyncMessage message = ProgressSyncMessage.builder()
+                    .type("progress")
+                    .episodeId(progress.getEpisodeId())
+                    .positionSeconds(progress.getPositionSeconds())
+                    .completed(progress.getCompleted())
+                    .deviceId(progress.getDeviceId())
+                    .updatedAt(progress.getUpdatedAt())
+                    .build();
+            try {
+                broadcaster.publish(userId, new Frame(progress.getDeviceId(),
+                        new TextMessage(objectMapper.writeValueAsString(message))));
+            } catch (JsonProcessingException e) {
+                log.warn("Progress of user {} could not be serialized: {}", userId, e.getMessage());
+            }
+        }
+    }
+}
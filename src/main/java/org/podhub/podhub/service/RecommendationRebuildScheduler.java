@@ -0,0 +1,39 @@
+package org.podhub.podhub.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reconstruye periódicamente el modelo de recomendaciones (RecommendationService.rebuild) y el índice
+ * de contenido (ContentSimilarityService.rebuild); la primera vez poco después del arranque, porque empiezan vacíos
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecommendationRebuildScheduler {
+
+    private final RecommendationService recommendationService;
+    private final ContentSimilarityService contentSimilarityService;
+
+    @Scheduled(fixedDelayString = "${podhub.recommend.rebuild-interval-ms:21600000}",
+               initialDelayString = "${podhub.recommend.rebuild-initial-delay-ms:30000}")
+    public void rebuild() {
+        try {
+            recommendationService.rebuild();
+        } catch (Exception e) {
+            log.error("Recommendation model rebuild failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${podhub.recommend.content.rebuild-interval-ms:21600000}",
+               initialDelayString = "${podhub.recommend.content.rebuild-initial-delay-ms:45000}")
+    public void rebuildContent() {
+        try {
+            contentSimilarityService.rebuild();
+        } catch (Exception e) {
+            log.error("Content index rebuild failed: {}", e.getMessage(), e);
+        }
+    }
+}
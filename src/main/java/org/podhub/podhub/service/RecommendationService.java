@@ -0,0 +1,263 @@
+package org.podhub.podhub.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.cache.OwnershipResolver;
+import org.podhub.podhub.dto.Recommendation;
+import org.podhub.podhub.exception.BadRequestException;
+import org.podhub.podhub.exception.ResourceNotFoundException;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.EpisodeLike;
+import org.podhub.podhub.model.ListeningProgress;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.model.Subscription;
+import org.podhub.podhub.recommend.CoListenModel;
+import org.podhub.podhub.recommend.Scored;
+import org.podhub.podhub.repository.PodcastRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Recomendaciones por co-escucha ("los oyentes de este podcast también escuchan") sobre CoListenModel.
+ *
+ * Las suscripciones, likes y episodios terminados actualizan el modelo en cuanto ocurren
+ * (los servicios llaman a on*); rebuild() lo reconstruye entero desde MongoDB en un ForkJoinPool
+ * propio para corregir las aproximaciones incrementales y aplicar las bajas. Los eventos que llegan
+ * durante una reconstrucción se aplican al modelo actual y se repiten sobre el nuevo antes de publicarlo.
+ *
+ * similar() completa la co-escucha con los parecidos por contenido de ContentSimilarityService, que sí
+ * conocen a los podcasts recién creados.
+ */
+@Slf4j
+@Service
+public class RecommendationService {
+
+    public static final int MAX_LIMIT = 50;
+
+    public static final String SOURCE_LISTENERS = "listeners";
+    public static final String SOURCE_CONTENT = "content";
+    public static final String SOURCE_POPULAR = "popular";
+
+    private final MongoTemplate mongoTemplate;
+    private final PodcastRepository podcastRepository;
+    private final OwnershipResolver ownershipResolver;
+    private final ContentSimilarityService contentSimilarityService;
+    private final int neighbors;
+    private final int minSupport;
+    private final ForkJoinPool rebuildPool;
+    private final Object rebuildLock = new Object();
+    private volatile CoListenModel model;
+    // No nulo mientras hay una reconstrucción en curso; protegido por this
+    private List<String[]> pending;
+
+    public RecommendationService(
+            MongoTemplate mongoTemplate,
+            PodcastRepository podcastRepository,
+            OwnershipResolver ownershipResolver,
+            ContentSimilarityService contentSimilarityService,
+            @Value("${podhub.recommend.neighbors:50}") int neighbors,
+            @Value("${podhub.recommend.min-co-listeners:1}") int minSupport,
+            @Value("${podhub.recommend.rebuild-parallelism:0}") int parallelism) {
+        this.mongoTemplate = mongoTemplate;
+        this.podcastRepository = podcastRepository;
+        this.ownershipResolver = ownershipResolver;
+        this.contentSimilarityService = contentSimilarityService;
+        this.neighbors = neighbors;
+        this.minSupport = minSupport;
+        this.rebuildPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.model = CoListenModel.empty(neighbors, minSupport);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuildPool.shutdownNow();
+    }
+
+    public void onSubscribed(String userId, String podcastId) {
+        record(userId, podcastId);
+    }
+
+    public void onEpisodeLiked(String userId, String episodeId) {
+        recordEpisode(userId, episodeId);
+    }
+
+    public void onEpisodeCompleted(String userId, String episodeId) {
+        recordEpisode(userId, episodeId);
+    }
+
+    /**
+     * Podcasts parecidos a podcastId (solo públicos), de más a menos parecido:
+     * primero por co-escucha y, si no hay suficientes, por contenido
+     *
+     * @param by SOURCE_LISTENERS o SOURCE_CONTENT para usar solo una de las dos; null para ambas
+     * @throws ResourceNotFoundException si el podcast no existe
+     * @throws BadRequestException si by no es ninguna de las dos
+     */
+    public List<Recommendation> similar(String podcastId, int limit, String by) {
+        if (by != null && !SOURCE_LISTENERS.equals(by) && !SOURCE_CONTENT.equals(by)) {
+            throw new BadRequestException("by must be '" + SOURCE_LISTENERS + "' or '" + SOURCE_CONTENT + "'");
+        }
+        ownershipResolver.creatorOfPodcast(podcastId);
+        int size = clamp(limit);
+        List<Scored> candidates = new ArrayList<>();
+        if (!SOURCE_CONTENT.equals(by)) {
+            candidates.addAll(model.similar(podcastId, neighbors));
+        }
+        int fromListeners = candidates.size();
+        if (!SOURCE_LISTENERS.equals(by)) {
+            Set<String> seen = candidates.stream().map(Scored::id).collect(Collectors.toSet());
+            for (Scored scored : contentSimilarityService.similar(podcastId, size * 2)) {
+                if (seen.add(scored.id())) {
+                    candidates.add(scored);
+                }
+            }
+        }
+        return toRecommendations(candidates, fromListeners, size);
+    }
+
+    /**
+     * Podcasts recomendados a un usuario (solo públicos y a los que no está suscrito ni ha escuchado)
+     */
+    public List<Recommendation> recommend(String userId, int limit) {
+        int size = clamp(limit);
+        // Margen para los privados que se descartan
+        List<Scored> scored = model.recommend(userId, size * 2);
+        return toRecommendations(scored, scored.size(), size);
+    }
+
+    public CoListenModel.Stats stats() {
+        return model.stats();
+    }
+
+    /**
+     * Reconstruye el modelo completo desde las suscripciones, los likes y los episodios terminados
+     */
+    public CoListenModel.Stats rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.nanoTime();
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            try {
+                CoListenModel.Builder builder = CoListenModel.builder(neighbors, minSupport);
+
+                Query subscriptions = new Query();
+                subscriptions.fields().include("userId", "podcastId");
+                try (Stream<Subscription> stream = mongoTemplate.stream(subscriptions, Subscription.class)) {
+                    stream.forEach(subscription -> builder.add(subscription.getUserId(), subscription.getPodcastId()));
+                }
+
+                Map<String, String> podcastByEpisode = new HashMap<>();
+                Query episodes = new Query();
+                episodes.fields().include("podcastId");
+                try (Stream<Episode> stream = mongoTemplate.stream(episodes, Episode.class)) {
+                    stream.forEach(episode -> podcastByEpisode.put(episode.getId(), episode.getPodcastId()));
+                }
+
+                Query likes = new Query();
+                likes.fields().include("userId", "episodeId");
+                try (Stream<EpisodeLike> stream = mongoTemplate.stream(likes, EpisodeLike.class)) {
+                    stream.forEach(like -> addEpisode(builder, podcastByEpisode, like.getUserId(), like.getEpisodeId()));
+                }
+
+                Query completed = Query.query(Criteria.where("completed").is(true));
+                completed.fields().include("userId", "episodeId");
+                try (Stream<ListeningProgress> stream = mongoTemplate.stream(completed, ListeningProgress.class)) {
+                    stream.forEach(progress -> addEpisode(builder, podcastByEpisode, progress.getUserId(), progress.getEpisodeId()));
+                }
+
+                CoListenModel built = builder.build(rebuildPool);
+                int replayed;
+                synchronized (this) {
+                    replayed = pending.size();
+                    for (String[] event : pending) {
+                        built.add(event[0], event[1]);
+                    }
+                    model = built;
+                    pending = null;
+                }
+                CoListenModel.Stats stats = built.stats();
+                log.info("Recommendation model rebuilt in {} ms: {} users, {} podcasts, {} interactions, {} pairs, ~{} KB ({} events replayed)",
+                        (System.nanoTime() - start) / 1_000_000, stats.users(), stats.items(), stats.interactions(),
+                        stats.pairs(), stats.memoryBytes() / 1024, replayed);
+                return stats;
+            } finally {
+                synchronized (this) {
+                    pending = null;
+                }
+            }
+        }
+    }
+
+    private static void addEpisode(CoListenModel.Builder builder, Map<String, String> podcastByEpisode,
+                                   String userId, String episodeId) {
+        String podcastId = podcastByEpisode.get(episodeId);
+        if (podcastId != null) {
+            builder.add(userId, podcastId);
+        }
+    }
+
+    private void recordEpisode(String userId, String episodeId) {
+        try {
+            record(userId, ownershipResolver.podcastOfEpisode(episodeId));
+        } catch (ResourceNotFoundException e) {
+            log.debug("Episode {} not found, interaction of user {} ignored", episodeId, userId);
+        }
+    }
+
+    private void record(String userId, String podcastId) {
+        try {
+            synchronized (this) {
+                if (pending != null) {
+                    pending.add(new String[]{userId, podcastId});
+                }
+            }
+            model.add(userId, podcastId);
+        } catch (RuntimeException e) {
+            // Una recomendación desactualizada nunca debe hacer fallar la suscripción o el like
+            log.warn("Could not update recommendation model for user {} and podcast {}: {}", userId, podcastId, e.getMessage());
+        }
+    }
+
+    /**
+     * @param fromListeners Los primeros fromListeners candidatos vienen de la co-escucha; el resto, del contenido
+     */
+    private List<Recommendation> toRecommendations(List<Scored> scored, int fromListeners, int limit) {
+        if (scored.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Podcast> podcasts = podcastRepository.findAllById(scored.stream().map(Scored::id).toList())
+                .stream()
+                .collect(Collectors.toMap(Podcast::getId, Function.identity()));
+        List<Recommendation> result = new ArrayList<>(limit);
+        for (int i = 0; i < scored.size(); i++) {
+            Scored candidate = scored.get(i);
+            Podcast podcast = podcasts.get(candidate.id());
+            if (podcast != null && Boolean.TRUE.equals(podcast.getIsPublic())) {
+                String source = i >= fromListeners ? SOURCE_CONTENT : candidate.score() > 0 ? SOURCE_LISTENERS : SOURCE_POPULAR;
+                result.add(Recommendation.builder().podcast(podcast).score(candidate.score()).source(source).build());
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
@@ -0,0 +1,28 @@
+package org.podhub.podhub.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reconstruye los histogramas de retención (RetentionService.backfill) poco después del arranque,
+ * para los progresos guardados antes de que existieran, y luego una vez al día para corregir derivas
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RetentionBackfillScheduler {
+
+    private final RetentionService retentionService;
+
+    @Scheduled(fixedDelayString = "${podhub.analytics.retention.backfill-interval-ms:86400000}",
+               initialDelayString = "${podhub.analytics.retention.backfill-initial-delay-ms:60000}")
+    public void backfill() {
+        try {
+            retentionService.backfill();
+        } catch (Exception e) {
+            log.error("Retention backfill failed: {}", e.getMessage(), e);
+        }
+    }
+}
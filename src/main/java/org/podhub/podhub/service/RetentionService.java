@@ -0,0 +1,272 @@
+package org.podhub.podhub.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.analytics.RetentionHistogram;
+import org.podhub.podhub.cache.LruCache;
+import org.podhub.podhub.cache.OwnershipResolver;
+import org.podhub.podhub.dto.RetentionCurve;
+import org.podhub.podhub.exception.ForbiddenException;
+import org.podhub.podhub.exception.ResourceNotFoundException;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.EpisodeRetention;
+import org.podhub.podhub.model.ListeningProgress;
+import org.podhub.podhub.repository.EpisodeRetentionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Retención de los episodios (dónde dejan de escuchar los oyentes) a partir de ListeningProgress.
+ *
+ * Cada episodio tiene un EpisodeRetention con el histograma de la posición más lejana de sus oyentes
+ * en tramos del 1% de durationSec. RetentionEventListener llama a onProgressChanged/onProgressDeleted con
+ * los eventos de ListeningProgressService y el oyente se mueve de tramo con un $inc, así que leer la curva
+ * es leer un documento. Los movimientos se pueden aplicar en cualquier orden; si uno falla, el error se
+ * propaga y el evento se reintenta.
+ *
+ * backfill() reconstruye todos los histogramas desde listening_progress en lotes de episodios que se
+ * procesan en paralelo; corrige las derivas (escrituras concurrentes del mismo oyente, cambios de duración).
+ * Los episodios sin durationSec no tienen curva.
+ */
+@Slf4j
+@Service
+public class RetentionService {
+
+    private final MongoTemplate mongoTemplate;
+    private final EpisodeRetentionRepository retentionRepository;
+    private final OwnershipResolver ownershipResolver;
+    private final int batchSize;
+    private final int parallelism;
+    private final ForkJoinPool backfillPool;
+    // episodeId -> episodio con solo podcastId y durationSec (solo los que tienen duración)
+    private final LruCache<String, Episode> durations;
+
+    public RetentionService(
+            MongoTemplate mongoTemplate,
+            EpisodeRetentionRepository retentionRepository,
+            OwnershipResolver ownershipResolver,
+            @Value("${podhub.analytics.retention.backfill-batch-size:500}") int batchSize,
+            @Value("${podhub.analytics.retention.backfill-parallelism:0}") int parallelism,
+            @Value("${podhub.analytics.retention.duration-cache-size:50000}") int durationCacheSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.retentionRepository = retentionRepository;
+        this.ownershipResolver = ownershipResolver;
+        this.batchSize = Math.max(1, batchSize);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.backfillPool = new ForkJoinPool(this.parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("retention-backfill-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        this.durations = new LruCache<>(durationCacheSize);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        backfillPool.shutdownNow();
+    }
+
+    /**
+     * Posición más lejana de un progreso (los guardados antes de existir furthestPositionSeconds usan positionSeconds)
+     */
+    public static int furthest(ListeningProgress progress) {
+        int position = progress.getPositionSeconds() != null ? progress.getPositionSeconds() : 0;
+        Integer furthest = progress.getFurthestPositionSeconds();
+        return furthest != null ? Math.max(furthest, position) : position;
+    }
+
+    /**
+     * Un oyente ha guardado su progreso
+     *
+     * @param previousFurthest Posición más lejana antes del cambio, o null si es su primer progreso
+     */
+    public void onProgressChanged(String episodeId, Integer previousFurthest, boolean previousCompleted,
+                                  int furthest, boolean completed) {
+        Episode episode = durationOf(episodeId);
+        if (episode == null) {
+            return;
+        }
+        int duration = episode.getDurationSec();
+        int from = previousFurthest != null ? RetentionHistogram.bucket(previousFurthest, previousCompleted, duration) : -1;
+        int to = RetentionHistogram.bucket(furthest, completed, duration);
+        move(episode, from, to);
+    }
+
+    /**
+     * Se ha borrado el progreso de un oyente
+     */
+    public void onProgressDeleted(String episodeId, int furthest, boolean completed) {
+        Episode episode = durationOf(episodeId);
+        if (episode != null) {
+            move(episode, RetentionHistogram.bucket(furthest, completed, episode.getDurationSec()), -1);
+        }
+    }
+
+    /**
+     * Curva de retención de un episodio (solo el creador del podcast o un admin)
+     *
+     * @throws ResourceNotFoundException si el episodio no existe
+     * @throws ForbiddenException        si el usuario no es el creador del podcast
+     */
+    public RetentionCurve getRetention(String episodeId, String userId, boolean isAdmin) {
+        String podcastId = ownershipResolver.podcastOfEpisode(episodeId);
+        if (!isAdmin && !ownershipResolver.ownsPodcast(userId, podcastId)) {
+            throw new ForbiddenException("You do not have permission to view the analytics of this episode");
+        }
+
+        EpisodeRetention retention = retentionRepository.findById(episodeId).orElse(null);
+        RetentionHistogram histogram = new RetentionHistogram(retention != null ? retention.getCounts() : null);
+        Integer durationSec = retention != null ? retention.getDurationSec() : null;
+        if (durationSec == null) {
+            Episode episode = durationOf(episodeId);
+            durationSec = episode != null ? episode.getDurationSec() : null;
+        }
+        return RetentionCurve.builder()
+                .episodeId(episodeId)
+                .durationSec(durationSec)
+                .listeners(histogram.listeners())
+                .completed(histogram.completed())
+                .retention(histogram.curve())
+                .dropOffs(histogram.dropOffs())
+                .updatedAt(retention != null ? retention.getUpdatedAt() : null)
+                .build();
+    }
+
+    /**
+     * Reconstruye los histogramas de todos los episodios con duración desde listening_progress:
+     * lotes de batchSize episodios (en orden de _id), cada uno en una tarea del pool con una consulta
+     * $in sobre el índice episodeId y una escritura en bloque
+     *
+     * @return Episodios procesados
+     */
+    public int backfill() {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("durationSec").gt(0)).with(Sort.by(Sort.Direction.ASC, "_id"));
+        query.fields().include("podcastId", "durationSec");
+
+        // Como mucho dos lotes esperando por hilo: no se carga la colección entera en memoria
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        List<ForkJoinTask<Integer>> tasks = new ArrayList<>();
+        try (Stream<Episode> episodes = mongoTemplate.stream(query, Episode.class)) {
+            List<Episode> batch = new ArrayList<>(batchSize);
+            for (Episode episode : (Iterable<Episode>) episodes::iterator) {
+                batch.add(episode);
+                if (batch.size() == batchSize) {
+                    tasks.add(submitBatch(batch, now, inFlight));
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                tasks.add(submitBatch(batch, now, inFlight));
+            }
+        }
+
+        int processed = 0;
+        int failed = 0;
+        for (ForkJoinTask<Integer> task : tasks) {
+            try {
+                processed += task.join();
+            } catch (RuntimeException e) {
+                failed++;
+                log.warn("Retention backfill batch failed: {}", e.getMessage());
+            }
+        }
+        // Las duraciones pueden haber cambiado: que las próximas actualizaciones usen las del backfill
+        durations.clear();
+        log.info("Retention backfill: {} episodes in {} batches ({} failed) in {} ms",
+                processed, tasks.size(), failed, (System.nanoTime() - start) / 1_000_000);
+        return processed;
+    }
+
+    private ForkJoinTask<Integer> submitBatch(List<Episode> batch, Instant now, Semaphore inFlight) {
+        inFlight.acquireUninterruptibly();
+        try {
+            return backfillPool.submit(() -> {
+                try {
+                    return backfillBatch(batch, now);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private int backfillBatch(List<Episode> batch, Instant now) {
+        Map<String, Episode> episodes = new HashMap<>(batch.size() * 2);
+        batch.forEach(episode -> episodes.put(episode.getId(), episode));
+
+        Query query = Query.query(Criteria.where("episodeId").in(episodes.keySet()));
+        query.fields().include("episodeId", "positionSeconds", "furthestPositionSeconds", "completed").exclude("_id");
+        Map<String, RetentionHistogram> histograms = new HashMap<>();
+        try (Stream<ListeningProgress> progress = mongoTemplate.stream(query, ListeningProgress.class)) {
+            progress.forEach(p -> {
+                Episode episode = episodes.get(p.getEpisodeId());
+                histograms.computeIfAbsent(p.getEpisodeId(), id -> new RetentionHistogram())
+                        .add(RetentionHistogram.bucket(furthest(p), Boolean.TRUE.equals(p.getCompleted()), episode.getDurationSec()));
+            });
+        }
+
+        List<EpisodeRetention> retentions = new ArrayList<>(histograms.size());
+        histograms.forEach((episodeId, histogram) -> {
+            Episode episode = episodes.get(episodeId);
+            retentions.add(EpisodeRetention.builder()
+                    .id(episodeId)
+                    .podcastId(episode.getPodcastId())
+                    .durationSec(episode.getDurationSec())
+                    .counts(histogram.counts())
+                    .updatedAt(now)
+                    .build());
+        });
+        retentionRepository.replaceAll(retentions);
+
+        // Episodios que ya no tienen oyentes (progresos borrados): fuera su histograma
+        List<String> withoutListeners = episodes.keySet().stream().filter(id -> !histograms.containsKey(id)).toList();
+        if (!withoutListeners.isEmpty()) {
+            retentionRepository.deleteAllById(withoutListeners);
+        }
+        return batch.size();
+    }
+
+    private void move(Episode episode, int from, int to) {
+        if (!retentionRepository.move(episode.getId(), episode.getPodcastId(), episode.getDurationSec(), from, to)) {
+            log.debug("Retention of episode {} was computed with another duration, waiting for the backfill", episode.getId());
+        }
+    }
+
+    /**
+     * podcastId y durationSec del episodio, o null si no existe o no tiene duración
+     */
+    private Episode durationOf(String episodeId) {
+        Episode episode = durations.get(episodeId);
+        if (episode != null) {
+            return episode;
+        }
+        Query query = Query.query(Criteria.where("_id").is(episodeId));
+        query.fields().include("podcastId", "durationSec");
+        episode = mongoTemplate.findOne(query, Episode.class);
+        if (episode == null || episode.getDurationSec() == null || episode.getDurationSec() <= 0) {
+            return null;
+        }
+        durations.put(episodeId, episode);
+        return episode;
+    }
+}
@@ -2,12 +2,19 @@ package org.podhub.podhub.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.cache.SubscriptionMembershipCache;
 import org.podhub.podhub.dto.PaginatedResponse;
+import org.podhub.podhub.event.Subscribed;
+import org.podhub.podhub.event.Unsubscribed;
 import org.podhub.podhub.exception.ConflictException;
 import org.podhub.podhub.exception.ResourceNotFoundException;
 import org.podhub.podhub.model.Subscription;
 import org.podhub.podhub.repository.SubscriptionRepository;
+import org.podhub.podhub.util.AfterCommit;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
@@ -19,28 +26,57 @@ import java.util.Optional;
 public class SubscriptionService {
 
     private final SubscriptionRepository subscriptionRepository;
-
-    public Subscription subscribe(String userId, String podcastId) {
+    private final SubscriptionMembershipCache membershipCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Subscribes a user to a podcast.
+     * Inserts directly and relies on the user_podcast_unique index to reject duplicates,
+     * instead of paying an exists round trip first.
+     * Publishes Subscribed in the same transaction (recommendations, trending and dashboard listen to it);
+     * the membership cache is only updated once it commits.
+     *
+     * @param notifications Whether new episodes of the podcast are notified to the user (null: yes)
+     * @throws ConflictException if the user is already subscribed
+     */
+    @Transactional
+    public Subscription subscribe(String userId, String podcastId, Boolean notifications) {
         log.debug("User {} subscribing to podcast {}", userId, podcastId);
-        if (subscriptionRepository.existsByUserIdAndPodcastId(userId, podcastId)) {
-            throw new ConflictException("Subscription already exists");
-        }
         Subscription sub = Subscription.builder()
                 .userId(userId)
                 .podcastId(podcastId)
+                .notifications(!Boolean.FALSE.equals(notifications))
                 .createdAt(Instant.now())
                 .build();
-        Subscription saved = subscriptionRepository.save(sub);
+        Subscription saved;
+        try {
+            saved = subscriptionRepository.insert(sub);
+        } catch (DuplicateKeyException e) {
+            throw new ConflictException("Subscription already exists");
+        }
+        AfterCommit.run(() -> membershipCache.onSubscribed(userId, podcastId));
+        eventPublisher.publishEvent(new Subscribed(userId, podcastId, saved.getCreatedAt()));
         log.info("Subscription created {}", saved.getId());
         return saved;
     }
 
+    @Transactional
     public void unsubscribe(String userId, String podcastId) {
         log.debug("User {} unsubscribing from podcast {}", userId, podcastId);
-        Optional<Subscription> existing = subscriptionRepository.findByUserIdAndPodcastId(userId, podcastId);
-        Subscription toDelete = existing.orElseThrow(() ->
-                new ResourceNotFoundException("Subscription not found for user and podcast"));
-        subscriptionRepository.delete(toDelete);
+        long deleted = subscriptionRepository.deleteByUserIdAndPodcastId(userId, podcastId);
+        if (deleted == 0) {
+            throw new ResourceNotFoundException("Subscription not found for user and podcast");
+        }
+        AfterCommit.run(() -> membershipCache.onUnsubscribed(userId, podcastId));
+        eventPublisher.publishEvent(new Unsubscribed(userId, podcastId, Instant.now()));
+    }
+
+    /**
+     * Checks whether a user is subscribed to a podcast.
+     * Served from the per-user membership cache; MongoDB is only hit on a cache miss.
+     */
+    public boolean isSubscribed(String userId, String podcastId) {
+        return membershipCache.isSubscribed(userId, podcastId);
     }
 
     public Optional<Subscription> findById(String id) {
@@ -0,0 +1,38 @@
+package org.podhub.podhub.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recalcula cada pocos segundos las listas de tendencias que se sirven (TrendingService.refresh)
+ * y guarda periódicamente su instantánea en MongoDB (TrendingService.snapshot)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrendingScheduler {
+
+    private final TrendingService trendingService;
+
+    @Scheduled(fixedDelayString = "${podhub.trending.refresh-ms:5000}",
+               initialDelayString = "${podhub.trending.refresh-ms:5000}")
+    public void refresh() {
+        try {
+            trendingService.refresh();
+        } catch (Exception e) {
+            log.error("Trending refresh failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${podhub.trending.snapshot-interval-ms:300000}",
+               initialDelayString = "${podhub.trending.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        try {
+            trendingService.snapshot();
+        } catch (Exception e) {
+            log.error("Trending snapshot failed: {}", e.getMessage(), e);
+        }
+    }
+}
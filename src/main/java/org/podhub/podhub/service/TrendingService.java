@@ -0,0 +1,317 @@
+package org.podhub.podhub.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.cache.OwnershipResolver;
+import org.podhub.podhub.dto.TrendingItem;
+import org.podhub.podhub.exception.BadRequestException;
+import org.podhub.podhub.exception.ResourceNotFoundException;
+import org.podhub.podhub.model.CommentTarget;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.model.TrendingSnapshot;
+import org.podhub.podhub.model.enums.CommentTargetType;
+import org.podhub.podhub.model.enums.TrendingType;
+import org.podhub.podhub.repository.EpisodeRepository;
+import org.podhub.podhub.repository.PodcastRepository;
+import org.podhub.podhub.repository.TrendingSnapshotRepository;
+import org.podhub.podhub.trending.TrendingEngine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * "Tendencias ahora": podcasts y episodios con más actividad reciente sobre TrendingEngine.
+ *
+ * Las suscripciones, likes, comentarios y episodios terminados suman su peso al momento (los servicios
+ * llaman a on*); la actividad de un episodio cuenta también para su podcast. refresh() precalcula cada
+ * pocos segundos las listas ya resueltas (documentos completos, solo públicos) por tipo y categoría, así
+ * que GET /api/trending solo lee un mapa en memoria. snapshot() guarda las listas en MongoDB y se
+ * recargan al arrancar.
+ */
+@Slf4j
+@Service
+public class TrendingService {
+
+    public static final int MAX_LIMIT = 50;
+
+    private static final int MAX_CACHED_CATEGORIES = 10_000;
+    private static final String NO_CATEGORY = "";
+
+    private final MongoTemplate mongoTemplate;
+    private final PodcastRepository podcastRepository;
+    private final EpisodeRepository episodeRepository;
+    private final TrendingSnapshotRepository snapshotRepository;
+    private final OwnershipResolver ownershipResolver;
+    private final TrendingEngine engine;
+    private final int capacity;
+    private final double minScore;
+    private final double subscribeWeight;
+    private final double likeWeight;
+    private final double commentWeight;
+    private final double completionWeight;
+    // Categoría de cada podcast (NO_CATEGORY si no tiene); se vacía entera al llenarse
+    private final Map<String, String> categories = new ConcurrentHashMap<>();
+    // "TIPO|categoría" ("TIPO|" para todas) -> lista ya resuelta
+    private volatile Map<String, List<TrendingItem>> views = Map.of();
+
+    public TrendingService(
+            MongoTemplate mongoTemplate,
+            PodcastRepository podcastRepository,
+            EpisodeRepository episodeRepository,
+            TrendingSnapshotRepository snapshotRepository,
+            OwnershipResolver ownershipResolver,
+            @Value("${podhub.trending.half-life-ms:21600000}") long halfLifeMillis,
+            @Value("${podhub.trending.sketch-width:16384}") int sketchWidth,
+            @Value("${podhub.trending.sketch-depth:4}") int sketchDepth,
+            @Value("${podhub.trending.sketch-stripes:4}") int sketchStripes,
+            @Value("${podhub.trending.capacity:200}") int capacity,
+            @Value("${podhub.trending.max-categories:100}") int maxCategories,
+            @Value("${podhub.trending.min-score:1.0}") double minScore,
+            @Value("${podhub.trending.weight.subscribe:5}") double subscribeWeight,
+            @Value("${podhub.trending.weight.like:3}") double likeWeight,
+            @Value("${podhub.trending.weight.comment:4}") double commentWeight,
+            @Value("${podhub.trending.weight.completion:2}") double completionWeight) {
+        this.mongoTemplate = mongoTemplate;
+        this.podcastRepository = podcastRepository;
+        this.episodeRepository = episodeRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.ownershipResolver = ownershipResolver;
+        this.engine = new TrendingEngine(halfLifeMillis, sketchWidth, sketchDepth, sketchStripes, capacity, maxCategories);
+        this.capacity = capacity;
+        this.minScore = minScore;
+        this.subscribeWeight = subscribeWeight;
+        this.likeWeight = likeWeight;
+        this.commentWeight = commentWeight;
+        this.completionWeight = completionWeight;
+    }
+
+    public void onSubscribed(String podcastId) {
+        try {
+            recordPodcast(podcastId, subscribeWeight);
+        } catch (RuntimeException e) {
+            log.warn("Could not record subscription to podcast {} for trending: {}", podcastId, e.getMessage());
+        }
+    }
+
+    public void onEpisodeLiked(String episodeId) {
+        recordEpisode(episodeId, likeWeight);
+    }
+
+    public void onEpisodeCompleted(String episodeId) {
+        recordEpisode(episodeId, completionWeight);
+    }
+
+    public void onCommented(CommentTarget target) {
+        if (target == null || target.getId() == null) {
+            return;
+        }
+        if (target.getType() == CommentTargetType.EPISODE) {
+            recordEpisode(target.getId(), commentWeight);
+        } else if (target.getType() == CommentTargetType.PODCAST) {
+            try {
+                recordPodcast(target.getId(), commentWeight);
+            } catch (RuntimeException e) {
+                log.warn("Could not record comment on podcast {} for trending: {}", target.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Lista precalculada por refresh() (como mucho de hace podhub.trending.refresh-ms)
+     *
+     * @param type     "podcast" o "episode"
+     * @param category null para todas
+     * @throws BadRequestException si type no es ninguno de los dos
+     */
+    public List<TrendingItem> trending(String type, String category, int limit) {
+        List<TrendingItem> items = views.get(key(parseType(type), category));
+        if (items == null) {
+            return List.of();
+        }
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return items.size() > size ? items.subList(0, size) : items;
+    }
+
+    /**
+     * Recalcula las listas servidas: puntuación actual, documentos completos y solo lo público
+     */
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        Map<String, List<TrendingItem>> next = new HashMap<>();
+        for (TrendingType type : TrendingType.values()) {
+            Map<String, List<TrendingEngine.Trend>> lists = new HashMap<>();
+            lists.put(key(type, null), engine.top(type, null, capacity, now));
+            for (String category : engine.categories(type)) {
+                lists.put(key(type, category), engine.top(type, category, capacity, now));
+            }
+            lists.values().forEach(list -> list.removeIf(trend -> trend.score() < minScore));
+
+            Set<String> ids = new LinkedHashSet<>();
+            lists.values().forEach(list -> list.forEach(trend -> ids.add(trend.id())));
+            Function<TrendingEngine.Trend, TrendingItem> resolver = type == TrendingType.PODCAST
+                    ? podcastResolver(ids)
+                    : episodeResolver(ids, now);
+            lists.forEach((key, list) -> {
+                List<TrendingItem> items = new ArrayList<>(list.size());
+                for (TrendingEngine.Trend trend : list) {
+                    TrendingItem item = resolver.apply(trend);
+                    if (item != null && matchesCategory(item, key)) {
+                        items.add(item);
+                    }
+                }
+                next.put(key, List.copyOf(items));
+            });
+        }
+        views = next;
+    }
+
+    /**
+     * Guarda las listas de cada tipo en trending_snapshots
+     */
+    public void snapshot() {
+        Instant now = Instant.now();
+        for (TrendingType type : TrendingType.values()) {
+            List<TrendingSnapshot.Item> items = engine.snapshot(type).stream()
+                    .map(entry -> new TrendingSnapshot.Item(entry.id(), entry.category(), entry.logScore()))
+                    .toList();
+            snapshotRepository.save(TrendingSnapshot.builder().id(type.name()).items(items).takenAt(now).build());
+        }
+        log.debug("Trending snapshot saved (~{} KB in memory)", engine.memoryBytes() / 1024);
+    }
+
+    /**
+     * Recarga la última instantánea al arrancar
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        try {
+            int restored = 0;
+            for (TrendingSnapshot snapshot : snapshotRepository.findAll()) {
+                TrendingType type = TrendingType.valueOf(snapshot.getId());
+                if (snapshot.getItems() == null) {
+                    continue;
+                }
+                for (TrendingSnapshot.Item item : snapshot.getItems()) {
+                    engine.restore(new TrendingEngine.Entry(type, item.getId(), item.getCategory(), item.getLogScore()));
+                    restored++;
+                }
+            }
+            refresh();
+            log.info("Trending restored from snapshot: {} items", restored);
+        } catch (RuntimeException e) {
+            log.warn("Could not restore trending snapshot: {}", e.getMessage());
+        }
+    }
+
+    private void recordEpisode(String episodeId, double weight) {
+        try {
+            String podcastId = ownershipResolver.podcastOfEpisode(episodeId);
+            String category = categoryOf(podcastId);
+            long now = System.currentTimeMillis();
+            engine.record(TrendingType.EPISODE, episodeId, category, weight, now);
+            engine.record(TrendingType.PODCAST, podcastId, category, weight, now);
+        } catch (ResourceNotFoundException e) {
+            log.debug("Episode {} not found, trending event ignored", episodeId);
+        } catch (RuntimeException e) {
+            // Una tendencia desactualizada nunca debe hacer fallar el like o el comentario
+            log.warn("Could not record trending event for episode {}: {}", episodeId, e.getMessage());
+        }
+    }
+
+    private void recordPodcast(String podcastId, double weight) {
+        engine.record(TrendingType.PODCAST, podcastId, categoryOf(podcastId), weight, System.currentTimeMillis());
+    }
+
+    private String categoryOf(String podcastId) {
+        String category = categories.get(podcastId);
+        if (category == null) {
+            Query query = Query.query(Criteria.where("_id").is(podcastId));
+            query.fields().include("category");
+            Podcast podcast = mongoTemplate.findOne(query, Podcast.class);
+            category = podcast != null && podcast.getCategory() != null ? podcast.getCategory() : NO_CATEGORY;
+            if (categories.size() >= MAX_CACHED_CATEGORIES) {
+                categories.clear();
+            }
+            categories.put(podcastId, category);
+        }
+        return category.isEmpty() ? null : category;
+    }
+
+    private Function<TrendingEngine.Trend, TrendingItem> podcastResolver(Set<String> ids) {
+        Map<String, Podcast> podcasts = findPublicPodcasts(ids);
+        return trend -> {
+            Podcast podcast = podcasts.get(trend.id());
+            return podcast == null ? null : TrendingItem.builder().podcast(podcast).score(trend.score()).build();
+        };
+    }
+
+    private Function<TrendingEngine.Trend, TrendingItem> episodeResolver(Set<String> ids, long now) {
+        // Los episodios sin isPublic heredan la visibilidad de su podcast
+        Map<String, Episode> episodes = episodeRepository.findAllById(ids).stream()
+                .filter(episode -> !Boolean.FALSE.equals(episode.getIsPublic()))
+                .filter(episode -> episode.getPublishAt() == null || episode.getPublishAt().toEpochMilli() <= now)
+                .collect(Collectors.toMap(Episode::getId, Function.identity()));
+        Map<String, Podcast> podcasts = findPublicPodcasts(episodes.values().stream()
+                .map(Episode::getPodcastId)
+                .collect(Collectors.toSet()));
+        return trend -> {
+            Episode episode = episodes.get(trend.id());
+            Podcast podcast = episode != null ? podcasts.get(episode.getPodcastId()) : null;
+            return podcast == null ? null
+                    : TrendingItem.builder().episode(episode).podcast(podcast).score(trend.score()).build();
+        };
+    }
+
+    private Map<String, Podcast> findPublicPodcasts(Set<String> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return podcastRepository.findAllById(ids).stream()
+                .filter(podcast -> Boolean.TRUE.equals(podcast.getIsPublic()))
+                .collect(Collectors.toMap(Podcast::getId, Function.identity()));
+    }
+
+    /**
+     * La categoría se anotó al registrar el evento: si el podcast cambió de categoría, deja la lista antigua
+     */
+    private static boolean matchesCategory(TrendingItem item, String key) {
+        String category = key.substring(key.indexOf('|') + 1);
+        return category.isEmpty() || category.equals(normalize(item.getPodcast().getCategory()));
+    }
+
+    private static TrendingType parseType(String type) {
+        if (type == null) {
+            return TrendingType.PODCAST;
+        }
+        try {
+            return TrendingType.valueOf(type.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("type must be 'podcast' or 'episode'");
+        }
+    }
+
+    private static String key(TrendingType type, String category) {
+        String normalized = normalize(category);
+        return type.name() + "|" + (normalized != null ? normalized : "");
+    }
+
+    private static String normalize(String category) {
+        return category == null || category.isBlank() ? null : category.trim().toLowerCase(Locale.ROOT);
+    }
+}
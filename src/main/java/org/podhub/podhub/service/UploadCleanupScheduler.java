@@ -0,0 +1,27 @@
+package org.podhub.podhub.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Borra periódicamente las subidas abandonadas (UploadService.collectGarbage)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UploadCleanupScheduler {
+
+    private final UploadService uploadService;
+
+    @Scheduled(fixedDelayString = "${podhub.upload.gc-interval-ms:3600000}",
+               initialDelayString = "${podhub.upload.gc-initial-delay-ms:60000}")
+    public void collectGarbage() {
+        try {
+            uploadService.collectGarbage();
+        } catch (Exception e) {
+            log.error("Upload garbage collection failed: {}", e.getMessage(), e);
+        }
+    }
+}
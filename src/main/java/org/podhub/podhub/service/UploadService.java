@@ -0,0 +1,414 @@
+package org.podhub.podhub.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.cache.OwnershipResolver;
+import org.podhub.podhub.dto.UploadSessionRequest;
+import org.podhub.podhub.exception.BadRequestException;
+import org.podhub.podhub.exception.ConflictException;
+import org.podhub.podhub.exception.ForbiddenException;
+import org.podhub.podhub.exception.ResourceNotFoundException;
+import org.podhub.podhub.model.AudioBlob;
+import org.podhub.podhub.model.UploadSession;
+import org.podhub.podhub.model.enums.UploadStatus;
+import org.podhub.podhub.repository.UploadSessionRepository;
+import org.podhub.podhub.storage.BlobStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Subidas reanudables del audio de un episodio (al estilo del protocolo tus):
+ * crear sesión -> PATCH de trozos con su offset -> completar.
+ *
+ * Cada trozo se copia del cuerpo de la petición al fichero parcial (work-dir/{id}.part) con canales NIO
+ * y un buffer fijo de BUFFER_SIZE, actualizando un SHA-256 incremental: la memoria no depende del tamaño
+ * del trozo ni del fichero. Si la conexión se corta, lo recibido hasta ese momento cuenta y el cliente
+ * reanuda desde el nuevo offset (HEAD). El offset se guarda en MongoDB solo tras force() del fichero.
+ *
+ * El SHA-256 en curso vive en memoria; tras un reinicio se recalcula leyendo la parte ya subida.
+ * Los ficheros parciales están en disco local: una sesión debe atenderse siempre desde la misma instancia.
+ * Las sesiones abandonadas (sin actividad en ttl) se borran con su fichero en collectGarbage().
+ */
+@Slf4j
+@Service
+public class UploadService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String PART_SUFFIX = ".part";
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final EpisodeService episodeService;
+    private final OwnershipResolver ownershipResolver;
+    private final BlobStore blobStore;
+    private final Path workDir;
+    private final long maxSize;
+    private final Duration ttl;
+    private final ConcurrentHashMap<String, ChunkState> states = new ConcurrentHashMap<>();
+
+    /**
+     * Estado en memoria de una sesión: serializa sus trozos y guarda el SHA-256 de los bytes [0, digestedBytes)
+     */
+    private static final class ChunkState {
+        final ReentrantLock lock = new ReentrantLock();
+        MessageDigest digest;
+        long digestedBytes = -1;
+    }
+
+    public UploadService(
+            UploadSessionRepository uploadSessionRepository,
+            EpisodeService episodeService,
+            OwnershipResolver ownershipResolver,
+            BlobStore blobStore,
+            @Value("${podhub.upload.work-dir:${java.io.tmpdir}/podhub-uploads}") Path workDir,
+            @Value("${podhub.upload.max-size-bytes:8589934592}") long maxSize,
+            @Value("${podhub.upload.ttl:24h}") Duration ttl) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.episodeService = episodeService;
+        this.ownershipResolver = ownershipResolver;
+        this.blobStore = blobStore;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        try {
+            this.workDir = Files.createDirectories(workDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create upload work dir " + workDir, e);
+        }
+    }
+
+    /**
+     * Abre una sesión de subida para el audio de un episodio (solo el creador del podcast)
+     *
+     * @throws ResourceNotFoundException si el episodio no existe
+     * @throws ForbiddenException si el usuario no es el creador del podcast
+     * @throws BadRequestException si el tamaño supera el máximo permitido
+     */
+    public UploadSession create(UploadSessionRequest request, String userId) {
+        if (!ownershipResolver.ownsEpisode(userId, request.getEpisodeId())) {
+            throw new ForbiddenException("You do not have permission to upload audio for this episode");
+        }
+        if (request.getLength() > maxSize) {
+            throw new BadRequestException("Upload length exceeds the maximum of " + maxSize + " bytes");
+        }
+
+        Instant now = Instant.now();
+        UploadSession session = uploadSessionRepository.save(UploadSession.builder()
+                .userId(userId)
+                .episodeId(request.getEpisodeId())
+                .fileName(request.getFileName())
+                .contentType(request.getContentType())
+                .status(UploadStatus.UPLOADING)
+                .length(request.getLength())
+                .offset(0L)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        try {
+            Files.createFile(partFile(session.getId()));
+        } catch (IOException e) {
+            uploadSessionRepository.deleteById(session.getId());
+            throw new UncheckedIOException("Could not create upload file for session " + session.getId(), e);
+        }
+        log.info("Upload {} opened by user {} for episode {} ({} bytes)",
+                session.getId(), userId, session.getEpisodeId(), session.getLength());
+        return session;
+    }
+
+    /**
+     * @throws ResourceNotFoundException si la sesión no existe o es de otro usuario
+     */
+    public UploadSession findById(String id, String userId) {
+        return uploadSessionRepository.findById(id)
+                .filter(session -> session.getUserId().equals(userId))
+                .orElseThrow(() -> new ResourceNotFoundException("Upload not found with id: " + id));
+    }
+
+    /**
+     * Añade un trozo a partir de offset, leyendo body en streaming hasta su final o hasta que se corte.
+     *
+     * @param offset Offset que el cliente cree actual (Upload-Offset); debe coincidir con el de la sesión
+     * @return Sesión con el nuevo offset
+     * @throws ConflictException si el offset no coincide, la sesión está completada u otro trozo está en curso
+     * @throws BadRequestException si el trozo sobrepasa la longitud declarada (lo que cabe se conserva)
+     */
+    public UploadSession appendChunk(String id, long offset, InputStream body, String userId) {
+        findById(id, userId);
+        ChunkState state = states.computeIfAbsent(id, key -> new ChunkState());
+        if (!state.lock.tryLock()) {
+            throw new ConflictException("Another chunk of upload " + id + " is in progress");
+        }
+        try {
+            // Releída con el lock: es la referencia para el offset
+            UploadSession session = findById(id, userId);
+            if (session.getStatus() != UploadStatus.UPLOADING) {
+                throw new ConflictException("Upload " + id + " is already completed");
+            }
+            if (session.getOffset() != offset) {
+                throw new ConflictException("Upload-Offset " + offset + " does not match current offset " + session.getOffset());
+            }
+            return writeChunk(session, state, body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write chunk of upload " + id, e);
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    private UploadSession writeChunk(UploadSession session, ChunkState state, InputStream body) throws IOException {
+        long offset = session.getOffset();
+        long remaining = session.getLength() - offset;
+        long position = offset;
+        boolean overflow = false;
+
+        try (FileChannel file = FileChannel.open(partFile(session.getId()), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Restos de un trozo cuyo offset no llegó a guardarse
+            file.truncate(offset);
+            syncDigest(state, file, offset);
+
+            ReadableByteChannel in = Channels.newChannel(body);
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (true) {
+                buffer.clear();
+                // Un byte más de lo que cabe para detectar trozos que sobrepasan la longitud declarada
+                buffer.limit((int) Math.min(BUFFER_SIZE, remaining + 1));
+                int read;
+                try {
+                    read = in.read(buffer);
+                } catch (IOException e) {
+                    log.info("Upload {} chunk interrupted at byte {}: {}", session.getId(), position, e.getMessage());
+                    break;
+                }
+                if (read < 0) {
+                    break;
+                }
+                buffer.flip();
+                if (buffer.remaining() > remaining) {
+                    overflow = true;
+                    buffer.limit((int) remaining);
+                }
+                // Inválido hasta que el bloque esté escrito: si la escritura falla, se recalcula
+                state.digestedBytes = -1;
+                state.digest.update(buffer.array(), 0, buffer.limit());
+                while (buffer.hasRemaining()) {
+                    position += file.write(buffer, position);
+                }
+                remaining = session.getLength() - position;
+                state.digestedBytes = position;
+                if (overflow) {
+                    break;
+                }
+            }
+            file.force(false);
+        }
+
+        UploadSession advanced = position == offset
+                ? session
+                : uploadSessionRepository.advance(session.getId(), offset, position)
+                        .orElseThrow(() -> new ConflictException("Upload " + session.getId() + " changed while writing a chunk"));
+        log.debug("Upload {}: {} bytes written, offset {}/{}", session.getId(), position - offset, position, session.getLength());
+        if (overflow) {
+            throw new BadRequestException("Chunk exceeds the declared upload length of " + session.getLength() + " bytes");
+        }
+        return advanced;
+    }
+
+    /**
+     * Completa la subida: verifica el SHA-256 (si el cliente lo envía), guarda el fichero en el
+     * BlobStore (direccionado por su SHA-256) y lo asocia al episodio a través de EpisodeService.
+     * Repetir la llamada sobre una sesión completada devuelve la misma sesión.
+     *
+     * @param expectedSha256 SHA-256 en hexadecimal calculado por el cliente (opcional)
+     * @throws ConflictException si faltan bytes por subir
+     * @throws BadRequestException si el SHA-256 no coincide
+     */
+    public UploadSession complete(String id, String expectedSha256, String userId) {
+        UploadSession session = findById(id, userId);
+        if (session.getStatus() == UploadStatus.COMPLETED) {
+            return session;
+        }
+        if (session.getOffset() < session.getLength()) {
+            throw new ConflictException("Upload " + id + " is incomplete: " + session.getOffset()
+                    + " of " + session.getLength() + " bytes received");
+        }
+
+        ChunkState state = states.computeIfAbsent(id, key -> new ChunkState());
+        state.lock.lock();
+        try {
+            Path part = partFile(id);
+            String sha256;
+            try (FileChannel file = FileChannel.open(part, StandardOpenOption.READ)) {
+                syncDigest(state, file, session.getLength());
+                sha256 = HexFormat.of().formatHex(((MessageDigest) state.digest.clone()).digest());
+            }
+            if (expectedSha256 != null && !expectedSha256.equalsIgnoreCase(sha256)) {
+                throw new BadRequestException("SHA-256 mismatch: expected " + expectedSha256 + " but received " + sha256);
+            }
+
+            // Si el mismo audio ya está guardado, el fichero recibido se descarta
+            AudioBlob blob = blobStore.commit(part, sha256, extension(session));
+            String audioUrl = blobStore.publicUrl(blob);
+            try {
+                episodeService.attachAudio(session.getEpisodeId(), audioUrl, sha256, userId);
+            } catch (RuntimeException e) {
+                blobStore.release(sha256);
+                throw e;
+            }
+            UploadSession completed = uploadSessionRepository.complete(id, session.getLength(), sha256, audioUrl)
+                    .orElseThrow(() -> new ConflictException("Upload " + id + " was completed concurrently"));
+            states.remove(id);
+            log.info("Upload {} completed: {} bytes, sha256 {}, episode {}", id, session.getLength(), sha256, session.getEpisodeId());
+            return completed;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not complete upload " + id, e);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 digest is not cloneable", e);
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    /**
+     * Cancela una subida en curso y borra lo recibido; sobre una completada solo borra la sesión
+     */
+    public void abort(String id, String userId) {
+        UploadSession session = findById(id, userId);
+        ChunkState state = states.computeIfAbsent(id, key -> new ChunkState());
+        if (!state.lock.tryLock()) {
+            throw new ConflictException("A chunk of upload " + id + " is in progress");
+        }
+        try {
+            if (session.getStatus() == UploadStatus.UPLOADING) {
+                Files.deleteIfExists(partFile(id));
+            }
+            uploadSessionRepository.deleteById(id);
+            states.remove(id);
+            log.info("Upload {} aborted by user {}", id, userId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete upload " + id, e);
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    /**
+     * Borra las sesiones sin actividad desde hace más de ttl (y sus ficheros parciales),
+     * las sesiones completadas antiguas y los .part que no pertenecen a ninguna sesión
+     *
+     * @return Número de subidas sin completar eliminadas
+     */
+    public int collectGarbage() {
+        Instant cutoff = Instant.now().minus(ttl);
+        int abandoned = 0;
+
+        for (UploadSession session : uploadSessionRepository.findByStatusAndUpdatedAtBefore(UploadStatus.UPLOADING, cutoff)) {
+            ChunkState state = states.get(session.getId());
+            if (state != null && state.lock.isLocked()) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(partFile(session.getId()));
+            } catch (IOException e) {
+                log.warn("Could not delete abandoned upload file {}: {}", session.getId(), e.getMessage());
+                continue;
+            }
+            uploadSessionRepository.deleteById(session.getId());
+            states.remove(session.getId());
+            abandoned++;
+        }
+        uploadSessionRepository.deleteAll(
+                uploadSessionRepository.findByStatusAndUpdatedAtBefore(UploadStatus.COMPLETED, cutoff));
+
+        int orphans = 0;
+        try (DirectoryStream<Path> parts = Files.newDirectoryStream(workDir, "*" + PART_SUFFIX)) {
+            for (Path part : parts) {
+                String id = part.getFileName().toString().replace(PART_SUFFIX, "");
+                if (Files.getLastModifiedTime(part).toInstant().isBefore(cutoff)
+                        && !uploadSessionRepository.existsById(id)) {
+                    Files.deleteIfExists(part);
+                    orphans++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not scan upload work dir {}: {}", workDir, e.getMessage());
+        }
+
+        if (abandoned > 0 || orphans > 0) {
+            log.info("Upload GC: {} abandoned sessions and {} orphan files removed", abandoned, orphans);
+        }
+        return abandoned;
+    }
+
+    /**
+     * Deja en state el SHA-256 de los bytes [0, length) del fichero, recalculándolo si hace falta
+     */
+    private static void syncDigest(ChunkState state, FileChannel file, long length) throws IOException {
+        if (state.digest != null && state.digestedBytes == length) {
+            return;
+        }
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long position = 0;
+        while (position < length) {
+            buffer.clear();
+            buffer.limit((int) Math.min(BUFFER_SIZE, length - position));
+            int read = file.read(buffer, position);
+            if (read < 0) {
+                throw new IllegalStateException("Upload file is shorter than its recorded offset " + length);
+            }
+            digest.update(buffer.array(), 0, read);
+            position += read;
+        }
+        state.digest = digest;
+        state.digestedBytes = length;
+    }
+
+    private static String extension(UploadSession session) {
+        String fileName = session.getFileName();
+        if (fileName != null) {
+            int dot = fileName.lastIndexOf('.');
+            String extension = dot >= 0 ? fileName.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+            if (extension.matches("[a-z0-9]{1,5}")) {
+                return "." + extension;
+            }
+        }
+        String contentType = session.getContentType() != null ? session.getContentType().toLowerCase(Locale.ROOT) : "";
+        return switch (contentType) {
+            case "audio/mpeg", "audio/mp3" -> ".mp3";
+            case "audio/mp4", "audio/x-m4a", "audio/aac" -> ".m4a";
+            case "audio/ogg" -> ".ogg";
+            case "audio/opus" -> ".opus";
+            case "audio/wav", "audio/x-wav" -> ".wav";
+            default -> "";
+        };
+    }
+
+    private Path partFile(String id) {
+        return workDir.resolve(id + PART_SUFFIX);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -12,6 +12,7 @@ import org.podhub.podhub.model.User;
 import org.podhub.podhub.model.enums.UserRole;
 import org.podhub.podhub.model.enums.UserStatus;
 import org.podhub.podhub.repository.UserRepository;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -49,6 +50,13 @@ public class UserService {
         return userRepository.findById(id);
     }
 
+    /**
+     * Versión actual (solo id + updatedAt) de un usuario, para GET condicionales
+     */
+    public Optional<User> findVersionById(String id) {
+        return userRepository.findVersionById(id);
+    }
+
     /**
      * Obtiene un usuario por email
      */
@@ -176,44 +184,44 @@ public class UserService {
             throw new ForbiddenException("You can only update your own profile");
         }
 
-        User existing = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        // Status update is admin-only
+        if (patchRequest.getStatus() != null && !isAdmin) {
+            throw new ForbiddenException("Only admins can update user status");
+        }
 
+        Update update = new Update();
         boolean changed = false;
 
         // Apply only non-null fields
         if (patchRequest.getDisplayName() != null) {
-            existing.setDisplayName(patchRequest.getDisplayName());
+            update.set("displayName", patchRequest.getDisplayName());
             changed = true;
         }
         if (patchRequest.getAvatarUrl() != null) {
-            existing.setAvatarUrl(patchRequest.getAvatarUrl());
+            update.set("avatarUrl", patchRequest.getAvatarUrl());
             changed = true;
         }
         if (patchRequest.getBio() != null) {
-            existing.setBio(patchRequest.getBio());
+            update.set("bio", patchRequest.getBio());
             changed = true;
         }
-
-        // Status update is admin-only
         if (patchRequest.getStatus() != null) {
-            if (!isAdmin) {
-                throw new ForbiddenException("Only admins can update user status");
-            }
-            existing.setStatus(patchRequest.getStatus());
+            update.set("status", patchRequest.getStatus());
             changed = true;
         }
 
-        // Only update timestamp and save if something changed
-        if (changed) {
-            existing.setUpdatedAt(Instant.now());
-            User saved = userRepository.save(existing);
-            log.info("User {} patched successfully by user {}", id, currentUserId);
-            return saved;
+        if (!changed) {
+            log.debug("No changes to apply for user {}", id);
+            return userRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         }
 
-        log.debug("No changes to apply for user {}", id);
-        return existing;
+        // Single findAndModify that $sets only the provided fields
+        update.set("updatedAt", Instant.now());
+        User saved = userRepository.patch(id, update)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        log.info("User {} patched successfully by user {}", id, currentUserId);
+        return saved;
     }
 
     public void deleteUser(String id) {
@@ -0,0 +1,174 @@
+package org.podhub.podhub.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.audio.Waveform;
+import org.podhub.podhub.audio.WaveformGenerator;
+import org.podhub.podhub.exception.ResourceNotFoundException;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.storage.BlobStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
+
+/**
+ * Genera en segundo plano los picos de la forma de onda (Waveform) del audio subido y los guarda
+ * junto al blob como {sha256}.peaks: se calculan una sola vez por contenido, aunque lo usen varios episodios.
+ *
+ * Los trabajos se ejecutan en un ForkJoinPool de paralelismo fijo; un semáforo limita los pendientes
+ * y, si está lleno, el trabajo se descarta (se volverá a pedir la próxima vez que alguien lo solicite).
+ * Un mismo blob nunca se procesa dos veces a la vez.
+ */
+@Slf4j
+@Service
+public class WaveformService {
+
+    public static final String SUFFIX = ".peaks";
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+    private static final int MAX_UNSUPPORTED = 10_000;
+
+    private final BlobStore blobStore;
+    private final int peaksPerSecond;
+    private final int levels;
+    private final int bits;
+    private final ForkJoinPool pool;
+    private final Semaphore pending;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    // Blobs que no se han podido decodificar (M4A/AAC): no se reintentan en cada petición
+    private final Set<String> unsupported = ConcurrentHashMap.newKeySet();
+
+    public WaveformService(
+            BlobStore blobStore,
+            @Value("${podhub.waveform.peaks-per-second:16}") int peaksPerSecond,
+            @Value("${podhub.waveform.levels:4}") int levels,
+            @Value("${podhub.waveform.bits:8}") int bits,
+            @Value("${podhub.waveform.parallelism:2}") int parallelism,
+            @Value("${podhub.waveform.max-pending:64}") int maxPending) {
+        if (bits != 8 && bits != 16) {
+            throw new IllegalArgumentException("podhub.waveform.bits must be 8 or 16: " + bits);
+        }
+        this.blobStore = blobStore;
+        this.peaksPerSecond = peaksPerSecond;
+        this.levels = levels;
+        this.bits = bits;
+        this.pending = new Semaphore(maxPending);
+        this.pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("waveform-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public int getBits() {
+        return bits;
+    }
+
+    /**
+     * Programa la generación de los picos del audio del episodio; no hace nada si no es un blob
+     */
+    public void submit(Episode episode) {
+        if (episode.getAudioSha256() != null) {
+            submit(episode.getAudioSha256());
+        }
+    }
+
+    /**
+     * Programa la generación de los picos de un blob
+     *
+     * @return false si ya estaba en curso o no quedan plazas en la cola
+     */
+    public boolean submit(String sha256) {
+        if (unsupported.contains(sha256) || !inFlight.add(sha256)) {
+            return false;
+        }
+        if (!pending.tryAcquire()) {
+            inFlight.remove(sha256);
+            log.warn("Waveform queue full, blob {} skipped", sha256);
+            return false;
+        }
+        try {
+            pool.execute(() -> {
+                try {
+                    generate(sha256);
+                } finally {
+                    inFlight.remove(sha256);
+                    pending.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(sha256);
+            pending.release();
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Fichero de picos de un blob. Si aún no existe, programa su generación y devuelve vacío.
+     *
+     * @throws ResourceNotFoundException si el blob no existe o su formato no se puede decodificar
+     */
+    public Optional<Path> find(String sha256) {
+        if (!SHA256.matcher(sha256).matches() || unsupported.contains(sha256)) {
+            throw new ResourceNotFoundException("Waveform not found: " + sha256);
+        }
+        Path audio = blobStore.lookup(sha256)
+                .orElseThrow(() -> new ResourceNotFoundException("Audio not found: " + sha256));
+        Path peaks = blobStore.derived(audio, SUFFIX);
+        if (Files.isRegularFile(peaks)) {
+            return Optional.of(peaks);
+        }
+        submit(sha256);
+        return Optional.empty();
+    }
+
+    private void generate(String sha256) {
+        try {
+            Optional<Path> audio = blobStore.lookup(sha256);
+            if (audio.isEmpty()) {
+                return;
+            }
+            Path peaks = blobStore.derived(audio.get(), SUFFIX);
+            if (Files.exists(peaks)) {
+                return;
+            }
+            long start = System.nanoTime();
+            Optional<Waveform> waveform = WaveformGenerator.generate(audio.get(), peaksPerSecond, levels);
+            if (waveform.isEmpty()) {
+                if (unsupported.size() >= MAX_UNSUPPORTED) {
+                    unsupported.clear();
+                }
+                unsupported.add(sha256);
+                log.info("Audio format of blob {} not supported for waveforms", sha256);
+                return;
+            }
+            // Temporal oculto en el mismo directorio (AudioStorage no lo sirve) y rename atómico
+            Path tmp = peaks.resolveSibling("." + peaks.getFileName() + ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                waveform.get().write(out, bits);
+            }
+            Files.move(tmp, peaks, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.info("Waveform of blob {} generated: {} samples, {} bytes in {} ms", sha256,
+                    waveform.get().samples(), Files.size(peaks), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Could not generate waveform of blob {}: {}", sha256, e.getMessage());
+        }
+    }
+}
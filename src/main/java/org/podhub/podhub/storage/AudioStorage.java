@@ -0,0 +1,93 @@
+package org.podhub.podhub.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Almacenamiento local de ficheros de audio bajo un directorio raíz (podhub.storage.audio-root).
+ * Cada fichero se identifica por su clave: la ruta relativa a la raíz con '/' como separador,
+ * y se publica en /api/audio/{clave}. Un Episode.audioUrl local es esa URL.
+ *
+ * Las claves que se salen de la raíz (.., rutas absolutas), pasan por ficheros o directorios ocultos
+ * o apuntan a enlaces simbólicos no se resuelven.
+ */
+@Slf4j
+@Component
+public class AudioStorage {
+
+    public static final String PUBLIC_PATH = "/api/audio/";
+
+    private final Path root;
+
+    public AudioStorage(@Value("${podhub.storage.audio-root:${java.io.tmpdir}/podhub-audio}") Path root) {
+        try {
+            this.root = Files.createDirectories(root).toRealPath();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create audio storage root " + root, e);
+        }
+        log.info("Audio storage root: {}", this.root);
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Fichero regular y legible de una clave
+     *
+     * @return vacío si la clave no es válida o el fichero no existe
+     */
+    public Optional<Path> resolve(String key) {
+        if (key == null || key.isBlank() || key.indexOf('\0') >= 0 || key.indexOf('\\') >= 0) {
+            return Optional.empty();
+        }
+        Path path;
+        try {
+            path = root.resolve(key.startsWith("/") ? key.substring(1) : key).normalize();
+        } catch (InvalidPathException e) {
+            return Optional.empty();
+        }
+        if (!path.startsWith(root) || path.equals(root)) {
+            return Optional.empty();
+        }
+        // Ficheros y directorios ocultos (temporales del BlobStore, blobs a medio borrar) no se publican
+        for (Path segment : root.relativize(path)) {
+            if (segment.toString().startsWith(".")) {
+                return Optional.empty();
+            }
+        }
+        if (!Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS) || !Files.isReadable(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(path);
+    }
+
+    /**
+     * Fichero de una URL pública de este almacenamiento (Episode.audioUrl local)
+     *
+     * @return vacío si la URL es externa o el fichero no existe
+     */
+    public Optional<Path> resolveUrl(String audioUrl) {
+        if (audioUrl == null || !audioUrl.startsWith(PUBLIC_PATH)) {
+            return Optional.empty();
+        }
+        return resolve(audioUrl.substring(PUBLIC_PATH.length()));
+    }
+
+    /**
+     * URL pública (relativa al backend) de un fichero bajo la raíz
+     */
+    public String publicUrl(Path file) {
+        Path relative = root.relativize(file.toAbsolutePath().normalize());
+        return PUBLIC_PATH + relative.toString().replace(relative.getFileSystem().getSeparator(), "/");
+    }
+}
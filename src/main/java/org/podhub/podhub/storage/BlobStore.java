@@ -0,0 +1,227 @@
+package org.podhub.podhub.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.podhub.podhub.dto.StorageStats;
+import org.podhub.podhub.model.AudioBlob;
+import org.podhub.podhub.repository.AudioBlobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Almacén de audio direccionado por contenido sobre AudioStorage.
+ * Cada fichero se guarda una sola vez en blobs/ab/cd/{sha256}{ext} (dos niveles de 256 directorios
+ * para que ninguno crezca sin límite) y su AudioBlob lleva la cuenta de episodios que lo usan.
+ *
+ * Orden de las operaciones, para que un fallo nunca deje una referencia sin fichero:
+ * - commit: primero suma la referencia (upsert) y después coloca el fichero con un rename atómico
+ *   desde el directorio temporal del propio almacén; si ya existía, el fichero recibido se descarta.
+ * - collectGarbage: borra el documento solo si sigue sin referencias, renombra el fichero a .{nombre}.gc (oculto, AudioStorage no lo sirve),
+ *   y comprueba de nuevo: si un commit concurrente lo ha vuelto a crear, lo restaura.
+ *   Los ficheros derivados del blob ({sha256}{sufijo}, ver derived) se borran con él.
+ */
+@Slf4j
+@Component
+public class BlobStore {
+
+    public static final String BLOB_DIR = "blobs";
+    private static final String TMP_DIR = ".tmp";
+    private static final String GC_SUFFIX = ".gc";
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+
+    private final AudioStorage audioStorage;
+    private final AudioBlobRepository audioBlobRepository;
+    private final Path blobRoot;
+    private final Path tmpDir;
+    private final Duration gcGrace;
+
+    public BlobStore(
+            AudioStorage audioStorage,
+            AudioBlobRepository audioBlobRepository,
+            @Value("${podhub.storage.blob-gc-grace:1h}") Duration gcGrace) {
+        this.audioStorage = audioStorage;
+        this.audioBlobRepository = audioBlobRepository;
+        this.gcGrace = gcGrace;
+        this.blobRoot = audioStorage.getRoot().resolve(BLOB_DIR);
+        try {
+            // Dentro de la raíz: el rename final nunca cruza sistemas de ficheros
+            this.tmpDir = Files.createDirectories(blobRoot.resolve(TMP_DIR));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create blob store " + blobRoot, e);
+        }
+    }
+
+    /**
+     * Guarda file como blob de sha256 y le suma una referencia.
+     * file se mueve al almacén o, si el blob ya existía, se borra.
+     *
+     * @param sha256 SHA-256 (hex) ya calculado de file
+     * @param extension Extensión con punto (".mp3") o cadena vacía; solo se usa si el blob es nuevo
+     * @return Blob con la referencia ya sumada
+     */
+    public AudioBlob commit(Path file, String sha256, String extension) throws IOException {
+        if (!SHA256.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Not a lowercase hex SHA-256: " + sha256);
+        }
+        AudioBlob blob = audioBlobRepository.retain(sha256, key(sha256, extension), Files.size(file));
+        Path target = audioStorage.getRoot().resolve(blob.getKey());
+        if (Files.isRegularFile(target)) {
+            Files.deleteIfExists(file);
+            log.debug("Blob {} deduplicated ({} references)", sha256, blob.getRefCount());
+        } else {
+            place(file, target);
+            log.debug("Blob {} stored at {}", sha256, blob.getKey());
+        }
+        return blob;
+    }
+
+    /**
+     * Resta una referencia al blob (null se ignora). El fichero se borra en collectGarbage pasado gcGrace.
+     */
+    public void release(String sha256) {
+        if (sha256 == null) {
+            return;
+        }
+        audioBlobRepository.release(sha256).ifPresentOrElse(
+                blob -> log.debug("Blob {} released ({} references)", sha256, blob.getRefCount()),
+                () -> log.warn("Released unknown or unreferenced blob {}", sha256));
+    }
+
+    /**
+     * Fichero de un blob por su hash
+     */
+    public Optional<Path> lookup(String sha256) {
+        return audioBlobRepository.findById(sha256)
+                .flatMap(blob -> audioStorage.resolve(blob.getKey()));
+    }
+
+    public String publicUrl(AudioBlob blob) {
+        return AudioStorage.PUBLIC_PATH + blob.getKey();
+    }
+
+    /**
+     * Fichero derivado de un blob (p.ej. los picos de su forma de onda), junto a él: {sha256}{suffix}.
+     * Se comparte entre todos los episodios del blob y collectGarbage lo borra con el blob.
+     */
+    public Path derived(Path blobFile, String suffix) {
+        String name = blobFile.getFileName().toString();
+        if (!contains(blobFile) || name.length() < 64 || !SHA256.matcher(name.substring(0, 64)).matches()) {
+            throw new IllegalArgumentException("Not a blob: " + blobFile);
+        }
+        return blobFile.resolveSibling(name.substring(0, 64) + suffix);
+    }
+
+    /**
+     * true si file es un blob: su contenido no cambia nunca para la misma URL
+     */
+    public boolean contains(Path file) {
+        return file.startsWith(blobRoot);
+    }
+
+    /**
+     * Borra los blobs sin referencias desde hace más de gcGrace
+     *
+     * @return Número de blobs borrados
+     */
+    public int collectGarbage() {
+        Instant cutoff = Instant.now().minus(gcGrace);
+        int removed = 0;
+        long freed = 0;
+        for (AudioBlob blob : audioBlobRepository.findByRefCountLessThanEqualAndUnreferencedSinceBefore(0, cutoff)) {
+            if (!audioBlobRepository.removeIfUnreferenced(blob.getId(), cutoff)) {
+                continue;
+            }
+            Path file = audioStorage.getRoot().resolve(blob.getKey());
+            Path trash = file.resolveSibling("." + file.getFileName() + GC_SUFFIX);
+            try {
+                Files.move(file, trash, StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException e) {
+                removed++;
+                continue;
+            } catch (IOException e) {
+                log.warn("Could not collect blob {}: {}", blob.getId(), e.getMessage());
+                continue;
+            }
+            try {
+                if (audioBlobRepository.existsById(blob.getId())) {
+                    // Un commit lo ha vuelto a referenciar entre el borrado y el rename
+                    if (!Files.exists(file)) {
+                        Files.move(trash, file, StandardCopyOption.ATOMIC_MOVE);
+                    } else {
+                        Files.delete(trash);
+                    }
+                    continue;
+                }
+                Files.delete(trash);
+                freed += blob.getSize() + deleteDerived(file);
+                removed++;
+            } catch (IOException e) {
+                log.warn("Could not delete collected blob {}: {}", blob.getId(), e.getMessage());
+            }
+        }
+        if (removed > 0) {
+            log.info("Blob GC: {} unreferenced blobs removed, {} bytes freed", removed, freed);
+        }
+        return removed;
+    }
+
+    public StorageStats stats() {
+        return audioBlobRepository.stats();
+    }
+
+    /**
+     * Borra los derivados de un blob recogido, sin tocar el propio fichero si un commit lo ha vuelto a colocar
+     *
+     * @return Bytes liberados
+     */
+    private long deleteDerived(Path file) throws IOException {
+        long freed = 0;
+        String sha256 = file.getFileName().toString().substring(0, 64);
+        try (DirectoryStream<Path> derived = Files.newDirectoryStream(file.getParent(), sha256 + "*")) {
+            for (Path path : derived) {
+                if (path.getFileName().equals(file.getFileName())) {
+                    continue;
+                }
+                long size = Files.size(path);
+                if (Files.deleteIfExists(path)) {
+                    freed += size;
+                }
+            }
+        }
+        return freed;
+    }
+
+    static String key(String sha256, String extension) {
+        return BLOB_DIR + "/" + sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + extension;
+    }
+
+    private void place(Path file, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Origen en otro sistema de ficheros: copia al temporal del almacén y rename atómico desde ahí,
+            // para que nunca se publique un fichero a medio copiar
+            Path staged = Files.createTempFile(tmpDir, "blob-", ".tmp");
+            try {
+                Files.copy(file, staged, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(staged);
+            }
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.podhub.podhub.trending;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch de puntuaciones con decaimiento exponencial: memoria fija (depth x width celdas)
+ * sea cual sea el número de ítems, y una estimación que nunca queda por debajo de la real.
+ *
+ * El decaimiento es "hacia delante": un evento de peso w en el instante t suma w·e^(λt) y la puntuación
+ * en now es esa suma·e^(-λ·now), así que el orden entre ítems no cambia con el paso del tiempo y no hay
+ * que recorrer el sketch para envejecerlo. Las celdas guardan el logaritmo de la suma (ln w + λt crece
+ * linealmente y nunca desborda) y sumar es un log-sum-exp con un bucle CAS: sin locks.
+ *
+ * Las celdas están repartidas en stripes copias del sketch (como las celdas de un LongAdder): cada
+ * escritura va a una al azar para que los ítems muy activos no compitan por la misma celda, y la lectura
+ * suma las copias.
+ */
+final class DecayedCountMinSketch {
+
+    private static final long EMPTY = Double.doubleToRawLongBits(Double.NEGATIVE_INFINITY);
+
+    private final int depth;
+    private final int width;
+    private final int stripes;
+    private final AtomicLongArray cells; // [stripe][row][column]
+
+    /**
+     * @param width   Columnas por fila (se redondea a potencia de 2)
+     * @param stripes Copias para repartir la contención (se redondea a potencia de 2)
+     */
+    DecayedCountMinSketch(int depth, int width, int stripes) {
+        this.depth = depth;
+        this.width = Integer.highestOneBit(Math.max(16, width) * 2 - 1);
+        this.stripes = Integer.highestOneBit(Math.max(1, stripes) * 2 - 1);
+        this.cells = new AtomicLongArray(this.stripes * depth * this.width);
+        for (int i = 0; i < cells.length(); i++) {
+            cells.set(i, EMPTY);
+        }
+    }
+
+    /**
+     * Suma e^logWeight a las celdas del ítem
+     *
+     * @return Estimación (logarítmica) del ítem después de sumar
+     */
+    double add(long hash, double logWeight) {
+        int stripe = stripes == 1 ? 0 : ThreadLocalRandom.current().nextInt(stripes);
+        for (int row = 0; row < depth; row++) {
+            int cell = (stripe * depth + row) * width + column(hash, row);
+            long current;
+            long next;
+            do {
+                current = cells.get(cell);
+                next = Double.doubleToRawLongBits(logAddExp(Double.longBitsToDouble(current), logWeight));
+            } while (!cells.compareAndSet(cell, current, next));
+        }
+        return estimate(hash);
+    }
+
+    /**
+     * @return Estimación (logarítmica) del ítem: el mínimo de sus filas; -Infinity si nunca se ha visto
+     */
+    double estimate(long hash) {
+        double min = Double.POSITIVE_INFINITY;
+        for (int row = 0; row < depth; row++) {
+            int column = column(hash, row);
+            double sum = Double.NEGATIVE_INFINITY;
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                sum = logAddExp(sum, Double.longBitsToDouble(cells.get((stripe * depth + row) * width + column)));
+            }
+            min = Math.min(min, sum);
+        }
+        return min;
+    }
+
+    long memoryBytes() {
+        return 16 + 8L * cells.length();
+    }
+
+    /**
+     * Una columna por fila a partir de un único hash de 64 bits (h1 + fila·h2)
+     */
+    private int column(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return (h1 + row * h2) & (width - 1);
+    }
+
+    static double logAddExp(double a, double b) {
+        if (a == Double.NEGATIVE_INFINITY) {
+            return b;
+        }
+        if (b == Double.NEGATIVE_INFINITY) {
+            return a;
+        }
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(-Math.abs(a - b)));
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre los caracteres, con una mezcla final para repartir los bits bajos
+     */
+    static long hash(String key, int salt) {
+        long h = 0xcbf29ce484222325L ^ salt;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
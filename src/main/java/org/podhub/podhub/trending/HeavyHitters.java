@@ -0,0 +1,135 @@
+package org.podhub.podhub.trending;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Los capacity ítems con más puntuación (logarítmica, de DecayedCountMinSketch) en un min-heap sobre arrays
+ * con un índice id -> posición. Las puntuaciones solo crecen, así que un ítem que sale del heap solo vuelve
+ * si supera al mínimo.
+ *
+ * offer() toma el monitor, pero mayAccept() lee sin lock el umbral (el mínimo cuando está lleno) y descarta
+ * la gran mayoría de eventos, los de ítems que no están entre los primeros.
+ */
+final class HeavyHitters {
+
+    record Hit(String id, String category, double logScore) {
+    }
+
+    private final int capacity;
+    private final String[] ids;
+    private final String[] categories;
+    private final double[] scores;
+    private final Map<String, Integer> positions;
+    private int size;
+    private volatile double threshold = Double.NEGATIVE_INFINITY;
+
+    HeavyHitters(int capacity) {
+        this.capacity = capacity;
+        this.ids = new String[capacity];
+        this.categories = new String[capacity];
+        this.scores = new double[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    boolean mayAccept(double logScore) {
+        return logScore > threshold;
+    }
+
+    synchronized void offer(String id, String category, double logScore) {
+        Integer position = positions.get(id);
+        if (position != null) {
+            double previous = scores[position];
+            scores[position] = logScore;
+            categories[position] = category;
+            if (logScore > previous) {
+                siftDown(position);
+            } else {
+                siftUp(position);
+            }
+        } else if (size < capacity) {
+            ids[size] = id;
+            categories[size] = category;
+            scores[size] = logScore;
+            positions.put(id, size);
+            siftUp(size++);
+        } else if (logScore > scores[0]) {
+            positions.remove(ids[0]);
+            ids[0] = id;
+            categories[0] = category;
+            scores[0] = logScore;
+            positions.put(id, 0);
+            siftDown(0);
+        }
+        if (size == capacity) {
+            threshold = scores[0];
+        }
+    }
+
+    /**
+     * Los limit primeros, de mayor a menor puntuación
+     */
+    synchronized List<Hit> top(int limit) {
+        List<Hit> hits = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            hits.add(new Hit(ids[i], categories[i], scores[i]));
+        }
+        hits.sort((a, b) -> Double.compare(b.logScore(), a.logScore()));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    long memoryBytes() {
+        // Arrays + entradas del HashMap (los ids ya existen en los eventos)
+        return 16 + 3 * (16 + 8L * capacity) + 64L * capacity;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (scores[parent] <= scores[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && scores[left] < scores[smallest]) {
+                smallest = left;
+            }
+            if (right < size && scores[right] < scores[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        String category = categories[a];
+        categories[a] = categories[b];
+        categories[b] = category;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+        positions.put(ids[a], a);
+        positions.put(ids[b], b);
+    }
+}
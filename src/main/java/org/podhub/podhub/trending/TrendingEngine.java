@@ -0,0 +1,169 @@
+package org.podhub.podhub.trending;
+
+import org.podhub.podhub.model.enums.TrendingType;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Puntuaciones de tendencia de podcasts y episodios: cada evento (suscripción, like, comentario,
+ * episodio terminado) suma su peso y ese peso pierde la mitad de su valor cada halfLife, una ventana
+ * deslizante suave en la que lo reciente pesa más.
+ *
+ * Memoria acotada: las puntuaciones viven en un DecayedCountMinSketch compartido (tamaño fijo) y solo
+ * se recuerdan los ids de los capacity primeros de cada tipo, y de cada categoría (hasta maxCategories
+ * por tipo; las demás solo cuentan en la lista global), en un HeavyHitters.
+ *
+ * record() no toma locks salvo cuando el ítem entra o sube en una de las listas.
+ */
+public final class TrendingEngine {
+
+    public record Trend(String id, String category, double score) {
+    }
+
+    /**
+     * Entrada de una instantánea: la puntuación en logaritmo no depende del momento en que se tomó
+     */
+    public record Entry(TrendingType type, String id, String category, double logScore) {
+    }
+
+    private final double lambda;
+    private final int capacity;
+    private final int maxCategories;
+    private final DecayedCountMinSketch sketch;
+    private final Map<TrendingType, HeavyHitters> global = new EnumMap<>(TrendingType.class);
+    private final Map<TrendingType, Map<String, HeavyHitters>> byCategory = new EnumMap<>(TrendingType.class);
+
+    /**
+     * @param halfLifeMillis Tiempo en que un evento pierde la mitad de su peso
+     * @param width          Columnas por fila del sketch (memoria: depth · width · stripes · 8 bytes)
+     * @param depth          Filas del sketch
+     * @param stripes        Copias del sketch para repartir la contención
+     * @param capacity       Ítems que se recuerdan por tipo y por categoría
+     * @param maxCategories  Categorías con lista propia por tipo
+     */
+    public TrendingEngine(long halfLifeMillis, int width, int depth, int stripes, int capacity, int maxCategories) {
+        this.lambda = Math.log(2) / halfLifeMillis;
+        this.capacity = Math.max(1, capacity);
+        this.maxCategories = maxCategories;
+        this.sketch = new DecayedCountMinSketch(depth, width, stripes);
+        for (TrendingType type : TrendingType.values()) {
+            global.put(type, new HeavyHitters(this.capacity));
+            byCategory.put(type, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Registra un evento de peso weight sobre un ítem en el instante nowMillis
+     */
+    public void record(TrendingType type, String id, String category, double weight, long nowMillis) {
+        if (weight <= 0) {
+            return;
+        }
+        double logScore = sketch.add(hash(type, id), Math.log(weight) + lambda * nowMillis);
+        offer(type, id, normalize(category), logScore);
+    }
+
+    /**
+     * Los limit ítems con más puntuación, de mayor a menor, con su puntuación en nowMillis
+     *
+     * @param category null para todas
+     */
+    public List<Trend> top(TrendingType type, String category, int limit, long nowMillis) {
+        HeavyHitters hitters = category == null ? global.get(type) : byCategory.get(type).get(normalize(category));
+        if (hitters == null) {
+            return new ArrayList<>();
+        }
+        List<Trend> result = new ArrayList<>(limit);
+        for (HeavyHitters.Hit hit : hitters.top(limit)) {
+            result.add(new Trend(hit.id(), hit.category(), Math.exp(hit.logScore() - lambda * nowMillis)));
+        }
+        return result;
+    }
+
+    /**
+     * Puntuación estimada de un ítem en nowMillis (nunca menor que la real)
+     */
+    public double score(TrendingType type, String id, long nowMillis) {
+        return Math.exp(sketch.estimate(hash(type, id)) - lambda * nowMillis);
+    }
+
+    /**
+     * Categorías (normalizadas) con lista propia
+     */
+    public Set<String> categories(TrendingType type) {
+        return byCategory.get(type).keySet();
+    }
+
+    /**
+     * Los ítems de todas las listas de un tipo (sin repetir), para persistirlos
+     */
+    public List<Entry> snapshot(TrendingType type) {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        collect(type, global.get(type), entries);
+        for (HeavyHitters hitters : byCategory.get(type).values()) {
+            collect(type, hitters, entries);
+        }
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * Vuelve a cargar una entrada de snapshot(): su puntuación se suma a la del sketch
+     */
+    public void restore(Entry entry) {
+        double logScore = sketch.add(hash(entry.type(), entry.id()), entry.logScore());
+        offer(entry.type(), entry.id(), normalize(entry.category()), logScore);
+    }
+
+    public long memoryBytes() {
+        long bytes = sketch.memoryBytes();
+        for (TrendingType type : TrendingType.values()) {
+            bytes += global.get(type).memoryBytes();
+            for (HeavyHitters hitters : byCategory.get(type).values()) {
+                bytes += hitters.memoryBytes();
+            }
+        }
+        return bytes;
+    }
+
+    private void offer(TrendingType type, String id, String category, double logScore) {
+        HeavyHitters all = global.get(type);
+        if (all.mayAccept(logScore)) {
+            all.offer(id, category, logScore);
+        }
+        if (category != null) {
+            Map<String, HeavyHitters> categories = byCategory.get(type);
+            HeavyHitters hitters = categories.get(category);
+            if (hitters == null && categories.size() < maxCategories) {
+                hitters = categories.computeIfAbsent(category, key -> new HeavyHitters(capacity));
+            }
+            if (hitters != null && hitters.mayAccept(logScore)) {
+                hitters.offer(id, category, logScore);
+            }
+        }
+    }
+
+    private static void collect(TrendingType type, HeavyHitters hitters, Map<String, Entry> entries) {
+        for (HeavyHitters.Hit hit : hitters.top(Integer.MAX_VALUE)) {
+            entries.merge(hit.id(), new Entry(type, hit.id(), hit.category(), hit.logScore()),
+                    (a, b) -> a.logScore() >= b.logScore() ? a : b);
+        }
+    }
+
+    private static long hash(TrendingType type, String id) {
+        return DecayedCountMinSketch.hash(id, type.ordinal());
+    }
+
+    static String normalize(String category) {
+        if (category == null || category.isBlank()) {
+            return null;
+        }
+        return category.trim().toLowerCase(Locale.ROOT);
+    }
+}
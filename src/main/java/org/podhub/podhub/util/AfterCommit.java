@@ -0,0 +1,29 @@
+package org.podhub.podhub.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Efectos fuera de MongoDB (invalidar cachés en memoria, encolar trabajo) que deben ver la escritura ya confirmada.
+ * - Dentro de una transacción se ejecutan en afterCommit: un lector que llegue antes del commit no puede volver
+ *   a cachear el estado anterior como si fuera el nuevo, y si la transacción se deshace no se ejecutan.
+ * - Sin transacción la escritura ya está confirmada y se ejecutan al momento.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
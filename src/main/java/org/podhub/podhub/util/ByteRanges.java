@@ -0,0 +1,113 @@
+package org.podhub.podhub.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Parser de la cabecera Range (RFC 7233, unidad "bytes") contra un recurso de longitud conocida.
+ * - "bytes=0-499", "bytes=500-" y "bytes=-500" (sufijo), separados por comas.
+ * - Los rangos se recortan a la longitud del recurso, se ordenan y los solapados o contiguos se fusionan
+ *   (un cliente no puede pedir el mismo byte muchas veces).
+ * - Una cabecera mal formada se ignora (se sirve el recurso completo, como indica la RFC).
+ */
+public final class ByteRanges {
+
+    /**
+     * Máximo de rangos aceptados en una misma petición; más se trata como cabecera inválida
+     */
+    public static final int MAX_RANGES = 16;
+
+    private static final String UNIT = "bytes=";
+
+    private ByteRanges() {
+    }
+
+    /**
+     * Rango inclusivo [start, end]
+     */
+    public record Range(long start, long end) {
+
+        public long length() {
+            return end - start + 1;
+        }
+
+        /**
+         * Valor de Content-Range para este rango
+         */
+        public String contentRange(long total) {
+            return "bytes " + start + "-" + end + "/" + total;
+        }
+    }
+
+    /**
+     * @param header Valor de la cabecera Range (puede ser null)
+     * @param length Longitud total del recurso
+     * @return null si no hay cabecera o es inválida (servir completo); lista vacía si ningún rango
+     *         es satisfacible (416); si no, los rangos a servir, ordenados y sin solapes
+     */
+    public static List<Range> parse(String header, long length) {
+        if (header == null || !header.regionMatches(true, 0, UNIT, 0, UNIT.length())) {
+            return null;
+        }
+        String[] specs = header.substring(UNIT.length()).split(",");
+        if (specs.length > MAX_RANGES) {
+            return null;
+        }
+
+        List<Range> ranges = new ArrayList<>(specs.length);
+        for (String raw : specs) {
+            String spec = raw.trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            try {
+                String first = spec.substring(0, dash).trim();
+                String last = spec.substring(dash + 1).trim();
+                if (first.isEmpty()) {
+                    // Sufijo: los últimos N bytes
+                    long suffix = Long.parseLong(last);
+                    if (suffix < 0) {
+                        return null;
+                    }
+                    if (suffix > 0 && length > 0) {
+                        ranges.add(new Range(Math.max(0, length - suffix), length - 1));
+                    }
+                    continue;
+                }
+                long start = Long.parseLong(first);
+                long end = last.isEmpty() ? length - 1 : Long.parseLong(last);
+                if (start < 0 || end < start) {
+                    return null;
+                }
+                if (start < length) {
+                    ranges.add(new Range(start, Math.min(end, length - 1)));
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return coalesce(ranges);
+    }
+
+    private static List<Range> coalesce(List<Range> ranges) {
+        if (ranges.size() < 2) {
+            return ranges;
+        }
+        ranges.sort(Comparator.comparingLong(Range::start));
+        List<Range> merged = new ArrayList<>(ranges.size());
+        Range current = ranges.get(0);
+        for (int i = 1; i < ranges.size(); i++) {
+            Range next = ranges.get(i);
+            if (next.start() <= current.end() + 1) {
+                current = new Range(current.start(), Math.max(current.end(), next.end()));
+            } else {
+                merged.add(current);
+                current = next;
+            }
+        }
+        merged.add(current);
+        return merged;
+    }
+}
@@ -0,0 +1,88 @@
+package org.podhub.podhub.util;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Pool de workers que reclaman su propio trabajo: al terminar un elemento, cada worker reclama el
+ * siguiente y solo se detiene cuando no queda ninguno pendiente.
+ * - fill() arranca workers hasta el tope; el ritmo lo marca la duración de cada elemento, no la
+ *   frecuencia con la que se llama a fill().
+ * - Un elemento se reclama justo antes de procesarlo, así que nunca espera en una cola (ni caduca su lease).
+ * - Si claim o work lanzan, ese worker termina (la excepción llega al Executor) y el siguiente fill() lo repone.
+ *
+ * @param <T> Elemento de trabajo; claim devuelve null cuando no hay ninguno pendiente
+ */
+public final class ClaimingWorkers<T> {
+
+    private final int size;
+    private final Executor executor;
+    private final Supplier<T> claim;
+    private final Consumer<T> work;
+    private final AtomicInteger active = new AtomicInteger();
+
+    public ClaimingWorkers(int size, Executor executor, Supplier<T> claim, Consumer<T> work) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be positive: " + size);
+        }
+        this.size = size;
+        this.executor = executor;
+        this.claim = claim;
+        this.work = work;
+    }
+
+    /**
+     * Arranca workers hasta tener size activos, mientras haya trabajo pendiente
+     *
+     * @return Número de workers arrancados
+     */
+    public int fill() {
+        int started = 0;
+        while (true) {
+            int current = active.get();
+            if (current >= size) {
+                return started;
+            }
+            if (!active.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            T first;
+            try {
+                first = claim.get();
+            } catch (RuntimeException e) {
+                active.decrementAndGet();
+                throw e;
+            }
+            if (first == null) {
+                active.decrementAndGet();
+                return started;
+            }
+            try {
+                executor.execute(() -> run(first));
+            } catch (RuntimeException e) {
+                active.decrementAndGet();
+                throw e;
+            }
+            started++;
+        }
+    }
+
+    /**
+     * Workers activos en este momento
+     */
+    public int active() {
+        return active.get();
+    }
+
+    private void run(T first) {
+        try {
+            for (T item = first; item != null; item = Thread.currentThread().isInterrupted() ? null : claim.get()) {
+                work.accept(item);
+            }
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+}
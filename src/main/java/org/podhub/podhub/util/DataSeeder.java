@@ -2,6 +2,7 @@ package org.podhub.podhub.util;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
 import org.podhub.podhub.model.*;
 import org.podhub.podhub.model.enums.CommentStatus;
 import org.podhub.podhub.model.enums.CommentTargetType;
@@ -486,6 +487,7 @@ public class DataSeeder implements CommandLineRunner {
         comment2.setTarget(target2);
         comment2.setContent("Very informative episode!");
         comment2.setStatus(CommentStatus.VISIBLE);
+        comment2.setReplyCount(1);
         comment2.setCreatedAt(Instant.now().minusSeconds(86400 * 8));
         comment2.setEditedAt(comment2.getCreatedAt());
         comment2 = commentRepository.save(comment2);
@@ -497,6 +499,10 @@ public class DataSeeder implements CommandLineRunner {
         reply1.setTarget(target2);
         reply1.setContent("I agree! Can't wait for the next one.");
         reply1.setParentId(comment2.getId());
+        reply1.setId(new ObjectId().toHexString());
+        reply1.setRootId(comment2.getId());
+        reply1.setDepth(1);
+        reply1.setPath(comment2.getId() + "/" + reply1.getId());
         reply1.setStatus(CommentStatus.VISIBLE);
         reply1.setCreatedAt(Instant.now().minusSeconds(86400 * 7));
         reply1.setEditedAt(reply1.getCreatedAt());
@@ -0,0 +1,100 @@
+package org.podhub.podhub.util;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Helpers para GET condicionales (ETag / Last-Modified / 304).
+ * - Documentos: ETag fuerte derivado de id + updatedAt, más Last-Modified.
+ * - Páginas de listados: ETag débil calculado sobre los id + updatedAt de la página.
+ * Las respuestas llevan "Cache-Control: no-cache" para que el cliente revalide siempre.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * ETag fuerte de un documento: "id-updatedAtMillis"
+     */
+    public static String strong(String id, Instant updatedAt) {
+        return "\"" + id + "-" + updatedAt.toEpochMilli() + "\"";
+    }
+
+    /**
+     * ETag débil de una página: hash de los id + updatedAt de sus elementos y del cursor siguiente
+     */
+    public static <T> String weak(List<T> items, Function<T, String> id, Function<T, Instant> updatedAt, String nextCursor) {
+        MessageDigest digest = sha256();
+        for (T item : items) {
+            Instant version = updatedAt.apply(item);
+            digest.update((id.apply(item) + ":" + (version != null ? version.toEpochMilli() : 0) + ";")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        if (nextCursor != null) {
+            digest.update(nextCursor.getBytes(StandardCharsets.UTF_8));
+        }
+        // 64 bits son suficientes para distinguir versiones de una misma página
+        return "W/\"" + HexFormat.of().formatHex(digest.digest(), 0, 8) + "\"";
+    }
+
+    /**
+     * Indica si la petición trae cabeceras de revalidación
+     */
+    public static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    /**
+     * Evalúa If-None-Match / If-Modified-Since contra la versión actual del documento.
+     * Si no ha cambiado, Spring deja preparada la respuesta 304 con ETag y Last-Modified.
+     */
+    public static boolean checkNotModified(WebRequest request, String id, Instant updatedAt) {
+        return updatedAt != null && request.checkNotModified(strong(id, updatedAt), updatedAt.toEpochMilli());
+    }
+
+    public static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+    }
+
+    /**
+     * 200 con ETag fuerte y Last-Modified (si el documento tiene updatedAt)
+     */
+    public static <T> ResponseEntity<T> ok(T body, String id, Instant updatedAt) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (updatedAt != null) {
+            builder.eTag(strong(id, updatedAt)).lastModified(updatedAt);
+        }
+        return builder.body(body);
+    }
+
+    /**
+     * 200 con ETag débil (listados). Spring responde 304 si coincide con If-None-Match.
+     */
+    public static <T> ResponseEntity<T> okWeak(T body, String weakETag) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(weakETag)
+                .body(body);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
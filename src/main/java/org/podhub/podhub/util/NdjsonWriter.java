@@ -0,0 +1,68 @@
+package org.podhub.podhub.util;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Escribe un Stream de documentos como NDJSON (un objeto JSON por línea).
+ * Cada documento se serializa en cuanto se recibe y se descarta: memoria constante
+ * sea cual sea el tamaño del Stream. La salida se vacía (flush) cada flushEvery documentos
+ * para que el cliente reciba datos de forma continua.
+ */
+public class NdjsonWriter {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int DEFAULT_FLUSH_EVERY = 500;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+    private final int flushEvery;
+
+    public NdjsonWriter(ObjectMapper objectMapper) {
+        this(objectMapper, DEFAULT_FLUSH_EVERY);
+    }
+
+    public NdjsonWriter(ObjectMapper objectMapper, int flushEvery) {
+        // Sin nulls: los volcados son más compactos y los campos excluidos por proyección no aparecen
+        this.objectMapper = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        this.writer = this.objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.flushEvery = flushEvery;
+    }
+
+    /**
+     * Escribe todos los documentos y cierra el Stream (y con él el cursor de MongoDB)
+     *
+     * @return Número de documentos escritos
+     */
+    public <T> long write(Stream<T> documents, OutputStream out) throws IOException {
+        long written = 0;
+        try (documents;
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Sin separador entre valores raíz: el salto de línea lo escribimos nosotros
+            generator.setRootValueSeparator(null);
+
+            Iterator<T> iterator = documents.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                written++;
+                if (written % flushEvery == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+        return written;
+    }
+}
@@ -0,0 +1,66 @@
+package org.podhub.podhub.util;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.util.Arrays;
+
+/**
+ * Distingue direcciones públicas de internet de las internas, para no hacer peticiones del servidor
+ * (feeds de origen) contra la red privada, el propio host o el servicio de metadatos del cloud (169.254.169.254).
+ * - IPv4: 0/8, 10/8, 100.64/10 (CGNAT), 127/8, 169.254/16, 172.16/12, 192.0.0/24, 192.168/16, 198.18/15,
+ *   multicast y reservadas (224/3).
+ * - IPv6: loopback, sin especificar, link-local, site-local, ULA (fc00::/7), multicast, y las que llevan una IPv4
+ *   dentro (::a.b.c.d, 64:ff9b::/96, 2002::/16), que se juzgan por esa IPv4.
+ */
+public final class PublicAddresses {
+
+    private static final byte[] IPV4_COMPATIBLE = new byte[12];
+    private static final byte[] NAT64 = {0, 0x64, (byte) 0xff, (byte) 0x9b, 0, 0, 0, 0, 0, 0, 0, 0};
+
+    private PublicAddresses() {
+    }
+
+    public static boolean isPublic(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet4Address) {
+            return isPublicIpv4(bytes);
+        }
+        if ((bytes[0] & 0xfe) == 0xfc) {
+            // fc00::/7 (unique local)
+            return false;
+        }
+        if (hasPrefix(bytes, IPV4_COMPATIBLE) || hasPrefix(bytes, NAT64)) {
+            // ::a.b.c.d (IPv4-compatible) y 64:ff9b::a.b.c.d (NAT64)
+            return isPublicIpv4(Arrays.copyOfRange(bytes, 12, 16));
+        }
+        if (bytes[0] == 0x20 && bytes[1] == 0x02) {
+            // 2002:aabb:ccdd::/48 (6to4)
+            return isPublicIpv4(Arrays.copyOfRange(bytes, 2, 6));
+        }
+        return true;
+    }
+
+    private static boolean isPublicIpv4(byte[] bytes) {
+        int first = bytes[0] & 0xff;
+        int second = bytes[1] & 0xff;
+        int third = bytes[2] & 0xff;
+        return first != 0
+                && first != 10
+                && first != 127
+                && !(first == 100 && (second & 0xc0) == 64)
+                && !(first == 169 && second == 254)
+                && !(first == 172 && (second & 0xf0) == 16)
+                && !(first == 192 && second == 0 && third == 0)
+                && !(first == 192 && second == 168)
+                && !(first == 198 && (second & 0xfe) == 18)
+                && first < 224;
+    }
+
+    private static boolean hasPrefix(byte[] bytes, byte[] prefix) {
+        return Arrays.equals(bytes, 0, prefix.length, prefix, 0, prefix.length);
+    }
+}
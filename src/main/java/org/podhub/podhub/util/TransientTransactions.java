@@ -0,0 +1,67 @@
+package org.podhub.podhub.util;
+
+import com.mongodb.MongoException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Reintento acotado de transacciones de MongoDB que fallan con la etiqueta TransientTransactionError
+ * (p. ej. un WriteConflict entre dos $inc concurrentes sobre el mismo documento).
+ * - Cada intento debe abrir su propia transacción: la que falla ya está abortada y no se puede reutilizar.
+ * - Entre intentos se espera un tiempo aleatorio que crece exponencialmente, para que los que chocan se separen.
+ * - Cualquier otro error, o el último intento fallido, se propaga tal cual.
+ */
+public final class TransientTransactions {
+
+    public static final String TRANSIENT_TRANSACTION_ERROR = "TransientTransactionError";
+
+    private static final long BASE_BACKOFF_MS = 5;
+    private static final long MAX_BACKOFF_MS = 500;
+
+    private TransientTransactions() {
+    }
+
+    /**
+     * Ejecuta attempt hasta maxAttempts veces mientras falle con un error transitorio de transacción
+     */
+    public static <T> T retry(int maxAttempts, Supplier<T> attempt) {
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                return attempt.get();
+            } catch (RuntimeException e) {
+                if (attemptNumber >= maxAttempts || !isTransient(e)) {
+                    throw e;
+                }
+                backoff(attemptNumber);
+            }
+        }
+    }
+
+    /**
+     * Si el error, o alguna de sus causas (Spring Data traduce las excepciones del driver), es un
+     * MongoException con la etiqueta TransientTransactionError
+     */
+    public static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException
+                    && mongoException.hasErrorLabel(TRANSIENT_TRANSACTION_ERROR)) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static void backoff(int attemptNumber) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(attemptNumber, 10));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying a transaction", e);
+        }
+    }
+}
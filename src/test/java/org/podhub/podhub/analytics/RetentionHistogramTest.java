@@ -0,0 +1,102 @@
+package org.podhub.podhub.analytics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RetentionHistogram: bucketing, curve and incremental vs. full rebuild
+ */
+class RetentionHistogramTest {
+
+    @Test
+    @DisplayName("bucket() - 1% buckets, clamped, completed listeners in their own bucket")
+    void testBucket() {
+        assertEquals(0, RetentionHistogram.bucket(0, false, 3600));
+        assertEquals(0, RetentionHistogram.bucket(35, false, 3600));
+        assertEquals(1, RetentionHistogram.bucket(36, false, 3600));
+        assertEquals(50, RetentionHistogram.bucket(1800, false, 3600));
+        assertEquals(99, RetentionHistogram.bucket(3599, false, 3600));
+        assertEquals(99, RetentionHistogram.bucket(5000, false, 3600), "past the end without completing");
+        assertEquals(0, RetentionHistogram.bucket(-5, false, 3600));
+        assertEquals(RetentionHistogram.COMPLETED, RetentionHistogram.bucket(10, true, 3600));
+        assertEquals(99, RetentionHistogram.bucket(Integer.MAX_VALUE, false, 1), "no overflow");
+    }
+
+    @Test
+    @DisplayName("curve() - Fraction of listeners reaching each percent")
+    void testCurve() {
+        RetentionHistogram histogram = new RetentionHistogram();
+        histogram.add(0);
+        histogram.add(10);
+        histogram.add(50);
+        histogram.add(RetentionHistogram.COMPLETED);
+
+        double[] curve = histogram.curve();
+        assertEquals(RetentionHistogram.BUCKETS, curve.length);
+        assertEquals(1.0, curve[0], 1e-12);
+        assertEquals(0.75, curve[1], 1e-12);
+        assertEquals(0.75, curve[10], 1e-12);
+        assertEquals(0.5, curve[11], 1e-12);
+        assertEquals(0.25, curve[51], 1e-12);
+        assertEquals(0.25, curve[RetentionHistogram.COMPLETED], 1e-12);
+        assertEquals(4, histogram.listeners());
+        assertEquals(1, histogram.completed());
+        assertEquals(1, histogram.dropOffs()[10]);
+        assertEquals(RetentionHistogram.PERCENT_BUCKETS, histogram.dropOffs().length);
+
+        assertEquals(0.0, new RetentionHistogram().curve()[0], 0);
+    }
+
+    @Test
+    @DisplayName("Stored counts - Short arrays are padded and negative drift reads as 0")
+    void testStoredCounts() {
+        RetentionHistogram histogram = new RetentionHistogram(new int[]{2, -1, 3});
+        assertEquals(5, histogram.listeners());
+        assertEquals(0, histogram.dropOffs()[1]);
+        assertEquals(RetentionHistogram.BUCKETS, histogram.counts().length);
+        assertEquals(0, new RetentionHistogram(null).listeners());
+    }
+
+    @Test
+    @DisplayName("Incremental moves match a rebuild from the final positions")
+    void testIncrementalMatchesRebuild() {
+        int duration = 1800;
+        int listeners = 2000;
+        int[] furthest = new int[listeners];
+        boolean[] completed = new boolean[listeners];
+        boolean[] started = new boolean[listeners];
+        int[] incremental = new int[RetentionHistogram.BUCKETS];
+        Random random = new Random(11);
+
+        for (int i = 0; i < 50_000; i++) {
+            int listener = random.nextInt(listeners);
+            int position = random.nextInt(duration + 60);
+            boolean done = random.nextInt(20) == 0;
+            int next = started[listener] ? Math.max(furthest[listener], position) : position;
+            if (started[listener]) {
+                incremental[RetentionHistogram.bucket(furthest[listener], completed[listener], duration)]--;
+            }
+            incremental[RetentionHistogram.bucket(next, done, duration)]++;
+            started[listener] = true;
+            furthest[listener] = next;
+            completed[listener] = done;
+        }
+
+        RetentionHistogram rebuilt = new RetentionHistogram();
+        for (int i = 0; i < listeners; i++) {
+            if (started[i]) {
+                rebuilt.add(RetentionHistogram.bucket(furthest[i], completed[i], duration));
+            }
+        }
+        assertArrayEquals(rebuilt.counts(), incremental);
+
+        RetentionHistogram merged = new RetentionHistogram();
+        merged.merge(rebuilt);
+        merged.merge(rebuilt);
+        assertEquals(2 * rebuilt.listeners(), merged.listeners());
+    }
+}
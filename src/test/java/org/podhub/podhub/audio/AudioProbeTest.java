@@ -0,0 +1,196 @@
+package org.podhub.podhub.audio;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.podhub.podhub.model.AudioChapter;
+import org.podhub.podhub.model.AudioMetadata;
+import org.podhub.podhub.support.AudioFixtures;
+import org.podhub.podhub.support.AudioFixtures.Chapter;
+import org.podhub.podhub.support.AudioFixtures.VbrHeader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AudioProbe
+ * Uses synthetic MP3/M4A files from AudioFixtures; large files are sparse, so only their headers exist on disk.
+ */
+class AudioProbeTest {
+
+    private static final List<Chapter> CHAPTERS = List.of(
+            new Chapter(0, "Intro"),
+            new Chapter(95_000, "Entrevista"),
+            new Chapter(1_800_500, "Preguntas y despedida"));
+
+    private static Path dir;
+
+    @BeforeAll
+    static void createDir() throws IOException {
+        dir = Files.createTempDirectory("podhub-probe-test");
+    }
+
+    @AfterAll
+    static void deleteDir() throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    private static void assertChapters(List<AudioChapter> chapters) {
+        assertNotNull(chapters);
+        assertEquals(CHAPTERS.size(), chapters.size());
+        for (int i = 0; i < CHAPTERS.size(); i++) {
+            assertEquals(CHAPTERS.get(i).startMs(), chapters.get(i).getStartMs());
+            assertEquals(CHAPTERS.get(i).title(), chapters.get(i).getTitle());
+        }
+    }
+
+    @Test
+    @DisplayName("CBR MP3 without tags: duration estimated from the bitrate")
+    void testCbrMp3() throws IOException {
+        long frames = 60_000; // ~26 min
+        Path file = dir.resolve("cbr.mp3");
+        long size = AudioFixtures.writeMp3(file, new byte[0], VbrHeader.NONE, frames);
+
+        AudioProbe.Result result = AudioProbe.probe(file);
+        AudioMetadata metadata = result.metadata();
+        assertTrue(result.recognized());
+        assertEquals("mp3", metadata.getFormat());
+        assertEquals(128, metadata.getBitrateKbps());
+        assertEquals(44_100, metadata.getSampleRate());
+        assertEquals(2, metadata.getChannels());
+        assertFalse(metadata.getExactDuration());
+        assertEquals(size * 8 / 128, metadata.getDurationMs());
+        // Los frames sin padding duran un 0,2% menos de lo nominal
+        assertEquals(AudioFixtures.durationMs(frames), metadata.getDurationMs(), AudioFixtures.durationMs(frames) * 0.005);
+        assertNull(metadata.getChapters());
+        assertTrue(result.bytesRead() < 16 * 1024, "bytes read: " + result.bytesRead());
+    }
+
+    @Test
+    @DisplayName("VBR MP3 with Xing header and ID3 chapters: exact duration, picture not read")
+    void testXingMp3WithChapters() throws IOException {
+        long frames = 100_000;
+        int pictureBytes = 2 * 1024 * 1024;
+        Path file = dir.resolve("xing.mp3");
+        AudioFixtures.writeMp3(file, AudioFixtures.id3(CHAPTERS, pictureBytes), VbrHeader.XING, frames);
+
+        AudioProbe.Result result = AudioProbe.probe(file);
+        AudioMetadata metadata = result.metadata();
+        assertTrue(metadata.getExactDuration());
+        assertEquals(AudioFixtures.durationMs(frames), metadata.getDurationMs());
+        assertEquals(128, metadata.getBitrateKbps(), 1);
+        assertChapters(metadata.getChapters());
+        assertTrue(result.bytesRead() < 16 * 1024, "bytes read: " + result.bytesRead());
+    }
+
+    @Test
+    @DisplayName("VBR MP3 with VBRI header")
+    void testVbriMp3() throws IOException {
+        int frames = 2_000;
+        Path file = Files.write(dir.resolve("vbri.mp3"), AudioFixtures.mp3(new byte[0], VbrHeader.VBRI, frames));
+
+        AudioMetadata metadata = AudioProbe.probe(file).metadata();
+        assertTrue(metadata.getExactDuration());
+        assertEquals(AudioFixtures.durationMs(frames), metadata.getDurationMs());
+    }
+
+    @Test
+    @DisplayName("M4A with moov after a large mdat: only atom headers are read")
+    void testM4aMoovAtEnd() throws IOException {
+        long durationMs = 3_600_000;
+        long mdatBytes = 512L * 1024 * 1024;
+        Path file = dir.resolve("moov-last.m4a");
+        AudioFixtures.writeM4a(file, durationMs, mdatBytes, CHAPTERS, false);
+
+        AudioProbe.Result result = AudioProbe.probe(file);
+        AudioMetadata metadata = result.metadata();
+        assertEquals("m4a", metadata.getFormat());
+        assertEquals(durationMs, metadata.getDurationMs());
+        assertEquals((int) (mdatBytes * 8 / durationMs), metadata.getBitrateKbps());
+        assertEquals(44_100, metadata.getSampleRate());
+        assertEquals(2, metadata.getChannels());
+        assertChapters(metadata.getChapters());
+        assertTrue(result.bytesRead() < 4 * 1024, "bytes read: " + result.bytesRead());
+
+        Path faststart = dir.resolve("moov-first.m4a");
+        AudioFixtures.writeM4a(faststart, durationMs, mdatBytes, List.of(), true);
+        metadata = AudioProbe.probe(faststart).metadata();
+        assertEquals(durationMs, metadata.getDurationMs());
+        assertNull(metadata.getChapters());
+    }
+
+    @Test
+    @DisplayName("Unknown or truncated content is not recognized")
+    void testNotRecognized() throws IOException {
+        byte[] noise = new byte[256 * 1024];
+        new Random(3).nextBytes(noise);
+        // Sin sincronías de frame válidas seguidas
+        for (int i = 0; i < noise.length; i++) {
+            if (noise[i] == (byte) 0xFF) {
+                noise[i] = 0;
+            }
+        }
+        assertFalse(AudioProbe.probe(Files.write(dir.resolve("noise.bin"), noise)).recognized());
+        assertFalse(AudioProbe.probe(Files.write(dir.resolve("empty.mp3"), new byte[0])).recognized());
+
+        byte[] truncated = AudioFixtures.mp3(new byte[0], VbrHeader.NONE, 3);
+        assertFalse(AudioProbe.probe(Files.write(dir.resolve("truncated.mp3"),
+                Arrays.copyOf(truncated, 5))).recognized());
+    }
+
+    @Test
+    @DisplayName("Benchmark - Time and bytes read per file in a bounded pool")
+    void testBenchmark() throws Exception {
+        int files = 400;
+        List<Path> corpus = new ArrayList<>(files);
+        long totalSize = 0;
+        byte[] id3 = AudioFixtures.id3(CHAPTERS, 512 * 1024);
+        for (int i = 0; i < files; i++) {
+            Path file = dir.resolve("bench-" + i + (i % 2 == 0 ? ".mp3" : ".m4a"));
+            // Entre ~10 MB y ~250 MB, la mayoría sin escribir (sparse)
+            long frames = 25_000L + 25_000L * (i % 24);
+            totalSize += switch (i % 4) {
+                case 0 -> AudioFixtures.writeMp3(file, new byte[0], VbrHeader.NONE, frames);
+                case 2 -> AudioFixtures.writeMp3(file, id3, VbrHeader.XING, frames);
+                default -> AudioFixtures.writeM4a(file, AudioFixtures.durationMs(frames),
+                        frames * AudioFixtures.FRAME_LENGTH, CHAPTERS, i % 3 == 0);
+            };
+            corpus.add(file);
+        }
+
+        int threads = 4;
+        long start = System.nanoTime();
+        long bytesRead = 0;
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            List<Future<AudioProbe.Result>> results = new ArrayList<>(files);
+            for (Path file : corpus) {
+                results.add(pool.submit(() -> AudioProbe.probe(file)));
+            }
+            for (Future<AudioProbe.Result> result : results) {
+                assertTrue(result.get().recognized());
+                bytesRead += result.get().bytesRead();
+            }
+        }
+        double micros = (System.nanoTime() - start) / 1e3;
+        // Only headers are read: a few KB per file whatever its size (~2 KB, ~0.002% of the data when written)
+        assertTrue(bytesRead / files < 64 * 1024, (bytesRead / files) + " bytes read per file");
+        assertTrue(bytesRead * 10_000 < totalSize, bytesRead + " of " + totalSize + " bytes read");
+        assertTrue(micros / files < 20_000, (long) (micros / files) + " us per file");
+    }
+}
@@ -0,0 +1,215 @@
+package org.podhub.podhub.audio;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.podhub.podhub.support.AudioFixtures;
+import org.podhub.podhub.support.AudioFixtures.VbrHeader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for WaveformGenerator and the Waveform binary format
+ */
+class WaveformTest {
+
+    private static final int HEADER_BYTES = 4 + 1 + 1 + 2 + 4 + 8 + 2;
+    private static final int LEVEL_HEADER_BYTES = 8;
+
+    private static Path dir;
+
+    @BeforeAll
+    static void createDir() throws IOException {
+        dir = Files.createTempDirectory("podhub-waveform-test");
+    }
+
+    @AfterAll
+    static void deleteDir() throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    private static byte[] encode(Waveform waveform, int bits) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        waveform.write(out, bits);
+        return out.toByteArray();
+    }
+
+    @Test
+    @DisplayName("WAV: one second of square wave followed by one second of silence")
+    void testWavPeaks() throws IOException {
+        int sampleRate = 8_000;
+        short[] samples = new short[2 * sampleRate];
+        for (int i = 0; i < sampleRate; i++) {
+            samples[i] = (short) ((i / 20) % 2 == 0 ? 16_000 : -16_000);
+        }
+        Path file = AudioFixtures.writeWav(dir.resolve("square.wav"), sampleRate, 1, samples);
+
+        Waveform waveform = WaveformGenerator.generate(file, 16, 3).orElseThrow();
+        assertEquals(sampleRate, waveform.sampleRate());
+        assertEquals(samples.length, waveform.samples());
+        assertEquals(3, waveform.levels().size());
+
+        Waveform.Level fine = waveform.levels().get(0);
+        assertEquals(500, fine.samplesPerPeak());
+        assertEquals(32, fine.peaks());
+        for (int i = 0; i < 32; i++) {
+            assertEquals(i < 16 ? -16_000 : 0, fine.min()[i], "min of peak " + i);
+            assertEquals(i < 16 ? 16_000 : 0, fine.max()[i], "max of peak " + i);
+        }
+
+        Waveform.Level coarse = waveform.levels().get(2);
+        assertEquals(500 * Waveform.FACTOR * Waveform.FACTOR, coarse.samplesPerPeak());
+        assertEquals(2, coarse.peaks());
+        assertEquals(-16_000, coarse.min()[0]);
+        assertEquals(16_000, coarse.max()[0]);
+        assertEquals(0, coarse.min()[1]);
+        assertEquals(0, coarse.max()[1]);
+    }
+
+    @Test
+    @DisplayName("WAV: stereo is mixed down to mono")
+    void testStereoMixdown() throws IOException {
+        short[] samples = new short[2 * 4_000];
+        for (int i = 0; i < samples.length; i += 2) {
+            samples[i] = 8_000;
+            samples[i + 1] = 4_000;
+        }
+        Path file = AudioFixtures.writeWav(dir.resolve("stereo.wav"), 4_000, 2, samples);
+
+        Waveform waveform = WaveformGenerator.generate(file, 4, 1).orElseThrow();
+        assertEquals(4_000, waveform.samples());
+        Waveform.Level level = waveform.levels().get(0);
+        assertEquals(4, level.peaks());
+        for (int i = 0; i < level.peaks(); i++) {
+            assertEquals(6_000, level.min()[i]);
+            assertEquals(6_000, level.max()[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("Coarser levels are exact merges of the finest one, with a partial last peak")
+    void testLevelsMerge() {
+        Random random = new Random(7);
+        int peaks = 1_001;
+        short[] min = new short[peaks];
+        short[] max = new short[peaks];
+        for (int i = 0; i < peaks; i++) {
+            min[i] = (short) -random.nextInt(32_768);
+            max[i] = (short) random.nextInt(32_768);
+        }
+        Waveform.Level fine = new Waveform.Level(100, min, max);
+        Waveform.Level coarse = fine.coarser();
+
+        assertEquals(400, coarse.samplesPerPeak());
+        assertEquals(251, coarse.peaks());
+        for (int i = 0; i < coarse.peaks(); i++) {
+            short low = Short.MAX_VALUE;
+            short high = Short.MIN_VALUE;
+            for (int j = i * 4; j < Math.min(peaks, i * 4 + 4); j++) {
+                low = (short) Math.min(low, min[j]);
+                high = (short) Math.max(high, max[j]);
+            }
+            assertEquals(low, coarse.min()[i]);
+            assertEquals(high, coarse.max()[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("Binary format round trip, 16-bit exact and 8-bit quantized")
+    void testBinaryRoundTrip() throws IOException {
+        short[] min = {-32_768, -1_000, -1, 0};
+        short[] max = {32_767, 1_000, 0, 255};
+        Waveform.Level fine = new Waveform.Level(512, min, max);
+        Waveform waveform = new Waveform(44_100, 2_000, List.of(fine, fine.coarser()));
+
+        byte[] wide = encode(waveform, 16);
+        assertEquals(HEADER_BYTES + 2 * LEVEL_HEADER_BYTES + (4 + 1) * 2 * 2, wide.length);
+        Waveform decoded = Waveform.read(new ByteArrayInputStream(wide));
+        assertEquals(44_100, decoded.sampleRate());
+        assertEquals(2_000, decoded.samples());
+        assertEquals(2, decoded.levels().size());
+        assertArrayEquals(min, decoded.levels().get(0).min());
+        assertArrayEquals(max, decoded.levels().get(0).max());
+        assertEquals(2_048, decoded.levels().get(1).samplesPerPeak());
+
+        byte[] narrow = encode(waveform, 8);
+        assertEquals(HEADER_BYTES + 2 * LEVEL_HEADER_BYTES + (4 + 1) * 2, narrow.length);
+        Waveform.Level quantized = Waveform.read(new ByteArrayInputStream(narrow)).levels().get(0);
+        for (int i = 0; i < min.length; i++) {
+            assertEquals((short) ((min[i] >> 8) << 8), quantized.min()[i]);
+            assertEquals((short) ((max[i] >> 8) << 8), quantized.max()[i]);
+        }
+
+        assertThrows(IOException.class, () -> Waveform.read(new ByteArrayInputStream(new byte[HEADER_BYTES])));
+        assertThrows(IllegalArgumentException.class, () -> waveform.write(new ByteArrayOutputStream(), 12));
+    }
+
+    @Test
+    @DisplayName("MP3 is decoded frame by frame, M4A is not supported")
+    void testMp3AndUnsupported() throws IOException {
+        int frames = 500;
+        Path mp3 = Files.write(dir.resolve("silence.mp3"), AudioFixtures.mp3(new byte[0], VbrHeader.NONE, frames));
+
+        Waveform waveform = WaveformGenerator.generate(mp3, 16, 2).orElseThrow();
+        assertEquals(AudioFixtures.SAMPLE_RATE, waveform.sampleRate());
+        assertEquals((long) frames * AudioFixtures.SAMPLES_PER_FRAME, waveform.samples(), AudioFixtures.SAMPLES_PER_FRAME);
+        Waveform.Level level = waveform.levels().get(0);
+        for (int i = 0; i < level.peaks(); i++) {
+            assertTrue(Math.abs(level.min()[i]) <= 1 && Math.abs(level.max()[i]) <= 1, "silent peak " + i);
+        }
+
+        Path m4a = dir.resolve("unsupported.m4a");
+        AudioFixtures.writeM4a(m4a, 60_000, 1024 * 1024, List.of(), true);
+        assertTrue(WaveformGenerator.generate(m4a, 16, 2).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Benchmark - Generation throughput and payload size")
+    void testBenchmark() throws IOException {
+        int sampleRate = 44_100;
+        int seconds = 600;
+        Random random = new Random(11);
+        short[] samples = new short[sampleRate * seconds];
+        for (int i = 0; i < samples.length; i++) {
+            // Speech-like envelope: noise modulated at ~3 Hz
+            double envelope = 0.5 + 0.5 * Math.sin(2 * Math.PI * 3 * i / sampleRate);
+            samples[i] = (short) (envelope * (random.nextInt(40_000) - 20_000));
+        }
+        Path wav = AudioFixtures.writeWav(dir.resolve("bench.wav"), sampleRate, 1, samples);
+
+        long start = System.nanoTime();
+        Waveform waveform = WaveformGenerator.generate(wav, 16, 4).orElseThrow();
+        double wavSeconds = (System.nanoTime() - start) / 1e9;
+
+        int frames = seconds * sampleRate / AudioFixtures.SAMPLES_PER_FRAME;
+        Path mp3 = Files.write(dir.resolve("bench.mp3"), AudioFixtures.mp3(new byte[0], VbrHeader.NONE, frames));
+        start = System.nanoTime();
+        WaveformGenerator.generate(mp3, 16, 4).orElseThrow();
+        double mp3Seconds = (System.nanoTime() - start) / 1e9;
+
+        int peaks = waveform.levels().stream().mapToInt(Waveform.Level::peaks).sum();
+        int narrow = encode(waveform, 8).length;
+        int wide = encode(waveform, 16).length;
+        assertEquals(HEADER_BYTES + 4 * LEVEL_HEADER_BYTES + peaks * 2, narrow);
+        assertEquals(HEADER_BYTES + 4 * LEVEL_HEADER_BYTES + peaks * 4, wide);
+        // 16 peaks/s over 4 levels: about 2.5 KB per minute of audio at 8 bits
+        assertTrue(narrow / (seconds / 60.0) < 4 * 1024, narrow + " bytes for " + seconds + " s of audio");
+        // Generated once per upload, but it must stay far faster than realtime even on one core
+        assertTrue(seconds / wavSeconds > 20, "WAV at " + (long) (seconds / wavSeconds) + "x realtime");
+        assertTrue(seconds / mp3Seconds > 5, "MP3 at " + (long) (seconds / mp3Seconds) + "x realtime");
+    }
+}
@@ -0,0 +1,243 @@
+package org.podhub.podhub.controller;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for AudioController
+ * Audio files are written to a temporary storage root; no MongoDB data is needed.
+ * MockMvc covers the FileChannel.transferTo path; the benchmark goes through the real Tomcat
+ * (random port), where single ranges are handed to sendfile.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class AudioControllerTest {
+
+    private static final Path STORAGE_ROOT;
+    private static final int AUDIO_SIZE = 8 * 1024 * 1024;
+    private static final byte[] AUDIO = new byte[AUDIO_SIZE];
+
+    static {
+        new Random(42).nextBytes(AUDIO);
+        try {
+            STORAGE_ROOT = Files.createTempDirectory("podhub-audio-test");
+            Files.createDirectories(STORAGE_ROOT.resolve("episodes"));
+            Files.write(STORAGE_ROOT.resolve("episodes/test.mp3"), AUDIO);
+            Files.writeString(STORAGE_ROOT.resolve("secret.txt"), "outside");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void storageProperties(DynamicPropertyRegistry registry) {
+        registry.add("podhub.storage.audio-root", STORAGE_ROOT::toString);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @LocalServerPort
+    private int port;
+
+    private static String etag;
+
+    // ===========================
+    // FULL CONTENT TESTS
+    // ===========================
+
+    @Test
+    @Order(1)
+    @DisplayName("GET /api/audio/{key} - Full file without authentication")
+    void testGetFullAudio() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/audio/episodes/test.mp3"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("Content-Type", "audio/mpeg"))
+                .andExpect(header().string("Content-Length", String.valueOf(AUDIO_SIZE)))
+                .andExpect(header().string("Cache-Control", startsWith("max-age=")))
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn();
+        etag = result.getResponse().getHeader("ETag");
+        assertArrayEquals(AUDIO, result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("HEAD /api/audio/{key} - Headers only")
+    void testHeadAudio() throws Exception {
+        mockMvc.perform(head("/api/audio/episodes/test.mp3").header("Range", "bytes=0-99"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Length", "100"))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("GET /api/audio/{key} - If-None-Match returns 304")
+    void testNotModified() throws Exception {
+        mockMvc.perform(get("/api/audio/episodes/test.mp3").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    // ===========================
+    // RANGE TESTS
+    // ===========================
+
+    @Test
+    @Order(4)
+    @DisplayName("GET /api/audio/{key} - Single range returns 206 with the exact bytes")
+    void testSingleRange() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/audio/episodes/test.mp3").header("Range", "bytes=1000-1999"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 1000-1999/" + AUDIO_SIZE))
+                .andExpect(header().string("Content-Length", "1000"))
+                .andReturn();
+        assertArrayEquals(Arrays.copyOfRange(AUDIO, 1000, 2000), result.getResponse().getContentAsByteArray());
+
+        // Sufijo: los últimos 500 bytes
+        result = mockMvc.perform(get("/api/audio/episodes/test.mp3").header("Range", "bytes=-500"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes " + (AUDIO_SIZE - 500) + "-" + (AUDIO_SIZE - 1) + "/" + AUDIO_SIZE))
+                .andReturn();
+        assertArrayEquals(Arrays.copyOfRange(AUDIO, AUDIO_SIZE - 500, AUDIO_SIZE), result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("GET /api/audio/{key} - Multiple ranges return multipart/byteranges")
+    void testMultipleRanges() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/audio/episodes/test.mp3").header("Range", "bytes=0-9,100-109"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Type", startsWith("multipart/byteranges; boundary=")))
+                .andReturn();
+        byte[] body = result.getResponse().getContentAsByteArray();
+        assertEquals(Long.parseLong(result.getResponse().getHeader("Content-Length")), body.length);
+
+        String text = new String(body, StandardCharsets.ISO_8859_1);
+        assertTrue(text.contains("Content-Range: bytes 0-9/" + AUDIO_SIZE));
+        assertTrue(text.contains("Content-Range: bytes 100-109/" + AUDIO_SIZE));
+        assertTrue(text.contains(new String(Arrays.copyOfRange(AUDIO, 100, 110), StandardCharsets.ISO_8859_1)));
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("GET /api/audio/{key} - If-Range honours the range only for the current version")
+    void testIfRange() throws Exception {
+        mockMvc.perform(get("/api/audio/episodes/test.mp3")
+                        .header("Range", "bytes=0-99")
+                        .header("If-Range", etag))
+                .andExpect(status().isPartialContent());
+
+        mockMvc.perform(get("/api/audio/episodes/test.mp3")
+                        .header("Range", "bytes=0-99")
+                        .header("If-Range", "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Length", String.valueOf(AUDIO_SIZE)));
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("GET /api/audio/{key} - Unsatisfiable range returns 416")
+    void testUnsatisfiableRange() throws Exception {
+        mockMvc.perform(get("/api/audio/episodes/test.mp3").header("Range", "bytes=" + AUDIO_SIZE + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */" + AUDIO_SIZE));
+    }
+
+    // ===========================
+    // NOT FOUND TESTS
+    // ===========================
+
+    @Test
+    @Order(8)
+    @DisplayName("GET /api/audio/{key} - 404 for missing files and directories, 4xx outside the root")
+    void testNotFound() throws Exception {
+        mockMvc.perform(get("/api/audio/episodes/missing.mp3"))
+                .andExpect(status().isNotFound());
+        // El firewall de Spring Security ya rechaza las rutas con ".."; AudioStorage lo comprueba igualmente
+        mockMvc.perform(get("/api/audio/episodes/../../etc/passwd"))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(get("/api/audio/episodes"))
+                .andExpect(status().isNotFound());
+    }
+
+    // ===========================
+    // BENCHMARK
+    // ===========================
+
+    @Test
+    @Order(9)
+    @DisplayName("GET /api/audio/{key} - Concurrent range readers over real HTTP")
+    void testConcurrentRangeReaders() throws Exception {
+        int readers = 500;
+        int requestsPerReader = 20;
+        int chunk = 256 * 1024;
+        URI uri = URI.create("http://localhost:" + port + "/api/audio/episodes/test.mp3");
+
+        long start = System.nanoTime();
+        List<Future<Long>> results = new ArrayList<>(readers);
+        try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int r = 0; r < readers; r++) {
+                results.add(executor.submit(() -> {
+                    long bytes = 0;
+                    for (int i = 0; i < requestsPerReader; i++) {
+                        int from = ThreadLocalRandom.current().nextInt(AUDIO_SIZE - chunk);
+                        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri)
+                                        .header("Range", "bytes=" + from + "-" + (from + chunk - 1))
+                                        .build(),
+                                HttpResponse.BodyHandlers.ofByteArray());
+                        assertEquals(206, response.statusCode());
+                        assertArrayEquals(Arrays.copyOfRange(AUDIO, from, from + chunk), response.body());
+                        bytes += response.body().length;
+                    }
+                    return bytes;
+                }));
+            }
+            long total = 0;
+            for (Future<Long> result : results) {
+                total += result.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            assertEquals((long) readers * requestsPerReader * chunk, total);
+            // 500 concurrent readers on virtual threads must not serialize behind a small thread pool
+            assertTrue(readers * requestsPerReader / seconds > 100,
+                    "served " + (long) (readers * requestsPerReader / seconds) + " range requests/s");
+        }
+    }
+}
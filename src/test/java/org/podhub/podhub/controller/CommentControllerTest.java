@@ -1,32 +1,55 @@
 package org.podhub.podhub.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.*;
 import org.podhub.podhub.model.Comment;
 import org.podhub.podhub.model.CommentTarget;
 import org.podhub.podhub.model.enums.CommentStatus;
 import org.podhub.podhub.model.enums.CommentTargetType;
 import org.podhub.podhub.repository.*;
+import org.podhub.podhub.security.userdetails.PodhubUserDetails;
+import org.podhub.podhub.service.CommentService;
+import org.podhub.podhub.service.ExportService;
+import org.podhub.podhub.support.CountingOutputStream;
+import org.podhub.podhub.support.MongoCommandCounter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.Matchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
  * Integration tests for CommentController
  * Tests all 8 endpoints with happy path and error scenarios
+ * The comment export larger than the heap is tagged large-export and runs in its own task
+ * (./gradlew largeExportTest) with a 256 MB heap.
  *
  * Prerequisites: Run DataSeeder to populate test data in MongoDB Atlas
  */
 @SpringBootTest
 @AutoConfigureMockMvc
+@Import(MongoCommandCounter.class)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class CommentControllerTest {
 
@@ -39,6 +62,18 @@ class CommentControllerTest {
     @Autowired
     private CommentRepository commentRepository;
 
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoCommandCounter mongoCommandCounter;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -345,4 +380,382 @@ class CommentControllerTest {
                 .andExpect(jsonPath("$.data", hasSize(0)))
                 .andExpect(jsonPath("$.hasMore").value(false));
     }
+
+    // ===========================
+    // THREAD TESTS
+    // ===========================
+
+    @Test
+    @Order(15)
+    @DisplayName("GET /api/comments/threads?episodeId={id} - Threads with reply previews")
+    void testGetEpisodeThreads() throws Exception {
+        mockMvc.perform(get("/api/comments/threads")
+                        .param("episodeId", testEpisodeId)
+                        .param("limit", "10")
+                        .param("replies", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").isArray())
+                .andExpect(jsonPath("$.data[*].comment.parentId").value(everyItem(nullValue())))
+                .andExpect(jsonPath("$.data[*].replies").value(everyItem(hasSize(lessThanOrEqualTo(2)))));
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("POST /api/comments - Reply gets materialized path of its thread")
+    void testCreateReplyBuildsThreadPath() throws Exception {
+        Comment root = new Comment();
+        root.setUserId(testUserId);
+        CommentTarget target = new CommentTarget();
+        target.setType(CommentTargetType.EPISODE);
+        target.setId(testEpisodeId);
+        root.setTarget(target);
+        root.setContent("Thread root");
+        root.setStatus(CommentStatus.VISIBLE);
+
+        String rootJson = mockMvc.perform(post("/api/comments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(root)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.depth").value(0))
+                .andReturn().getResponse().getContentAsString();
+        String rootId = objectMapper.readTree(rootJson).get("id").asText();
+
+        Comment reply = new Comment();
+        reply.setUserId(testUserId);
+        reply.setContent("Thread reply");
+        reply.setParentId(rootId);
+        reply.setStatus(CommentStatus.VISIBLE);
+
+        mockMvc.perform(post("/api/comments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reply)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.rootId").value(rootId))
+                .andExpect(jsonPath("$.depth").value(1))
+                .andExpect(jsonPath("$.path").value(startsWith(rootId + "/")))
+                .andExpect(jsonPath("$.target.id").value(testEpisodeId));
+
+        mockMvc.perform(get("/api/comments/" + rootId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.replyCount").value(1));
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("GET /api/comments/threads - Fail with out-of-range replies (400 Bad Request)")
+    void testGetEpisodeThreadsInvalidReplies() throws Exception {
+        mockMvc.perform(get("/api/comments/threads")
+                        .param("episodeId", testEpisodeId)
+                        .param("replies", "50"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Order(18)
+    @DisplayName("POST /api/comments - Concurrent replies to the same comment all succeed and are counted")
+    void testConcurrentReplies() throws Exception {
+        Comment root = new Comment();
+        root.setUserId(testUserId);
+        CommentTarget target = new CommentTarget();
+        target.setType(CommentTargetType.EPISODE);
+        target.setId(testEpisodeId);
+        root.setTarget(target);
+        root.setContent("Busy thread root");
+        root.setStatus(CommentStatus.VISIBLE);
+
+        String rootJson = mockMvc.perform(post("/api/comments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(root)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String rootId = objectMapper.readTree(rootJson).get("id").asText();
+
+        int replies = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(replies);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < replies; i++) {
+                Comment reply = new Comment();
+                reply.setUserId(testUserId);
+                reply.setContent("Concurrent reply " + i);
+                reply.setParentId(rootId);
+                reply.setStatus(CommentStatus.VISIBLE);
+                String body = objectMapper.writeValueAsString(reply);
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post("/api/comments")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(body))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> replyStatus : statuses) {
+                Assertions.assertEquals(201, replyStatus.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        mockMvc.perform(get("/api/comments/" + rootId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.replyCount").value(replies));
+    }
+
+    @Test
+    @Order(19)
+    @DisplayName("Edits and deletion racing with replies keep every reply counted")
+    void testEditsKeepReplyCount() throws Exception {
+        Comment root = new Comment();
+        root.setUserId(testUserId);
+        CommentTarget target = new CommentTarget();
+        target.setType(CommentTargetType.EPISODE);
+        target.setId(testEpisodeId);
+        root.setTarget(target);
+        root.setContent("Edited while busy");
+        root.setStatus(CommentStatus.VISIBLE);
+        String rootId = commentService.createComment(root).getId();
+
+        int replies = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(replies * 2);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < replies; i++) {
+                int n = i;
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    Comment reply = new Comment();
+                    reply.setUserId(testUserId);
+                    reply.setContent("Reply " + n);
+                    reply.setParentId(rootId);
+                    reply.setStatus(CommentStatus.VISIBLE);
+                    return commentService.createComment(reply);
+                }));
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    Comment edit = new Comment();
+                    edit.setContent("Edit " + n);
+                    return commentService.updateComment(rootId, edit, testUserId);
+                }));
+            }
+            start.countDown();
+            for (Future<?> task : tasks) {
+                task.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertEquals(replies, commentRepository.findById(rootId).orElseThrow().getReplyCount());
+
+        commentService.deleteComment(rootId, testUserId);
+        Comment deleted = commentRepository.findById(rootId).orElseThrow();
+        Assertions.assertEquals(CommentStatus.DELETED, deleted.getStatus());
+        Assertions.assertEquals(replies, deleted.getReplyCount());
+    }
+
+    // ===========================
+    // ROUND TRIP TESTS
+    // ===========================
+
+    @Test
+    @Order(25)
+    @DisplayName("PUT and DELETE /api/comments/{id} - Load plus one findAndModify, the caller comes from the principal")
+    void testCommentWriteRoundTrips() throws Exception {
+        PodhubUserDetails author = new PodhubUserDetails(testUserId, "author@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("EPISODE_READ")));
+        Comment comment = new Comment();
+        comment.setUserId(testUserId);
+        comment.setTarget(new CommentTarget(CommentTargetType.EPISODE, testEpisodeId));
+        comment.setContent("Round trip check");
+        comment.setStatus(CommentStatus.VISIBLE);
+        String commentId = commentService.createComment(comment).getId();
+
+        Comment edit = new Comment();
+        edit.setContent("Round trip check (edited)");
+        // findById (author check) + findAndModify ($set content)
+        mongoCommandCounter.reset();
+        mockMvc.perform(put("/api/comments/{id}", commentId)
+                        .with(user(author))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(edit)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").value("Round trip check (edited)"));
+        Assertions.assertEquals(2, mongoCommandCounter.count());
+
+        // The author deletes it: no ownership lookup of the episode
+        mongoCommandCounter.reset();
+        mockMvc.perform(delete("/api/comments/{id}", commentId).with(user(author)))
+                .andExpect(status().isNoContent());
+        Assertions.assertEquals(2, mongoCommandCounter.count());
+    }
+
+    // ===========================
+    // EXPORT TESTS
+    // ===========================
+
+    @Test
+    @Tag("large-export")
+    @Order(22)
+    @DisplayName("Comment export streams more bytes than the heap from a MongoDB cursor")
+    void testLargeExport() throws Exception {
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        String content = "x".repeat(4096);
+        // 10% more comment text than the heap, on top of the JSON of every line
+        long comments = maxHeap / content.length() * 11 / 10;
+        String episodeId = "test-large-export-" + System.currentTimeMillis();
+        Query exported = Query.query(Criteria.where("target.id").is(episodeId));
+        try {
+            Instant now = Instant.now();
+            List<Comment> batch = new ArrayList<>(1000);
+            for (long i = 0; i < comments; i++) {
+                batch.add(Comment.builder()
+                        .userId(testUserId)
+                        .target(new CommentTarget(CommentTargetType.EPISODE, episodeId))
+                        .content(content)
+                        .status(CommentStatus.VISIBLE)
+                        .createdAt(now)
+                        .build());
+                if (batch.size() == 1000 || i == comments - 1) {
+                    mongoTemplate.insert(batch, Comment.class);
+                    batch.clear();
+                }
+            }
+
+            CountingOutputStream sink = new CountingOutputStream();
+            exportService.exportEpisodeComments(episodeId, testUserId, true).writeTo(sink);
+
+            Assertions.assertEquals(comments, sink.newlines());
+            Assertions.assertTrue(sink.bytes() > maxHeap, "exported " + sink.bytes() + " bytes with a heap of "
+                    + maxHeap + " bytes: run it with ./gradlew largeExportTest");
+        } finally {
+            mongoTemplate.remove(exported, Comment.class);
+        }
+    }
+
+    // ===========================
+    // THREADS - LEGACY AND LOAD
+    // ===========================
+
+    private static Comment episodeComment(String id, String parentId, String episodeId, String content) {
+        return Comment.builder()
+                .id(id)
+                .userId("test-threads-user")
+                .target(new CommentTarget(CommentTargetType.EPISODE, episodeId))
+                .content(content)
+                .parentId(parentId)
+                .status(CommentStatus.VISIBLE)
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    @Test
+    @Order(23)
+    @DisplayName("Comments saved before threads get rootId/depth/path/replyCount and show up in their thread")
+    void testBackfillLegacyThreads() throws Exception {
+        String episodeId = "test-legacy-threads-" + System.currentTimeMillis();
+        String rootId = new ObjectId().toHexString();
+        String replyId = new ObjectId().toHexString();
+        String nestedId = new ObjectId().toHexString();
+        String orphanId = new ObjectId().toHexString();
+        try {
+            // Inserted the way they were stored before threads: no rootId, depth, path or replyCount
+            mongoTemplate.insert(episodeComment(nestedId, replyId, episodeId, "Nested legacy reply"));
+            mongoTemplate.insert(episodeComment(replyId, rootId, episodeId, "Legacy reply"));
+            mongoTemplate.insert(episodeComment(rootId, null, episodeId, "Legacy root"));
+            mongoTemplate.insert(episodeComment(orphanId, "000000000000000000000000", episodeId, "Orphan reply"));
+
+            // Batches of one: every batch has to resolve ancestors outside of it
+            Assertions.assertTrue(commentService.backfillThreads(1) >= 4);
+
+            Comment root = commentRepository.findById(rootId).orElseThrow();
+            Assertions.assertEquals(rootId, root.getRootId());
+            Assertions.assertEquals(0, root.getDepth());
+            Assertions.assertEquals(rootId, root.getPath());
+            Assertions.assertEquals(1, root.getReplyCount());
+            Comment nested = commentRepository.findById(nestedId).orElseThrow();
+            Assertions.assertEquals(rootId, nested.getRootId());
+            Assertions.assertEquals(2, nested.getDepth());
+            Assertions.assertEquals(rootId + "/" + replyId + "/" + nestedId, nested.getPath());
+            Assertions.assertEquals(0, nested.getReplyCount());
+            Assertions.assertEquals(1, commentRepository.findById(replyId).orElseThrow().getReplyCount());
+            Assertions.assertEquals(orphanId, commentRepository.findById(orphanId).orElseThrow().getRootId());
+            Assertions.assertEquals(0, commentService.backfillThreads(1));
+
+            mockMvc.perform(get("/api/comments/threads").param("episodeId", episodeId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data", hasSize(1)))
+                    .andExpect(jsonPath("$.data[0].comment.id").value(rootId))
+                    .andExpect(jsonPath("$.data[0].replies[*].id", contains(replyId, nestedId)));
+        } finally {
+            mongoTemplate.remove(Query.query(Criteria.where("target.id").is(episodeId)), Comment.class);
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    @Order(24)
+    @DisplayName("GET /api/comments/threads - First screen of an episode with 10k comments")
+    void testThreadsFirstScreenBenchmark() throws Exception {
+        int roots = 2_500;
+        int repliesPerRoot = 3;
+        String episodeId = "test-threads-benchmark-" + System.currentTimeMillis();
+        try {
+            Instant start = Instant.now().minusSeconds(roots);
+            List<Comment> batch = new ArrayList<>(1000);
+            for (int i = 0; i < roots; i++) {
+                String rootId = new ObjectId().toHexString();
+                Comment root = episodeComment(rootId, null, episodeId, "Root " + i);
+                root.setRootId(rootId);
+                root.setDepth(0);
+                root.setPath(rootId);
+                root.setReplyCount(repliesPerRoot);
+                root.setCreatedAt(start.plusSeconds(i));
+                batch.add(root);
+                for (int r = 0; r < repliesPerRoot; r++) {
+                    String replyId = new ObjectId().toHexString();
+                    Comment reply = episodeComment(replyId, rootId, episodeId, "Reply " + r + " to " + i);
+                    reply.setRootId(rootId);
+                    reply.setDepth(1);
+                    reply.setPath(rootId + "/" + replyId);
+                    reply.setReplyCount(0);
+                    reply.setCreatedAt(start.plusSeconds(i));
+                    batch.add(reply);
+                }
+                if (batch.size() >= 1000) {
+                    mongoTemplate.insert(batch, Comment.class);
+                    batch.clear();
+                }
+            }
+            mongoTemplate.insert(batch, Comment.class);
+
+            for (int i = 0; i < 20; i++) {
+                mockMvc.perform(get("/api/comments/threads").param("episodeId", episodeId))
+                        .andExpect(status().isOk());
+            }
+
+            int requests = 200;
+            long[] nanos = new long[requests];
+            for (int i = 0; i < requests; i++) {
+                mongoCommandCounter.reset();
+                long started = System.nanoTime();
+                mockMvc.perform(get("/api/comments/threads").param("episodeId", episodeId))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.data", hasSize(20)))
+                        .andExpect(jsonPath("$.data[0].replies", hasSize(repliesPerRoot)))
+                        .andExpect(jsonPath("$.hasMore").value(true));
+                nanos[i] = System.nanoTime() - started;
+                // Roots page plus one aggregation for every reply preview, whatever the size of the episode
+                Assertions.assertEquals(2, mongoCommandCounter.count());
+            }
+            Arrays.sort(nanos);
+            long p50Ms = nanos[requests / 2] / 1_000_000;
+            long p99Ms = nanos[requests * 99 / 100] / 1_000_000;
+            Assertions.assertTrue(p50Ms < 50, "first screen p50 " + p50Ms + " ms");
+            Assertions.assertTrue(p99Ms < 250, "first screen p99 " + p99Ms + " ms");
+        } finally {
+            mongoTemplate.remove(Query.query(Criteria.where("target.id").is(episodeId)), Comment.class);
+        }
+    }
 }
@@ -0,0 +1,187 @@
+package org.podhub.podhub.controller;
+
+import org.junit.jupiter.api.*;
+import org.podhub.podhub.model.Comment;
+import org.podhub.podhub.model.CommentTarget;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.model.enums.CommentStatus;
+import org.podhub.podhub.model.enums.CommentTargetType;
+import org.podhub.podhub.repository.EpisodeRepository;
+import org.podhub.podhub.repository.PodcastRepository;
+import org.podhub.podhub.security.userdetails.PodhubUserDetails;
+import org.podhub.podhub.service.CommentService;
+import org.podhub.podhub.service.CommentStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for GET /api/episodes/{id}/comments/stream (Server-Sent Events)
+ * A listener opens the stream of a seeded episode; comments created, edited and deleted through
+ * CommentService must reach it through the MongoDB change stream. The test comments are removed afterwards.
+ *
+ * Prerequisites: Run DataSeeder to populate test data in MongoDB Atlas
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CommentStreamControllerTest {
+
+    private static final String TEST_USER = "test-comment-stream-user";
+    private static final Duration EVENT_TIMEOUT = Duration.ofSeconds(30);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private CommentStreamService commentStreamService;
+
+    private static String episodeId;
+    private static String commentId;
+    private static MvcResult stream;
+    private static PodhubUserDetails listener;
+
+    @BeforeAll
+    static void setupTestData(@Autowired PodcastRepository podcastRepository,
+                              @Autowired EpisodeRepository episodeRepository) {
+        // Get test data from database (assumes DataSeeder has been run)
+        Podcast tech = podcastRepository.findBySlug("tech-talk-daily")
+                .orElseThrow(() -> new RuntimeException("Test podcast not found. Please run DataSeeder first."));
+        Episode episode = episodeRepository.findFirstEpisodesByPodcast(tech.getId(), 1).stream()
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Test episode not found. Please run DataSeeder first."));
+        episodeId = episode.getId();
+
+        listener = new PodhubUserDetails(TEST_USER, "listener@test.com", "n/a",
+                List.of(new SimpleGrantedAuthority("EPISODE_READ")));
+    }
+
+    @AfterAll
+    static void cleanup(@Autowired MongoTemplate mongoTemplate) {
+        mongoTemplate.remove(Query.query(Criteria.where("userId").is(TEST_USER)), Comment.class);
+    }
+
+    private Comment comment(String content, String parentId) {
+        Comment comment = new Comment();
+        comment.setUserId(TEST_USER);
+        CommentTarget target = new CommentTarget();
+        target.setType(CommentTargetType.EPISODE);
+        target.setId(episodeId);
+        comment.setTarget(target);
+        comment.setContent(content);
+        comment.setParentId(parentId);
+        comment.setStatus(CommentStatus.VISIBLE);
+        return comment;
+    }
+
+    /**
+     * Reads what the stream has received until the condition holds
+     */
+    private String awaitStream(Predicate<String> condition) throws Exception {
+        long deadline = System.nanoTime() + EVENT_TIMEOUT.toNanos();
+        while (true) {
+            String content = stream.getResponse().getContentAsString();
+            if (condition.test(content)) {
+                return content;
+            }
+            assertTrue(System.nanoTime() < deadline, "Comment stream did not receive the event in " + EVENT_TIMEOUT
+                    + ", got:\n" + content);
+            Thread.sleep(50);
+        }
+    }
+
+    private static int count(String content, String text) {
+        int count = 0;
+        for (int i = content.indexOf(text); i >= 0; i = content.indexOf(text, i + text.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    // ===========================
+    // STREAM
+    // ===========================
+
+    @Test
+    @Order(1)
+    @DisplayName("GET /api/episodes/{id}/comments/stream - Opens an event stream")
+    void testOpenStream() throws Exception {
+        long deadline = System.nanoTime() + EVENT_TIMEOUT.toNanos();
+        while (!commentStreamService.isWatching()) {
+            assertTrue(System.nanoTime() < deadline, "Comment change stream not open in " + EVENT_TIMEOUT);
+            Thread.sleep(50);
+        }
+        int before = commentStreamService.connections();
+
+        stream = mockMvc.perform(get("/api/episodes/{id}/comments/stream", episodeId).with(user(listener)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertEquals(before + 1, commentStreamService.connections());
+        assertTrue(stream.getResponse().getContentType().startsWith("text/event-stream"));
+        awaitStream(content -> content.contains(":connected"));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("New comments and replies are pushed as created, without edited events for the parent")
+    void testCreated() throws Exception {
+        long start = System.nanoTime();
+        commentId = commentService.createComment(comment("Live comment", null)).getId();
+        awaitStream(content -> content.contains("id:" + commentId));
+        long pushMs = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(pushMs < 5_000, "comment pushed in " + pushMs + " ms");
+
+        String replyId = commentService.createComment(comment("Live reply", commentId)).getId();
+        String content = awaitStream(c -> c.contains("id:" + replyId));
+        assertEquals(2, count(content, "event:created"));
+        assertEquals(0, count(content, "event:edited"));
+        assertTrue(content.contains("\"content\":\"Live comment\""));
+        assertTrue(content.contains("\"parentId\":\"" + commentId + "\""));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Edited and deleted comments are pushed")
+    void testEditedAndDeleted() throws Exception {
+        Comment edit = new Comment();
+        edit.setContent("Live comment (edited)");
+        commentService.updateComment(commentId, edit, TEST_USER);
+        String content = awaitStream(c -> c.contains("event:edited"));
+        assertTrue(content.contains("Live comment (edited)"));
+
+        commentService.deleteComment(commentId, TEST_USER);
+        content = awaitStream(c -> c.contains("event:deleted"));
+        assertEquals(1, count(content, "event:deleted"));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("GET /api/episodes/{id}/comments/stream - 404 for unknown episodes, 401 anonymous")
+    void testStreamErrors() throws Exception {
+        mockMvc.perform(get("/api/episodes/000000000000000000000000/comments/stream").with(user(listener)))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/episodes/{id}/comments/stream", episodeId))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -2,18 +2,26 @@ package org.podhub.podhub.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.*;
+import org.podhub.podhub.dto.EpisodePatchRequest;
 import org.podhub.podhub.model.Episode;
 import org.podhub.podhub.repository.EpisodeRepository;
 import org.podhub.podhub.repository.PodcastRepository;
+import org.podhub.podhub.security.userdetails.PodhubUserDetails;
+import org.podhub.podhub.support.MongoCommandCounter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.Instant;
+import java.util.List;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -25,6 +33,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 @SpringBootTest
 @AutoConfigureMockMvc
+@Import(MongoCommandCounter.class)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class EpisodeControllerTest {
 
@@ -40,8 +49,12 @@ class EpisodeControllerTest {
     @Autowired
     private PodcastRepository podcastRepository;
 
+    @Autowired
+    private MongoCommandCounter mongoCommandCounter;
+
     private static String testEpisodeId;
     private static String testPodcastId;
+    private static String testCreatorId;
 
     @BeforeAll
     static void setupTestData(@Autowired EpisodeRepository episodeRepository,
@@ -50,6 +63,7 @@ class EpisodeControllerTest {
         var podcast = podcastRepository.findBySlug("tech-talk-daily")
                 .orElseThrow(() -> new RuntimeException("Test podcast not found. Please run DataSeeder first."));
         testPodcastId = podcast.getId();
+        testCreatorId = podcast.getCreatorId();
 
         var episode = episodeRepository.findFirstEpisodesByPodcast(testPodcastId, 1).stream()
                 .findFirst()
@@ -351,4 +365,35 @@ class EpisodeControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.count").isNumber());
     }
+
+    // ===========================
+    // ROUND TRIP TESTS
+    // ===========================
+
+    @Test
+    @Order(17)
+    @DisplayName("PATCH /api/episodes/{id} - Single findAndModify, the caller comes from the principal")
+    void testPatchEpisodeRoundTrips() throws Exception {
+        PodhubUserDetails creator = new PodhubUserDetails(testCreatorId, "creator@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("EPISODE_WRITE")));
+        String body = objectMapper.writeValueAsString(EpisodePatchRequest.builder()
+                .description("Round trip check")
+                .build());
+        // Warms the ownership cache (episode -> podcast -> creator), shared between requests
+        mockMvc.perform(patch("/api/episodes/{id}", testEpisodeId)
+                        .with(user(creator))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+
+        // A findAndModify filtered by _id + podcastId
+        mongoCommandCounter.reset();
+        mockMvc.perform(patch("/api/episodes/{id}", testEpisodeId)
+                        .with(user(creator))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Round trip check"));
+        assertEquals(1, mongoCommandCounter.count());
+    }
 }
@@ -0,0 +1,143 @@
+package org.podhub.podhub.controller;
+
+import org.junit.jupiter.api.*;
+import org.podhub.podhub.dto.DomainEventStats;
+import org.podhub.podhub.event.DomainEventMonitor;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.repository.EpisodeRepository;
+import org.podhub.podhub.repository.PodcastRepository;
+import org.podhub.podhub.security.userdetails.PodhubUserDetails;
+import org.podhub.podhub.service.EpisodeLikeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for domain event delivery and GET /api/events/stats
+ * A synthetic user likes and unlikes a seeded episode through EpisodeLikeService; the like is delivered
+ * asynchronously to its listeners (recommendations, trending and dashboard), the unlike has none.
+ *
+ * Prerequisites: Run DataSeeder to populate test data in MongoDB Atlas
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class EventControllerTest {
+
+    private static final String LIKER = "test-events-liker";
+    private static final Duration EVENT_TIMEOUT = Duration.ofSeconds(30);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DomainEventMonitor domainEventMonitor;
+
+    @Autowired
+    private EpisodeLikeService episodeLikeService;
+
+    private static String episodeId;
+    private static PodhubUserDetails admin;
+    private static PodhubUserDetails regularUser;
+
+    @BeforeAll
+    static void setupTestData(@Autowired PodcastRepository podcastRepository,
+                              @Autowired EpisodeRepository episodeRepository) {
+        // Get test data from database (assumes DataSeeder has been run)
+        Podcast tech = podcastRepository.findBySlug("tech-talk-daily")
+                .orElseThrow(() -> new RuntimeException("Test podcast not found. Please run DataSeeder first."));
+        Episode episode = episodeRepository.findFirstEpisodesByPodcast(tech.getId(), 1).stream()
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Test episode not found. Please run DataSeeder first."));
+        episodeId = episode.getId();
+
+        admin = new PodhubUserDetails("test-events-admin", "admin@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        regularUser = new PodhubUserDetails(LIKER, "liker@test.com", "n/a",
+                List.of(new SimpleGrantedAuthority("EPISODE_READ")));
+    }
+
+    @AfterAll
+    static void cleanup(@Autowired EpisodeLikeService episodeLikeService) {
+        try {
+            episodeLikeService.unlike(LIKER, episodeId);
+        } catch (Exception ignored) {}
+    }
+
+    private static DomainEventStats.EventType type(DomainEventStats stats, String type) {
+        return stats.getTypes().stream()
+                .filter(t -> t.getType().equals(type))
+                .findFirst()
+                .orElse(new DomainEventStats.EventType(type, 0L, 0L, 0L, 0L, 0L, 0L));
+    }
+
+    // ===========================
+    // DELIVERY
+    // ===========================
+
+    @Test
+    @Order(1)
+    @DisplayName("Likes are published once and delivered to every listener")
+    void testDelivery() throws Exception {
+        DomainEventStats before = domainEventMonitor.stats();
+        long likedPublished = type(before, "EpisodeLiked").getPublished();
+        long likedDelivered = type(before, "EpisodeLiked").getDelivered();
+        long unlikedPublished = type(before, "EpisodeUnliked").getPublished();
+
+        episodeLikeService.like(LIKER, episodeId);
+        episodeLikeService.unlike(LIKER, episodeId);
+
+        long deadline = System.nanoTime() + EVENT_TIMEOUT.toNanos();
+        DomainEventStats after = domainEventMonitor.stats();
+        while (type(after, "EpisodeLiked").getDelivered() < likedDelivered + 3) {
+            assertTrue(System.nanoTime() < deadline, "EpisodeLiked not delivered in " + EVENT_TIMEOUT);
+            Thread.sleep(100);
+            after = domainEventMonitor.stats();
+        }
+
+        DomainEventStats.EventType liked = type(after, "EpisodeLiked");
+        assertEquals(likedPublished + 1, liked.getPublished());
+        assertTrue(liked.getMaxLagMs() >= 0);
+        assertEquals(unlikedPublished + 1, type(after, "EpisodeUnliked").getPublished());
+    }
+
+    // ===========================
+    // STATS ENDPOINT
+    // ===========================
+
+    @Test
+    @Order(2)
+    @DisplayName("GET /api/events/stats - Admin gets lag, executor and incomplete publications")
+    void testGetStats() throws Exception {
+        mockMvc.perform(get("/api/events/stats").with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.executor.maxPoolSize").value(greaterThan(0)))
+                .andExpect(jsonPath("$.executor.queueCapacity").isNumber())
+                .andExpect(jsonPath("$.types[*].type", hasItem("EpisodeLiked")))
+                .andExpect(jsonPath("$.incomplete").value(greaterThanOrEqualTo(0)))
+                .andExpect(jsonPath("$.incompleteByListener").isArray());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("GET /api/events/stats - 403 for non-admin users, 401 anonymous")
+    void testGetStatsErrors() throws Exception {
+        mockMvc.perform(get("/api/events/stats").with(user(regularUser)))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/events/stats"))
+                .andExpect(status().isUnauthorized());
+    }
+}
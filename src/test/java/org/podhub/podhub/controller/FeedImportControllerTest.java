@@ -0,0 +1,239 @@
+package org.podhub.podhub.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.FeedImport;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.model.User;
+import org.podhub.podhub.model.enums.ImportStatus;
+import org.podhub.podhub.repository.EpisodeRepository;
+import org.podhub.podhub.repository.PodcastRepository;
+import org.podhub.podhub.repository.UserRepository;
+import org.podhub.podhub.security.userdetails.PodhubUserDetails;
+import org.podhub.podhub.support.FeedFixtures;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for FeedImportController
+ * Imports a synthetic 12k-item feed into a new podcast, edits one episode, then re-imports it to check deduplication
+ *
+ * Prerequisites: Run DataSeeder to populate test data in MongoDB Atlas
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class FeedImportControllerTest {
+
+    private static final int ITEMS = 12_000;
+    private static final Duration IMPORT_TIMEOUT = Duration.ofMinutes(3);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EpisodeRepository episodeRepository;
+
+    private static PodhubUserDetails creator;
+    private static PodhubUserDetails stranger;
+    private static String otherPodcastId;
+    private static byte[] feed;
+    private static String importId;
+    private static String importedPodcastId;
+
+    @BeforeAll
+    static void setupTestData(@Autowired UserRepository userRepository, @Autowired PodcastRepository podcastRepository) {
+        // Get test data from database (assumes DataSeeder has been run)
+        User creatorUser = userRepository.findByUsername("john_creator")
+                .orElseThrow(() -> new RuntimeException("Test user not found. Please run DataSeeder first."));
+        Podcast otherPodcast = podcastRepository.findBySlug("tech-talk-daily")
+                .orElseThrow(() -> new RuntimeException("Test data not found. Please run DataSeeder first."));
+
+        creator = new PodhubUserDetails(creatorUser.getId(), creatorUser.getEmail(), "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_WRITE"), new SimpleGrantedAuthority("EPISODE_WRITE")));
+        stranger = new PodhubUserDetails("000000000000000000000001", "stranger@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_WRITE")));
+        otherPodcastId = otherPodcast.getId();
+
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        feed = FeedFixtures.rss("Import Test " + runId, ITEMS, "import-" + runId);
+    }
+
+    @AfterAll
+    static void cleanup(@Autowired MongoTemplate mongoTemplate, @Autowired PodcastRepository podcastRepository) {
+        if (importedPodcastId != null) {
+            mongoTemplate.remove(Query.query(Criteria.where("podcastId").is(importedPodcastId)), Episode.class);
+            podcastRepository.deleteById(importedPodcastId);
+        }
+    }
+
+    private MockMultipartFile feedFile() {
+        return new MockMultipartFile("file", "feed.xml", "application/rss+xml", feed);
+    }
+
+    private FeedImport awaitFinished(String id) throws Exception {
+        long deadline = System.nanoTime() + IMPORT_TIMEOUT.toNanos();
+        while (true) {
+            String body = mockMvc.perform(get("/api/imports/" + id).with(user(creator)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            FeedImport feedImport = objectMapper.readValue(body, FeedImport.class);
+            if (feedImport.getStatus() != ImportStatus.RUNNING) {
+                return feedImport;
+            }
+            assertTrue(System.nanoTime() < deadline, "Import " + id + " did not finish in " + IMPORT_TIMEOUT);
+            Thread.sleep(250);
+        }
+    }
+
+    // ===========================
+    // IMPORT TESTS
+    // ===========================
+
+    @Test
+    @Order(1)
+    @DisplayName("POST /api/imports - Import 12k-item feed into a new podcast")
+    void testImportIntoNewPodcast() throws Exception {
+        long start = System.nanoTime();
+        String body = mockMvc.perform(multipart("/api/imports").file(feedFile()).with(user(creator)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").exists())
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andReturn().getResponse().getContentAsString();
+        importId = objectMapper.readValue(body, FeedImport.class).getId();
+
+        FeedImport finished = awaitFinished(importId);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        importedPodcastId = finished.getPodcastId();
+
+        assertEquals(ImportStatus.COMPLETED, finished.getStatus(), finished.getError());
+        assertNotNull(importedPodcastId);
+        assertEquals(ITEMS, finished.getItemsProcessed());
+        assertEquals(ITEMS, finished.getInserted());
+        assertEquals(0, finished.getDuplicates());
+        assertEquals(0, finished.getSkipped());
+        assertEquals(ITEMS, episodeRepository.countByPodcastId(importedPodcastId));
+        // Batched unordered bulk writes: well under two minutes for the whole feed, even against Atlas
+        assertTrue(ITEMS / seconds > 100, "imported " + (long) (ITEMS / seconds) + " items/s");
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("GET /api/episodes?podcastId={id} - Imported episodes keep feed metadata")
+    void testImportedEpisodeFields() throws Exception {
+        mockMvc.perform(get("/api/episodes")
+                        .param("podcastId", importedPodcastId)
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].title").value("Episode " + ITEMS))
+                .andExpect(jsonPath("$.data[0].audioUrl", endsWith("/" + ITEMS + ".mp3")))
+                .andExpect(jsonPath("$.data[0].durationSec").value((ITEMS % 3 + 1) * 3600))
+                .andExpect(jsonPath("$.data[0].number").value(ITEMS))
+                .andExpect(jsonPath("$.data[0].guidHash", matchesPattern("[0-9a-f]{64}")));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("PUT /api/episodes/{id} - Editing an imported episode keeps its guidHash")
+    void testUpdateKeepsGuidHash(@Autowired MongoTemplate mongoTemplate) throws Exception {
+        Episode imported = mongoTemplate.findOne(
+                Query.query(Criteria.where("podcastId").is(importedPodcastId)), Episode.class);
+        assertNotNull(imported);
+        String guidHash = imported.getGuidHash();
+        assertNotNull(guidHash);
+
+        imported.setTitle("Edited after import");
+        // guidHash is server-managed: a client editing the episode does not send it back
+        imported.setGuidHash(null);
+        mockMvc.perform(put("/api/episodes/{id}", imported.getId())
+                        .with(user(creator))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(imported)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Edited after import"))
+                .andExpect(jsonPath("$.guidHash").value(guidHash));
+
+        assertEquals(guidHash, episodeRepository.findById(imported.getId()).orElseThrow().getGuidHash());
+        // The re-import below must still treat this item as a duplicate
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("POST /api/imports?podcastId={id} - Re-import only reports duplicates")
+    void testReimportIsDeduplicated() throws Exception {
+        String body = mockMvc.perform(multipart("/api/imports")
+                        .file(feedFile())
+                        .param("podcastId", importedPodcastId)
+                        .with(user(creator)))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+
+        FeedImport finished = awaitFinished(objectMapper.readValue(body, FeedImport.class).getId());
+
+        assertEquals(ImportStatus.COMPLETED, finished.getStatus(), finished.getError());
+        assertEquals(0, finished.getInserted());
+        assertEquals(ITEMS, finished.getDuplicates());
+        assertEquals(ITEMS, episodeRepository.countByPodcastId(importedPodcastId));
+    }
+
+    // ===========================
+    // ERROR TESTS
+    // ===========================
+
+    @Test
+    @Order(5)
+    @DisplayName("POST /api/imports/{id}/resume - 409 when import already completed")
+    void testResumeCompletedImport() throws Exception {
+        mockMvc.perform(post("/api/imports/" + importId + "/resume").with(user(creator)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("GET /api/imports/{id} - 403 for another user")
+    void testGetImportForbidden() throws Exception {
+        mockMvc.perform(get("/api/imports/" + importId).with(user(stranger)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("POST /api/imports?podcastId={id} - 403 when importing into someone else's podcast")
+    void testImportIntoForeignPodcast() throws Exception {
+        mockMvc.perform(multipart("/api/imports")
+                        .file(feedFile())
+                        .param("podcastId", otherPodcastId)
+                        .with(user(stranger)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("GET /api/imports/{id} - 404 for unknown import")
+    void testGetImportNotFound() throws Exception {
+        mockMvc.perform(get("/api/imports/000000000000000000000000").with(user(creator)))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,347 @@
+package org.podhub.podhub.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.*;
+import org.podhub.podhub.dto.FeedSourceRequest;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.FeedSource;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.model.User;
+import org.podhub.podhub.repository.EpisodeRepository;
+import org.podhub.podhub.repository.FeedSourceRepository;
+import org.podhub.podhub.repository.PodcastRepository;
+import org.podhub.podhub.repository.UserRepository;
+import org.podhub.podhub.security.userdetails.PodhubUserDetails;
+import org.podhub.podhub.support.FeedFixtures;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for FeedSourceController
+ * The upstream feed is served by a local HttpServer that honours If-None-Match,
+ * so refreshes are tested end to end (200, 304, incremental new items) without network access.
+ * The scheduler is disabled: every refresh is triggered explicitly.
+ * Only 127.0.0.1 is allow-listed as a private host, so "localhost" and 169.254.169.254 exercise the SSRF guard.
+ *
+ * Prerequisites: Run DataSeeder to populate test data in MongoDB Atlas
+ */
+@SpringBootTest(properties = {
+        "podhub.feeds.refresh.enabled=false",
+        "podhub.feeds.private-host-allowlist=127.0.0.1"
+})
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class FeedSourceControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EpisodeRepository episodeRepository;
+
+    private static HttpServer upstream;
+    private static volatile byte[] feedBody;
+    private static volatile String feedEtag;
+    private static final AtomicInteger fullResponses = new AtomicInteger();
+    private static final AtomicInteger notModifiedResponses = new AtomicInteger();
+
+    private static String runId;
+    private static String podcastId;
+    private static PodhubUserDetails creator;
+    private static PodhubUserDetails stranger;
+
+    @BeforeAll
+    static void setupTestData(@Autowired UserRepository userRepository,
+                              @Autowired PodcastRepository podcastRepository) throws Exception {
+        // Get test data from database (assumes DataSeeder has been run)
+        User creatorUser = userRepository.findByUsername("john_creator")
+                .orElseThrow(() -> new RuntimeException("Test user not found. Please run DataSeeder first."));
+        creator = new PodhubUserDetails(creatorUser.getId(), creatorUser.getEmail(), "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_WRITE")));
+        stranger = new PodhubUserDetails("000000000000000000000001", "stranger@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_WRITE")));
+
+        runId = Long.toString(System.currentTimeMillis(), 36);
+        Instant now = Instant.now();
+        podcastId = podcastRepository.save(Podcast.builder()
+                .creatorId(creatorUser.getId())
+                .title("Feed Source Test " + runId)
+                .slug("feed-source-test-" + runId)
+                .isPublic(false)
+                .createdAt(now)
+                .updatedAt(now)
+                .build()).getId();
+
+        publish(5);
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.createContext("/feed.xml", exchange -> {
+            String etag = feedEtag;
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModifiedResponses.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                fullResponses.incrementAndGet();
+                byte[] body = feedBody;
+                exchange.getResponseHeaders().set("Content-Type", "application/rss+xml");
+                exchange.getResponseHeaders().set("ETag", etag);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                } catch (IOException ignored) {
+                    // El cliente corta la descarga al llegar a un item conocido
+                }
+            }
+            exchange.close();
+        });
+        // Same server, reached through redirects
+        upstream.createContext("/moved.xml", exchange -> redirect(exchange, "/feed.xml"));
+        upstream.createContext("/to-localhost.xml", exchange -> redirect(exchange,
+                "http://localhost:" + upstream.getAddress().getPort() + "/feed.xml"));
+        upstream.start();
+    }
+
+    @AfterAll
+    static void cleanup(@Autowired MongoTemplate mongoTemplate,
+                        @Autowired PodcastRepository podcastRepository,
+                        @Autowired FeedSourceRepository feedSourceRepository) {
+        if (upstream != null) {
+            upstream.stop(0);
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("podcastId").is(podcastId)), Episode.class);
+        feedSourceRepository.deleteByPodcastId(podcastId);
+        podcastRepository.deleteById(podcastId);
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().set("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+        exchange.close();
+    }
+
+    /**
+     * Upstream now publishes items 1..items (newest first); the ETag changes with the content
+     */
+    private static void publish(int items) {
+        feedBody = FeedFixtures.rss("Feed Source Test", items, "source-" + runId);
+        feedEtag = "\"v" + items + "\"";
+    }
+
+    private String feedUrl() {
+        return "http://127.0.0.1:" + upstream.getAddress().getPort() + "/feed.xml";
+    }
+
+    private void register(String url) throws Exception {
+        FeedSourceRequest request = FeedSourceRequest.builder().url(url).build();
+        mockMvc.perform(put("/api/podcasts/" + podcastId + "/source")
+                        .with(user(creator))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+    }
+
+    private FeedSource refresh() throws Exception {
+        String body = mockMvc.perform(post("/api/podcasts/" + podcastId + "/source/refresh").with(user(creator)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, FeedSource.class);
+    }
+
+    // ===========================
+    // REGISTER TESTS
+    // ===========================
+
+    @Test
+    @Order(1)
+    @DisplayName("PUT /api/podcasts/{id}/source - Register feed source")
+    void testRegisterSource() throws Exception {
+        FeedSourceRequest request = FeedSourceRequest.builder().url(feedUrl()).intervalMinutes(30).build();
+
+        mockMvc.perform(put("/api/podcasts/" + podcastId + "/source")
+                        .with(user(creator))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.podcastId").value(podcastId))
+                .andExpect(jsonPath("$.url").value(feedUrl()))
+                .andExpect(jsonPath("$.intervalMinutes").value(30))
+                .andExpect(jsonPath("$.nextFetchAt").exists());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("PUT /api/podcasts/{id}/source - 400 for non-http URL")
+    void testRegisterInvalidUrl() throws Exception {
+        FeedSourceRequest request = FeedSourceRequest.builder().url("file:///etc/passwd").build();
+
+        mockMvc.perform(put("/api/podcasts/" + podcastId + "/source")
+                        .with(user(creator))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("PUT /api/podcasts/{id}/source - 403 for non-owner")
+    void testRegisterForbidden() throws Exception {
+        FeedSourceRequest request = FeedSourceRequest.builder().url(feedUrl()).build();
+
+        mockMvc.perform(put("/api/podcasts/" + podcastId + "/source")
+                        .with(user(stranger))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isForbidden());
+    }
+
+    // ===========================
+    // REFRESH TESTS
+    // ===========================
+
+    @Test
+    @Order(4)
+    @DisplayName("POST /api/podcasts/{id}/source/refresh - First fetch imports every item")
+    void testFirstRefresh() throws Exception {
+        FeedSource source = refresh();
+
+        assertEquals(200, source.getLastHttpStatus());
+        assertEquals("\"v5\"", source.getEtag());
+        assertEquals(5, source.getEpisodesAdded());
+        assertEquals(0, source.getConsecutiveFailures());
+        assertEquals(5, episodeRepository.countByPodcastId(podcastId));
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("POST /api/podcasts/{id}/source/refresh - Unchanged feed answers 304")
+    void testNotModified() throws Exception {
+        int before = fullResponses.get();
+
+        FeedSource source = refresh();
+
+        assertEquals(304, source.getLastHttpStatus());
+        assertEquals(before, fullResponses.get());
+        assertEquals(1, notModifiedResponses.get());
+        assertEquals(5, episodeRepository.countByPodcastId(podcastId));
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("POST /api/podcasts/{id}/source/refresh - Only new items are created")
+    void testIncrementalRefresh() throws Exception {
+        publish(8);
+
+        FeedSource source = refresh();
+
+        assertEquals(200, source.getLastHttpStatus());
+        assertEquals("\"v8\"", source.getEtag());
+        assertEquals(8, source.getEpisodesAdded());
+        assertEquals(8, episodeRepository.countByPodcastId(podcastId));
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("POST /api/podcasts/{id}/source/refresh - Upstream error is recorded, not thrown")
+    void testUpstreamError() throws Exception {
+        FeedSourceRequest request = FeedSourceRequest.builder()
+                .url("http://127.0.0.1:" + upstream.getAddress().getPort() + "/missing.xml")
+                .build();
+        mockMvc.perform(put("/api/podcasts/" + podcastId + "/source")
+                        .with(user(creator))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        FeedSource source = refresh();
+
+        assertEquals(404, source.getLastHttpStatus());
+        assertEquals(1, source.getConsecutiveFailures());
+        assertEquals("HTTP 404", source.getLastError());
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("POST /api/podcasts/{id}/source/refresh - Redirects are followed")
+    void testRedirectFollowed() throws Exception {
+        register("http://127.0.0.1:" + upstream.getAddress().getPort() + "/moved.xml");
+
+        FeedSource source = refresh();
+
+        assertEquals(200, source.getLastHttpStatus());
+        assertEquals(0, source.getConsecutiveFailures());
+        assertNull(source.getLastError());
+        assertEquals(8, episodeRepository.countByPodcastId(podcastId));
+    }
+
+    // ===========================
+    // SSRF TESTS
+    // ===========================
+
+    @Test
+    @Order(9)
+    @DisplayName("POST /api/podcasts/{id}/source/refresh - Link-local metadata address is never fetched")
+    void testPrivateAddressRejected() throws Exception {
+        register("http://169.254.169.254/latest/meta-data/");
+
+        FeedSource source = refresh();
+
+        assertEquals("Host 169.254.169.254 is not a public address", source.getLastError());
+        assertEquals(1, source.getConsecutiveFailures());
+        assertEquals(200, source.getLastHttpStatus(), "status of the previous fetch is kept");
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("POST /api/podcasts/{id}/source/refresh - Redirect to a loopback host is rejected")
+    void testRedirectToPrivateAddressRejected() throws Exception {
+        register("http://127.0.0.1:" + upstream.getAddress().getPort() + "/to-localhost.xml");
+        int before = fullResponses.get() + notModifiedResponses.get();
+
+        FeedSource source = refresh();
+
+        assertEquals("Host localhost is not a public address", source.getLastError());
+        assertEquals(2, source.getConsecutiveFailures());
+        assertEquals(before, fullResponses.get() + notModifiedResponses.get(), "redirect target was fetched");
+        assertEquals(8, episodeRepository.countByPodcastId(podcastId));
+    }
+
+    // ===========================
+    // DELETE TESTS
+    // ===========================
+
+    @Test
+    @Order(11)
+    @DisplayName("DELETE /api/podcasts/{id}/source - Remove source, episodes are kept")
+    void testDeleteSource() throws Exception {
+        mockMvc.perform(delete("/api/podcasts/" + podcastId + "/source").with(user(creator)))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/podcasts/" + podcastId + "/source").with(user(creator)))
+                .andExpect(status().isNotFound());
+        assertEquals(8, episodeRepository.countByPodcastId(podcastId));
+    }
+}
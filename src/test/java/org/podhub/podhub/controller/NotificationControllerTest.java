@@ -0,0 +1,313 @@
+package org.podhub.podhub.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.podhub.podhub.dto.EpisodePatchRequest;
+import org.podhub.podhub.dto.SubscriptionRequest;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.Notification;
+import org.podhub.podhub.model.NotificationFanout;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.model.Subscription;
+import org.podhub.podhub.model.enums.FanoutStatus;
+import org.podhub.podhub.notification.Fanout;
+import org.podhub.podhub.repository.NotificationFanoutRepository;
+import org.podhub.podhub.repository.PodcastRepository;
+import org.podhub.podhub.repository.SubscriptionRepository;
+import org.podhub.podhub.security.userdetails.PodhubUserDetails;
+import org.podhub.podhub.service.EpisodeService;
+import org.podhub.podhub.service.NotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for new-episode notifications (fan-out and GET /api/users/{id}/notifications)
+ * A podcast of a synthetic creator gets synthetic subscribers (most with notifications enabled); publishing
+ * one of its episodes fans the notification out asynchronously. Everything is removed afterwards.
+ *
+ * Prerequisites: Run DataSeeder to populate test data in MongoDB Atlas
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class NotificationControllerTest {
+
+    private static final String TEST_CREATOR = "test-notifications-creator";
+    private static final int NOTIFIED = 2_000;
+    private static final int MUTED = 50;
+    private static final Duration FANOUT_TIMEOUT = Duration.ofMinutes(2);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private EpisodeService episodeService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationFanoutRepository fanoutRepository;
+
+    private static String runId;
+    private static String podcastId;
+    private static String episodeId;
+    private static String scheduledEpisodeId;
+    private static String subscriberId;
+    private static String mutedId;
+    private static PodhubUserDetails subscriber;
+    private static PodhubUserDetails otherUser;
+    private static PodhubUserDetails admin;
+
+    @BeforeAll
+    static void setupTestData(@Autowired PodcastRepository podcastRepository,
+                              @Autowired SubscriptionRepository subscriptionRepository) {
+        runId = Long.toString(System.currentTimeMillis(), 36);
+        Instant now = Instant.now();
+        podcastId = podcastRepository.save(Podcast.builder()
+                .creatorId(TEST_CREATOR)
+                .title("Notifications Test " + runId)
+                .slug("notifications-test-" + runId)
+                .isPublic(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .build()).getId();
+
+        List<Subscription> subscriptions = new ArrayList<>(NOTIFIED + MUTED);
+        for (int i = 0; i < NOTIFIED + MUTED; i++) {
+            subscriptions.add(Subscription.builder()
+                    .userId(String.format("test-notify-%s-%05d", runId, i))
+                    .podcastId(podcastId)
+                    .notifications(i < NOTIFIED)
+                    .createdAt(now)
+                    .build());
+        }
+        subscriptionRepository.insert(subscriptions);
+        subscriberId = subscriptions.get(0).getUserId();
+        mutedId = subscriptions.get(NOTIFIED).getUserId();
+
+        subscriber = new PodhubUserDetails(subscriberId, "subscriber@test.com", "n/a",
+                List.of(new SimpleGrantedAuthority("EPISODE_READ")));
+        otherUser = new PodhubUserDetails("test-notifications-other", "other@test.com", "n/a",
+                List.of(new SimpleGrantedAuthority("EPISODE_READ")));
+        admin = new PodhubUserDetails("test-notifications-admin", "admin@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+
+    @AfterAll
+    static void cleanup(@Autowired MongoTemplate mongoTemplate) {
+        mongoTemplate.remove(Query.query(Criteria.where("podcastId").is(podcastId)), Subscription.class);
+        mongoTemplate.remove(Query.query(Criteria.where("podcastId").is(podcastId)), Notification.class);
+        if (episodeId != null) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(episodeId)), NotificationFanout.class);
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(episodeId)), Episode.class);
+        }
+        if (scheduledEpisodeId != null) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(scheduledEpisodeId)), NotificationFanout.class);
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(scheduledEpisodeId)), Episode.class);
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(podcastId)), Podcast.class);
+    }
+
+    private long notificationsOf(String userId) {
+        return mongoTemplate.count(Query.query(Criteria.where("userId").is(userId).and("podcastId").is(podcastId)),
+                Notification.class);
+    }
+
+    // ===========================
+    // SUBSCRIPTION PREFERENCE
+    // ===========================
+
+    @Test
+    @Order(1)
+    @DisplayName("POST /api/users/{userId}/subscriptions - notifications defaults to true and can be turned off")
+    void testSubscribeNotifications() throws Exception {
+        String userId = "test-notify-" + runId + "-api";
+        PodhubUserDetails apiUser = new PodhubUserDetails(userId, "api@test.com", "n/a",
+                List.of(new SimpleGrantedAuthority("EPISODE_READ")));
+        SubscriptionRequest request = SubscriptionRequest.builder().podcastId(podcastId).notifications(false).build();
+
+        mockMvc.perform(post("/api/users/{userId}/subscriptions", userId)
+                        .with(user(apiUser))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.notifications").value(false));
+    }
+
+    // ===========================
+    // FAN-OUT
+    // ===========================
+
+    @Test
+    @Order(2)
+    @DisplayName("Publishing an episode notifies every subscriber with notifications enabled, once")
+    void testFanout() throws Exception {
+        Episode episode = new Episode();
+        episode.setPodcastId(podcastId);
+        episode.setTitle("Notified episode " + runId);
+        episode.setIsPublic(false);
+        episodeId = episodeService.createEpisode(episode, TEST_CREATOR).getId();
+
+        long start = System.nanoTime();
+        episodeService.patchEpisode(episodeId, EpisodePatchRequest.builder().isPublic(true).build(), TEST_CREATOR);
+
+        long deadline = start + FANOUT_TIMEOUT.toNanos();
+        NotificationFanout fanout;
+        while (true) {
+            fanout = fanoutRepository.findById(episodeId).orElse(null);
+            if (fanout != null && fanout.getStatus() == FanoutStatus.COMPLETED) {
+                break;
+            }
+            assertTrue(System.nanoTime() < deadline, "Fan-out of " + episodeId + " did not finish in " + FANOUT_TIMEOUT);
+            Thread.sleep(100);
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        double perSecond = NOTIFIED * 1000.0 / Math.max(1, elapsedMs);
+        assertTrue(perSecond > 50, "fan-out wrote " + (long) perSecond + " notifications/s");
+
+        assertEquals(NOTIFIED, fanout.getRecipients());
+        assertEquals(NOTIFIED, fanout.getWritten());
+        assertEquals(NOTIFIED, mongoTemplate.count(Query.query(Criteria.where("episodeId").is(episodeId)), Notification.class));
+        assertEquals(1, notificationsOf(subscriberId));
+        assertEquals(0, notificationsOf(mutedId));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("A completed fan-out is not repeated, and a failed one resumes from its checkpoint")
+    void testFanoutReplay() {
+        assertTrue(notificationService.fanOut(episodeId, podcastId, Instant.now()).isEmpty());
+
+        fanoutRepository.finish(episodeId, FanoutStatus.FAILED, "test");
+        Optional<Fanout.Result> resumed = notificationService.fanOut(episodeId, podcastId, Instant.now());
+        assertTrue(resumed.isPresent());
+        assertEquals(0, resumed.get().written());
+        assertEquals(FanoutStatus.COMPLETED, fanoutRepository.findById(episodeId).orElseThrow().getStatus());
+        assertEquals(NOTIFIED, mongoTemplate.count(Query.query(Criteria.where("episodeId").is(episodeId)), Notification.class));
+    }
+
+    // ===========================
+    // NOTIFICATIONS ENDPOINT
+    // ===========================
+
+    @Test
+    @Order(4)
+    @DisplayName("GET /api/users/{userId}/notifications - Lists notifications with the unread count, POST read clears it")
+    void testGetNotifications() throws Exception {
+        mockMvc.perform(get("/api/users/{userId}/notifications", subscriberId).with(user(subscriber)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].episodeId").value(episodeId))
+                .andExpect(jsonPath("$.data[0].type").value("NEW_EPISODE"))
+                .andExpect(jsonPath("$.data[0].podcastTitle").value("Notifications Test " + runId))
+                .andExpect(jsonPath("$.data[0].read").value(false))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.unread").value(1));
+
+        mockMvc.perform(post("/api/users/{userId}/notifications/read", subscriberId).with(user(subscriber)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(1));
+
+        mockMvc.perform(get("/api/users/{userId}/notifications", subscriberId).with(user(subscriber)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].read").value(true))
+                .andExpect(jsonPath("$.unread").value(0));
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("GET /api/users/{userId}/notifications - 403 for other users, 200 for admins, 401 anonymous")
+    void testGetNotificationsAccess() throws Exception {
+        mockMvc.perform(get("/api/users/{userId}/notifications", subscriberId).with(user(otherUser)))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/api/users/{userId}/notifications/read", subscriberId).with(user(otherUser)))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/users/{userId}/notifications", subscriberId).with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(1));
+
+        mockMvc.perform(get("/api/users/{userId}/notifications", subscriberId))
+                .andExpect(status().isUnauthorized());
+    }
+
+    // ===========================
+    // SCHEDULED EPISODES
+    // ===========================
+
+    @Test
+    @Order(6)
+    @DisplayName("An episode published with a future publishAt is not notified until publishAt")
+    void testScheduledFanout() throws Exception {
+        Instant publishAt = Instant.now().plusSeconds(5).truncatedTo(ChronoUnit.MILLIS);
+        Episode episode = new Episode();
+        episode.setPodcastId(podcastId);
+        episode.setTitle("Scheduled episode " + runId);
+        episode.setIsPublic(true);
+        episode.setPublishAt(publishAt);
+        scheduledEpisodeId = episodeService.createEpisode(episode, TEST_CREATOR).getId();
+
+        long deadline = System.nanoTime() + FANOUT_TIMEOUT.toNanos();
+        NotificationFanout fanout;
+        while (true) {
+            fanout = fanoutRepository.findById(scheduledEpisodeId).orElse(null);
+            if (fanout != null && fanout.getStatus() == FanoutStatus.SCHEDULED) {
+                break;
+            }
+            assertTrue(System.nanoTime() < deadline, "Fan-out of " + scheduledEpisodeId + " was not scheduled");
+            Thread.sleep(50);
+        }
+        assertEquals(publishAt, fanout.getDueAt());
+        Query notified = Query.query(Criteria.where("episodeId").is(scheduledEpisodeId));
+        assertEquals(0, mongoTemplate.count(notified, Notification.class));
+
+        // Not due yet: the scheduler pass leaves it alone
+        notificationService.fanOutDue(100);
+        assertEquals(FanoutStatus.SCHEDULED, fanoutRepository.findById(scheduledEpisodeId).orElseThrow().getStatus());
+        assertEquals(0, mongoTemplate.count(notified, Notification.class));
+
+        Thread.sleep(Math.max(0, Duration.between(Instant.now(), publishAt).toMillis() + 100));
+        notificationService.fanOutDue(100);
+
+        // NotificationFanoutScheduler may have claimed it first
+        while ((fanout = fanoutRepository.findById(scheduledEpisodeId).orElseThrow()).getStatus() != FanoutStatus.COMPLETED) {
+            assertTrue(System.nanoTime() < deadline, "Scheduled fan-out of " + scheduledEpisodeId + " did not finish");
+            Thread.sleep(50);
+        }
+        assertNull(fanout.getDueAt());
+        assertEquals(NOTIFIED, mongoTemplate.count(notified, Notification.class));
+        Notification first = mongoTemplate.findOne(Query.query(Criteria.where("_id")
+                .is(Notification.newEpisodeId(scheduledEpisodeId, subscriberId))), Notification.class);
+        assertNotNull(first);
+        assertEquals(publishAt, first.getCreatedAt());
+    }
+}
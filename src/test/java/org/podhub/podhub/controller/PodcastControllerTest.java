@@ -2,17 +2,47 @@ package org.podhub.podhub.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.*;
+import org.podhub.podhub.dto.PodcastPatchRequest;
+import org.podhub.podhub.model.Episode;
 import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.repository.EpisodeRepository;
 import org.podhub.podhub.repository.PodcastRepository;
+import org.podhub.podhub.repository.UserRepository;
+import org.podhub.podhub.security.userdetails.PodhubUserDetails;
+import org.podhub.podhub.support.MongoCommandCounter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -24,6 +54,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 @SpringBootTest
 @AutoConfigureMockMvc
+@Import(MongoCommandCounter.class)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class PodcastControllerTest {
 
@@ -36,9 +67,24 @@ class PodcastControllerTest {
     @Autowired
     private PodcastRepository podcastRepository;
 
+    @Autowired
+    private EpisodeRepository episodeRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoCommandCounter mongoCommandCounter;
+
+    @Autowired
+    private UserRepository userRepository;
+
     private static String testPodcastId;
     private static String testCreatorId;
     private static String testSlug;
+    private static String feedPodcastId;
+    private static String feedSlug;
+    private static String feedEtag;
 
     @BeforeAll
     static void setupTestData(@Autowired PodcastRepository podcastRepository) {
@@ -394,4 +440,414 @@ class PodcastControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.count").isNumber());
     }
+
+    // ===========================
+    // ROUND TRIP TESTS
+    // ===========================
+
+    @Test
+    @Order(22)
+    @DisplayName("PATCH /api/podcasts/{id} - Single round trip with resolved caller")
+    void testPatchPodcastRoundTrips() throws Exception {
+        PodhubUserDetails creator = new PodhubUserDetails(testCreatorId, "creator@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_WRITE")));
+        PodcastPatchRequest patch = PodcastPatchRequest.builder()
+                .description("Round trip check")
+                .build();
+
+        // Before: findByEmail (caller) + findById (ownership) + findById (patch) + save = 4
+        // Now: a single findAndModify filtered by _id + creatorId
+        mongoCommandCounter.reset();
+        mockMvc.perform(patch("/api/podcasts/{id}", testPodcastId)
+                        .with(user(creator))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(patch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Round trip check"));
+        assertEquals(1, mongoCommandCounter.count());
+    }
+
+    @Test
+    @Order(23)
+    @DisplayName("PATCH /api/podcasts/{id} - Non-owner gets 403 and podcast is untouched")
+    void testPatchPodcastNotOwner() throws Exception {
+        PodhubUserDetails stranger = new PodhubUserDetails("000000000000000000000001", "stranger@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_WRITE")));
+        PodcastPatchRequest patch = PodcastPatchRequest.builder()
+                .description("Should not be applied")
+                .build();
+
+        mockMvc.perform(patch("/api/podcasts/{id}", testPodcastId)
+                        .with(user(stranger))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(patch)))
+                .andExpect(status().isForbidden());
+
+        Podcast stored = podcastRepository.findById(testPodcastId).orElseThrow();
+        assertNotEquals("Should not be applied", stored.getDescription());
+    }
+
+    @Test
+    @Order(33)
+    @DisplayName("PUT /api/podcasts/{id} - Load and save only, the caller comes from the principal")
+    void testUpdatePodcastRoundTrips() throws Exception {
+        PodhubUserDetails creator = new PodhubUserDetails(testCreatorId, "creator@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_WRITE")));
+        Podcast podcast = podcastRepository.findById(testPodcastId).orElseThrow();
+        podcast.setDescription("Round trip check (PUT)");
+        String body = objectMapper.writeValueAsString(podcast);
+        // Warms the ownership cache, shared between requests
+        mockMvc.perform(put("/api/podcasts/{id}", testPodcastId)
+                        .with(user(creator))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+
+        // findById (load, kept in the request cache) + save: the slug is unchanged, so no existsBySlug
+        mongoCommandCounter.reset();
+        mockMvc.perform(put("/api/podcasts/{id}", testPodcastId)
+                        .with(user(creator))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Round trip check (PUT)"));
+        assertEquals(2, mongoCommandCounter.count());
+
+        // A principal without the user id costs one findByEmail more, and only one
+        String email = userRepository.findById(testCreatorId).orElseThrow().getEmail();
+        mongoCommandCounter.reset();
+        mockMvc.perform(put("/api/podcasts/{id}", testPodcastId)
+                        .with(user(email).authorities(new SimpleGrantedAuthority("PODCAST_WRITE")))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+        assertEquals(3, mongoCommandCounter.count());
+    }
+
+    // ===========================
+    // CONDITIONAL GET TESTS
+    // ===========================
+
+    @Test
+    @Order(24)
+    @DisplayName("GET /api/podcasts/{id} - If-None-Match returns 304 from a projection-only query")
+    void testGetPodcastNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/podcasts/{id}", testPodcastId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mongoCommandCounter.reset();
+        mockMvc.perform(get("/api/podcasts/{id}", testPodcastId)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        assertEquals(1, mongoCommandCounter.count());
+    }
+
+    @Test
+    @Order(25)
+    @DisplayName("GET /api/podcasts/{id} - Stale ETag returns the full document")
+    void testGetPodcastStaleETag() throws Exception {
+        mockMvc.perform(get("/api/podcasts/{id}", testPodcastId)
+                        .header("If-None-Match", "\"" + testPodcastId + "-0\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(testPodcastId));
+    }
+
+    @Test
+    @Order(26)
+    @DisplayName("GET /api/podcasts - Weak ETag over the page")
+    void testGetPodcastsWeakETag() throws Exception {
+        PodhubUserDetails reader = new PodhubUserDetails(testCreatorId, "creator@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_READ")));
+
+        String etag = mockMvc.perform(get("/api/podcasts")
+                        .with(user(reader))
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", startsWith("W/")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/podcasts")
+                        .with(user(reader))
+                        .param("limit", "5")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Order(34)
+    @DisplayName("GET /api/podcasts/{id} and /api/episodes/{id} - Polling with If-None-Match saves the bodies and full loads")
+    void testConditionalPollingReplay() throws Exception {
+        String episodeId = episodeRepository.findFirstEpisodesByPodcast(testPodcastId, 1).stream()
+                .findFirst()
+                .orElseThrow()
+                .getId();
+        // What the podcast page of the frontend polls: the podcast and its latest episode
+        List<String> urls = List.of("/api/podcasts/" + testPodcastId, "/api/episodes/" + episodeId);
+        int polls = 50;
+        int requests = polls * urls.size();
+
+        // Without If-None-Match: every poll loads, serializes and downloads the full documents
+        Map<String, String> etags = new HashMap<>();
+        long fullBytes = 0;
+        mongoCommandCounter.reset();
+        for (int i = 0; i < polls; i++) {
+            for (String url : urls) {
+                MvcResult result = mockMvc.perform(get(url))
+                        .andExpect(status().isOk())
+                        .andReturn();
+                fullBytes += result.getResponse().getContentAsByteArray().length;
+                etags.put(url, result.getResponse().getHeader("ETag"));
+            }
+        }
+        assertEquals(requests, mongoCommandCounter.count());
+        assertEquals(0, mongoCommandCounter.projectedFinds());
+
+        // Revalidating with the last ETag: empty 304s, each from a single _id + updatedAt query
+        long revalidatedBytes = 0;
+        mongoCommandCounter.reset();
+        for (int i = 0; i < polls; i++) {
+            for (String url : urls) {
+                MvcResult result = mockMvc.perform(get(url).header("If-None-Match", etags.get(url)))
+                        .andExpect(status().isNotModified())
+                        .andReturn();
+                revalidatedBytes += result.getResponse().getContentAsByteArray().length;
+            }
+        }
+        assertEquals(requests, mongoCommandCounter.count());
+        assertEquals(requests, mongoCommandCounter.projectedFinds());
+        // Every body byte of the unconditional polls is saved
+        long savedBytes = fullBytes - revalidatedBytes;
+        assertEquals(fullBytes, savedBytes);
+        assertTrue(savedBytes > requests * 100L, "saved " + savedBytes + " bytes over " + requests + " polls");
+    }
+
+    // ===========================
+    // RSS FEED TESTS
+    // ===========================
+
+    @Test
+    @Order(27)
+    @DisplayName("GET /api/podcasts/{slug}/feed.xml - Public feed served gzip without authentication")
+    void testGetFeed() throws Exception {
+        PodhubUserDetails creator = new PodhubUserDetails(testCreatorId, "creator@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_WRITE")));
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        feedSlug = "feed-test-" + runId;
+        String body = mockMvc.perform(post("/api/podcasts")
+                        .with(user(creator))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Podcast.builder()
+                                .title("Feed Test " + runId)
+                                .slug(feedSlug)
+                                .description("RSS feed test")
+                                .language("es")
+                                .isPublic(true)
+                                .build())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        feedPodcastId = objectMapper.readValue(body, Podcast.class).getId();
+
+        Instant now = Instant.now();
+        for (int i = 1; i <= 3; i++) {
+            episodeRepository.save(Episode.builder()
+                    .podcastId(feedPodcastId)
+                    .title("Feed Episode " + i)
+                    .audioUrl("https://cdn.podhub.test/" + runId + "/" + i + ".mp3")
+                    .isPublic(i != 3)
+                    .publishAt(now.minusSeconds(3600L * i))
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        // Programado para el futuro: no debe aparecer
+        episodeRepository.save(Episode.builder()
+                .podcastId(feedPodcastId)
+                .title("Feed Episode scheduled")
+                .isPublic(true)
+                .publishAt(now.plusSeconds(86400))
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+
+        MvcResult result = mockMvc.perform(get("/api/podcasts/{slug}/feed.xml", feedSlug)
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Content-Type", startsWith("application/rss+xml")))
+                .andExpect(header().string("ETag", startsWith("W/")))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Vary", containsString("Accept-Encoding")))
+                .andReturn();
+        feedEtag = result.getResponse().getHeader("ETag");
+
+        String xml;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            xml = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertTrue(xml.contains("<title>Feed Test " + runId + "</title>"));
+        assertTrue(xml.contains("Feed Episode 1"));
+        assertTrue(xml.contains("Feed Episode 2"));
+        assertTrue(!xml.contains("Feed Episode 3") && !xml.contains("scheduled"));
+    }
+
+    @Test
+    @Order(28)
+    @DisplayName("GET /api/podcasts/{id}/feed.xml - Plain XML for clients without gzip, 304 from cache")
+    void testGetFeedNotModified() throws Exception {
+        mockMvc.perform(get("/api/podcasts/{id}/feed.xml", feedPodcastId))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("ETag", feedEtag))
+                .andExpect(content().string(containsString("<rss")));
+
+        mongoCommandCounter.reset();
+        mockMvc.perform(get("/api/podcasts/{slug}/feed.xml", feedSlug)
+                        .header("If-None-Match", feedEtag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertEquals(0, mongoCommandCounter.count());
+    }
+
+    @Test
+    @Order(29)
+    @DisplayName("GET /api/podcasts/{slug}/feed.xml - PATCH invalidates the cached feed")
+    void testGetFeedAfterPatch() throws Exception {
+        PodhubUserDetails creator = new PodhubUserDetails(testCreatorId, "creator@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_WRITE")));
+        mockMvc.perform(patch("/api/podcasts/{id}", feedPodcastId)
+                        .with(user(creator))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(PodcastPatchRequest.builder()
+                                .description("Updated feed description")
+                                .build())))
+                .andExpect(status().isOk());
+
+        String etag = mockMvc.perform(get("/api/podcasts/{slug}/feed.xml", feedSlug)
+                        .header("If-None-Match", feedEtag))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Updated feed description")))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(feedEtag, etag);
+        feedEtag = etag;
+    }
+
+    @Test
+    @Order(30)
+    @DisplayName("GET /api/podcasts/{slug}/feed.xml - Cached polls throughput")
+    void testGetFeedPollThroughput() throws Exception {
+        int polls = 2_000;
+        mongoCommandCounter.reset();
+        long start = System.nanoTime();
+        for (int i = 0; i < polls; i++) {
+            mockMvc.perform(get("/api/podcasts/{slug}/feed.xml", feedSlug)
+                            .header("Accept-Encoding", "gzip")
+                            .header("If-None-Match", i % 2 == 0 ? feedEtag : "W/\"stale\""))
+                    .andExpect(status().is(i % 2 == 0 ? 304 : 200));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        assertTrue(polls / seconds > 500, "served " + (long) (polls / seconds) + " polls/s");
+        // Todas las respuestas salen de la caché
+        assertEquals(0, mongoCommandCounter.count());
+    }
+
+    @Test
+    @Order(31)
+    @DisplayName("GET /api/podcasts/{slug}/feed.xml - 404 for private or missing podcasts")
+    void testGetFeedNotFound() throws Exception {
+        mockMvc.perform(get("/api/podcasts/{slug}/feed.xml", "missing-feed-" + System.nanoTime()))
+                .andExpect(status().isNotFound());
+
+        PodhubUserDetails creator = new PodhubUserDetails(testCreatorId, "creator@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_WRITE")));
+        mockMvc.perform(patch("/api/podcasts/{id}", feedPodcastId)
+                        .with(user(creator))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(PodcastPatchRequest.builder()
+                                .isPublic(false)
+                                .build())))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/podcasts/{slug}/feed.xml", feedSlug))
+                .andExpect(status().isNotFound());
+
+        mongoTemplate.remove(Query.query(Criteria.where("podcastId").is(feedPodcastId)), Episode.class);
+        podcastRepository.deleteById(feedPodcastId);
+    }
+
+    // ===========================
+    // CONCURRENT PATCH TESTS
+    // ===========================
+
+    @Test
+    @Tag("benchmark")
+    @Order(32)
+    @DisplayName("PATCH /api/podcasts/{id} - Concurrent patches of different fields lose no update")
+    void testConcurrentPatchesBenchmark() throws Exception {
+        Instant now = Instant.now();
+        String podcastId = podcastRepository.save(Podcast.builder()
+                .title("Concurrent Patch Podcast")
+                .slug("concurrent-patch-" + System.currentTimeMillis())
+                .creatorId(testCreatorId)
+                .isPublic(false)
+                .createdAt(now)
+                .updatedAt(now)
+                .build()).getId();
+        PodhubUserDetails creator = new PodhubUserDetails(testCreatorId, "creator@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_WRITE")));
+
+        // One writer per field: with load-modify-save each one would put back the stale values of the others
+        record Field(BiConsumer<PodcastPatchRequest.PodcastPatchRequestBuilder, String> setter,
+                     Function<Podcast, String> getter, String prefix) {
+        }
+        List<Field> fields = List.of(
+                new Field(PodcastPatchRequest.PodcastPatchRequestBuilder::title, Podcast::getTitle, "title-"),
+                new Field(PodcastPatchRequest.PodcastPatchRequestBuilder::description, Podcast::getDescription,
+                        "description-"),
+                new Field(PodcastPatchRequest.PodcastPatchRequestBuilder::language, Podcast::getLanguage, "l"),
+                new Field(PodcastPatchRequest.PodcastPatchRequestBuilder::category, Podcast::getCategory, "category-"),
+                new Field(PodcastPatchRequest.PodcastPatchRequestBuilder::coverImageUrl, Podcast::getCoverImageUrl,
+                        "https://cdn.podhub.test/cover-"));
+        int patchesPerField = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(fields.size());
+        try {
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<?>> writers = new ArrayList<>();
+            for (Field field : fields) {
+                writers.add(executor.submit(() -> {
+                    go.await();
+                    for (int i = 0; i < patchesPerField; i++) {
+                        PodcastPatchRequest.PodcastPatchRequestBuilder request = PodcastPatchRequest.builder();
+                        field.setter().accept(request, field.prefix() + i);
+                        mockMvc.perform(patch("/api/podcasts/{id}", podcastId)
+                                        .with(user(creator))
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(objectMapper.writeValueAsString(request.build())))
+                                .andExpect(status().isOk());
+                    }
+                    return null;
+                }));
+            }
+            long start = System.nanoTime();
+            go.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(5, TimeUnit.MINUTES);
+            }
+            long elapsedNanos = System.nanoTime() - start;
+
+            Podcast stored = podcastRepository.findById(podcastId).orElseThrow();
+            for (Field field : fields) {
+                assertEquals(field.prefix() + (patchesPerField - 1), field.getter().apply(stored));
+            }
+
+            double perSecond = fields.size() * patchesPerField / (elapsedNanos / 1e9);
+            assertTrue(perSecond > 50, "applied " + (long) perSecond + " patches/s");
+        } finally {
+            executor.shutdownNow();
+            podcastRepository.deleteById(podcastId);
+        }
+    }
 }
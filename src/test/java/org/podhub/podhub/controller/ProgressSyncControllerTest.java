@@ -0,0 +1,225 @@
+package org.podhub.podhub.controller;
+
+import org.junit.jupiter.api.*;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.ListeningProgress;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.model.User;
+import org.podhub.podhub.repository.EpisodeRepository;
+import org.podhub.podhub.repository.PodcastRepository;
+import org.podhub.podhub.repository.UserRepository;
+import org.podhub.podhub.security.jwt.JwtService;
+import org.podhub.podhub.service.ListeningProgressService;
+import org.podhub.podhub.service.ProgressSyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the WebSocket /api/ws/progress (cross-device progress sync)
+ * Two devices of the same listener connect; progress saved by one of them must reach the other through
+ * the MongoDB change stream, coalesced, and never be echoed back to the device that saved it.
+ * A test episode is created and removed afterwards, with its progress.
+ *
+ * Prerequisites: Run DataSeeder to populate test data in MongoDB Atlas
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ProgressSyncControllerTest {
+
+    private static final Duration EVENT_TIMEOUT = Duration.ofSeconds(30);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private ListeningProgressService listeningProgressService;
+
+    @Autowired
+    private ProgressSyncService progressSyncService;
+
+    private static String userId;
+    private static String userEmail;
+    private static String episodeId;
+    private static Device laptop;
+    private static Device phone;
+
+    /**
+     * Client side of one device: keeps what the server pushes
+     */
+    private static class Device extends TextWebSocketHandler {
+        final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        WebSocketSession session;
+
+        @Override
+        protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+            received.add(message.getPayload());
+        }
+    }
+
+    @BeforeAll
+    static void setupTestData(@Autowired UserRepository userRepository,
+                              @Autowired PodcastRepository podcastRepository,
+                              @Autowired EpisodeRepository episodeRepository) {
+        // Get test data from database (assumes DataSeeder has been run)
+        User testUser = userRepository.findByEmail("listener1@podhub.com")
+                .orElseThrow(() -> new RuntimeException("Test user not found. Please run DataSeeder first."));
+        userId = testUser.getId();
+        userEmail = testUser.getEmail();
+
+        Podcast testPodcast = podcastRepository.findBySlug("tech-talk-daily")
+                .orElseThrow(() -> new RuntimeException("Test podcast not found. Please run DataSeeder first."));
+        Episode episode = new Episode();
+        episode.setTitle("Test Progress Sync Episode");
+        episode.setPodcastId(testPodcast.getId());
+        episode.setAudioUrl("https://example.com/audio-progress-sync.mp3");
+        episode.setDescription("For testing progress sync");
+        episode.setDurationSec(600);
+        episode.setIsPublic(true);
+        episode.setPublishAt(Instant.now());
+        episodeId = episodeRepository.save(episode).getId();
+    }
+
+    @AfterAll
+    static void cleanup(@Autowired MongoTemplate mongoTemplate,
+                        @Autowired EpisodeRepository episodeRepository) throws Exception {
+        for (Device device : new Device[]{laptop, phone}) {
+            if (device != null && device.session != null) {
+                device.session.close();
+            }
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("episodeId").is(episodeId)), ListeningProgress.class);
+        episodeRepository.deleteById(episodeId);
+    }
+
+    private Device connect(String token, String deviceId) throws Exception {
+        Device device = new Device();
+        device.session = new StandardWebSocketClient()
+                .execute(device, "ws://localhost:" + port + "/api/ws/progress?access_token={token}&device={device}",
+                        token, deviceId)
+                .get(10, TimeUnit.SECONDS);
+        return device;
+    }
+
+    // ===========================
+    // CONNECT
+    // ===========================
+
+    @Test
+    @Order(1)
+    @DisplayName("WS /api/ws/progress - Two devices of the listener connect with the access token")
+    void testConnect() throws Exception {
+        long deadline = System.nanoTime() + EVENT_TIMEOUT.toNanos();
+        while (!progressSyncService.isWatching()) {
+            assertTrue(System.nanoTime() < deadline, "Progress change stream not open in " + EVENT_TIMEOUT);
+            Thread.sleep(50);
+        }
+        int before = progressSyncService.sessions();
+
+        String token = jwtService.generateAccessToken(userEmail, Map.of());
+        laptop = connect(token, "laptop");
+        phone = connect(token, "phone");
+
+        assertTrue(laptop.session.isOpen());
+        assertTrue(phone.session.isOpen());
+        assertEquals(before + 2, progressSyncService.sessions());
+    }
+
+    // ===========================
+    // SYNC
+    // ===========================
+
+    @Test
+    @Order(2)
+    @DisplayName("Progress saved on one device is pushed, coalesced, to the other devices only")
+    void testSync() throws Exception {
+        long start = System.nanoTime();
+        for (int position = 10; position <= 100; position += 10) {
+            listeningProgressService.upsert(userId, episodeId, position, false, "phone");
+        }
+
+        String message = null;
+        int pushes = 0;
+        long deadline = System.nanoTime() + EVENT_TIMEOUT.toNanos();
+        while (message == null || !message.contains("\"positionSeconds\":100")) {
+            message = laptop.received.poll(Math.max(1, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            assertNotNull(message, "Laptop did not receive the last position in " + EVENT_TIMEOUT);
+            assertTrue(message.contains("\"episodeId\":\"" + episodeId + "\""));
+            pushes++;
+        }
+        long lastPushMs = (System.nanoTime() - start) / 1_000_000;
+        // At most one throttle window (2 s) behind the last save, plus scheduling slack
+        assertTrue(lastPushMs < 10_000, "last position pushed in " + lastPushMs + " ms");
+        assertTrue(pushes < 10, "saves were not coalesced: " + pushes + " pushes");
+        assertTrue(message.contains("\"type\":\"progress\""));
+        assertTrue(message.contains("\"deviceId\":\"phone\""));
+
+        // One more throttle window: the phone saved it, it never gets it back
+        Thread.sleep(3000);
+        assertEquals(List.of(), List.copyOf(phone.received));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Progress saved without a device id is pushed to every device")
+    void testSyncWithoutDevice() throws Exception {
+        listeningProgressService.upsert(userId, episodeId, 200, true);
+
+        for (Device device : new Device[]{laptop, phone}) {
+            String message = device.received.poll(EVENT_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            assertNotNull(message, "Device did not receive the progress in " + EVENT_TIMEOUT);
+            assertTrue(message.contains("\"positionSeconds\":200"));
+            assertTrue(message.contains("\"completed\":true"));
+            assertFalse(message.contains("deviceId"));
+        }
+    }
+
+    // ===========================
+    // HANDSHAKE ERRORS
+    // ===========================
+
+    @Test
+    @Order(4)
+    @DisplayName("WS /api/ws/progress - Handshake rejected without a valid token")
+    void testHandshakeErrors() {
+        assertThrows(ExecutionException.class, () -> connect("not-a-jwt", "laptop"));
+        assertThrows(ExecutionException.class, () -> new StandardWebSocketClient()
+                .execute(new Device(), "ws://localhost:" + port + "/api/ws/progress")
+                .get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Closing a session unregisters it")
+    void testClose() throws Exception {
+        int before = progressSyncService.sessions();
+        phone.session.close();
+
+        long deadline = System.nanoTime() + EVENT_TIMEOUT.toNanos();
+        while (progressSyncService.sessions() != before - 1) {
+            assertTrue(System.nanoTime() < deadline, "Session not unregistered in " + EVENT_TIMEOUT);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package org.podhub.podhub.controller;
+
+import org.junit.jupiter.api.*;
+import org.podhub.podhub.dto.PodcastPatchRequest;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.recommend.CoListenModel;
+import org.podhub.podhub.recommend.ContentIndex;
+import org.podhub.podhub.repository.PodcastRepository;
+import org.podhub.podhub.security.userdetails.PodhubUserDetails;
+import org.podhub.podhub.service.ContentSimilarityService;
+import org.podhub.podhub.service.PodcastService;
+import org.podhub.podhub.service.RecommendationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for co-listening and content-based recommendations
+ * (GET /api/podcasts/{id}/similar and GET /api/users/{id}/recommendations)
+ * Synthetic listeners are fed to the in-memory model through RecommendationService, so nothing is written to MongoDB;
+ * the scheduled rebuilds are pushed out so they cannot wipe them during the test.
+ * The content tests create, patch and delete one podcast through PodcastService (new podcasts are indexed
+ * by an asynchronous PodcastCreated listener, so the test waits for it).
+ *
+ * Prerequisites: Run DataSeeder to populate test data in MongoDB Atlas
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class RecommendationControllerTest {
+
+    private static final String LISTENER = "test-colisten-listener";
+    private static final Duration EVENT_TIMEOUT = Duration.ofSeconds(30);
+
+    @DynamicPropertySource
+    static void recommendProperties(DynamicPropertyRegistry registry) {
+        registry.add("podhub.recommend.rebuild-initial-delay-ms", () -> "3600000");
+        registry.add("podhub.recommend.content.rebuild-initial-delay-ms", () -> "3600000");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private ContentSimilarityService contentSimilarityService;
+
+    @Autowired
+    private PodcastService podcastService;
+
+    private static String techId;
+    private static String businessId;
+    private static String comedyId;
+    private static String premiumId;
+    private static String creatorId;
+    private static String contentPodcastId;
+    private static PodhubUserDetails listener;
+    private static PodhubUserDetails otherUser;
+    private static PodhubUserDetails admin;
+
+    @BeforeAll
+    static void setupTestData(@Autowired PodcastRepository podcastRepository) {
+        // Get test data from database (assumes DataSeeder has been run)
+        techId = podcastId(podcastRepository, "tech-talk-daily");
+        businessId = podcastId(podcastRepository, "business-insights");
+        comedyId = podcastId(podcastRepository, "the-comedy-hour");
+        premiumId = podcastId(podcastRepository, "premium-content");
+        creatorId = podcastRepository.findBySlug("tech-talk-daily").map(Podcast::getCreatorId).orElseThrow();
+
+        listener = new PodhubUserDetails(LISTENER, "listener@test.com", "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_READ")));
+        otherUser = new PodhubUserDetails("test-colisten-other", "other@test.com", "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_READ")));
+        admin = new PodhubUserDetails("test-colisten-admin", "admin@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+
+    private static String podcastId(PodcastRepository podcastRepository, String slug) {
+        return podcastRepository.findBySlug(slug)
+                .map(Podcast::getId)
+                .orElseThrow(() -> new RuntimeException("Test podcast not found. Please run DataSeeder first."));
+    }
+
+    // ===========================
+    // MODEL REBUILD
+    // ===========================
+
+    @Test
+    @Order(1)
+    @DisplayName("rebuild() - Full rebuild from subscriptions, likes and completed episodes")
+    void testRebuild() {
+        CoListenModel.Stats stats = recommendationService.rebuild();
+        assertTrue(stats.interactions() >= 0);
+        assertTrue(stats.memoryBytes() > 0);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Incremental events - Co-listeners are added without a rebuild")
+    void testIncrementalEvents() {
+        // 20 listeners follow tech and business, 5 follow tech and comedy, 10 follow tech and the private podcast
+        for (int i = 0; i < 20; i++) {
+            recommendationService.onSubscribed("test-colisten-tb-" + i, techId);
+            recommendationService.onSubscribed("test-colisten-tb-" + i, businessId);
+        }
+        for (int i = 0; i < 5; i++) {
+            recommendationService.onSubscribed("test-colisten-tc-" + i, techId);
+            recommendationService.onSubscribed("test-colisten-tc-" + i, comedyId);
+        }
+        for (int i = 0; i < 10; i++) {
+            recommendationService.onSubscribed("test-colisten-tp-" + i, techId);
+            recommendationService.onSubscribed("test-colisten-tp-" + i, premiumId);
+        }
+        recommendationService.onSubscribed(LISTENER, comedyId);
+
+        assertFalse(recommendationService.similar(techId, 10, RecommendationService.SOURCE_LISTENERS).isEmpty());
+    }
+
+    // ===========================
+    // GET /api/podcasts/{id}/similar
+    // ===========================
+
+    @Test
+    @Order(3)
+    @DisplayName("GET /api/podcasts/{id}/similar - Most co-listened public podcasts first")
+    void testSimilar() throws Exception {
+        mockMvc.perform(get("/api/podcasts/" + techId + "/similar")
+                        .with(user(listener)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].podcast.id").value(businessId))
+                .andExpect(jsonPath("$[0].score").isNumber())
+                .andExpect(jsonPath("$[0].source").value("listeners"))
+                .andExpect(jsonPath("$[*].podcast.id", hasItem(comedyId)))
+                .andExpect(jsonPath("$[*].podcast.id", not(hasItem(premiumId))))
+                .andExpect(jsonPath("$[*].podcast.id", not(hasItem(techId))));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("GET /api/podcasts/{id}/similar?limit=1 - Limit is applied")
+    void testSimilarLimit() throws Exception {
+        mockMvc.perform(get("/api/podcasts/" + techId + "/similar")
+                        .param("limit", "1")
+                        .with(user(listener)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("GET /api/podcasts/{id}/similar - Unknown podcast returns 404")
+    void testSimilarNotFound() throws Exception {
+        mockMvc.perform(get("/api/podcasts/000000000000000000000000/similar")
+                        .with(user(listener)))
+                .andExpect(status().isNotFound());
+    }
+
+    // ===========================
+    // GET /api/users/{id}/recommendations
+    // ===========================
+
+    @Test
+    @Order(6)
+    @DisplayName("GET /api/users/{id}/recommendations - Co-listened podcasts, excluding the user's own")
+    void testRecommendations() throws Exception {
+        mockMvc.perform(get("/api/users/" + LISTENER + "/recommendations")
+                        .with(user(listener)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].podcast.id").value(techId))
+                .andExpect(jsonPath("$[*].podcast.id", not(hasItem(comedyId))))
+                .andExpect(jsonPath("$[*].podcast.id", not(hasItem(premiumId))));
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("GET /api/users/{id}/recommendations - New users get popular podcasts")
+    void testRecommendationsColdStart() throws Exception {
+        mockMvc.perform(get("/api/users/" + otherUser.getUserId() + "/recommendations")
+                        .with(user(otherUser)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", not(empty())))
+                .andExpect(jsonPath("$[*].podcast.id", not(hasItem(premiumId))));
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("GET /api/users/{id}/recommendations - Other users' recommendations are forbidden, admins allowed")
+    void testRecommendationsForbidden() throws Exception {
+        mockMvc.perform(get("/api/users/" + LISTENER + "/recommendations")
+                        .with(user(otherUser)))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/users/" + LISTENER + "/recommendations")
+                        .with(user(admin)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("GET /api/users/{id}/recommendations - Unauthenticated requests are rejected")
+    void testRecommendationsUnauthenticated() throws Exception {
+        mockMvc.perform(get("/api/users/" + LISTENER + "/recommendations"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    // ===========================
+    // CONTENT SIMILARITY
+    // ===========================
+
+    @Test
+    @Order(10)
+    @DisplayName("Content index - New podcasts are indexed on creation, next to podcasts about the same topic")
+    void testContentCreated() throws Exception {
+        ContentIndex.Stats stats = contentSimilarityService.rebuild();
+        assertTrue(stats.documents() >= 4);
+
+        Podcast podcast = new Podcast();
+        podcast.setTitle("Tech Talk Daily Extra");
+        podcast.setSlug("test-content-similar-" + System.currentTimeMillis());
+        podcast.setDescription("Daily discussions about the latest in technology and gadgets");
+        podcast.setCategory("Technology");
+        podcast.setIsPublic(true);
+        contentPodcastId = podcastService.createPodcast(podcast, creatorId).getId();
+
+        long deadline = System.nanoTime() + EVENT_TIMEOUT.toNanos();
+        while (contentSimilarityService.similar(contentPodcastId, 1).isEmpty()) {
+            assertTrue(System.nanoTime() < deadline, "Podcast " + contentPodcastId + " not indexed in " + EVENT_TIMEOUT);
+            Thread.sleep(100);
+        }
+
+        mockMvc.perform(get("/api/podcasts/" + contentPodcastId + "/similar")
+                        .param("by", "content")
+                        .with(user(listener)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].podcast.id").value(techId))
+                .andExpect(jsonPath("$[0].source").value("content"))
+                .andExpect(jsonPath("$[*].podcast.id", not(hasItem(premiumId))));
+
+        // No listeners yet: the default answer comes from the content index alone
+        mockMvc.perform(get("/api/podcasts/" + contentPodcastId + "/similar")
+                        .with(user(listener)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].podcast.id").value(techId))
+                .andExpect(jsonPath("$[*].source", everyItem(is("content"))));
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("Content index - Patched podcasts are re-indexed from the PodcastChanged event")
+    void testContentPatched() throws Exception {
+        podcastService.patchPodcast(contentPodcastId, PodcastPatchRequest.builder()
+                .title("Comedy Hour Unplugged")
+                .description("Stand-up comedy and funny stories from the road")
+                .category("Comedy")
+                .build(), creatorId);
+
+        long deadline = System.nanoTime() + EVENT_TIMEOUT.toNanos();
+        while (contentSimilarityService.similar(contentPodcastId, 1).stream()
+                .noneMatch(scored -> scored.id().equals(comedyId))) {
+            assertTrue(System.nanoTime() < deadline, "Podcast " + contentPodcastId + " not re-indexed in " + EVENT_TIMEOUT);
+            Thread.sleep(100);
+        }
+
+        mockMvc.perform(get("/api/podcasts/" + contentPodcastId + "/similar")
+                        .param("by", "content")
+                        .with(user(listener)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].podcast.id").value(comedyId));
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("GET /api/podcasts/{id}/similar?by=unknown - Invalid source returns 400")
+    void testSimilarInvalidSource() throws Exception {
+        mockMvc.perform(get("/api/podcasts/" + techId + "/similar")
+                        .param("by", "unknown")
+                        .with(user(listener)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("Content index - Deleted podcasts leave the index from the PodcastDeleted event")
+    void testContentDeleted() throws Exception {
+        podcastService.deletePodcast(contentPodcastId, creatorId);
+
+        long deadline = System.nanoTime() + EVENT_TIMEOUT.toNanos();
+        while (!contentSimilarityService.similar(contentPodcastId, 10).isEmpty()) {
+            assertTrue(System.nanoTime() < deadline, "Podcast " + contentPodcastId + " still indexed after " + EVENT_TIMEOUT);
+            Thread.sleep(100);
+        }
+        assertFalse(contentSimilarityService.similar(comedyId, 20).stream()
+                .anyMatch(scored -> scored.id().equals(contentPodcastId)));
+    }
+}
@@ -0,0 +1,214 @@
+package org.podhub.podhub.controller;
+
+import org.junit.jupiter.api.*;
+import org.podhub.podhub.analytics.RetentionHistogram;
+import org.podhub.podhub.dto.RetentionCurve;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.repository.EpisodeRepository;
+import org.podhub.podhub.repository.PodcastRepository;
+import org.podhub.podhub.security.userdetails.PodhubUserDetails;
+import org.podhub.podhub.service.ListeningProgressService;
+import org.podhub.podhub.service.RetentionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for GET /api/episodes/{id}/analytics/retention
+ * Synthetic listeners save their progress on a seeded episode through ListeningProgressService;
+ * the histogram is checked against the values before the test and against a full backfill.
+ * The histogram is updated by an asynchronous event listener, so the checks wait for it.
+ * The scheduled backfill is pushed out so it cannot run in the middle of the test.
+ *
+ * Prerequisites: Run DataSeeder to populate test data in MongoDB Atlas
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class RetentionControllerTest {
+
+    private static final String LISTENER = "test-retention-listener-";
+    private static final Duration EVENT_TIMEOUT = Duration.ofSeconds(30);
+
+    @DynamicPropertySource
+    static void retentionProperties(DynamicPropertyRegistry registry) {
+        registry.add("podhub.analytics.retention.backfill-initial-delay-ms", () -> "3600000");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RetentionService retentionService;
+
+    @Autowired
+    private ListeningProgressService listeningProgressService;
+
+    private static String episodeId;
+    private static String creatorId;
+    private static int duration;
+    private static RetentionCurve before;
+    private static PodhubUserDetails creator;
+    private static PodhubUserDetails otherUser;
+    private static PodhubUserDetails admin;
+
+    @BeforeAll
+    static void setupTestData(@Autowired PodcastRepository podcastRepository,
+                              @Autowired EpisodeRepository episodeRepository) {
+        // Get test data from database (assumes DataSeeder has been run)
+        Podcast tech = podcastRepository.findBySlug("tech-talk-daily")
+                .orElseThrow(() -> new RuntimeException("Test podcast not found. Please run DataSeeder first."));
+        creatorId = tech.getCreatorId();
+        Episode episode = episodeRepository.findFirstEpisodesByPodcast(tech.getId(), 10).stream()
+                .filter(e -> e.getDurationSec() != null && e.getDurationSec() > 0)
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Test episode not found. Please run DataSeeder first."));
+        episodeId = episode.getId();
+        duration = episode.getDurationSec();
+
+        creator = new PodhubUserDetails(creatorId, "creator@test.com", "n/a",
+                List.of(new SimpleGrantedAuthority("EPISODE_WRITE")));
+        otherUser = new PodhubUserDetails("test-retention-other", "other@test.com", "n/a",
+                List.of(new SimpleGrantedAuthority("EPISODE_READ")));
+        admin = new PodhubUserDetails("test-retention-admin", "admin@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+
+    @AfterAll
+    static void cleanup(@Autowired ListeningProgressService listeningProgressService) {
+        for (int i = 0; i < 4; i++) {
+            try {
+                listeningProgressService.delete(LISTENER + i, episodeId);
+            } catch (Exception ignored) {}
+        }
+    }
+
+    /**
+     * Reads the curve until the event listener has caught up
+     */
+    private RetentionCurve awaitRetention(Predicate<RetentionCurve> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + EVENT_TIMEOUT.toNanos();
+        while (true) {
+            RetentionCurve curve = retentionService.getRetention(episodeId, creatorId, false);
+            if (condition.test(curve)) {
+                return curve;
+            }
+            assertTrue(System.nanoTime() < deadline, "Retention of " + episodeId + " not updated in " + EVENT_TIMEOUT);
+            Thread.sleep(100);
+        }
+    }
+
+    // ===========================
+    // BACKFILL
+    // ===========================
+
+    @Test
+    @Order(1)
+    @DisplayName("backfill() - Rebuilds every histogram from listening progress")
+    void testBackfill() {
+        assertTrue(retentionService.backfill() > 0);
+        before = retentionService.getRetention(episodeId, creatorId, false);
+        assertEquals(duration, before.getDurationSec());
+        assertEquals(RetentionHistogram.BUCKETS, before.getRetention().length);
+    }
+
+    // ===========================
+    // INCREMENTAL UPDATES
+    // ===========================
+
+    @Test
+    @Order(2)
+    @DisplayName("Progress upserts move listeners between buckets")
+    void testIncrementalUpdates() throws Exception {
+        // 10%, 50%, 50% then back to 20% (furthest stays at 50%), completed
+        listeningProgressService.upsert(LISTENER + 0, episodeId, duration / 10, false);
+        listeningProgressService.upsert(LISTENER + 1, episodeId, duration / 4, false);
+        listeningProgressService.upsert(LISTENER + 1, episodeId, duration / 2, false);
+        listeningProgressService.upsert(LISTENER + 2, episodeId, duration / 2, false);
+        listeningProgressService.upsert(LISTENER + 2, episodeId, duration / 5, false);
+        listeningProgressService.upsert(LISTENER + 3, episodeId, duration / 2, false);
+        listeningProgressService.upsert(LISTENER + 3, episodeId, duration, true);
+
+        RetentionCurve after = awaitRetention(curve -> curve.getListeners() == before.getListeners() + 4
+                && curve.getCompleted() == before.getCompleted() + 1
+                && curve.getDropOffs()[50] == before.getDropOffs()[50] + 2);
+        assertEquals(before.getListeners() + 4, after.getListeners());
+        assertEquals(before.getCompleted() + 1, after.getCompleted());
+        assertEquals(before.getDropOffs()[10] + 1, after.getDropOffs()[10]);
+        assertEquals(before.getDropOffs()[25], after.getDropOffs()[25]);
+        assertEquals(before.getDropOffs()[50] + 2, after.getDropOffs()[50]);
+        assertEquals(before.getDropOffs()[20], after.getDropOffs()[20]);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("backfill() - Agrees with the incremental histogram")
+    void testBackfillMatchesIncremental() {
+        RetentionCurve incremental = retentionService.getRetention(episodeId, creatorId, false);
+        retentionService.backfill();
+        RetentionCurve rebuilt = retentionService.getRetention(episodeId, creatorId, false);
+        assertEquals(incremental.getListeners(), rebuilt.getListeners());
+        assertArrayEquals(incremental.getDropOffs(), rebuilt.getDropOffs());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Deleting progress removes the listener")
+    void testDeleteProgress() throws Exception {
+        listeningProgressService.delete(LISTENER + 0, episodeId);
+
+        RetentionCurve after = awaitRetention(curve -> curve.getListeners() == before.getListeners() + 3);
+        assertEquals(before.getListeners() + 3, after.getListeners());
+        assertEquals(before.getDropOffs()[10], after.getDropOffs()[10]);
+    }
+
+    // ===========================
+    // ENDPOINT
+    // ===========================
+
+    @Test
+    @Order(5)
+    @DisplayName("GET /api/episodes/{id}/analytics/retention - Creator gets the curve")
+    void testGetRetention() throws Exception {
+        mockMvc.perform(get("/api/episodes/" + episodeId + "/analytics/retention").with(user(creator)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.episodeId").value(episodeId))
+                .andExpect(jsonPath("$.durationSec").value(duration))
+                .andExpect(jsonPath("$.listeners").value(greaterThanOrEqualTo(3)))
+                .andExpect(jsonPath("$.retention", hasSize(RetentionHistogram.BUCKETS)))
+                .andExpect(jsonPath("$.retention[0]").value(1.0))
+                .andExpect(jsonPath("$.dropOffs", hasSize(RetentionHistogram.PERCENT_BUCKETS)));
+
+        mockMvc.perform(get("/api/episodes/" + episodeId + "/analytics/retention").with(user(admin)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("GET /api/episodes/{id}/analytics/retention - 403 for other users, 404 for unknown episodes, 401 anonymous")
+    void testGetRetentionErrors() throws Exception {
+        mockMvc.perform(get("/api/episodes/" + episodeId + "/analytics/retention").with(user(otherUser)))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/episodes/000000000000000000000000/analytics/retention").with(user(admin)))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/episodes/" + episodeId + "/analytics/retention"))
+                .andExpect(status().isUnauthorized());
+    }
+}
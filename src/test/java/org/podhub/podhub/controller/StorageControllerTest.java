@@ -0,0 +1,295 @@
+package org.podhub.podhub.controller;
+
+import org.junit.jupiter.api.*;
+import org.podhub.podhub.model.AudioBlob;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.model.User;
+import org.podhub.podhub.repository.AudioBlobRepository;
+import org.podhub.podhub.repository.EpisodeRepository;
+import org.podhub.podhub.repository.PodcastRepository;
+import org.podhub.podhub.repository.UserRepository;
+import org.podhub.podhub.security.userdetails.PodhubUserDetails;
+import org.podhub.podhub.service.EpisodeService;
+import org.podhub.podhub.storage.BlobStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for StorageController and the content-addressed BlobStore
+ * A corpus with heavy duplication (few distinct files attached many times to many episodes)
+ * is stored under a temporary audio root; the test prints the bytes saved and the lookup latency.
+ * The blob GC grace period is 0 so unreferenced blobs are collected immediately.
+ *
+ * Prerequisites: Run DataSeeder to populate test data in MongoDB Atlas
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class StorageControllerTest {
+
+    private static final Path STORAGE_ROOT;
+    private static final Path INCOMING;
+    private static final int DISTINCT_FILES = 20;
+    private static final int FILE_SIZE = 256 * 1024;
+    private static final int EPISODES = 200;
+    private static final int ATTACHMENTS = 1000;
+
+    static {
+        try {
+            STORAGE_ROOT = Files.createTempDirectory("podhub-blob-audio");
+            INCOMING = Files.createTempDirectory("podhub-blob-incoming");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void storageProperties(DynamicPropertyRegistry registry) {
+        registry.add("podhub.storage.audio-root", STORAGE_ROOT::toString);
+        registry.add("podhub.storage.blob-gc-grace", () -> "0s");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private AudioBlobRepository audioBlobRepository;
+
+    @Autowired
+    private EpisodeService episodeService;
+
+    @Autowired
+    private EpisodeRepository episodeRepository;
+
+    private static PodhubUserDetails creator;
+    private static PodhubUserDetails admin;
+    private static String podcastId;
+    private static List<String> episodeIds;
+    private static byte[][] files;
+    private static List<String> hashes;
+
+    @BeforeAll
+    static void setupTestData(@Autowired UserRepository userRepository,
+                              @Autowired PodcastRepository podcastRepository,
+                              @Autowired EpisodeRepository episodeRepository) throws Exception {
+        // Get test data from database (assumes DataSeeder has been run)
+        User creatorUser = userRepository.findByUsername("john_creator")
+                .orElseThrow(() -> new RuntimeException("Test user not found. Please run DataSeeder first."));
+        creator = new PodhubUserDetails(creatorUser.getId(), creatorUser.getEmail(), "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_WRITE")));
+        admin = new PodhubUserDetails(creatorUser.getId(), "admin@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        Instant now = Instant.now();
+        podcastId = podcastRepository.save(Podcast.builder()
+                .creatorId(creatorUser.getId())
+                .title("Blob Test " + runId)
+                .slug("blob-test-" + runId)
+                .isPublic(false)
+                .createdAt(now)
+                .updatedAt(now)
+                .build()).getId();
+        episodeIds = episodeRepository.saveAll(IntStream.range(0, EPISODES)
+                        .mapToObj(i -> Episode.builder()
+                                .podcastId(podcastId)
+                                .title("Blob Test Episode " + i)
+                                .isPublic(false)
+                                .createdAt(now)
+                                .updatedAt(now)
+                                .build())
+                        .toList())
+                .stream().map(Episode::getId).toList();
+
+        // Contenido nuevo en cada ejecución: los hashes no coinciden con blobs de ejecuciones anteriores
+        Random random = new Random(now.toEpochMilli());
+        files = new byte[DISTINCT_FILES][FILE_SIZE];
+        hashes = new ArrayList<>();
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        for (byte[] file : files) {
+            random.nextBytes(file);
+            hashes.add(HexFormat.of().formatHex(digest.digest(file)));
+        }
+    }
+
+    @AfterAll
+    static void cleanup(@Autowired PodcastRepository podcastRepository,
+                        @Autowired EpisodeRepository episodeRepository,
+                        @Autowired AudioBlobRepository audioBlobRepository) throws IOException {
+        episodeRepository.deleteAllById(episodeIds);
+        podcastRepository.deleteById(podcastId);
+        audioBlobRepository.deleteAllById(hashes);
+        for (Path root : List.of(STORAGE_ROOT, INCOMING)) {
+            try (var paths = Files.walk(root)) {
+                paths.sorted((a, b) -> b.getNameCount() - a.getNameCount()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static long countBlobFiles() throws IOException {
+        try (var paths = Files.walk(STORAGE_ROOT.resolve(BlobStore.BLOB_DIR))) {
+            return paths.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static long blobBytes() throws IOException {
+        try (var paths = Files.walk(STORAGE_ROOT.resolve(BlobStore.BLOB_DIR))) {
+            return paths.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        }
+    }
+
+    // ===========================
+    // STATS TESTS
+    // ===========================
+
+    @Test
+    @Order(1)
+    @DisplayName("GET /api/storage/stats - Requires ADMIN")
+    void testStatsForbidden() throws Exception {
+        mockMvc.perform(get("/api/storage/stats").with(user(creator)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/storage/stats"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    // ===========================
+    // DEDUPLICATION TESTS
+    // ===========================
+
+    @Test
+    @Order(2)
+    @DisplayName("BlobStore - Heavily duplicated corpus is stored once per distinct file")
+    void testDeduplicatedCorpus() throws Exception {
+        for (int i = 0; i < ATTACHMENTS; i++) {
+            int content = i % DISTINCT_FILES;
+            Path incoming = Files.write(INCOMING.resolve("upload-" + i + ".mp3"), files[content]);
+            AudioBlob blob = blobStore.commit(incoming, hashes.get(content), ".mp3");
+            episodeService.attachAudio(episodeIds.get(i % EPISODES), blobStore.publicUrl(blob), hashes.get(content),
+                    creator.getUserId());
+            assertFalse(Files.exists(incoming));
+        }
+
+        // Un fichero por contenido distinto; cada episodio cuenta como una referencia a su último audio
+        assertEquals(DISTINCT_FILES, countBlobFiles());
+        long references = 0;
+        for (String hash : hashes) {
+            AudioBlob blob = audioBlobRepository.findById(hash).orElseThrow();
+            assertEquals(FILE_SIZE, blob.getSize());
+            assertThat(blob.getKey(), startsWith("blobs/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/"));
+            references += blob.getRefCount();
+        }
+        assertEquals(EPISODES, references);
+        Episode episode = episodeRepository.findById(episodeIds.get(0)).orElseThrow();
+        assertEquals(hashes.get((ATTACHMENTS - EPISODES) % DISTINCT_FILES), episode.getAudioSha256());
+
+        // 1000 uploads take the disk space of the 20 distinct files
+        assertEquals((long) DISTINCT_FILES * FILE_SIZE, blobBytes());
+
+        mockMvc.perform(get("/api/storage/stats").with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.blobs").value(greaterThanOrEqualTo(DISTINCT_FILES)))
+                .andExpect(jsonPath("$.references").value(greaterThanOrEqualTo(EPISODES)))
+                .andExpect(jsonPath("$.savedBytes").isNumber());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("BlobStore - Lookup by hash")
+    void testLookupLatency() {
+        int lookups = 5000;
+        for (int i = 0; i < 200; i++) {
+            blobStore.lookup(hashes.get(i % DISTINCT_FILES));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            Path file = blobStore.lookup(hashes.get(i % DISTINCT_FILES)).orElseThrow();
+            assertTrue(file.getFileName().toString().startsWith(hashes.get(i % DISTINCT_FILES)));
+        }
+        double micros = (System.nanoTime() - start) / 1e3 / lookups;
+        // One read by _id plus path resolution: a single round trip, no directory scans
+        assertTrue(micros < 50_000, "lookup took " + (long) micros + " us");
+
+        assertTrue(blobStore.lookup("00".repeat(32)).isEmpty());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("GET /api/audio/blobs/... - Blobs are served as immutable; hidden paths are not")
+    void testServeBlob() throws Exception {
+        String key = audioBlobRepository.findById(hashes.get(0)).orElseThrow().getKey();
+        mockMvc.perform(get("/api/audio/" + key))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", containsString("immutable")))
+                .andExpect(content().bytes(files[0]));
+
+        Path hidden = Files.write(STORAGE_ROOT.resolve("blobs/.tmp/leftover.mp3"), files[0]);
+        mockMvc.perform(get("/api/audio/blobs/.tmp/leftover.mp3"))
+                .andExpect(status().isNotFound());
+        Files.delete(hidden);
+    }
+
+    // ===========================
+    // GARBAGE COLLECTION TESTS
+    // ===========================
+
+    @Test
+    @Order(5)
+    @DisplayName("BlobStore - Blobs are collected once no episode references them")
+    void testCollectGarbage() throws Exception {
+        // Los primeros DISTINCT_FILES episodios tienen cada uno un contenido distinto
+        for (int i = 0; i < EPISODES - DISTINCT_FILES; i++) {
+            episodeService.deleteEpisode(episodeIds.get(EPISODES - 1 - i), creator.getUserId());
+        }
+        Thread.sleep(10);
+        blobStore.collectGarbage();
+        assertEquals(DISTINCT_FILES, countBlobFiles());
+        for (String hash : hashes) {
+            assertEquals(1, audioBlobRepository.findById(hash).orElseThrow().getRefCount());
+        }
+
+        // Sustituir el audio del episodio 0 deja sin referencias el blob 0
+        Path incoming = Files.write(INCOMING.resolve("replacement.mp3"), files[1]);
+        AudioBlob replacement = blobStore.commit(incoming, hashes.get(1), ".mp3");
+        episodeService.attachAudio(episodeIds.get(0), blobStore.publicUrl(replacement), hashes.get(1), creator.getUserId());
+        for (int i = 1; i < DISTINCT_FILES; i++) {
+            episodeService.deleteEpisode(episodeIds.get(i), creator.getUserId());
+        }
+
+        // unreferencedSince tiene precisión de milisegundos: el GC debe ver que ha pasado el periodo de gracia (0s)
+        Thread.sleep(10);
+        blobStore.collectGarbage();
+        assertEquals(1, countBlobFiles());
+        assertTrue(audioBlobRepository.findById(hashes.get(0)).isEmpty());
+        assertEquals(1, audioBlobRepository.findById(hashes.get(1)).orElseThrow().getRefCount());
+        mockMvc.perform(get(blobStore.publicUrl(replacement)))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,174 @@
+package org.podhub.podhub.controller;
+
+import org.junit.jupiter.api.*;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.model.TrendingSnapshot;
+import org.podhub.podhub.repository.EpisodeRepository;
+import org.podhub.podhub.repository.PodcastRepository;
+import org.podhub.podhub.repository.TrendingSnapshotRepository;
+import org.podhub.podhub.security.userdetails.PodhubUserDetails;
+import org.podhub.podhub.service.TrendingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for GET /api/trending
+ * Events are fed to the in-memory engine through TrendingService (with far more weight than any real
+ * activity in the test database) and the served lists are recomputed with refresh().
+ *
+ * Prerequisites: Run DataSeeder to populate test data in MongoDB Atlas
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class TrendingControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private TrendingSnapshotRepository snapshotRepository;
+
+    private static String techId;
+    private static String businessId;
+    private static String premiumId;
+    private static String techEpisodeId;
+    private static PodhubUserDetails listener;
+
+    @BeforeAll
+    static void setupTestData(@Autowired PodcastRepository podcastRepository,
+                              @Autowired EpisodeRepository episodeRepository) {
+        // Get test data from database (assumes DataSeeder has been run)
+        techId = podcastId(podcastRepository, "tech-talk-daily");
+        businessId = podcastId(podcastRepository, "business-insights");
+        premiumId = podcastId(podcastRepository, "premium-content");
+        techEpisodeId = episodeRepository.findFirstEpisodesByPodcast(techId, 1).stream()
+                .findFirst()
+                .map(Episode::getId)
+                .orElseThrow(() -> new RuntimeException("Test episode not found. Please run DataSeeder first."));
+
+        listener = new PodhubUserDetails("test-trending-listener", "listener@test.com", "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_READ")));
+    }
+
+    private static String podcastId(PodcastRepository podcastRepository, String slug) {
+        return podcastRepository.findBySlug(slug)
+                .map(Podcast::getId)
+                .orElseThrow(() -> new RuntimeException("Test podcast not found. Please run DataSeeder first."));
+    }
+
+    // ===========================
+    // TRENDING LISTS
+    // ===========================
+
+    @Test
+    @Order(1)
+    @DisplayName("GET /api/trending - Most active podcasts first, private podcasts excluded")
+    void testTrendingPodcasts() throws Exception {
+        // tech: 1000 likes on one episode (3000); business: 200 subscriptions (1000); premium is private
+        for (int i = 0; i < 1000; i++) {
+            trendingService.onEpisodeLiked(techEpisodeId);
+        }
+        for (int i = 0; i < 200; i++) {
+            trendingService.onSubscribed(businessId);
+        }
+        for (int i = 0; i < 2000; i++) {
+            trendingService.onSubscribed(premiumId);
+        }
+        trendingService.refresh();
+
+        mockMvc.perform(get("/api/trending").with(user(listener)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].podcast.id").value(techId))
+                .andExpect(jsonPath("$[0].score").value(greaterThan(2900.0)))
+                .andExpect(jsonPath("$[0].episode").doesNotExist())
+                .andExpect(jsonPath("$[1].podcast.id").value(businessId))
+                .andExpect(jsonPath("$[*].podcast.id", not(hasItem(premiumId))));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("GET /api/trending?type=episode - Episodes come with their podcast")
+    void testTrendingEpisodes() throws Exception {
+        mockMvc.perform(get("/api/trending")
+                        .param("type", "episode")
+                        .param("limit", "5")
+                        .with(user(listener)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(lessThanOrEqualTo(5))))
+                .andExpect(jsonPath("$[0].episode.id").value(techEpisodeId))
+                .andExpect(jsonPath("$[0].podcast.id").value(techId));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("GET /api/trending?category= - Per-category list, case-insensitive")
+    void testTrendingByCategory() throws Exception {
+        mockMvc.perform(get("/api/trending")
+                        .param("category", "business")
+                        .with(user(listener)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].podcast.id").value(businessId))
+                .andExpect(jsonPath("$[*].podcast.category", everyItem(equalToIgnoringCase("Business"))));
+
+        mockMvc.perform(get("/api/trending")
+                        .param("category", "TECHNOLOGY")
+                        .with(user(listener)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].podcast.id").value(techId))
+                .andExpect(jsonPath("$[*].podcast.id", not(hasItem(businessId))));
+
+        mockMvc.perform(get("/api/trending")
+                        .param("category", "test-trending-no-such-category")
+                        .with(user(listener)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("GET /api/trending - Invalid type returns 400, anonymous returns 401")
+    void testTrendingErrors() throws Exception {
+        mockMvc.perform(get("/api/trending")
+                        .param("type", "user")
+                        .with(user(listener)))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/trending"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    // ===========================
+    // SNAPSHOT
+    // ===========================
+
+    @Test
+    @Order(5)
+    @DisplayName("snapshot() - Trending lists are saved to trending_snapshots")
+    void testSnapshot() {
+        trendingService.snapshot();
+
+        TrendingSnapshot podcasts = snapshotRepository.findById("PODCAST").orElseThrow();
+        assertNotNull(podcasts.getTakenAt());
+        assertTrue(podcasts.getItems().stream().anyMatch(item -> item.getId().equals(techId)));
+
+        TrendingSnapshot episodes = snapshotRepository.findById("EPISODE").orElseThrow();
+        assertTrue(episodes.getItems().stream()
+                .anyMatch(item -> item.getId().equals(techEpisodeId) && "Technology".equalsIgnoreCase(item.getCategory())));
+    }
+}
@@ -0,0 +1,550 @@
+package org.podhub.podhub.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.podhub.podhub.audio.Waveform;
+import org.podhub.podhub.dto.UploadSessionRequest;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.model.UploadSession;
+import org.podhub.podhub.model.User;
+import org.podhub.podhub.model.enums.UploadStatus;
+import org.podhub.podhub.repository.EpisodeRepository;
+import org.podhub.podhub.repository.PodcastRepository;
+import org.podhub.podhub.repository.UploadSessionRepository;
+import org.podhub.podhub.repository.UserRepository;
+import org.podhub.podhub.security.jwt.JwtService;
+import org.podhub.podhub.security.userdetails.PodhubUserDetails;
+import org.podhub.podhub.service.UploadService;
+import org.podhub.podhub.support.AudioFixtures;
+import org.podhub.podhub.support.GeneratedInputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for UploadController
+ * Small uploads go through MockMvc; the multi-GB upload is streamed over real HTTP (random port)
+ * from a generated body, so neither side ever holds it in memory.
+ * Size of the large upload: -Dpodhub.test.upload-bytes (default 2 GiB). It is tagged large-upload and runs in
+ * its own task (./gradlew largeUploadTest) with a 256 MB heap, so the upload is much larger than the heap.
+ *
+ * Prerequisites: Run DataSeeder to populate test data in MongoDB Atlas
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class UploadControllerTest {
+
+    private static final Path STORAGE_ROOT;
+    private static final Path WORK_DIR;
+    private static final long LARGE_UPLOAD_BYTES = Long.getLong("podhub.test.upload-bytes", 2L << 30);
+    private static final long LARGE_CHUNK_BYTES = 512L << 20;
+    private static final byte[] AUDIO = new byte[3 * 1024 * 1024 + 17];
+
+    static {
+        new Random(7).nextBytes(AUDIO);
+        try {
+            STORAGE_ROOT = Files.createTempDirectory("podhub-upload-audio");
+            WORK_DIR = Files.createTempDirectory("podhub-upload-work");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void storageProperties(DynamicPropertyRegistry registry) {
+        registry.add("podhub.storage.audio-root", STORAGE_ROOT::toString);
+        registry.add("podhub.upload.work-dir", WORK_DIR::toString);
+        registry.add("podhub.upload.max-size-bytes", () -> Long.toString(Math.max(8L << 30, LARGE_UPLOAD_BYTES)));
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UploadService uploadService;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private EpisodeRepository episodeRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @LocalServerPort
+    private int port;
+
+    private static PodhubUserDetails creator;
+    private static PodhubUserDetails stranger;
+    private static String creatorEmail;
+    private static String podcastId;
+    private static String episodeId;
+    private static String uploadId;
+
+    @BeforeAll
+    static void setupTestData(@Autowired UserRepository userRepository,
+                              @Autowired PodcastRepository podcastRepository,
+                              @Autowired EpisodeRepository episodeRepository) {
+        // Get test data from database (assumes DataSeeder has been run)
+        User creatorUser = userRepository.findByUsername("john_creator")
+                .orElseThrow(() -> new RuntimeException("Test user not found. Please run DataSeeder first."));
+        creatorEmail = creatorUser.getEmail();
+        creator = new PodhubUserDetails(creatorUser.getId(), creatorEmail, "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_WRITE")));
+        stranger = new PodhubUserDetails("000000000000000000000001", "stranger@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_WRITE")));
+
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        Instant now = Instant.now();
+        podcastId = podcastRepository.save(Podcast.builder()
+                .creatorId(creatorUser.getId())
+                .title("Upload Test " + runId)
+                .slug("upload-test-" + runId)
+                .isPublic(false)
+                .createdAt(now)
+                .updatedAt(now)
+                .build()).getId();
+        episodeId = episodeRepository.save(Episode.builder()
+                .podcastId(podcastId)
+                .title("Upload Test Episode")
+                .isPublic(false)
+                .createdAt(now)
+                .updatedAt(now)
+                .build()).getId();
+    }
+
+    @AfterAll
+    static void cleanup(@Autowired PodcastRepository podcastRepository,
+                        @Autowired EpisodeRepository episodeRepository,
+                        @Autowired UploadSessionRepository uploadSessionRepository) throws IOException {
+        uploadSessionRepository.deleteAll(uploadSessionRepository.findAll().stream()
+                .filter(session -> episodeId.equals(session.getEpisodeId()))
+                .toList());
+        episodeRepository.deleteById(episodeId);
+        podcastRepository.deleteById(podcastId);
+        for (Path root : List.of(STORAGE_ROOT, WORK_DIR)) {
+            try (var files = Files.walk(root)) {
+                files.sorted((a, b) -> b.getNameCount() - a.getNameCount()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private String createSession(long length) throws Exception {
+        UploadSessionRequest request = UploadSessionRequest.builder()
+                .episodeId(episodeId)
+                .length(length)
+                .fileName("episode.mp3")
+                .contentType("audio/mpeg")
+                .build();
+        String body = mockMvc.perform(post("/api/uploads")
+                        .with(user(creator))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, UploadSession.class).getId();
+    }
+
+    private void patchChunk(String id, long offset, byte[] chunk, int expectedStatus) throws Exception {
+        mockMvc.perform(patch("/api/uploads/" + id)
+                        .with(user(creator))
+                        .header("Upload-Offset", offset)
+                        .contentType("application/offset+octet-stream")
+                        .content(chunk))
+                .andExpect(status().is(expectedStatus));
+    }
+
+    private static String sha256(byte[] data) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+
+    // ===========================
+    // CREATE TESTS
+    // ===========================
+
+    @Test
+    @Order(1)
+    @DisplayName("POST /api/uploads - Open upload session")
+    void testCreateUpload() throws Exception {
+        UploadSessionRequest request = UploadSessionRequest.builder()
+                .episodeId(episodeId)
+                .length((long) AUDIO.length)
+                .fileName("episode.mp3")
+                .build();
+
+        String body = mockMvc.perform(post("/api/uploads")
+                        .with(user(creator))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", startsWith("/api/uploads/")))
+                .andExpect(header().string("Upload-Offset", "0"))
+                .andExpect(jsonPath("$.status").value("UPLOADING"))
+                .andExpect(jsonPath("$.length").value(AUDIO.length))
+                .andReturn().getResponse().getContentAsString();
+        uploadId = objectMapper.readValue(body, UploadSession.class).getId();
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("POST /api/uploads - 403 for an episode of another creator")
+    void testCreateUploadForbidden() throws Exception {
+        UploadSessionRequest request = UploadSessionRequest.builder().episodeId(episodeId).length(10L).build();
+
+        mockMvc.perform(post("/api/uploads")
+                        .with(user(stranger))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isForbidden());
+    }
+
+    // ===========================
+    // CHUNK TESTS
+    // ===========================
+
+    @Test
+    @Order(3)
+    @DisplayName("PATCH /api/uploads/{id} - First chunk advances Upload-Offset")
+    void testFirstChunk() throws Exception {
+        mockMvc.perform(patch("/api/uploads/" + uploadId)
+                        .with(user(creator))
+                        .header("Upload-Offset", 0)
+                        .contentType("application/offset+octet-stream")
+                        .content(Arrays.copyOfRange(AUDIO, 0, 1_000_000)))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("Upload-Offset", "1000000"));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("PATCH /api/uploads/{id} - 409 when Upload-Offset is not the current offset")
+    void testChunkOffsetMismatch() throws Exception {
+        patchChunk(uploadId, 0, Arrays.copyOfRange(AUDIO, 0, 100), 409);
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("HEAD /api/uploads/{id} - Current offset to resume from")
+    void testHeadOffset() throws Exception {
+        mockMvc.perform(head("/api/uploads/" + uploadId).with(user(creator)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Upload-Offset", "1000000"))
+                .andExpect(header().string("Upload-Length", String.valueOf(AUDIO.length)));
+
+        mockMvc.perform(head("/api/uploads/" + uploadId).with(user(stranger)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("PATCH /api/uploads/{id} - Interrupted chunk keeps the bytes received")
+    void testInterruptedChunk() {
+        // The client drops the connection after 500000 bytes of a 2000000-byte chunk
+        InputStream dropped = new InputStream() {
+            private int position = 1_000_000;
+
+            @Override
+            public int read() throws IOException {
+                if (position == 1_500_000) {
+                    throw new IOException("Connection reset by peer");
+                }
+                return AUDIO[position++] & 0xFF;
+            }
+        };
+
+        UploadSession session = uploadService.appendChunk(uploadId, 1_000_000, dropped, creator.getUserId());
+
+        assertEquals(1_500_000, session.getOffset());
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("POST /api/uploads/{id}/complete - 409 while bytes are missing")
+    void testCompleteIncomplete() throws Exception {
+        mockMvc.perform(post("/api/uploads/" + uploadId + "/complete").with(user(creator)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("PATCH /api/uploads/{id} - 400 for a chunk past the declared length")
+    void testChunkOverflow() throws Exception {
+        byte[] tooLong = Arrays.copyOf(Arrays.copyOfRange(AUDIO, 1_500_000, AUDIO.length), AUDIO.length - 1_500_000 + 10);
+
+        patchChunk(uploadId, 1_500_000, tooLong, 400);
+
+        // What fits is kept: the upload is now complete
+        assertEquals(AUDIO.length, uploadSessionRepository.findById(uploadId).orElseThrow().getOffset());
+    }
+
+    // ===========================
+    // COMPLETE TESTS
+    // ===========================
+
+    @Test
+    @Order(9)
+    @DisplayName("POST /api/uploads/{id}/complete - 400 on SHA-256 mismatch")
+    void testCompleteChecksumMismatch() throws Exception {
+        mockMvc.perform(post("/api/uploads/" + uploadId + "/complete")
+                        .with(user(creator))
+                        .param("sha256", "00".repeat(32)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("POST /api/uploads/{id}/complete - Attach file to the episode")
+    void testComplete() throws Exception {
+        String expected = sha256(AUDIO);
+
+        String body = mockMvc.perform(post("/api/uploads/" + uploadId + "/complete")
+                        .with(user(creator))
+                        .param("sha256", expected))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.sha256").value(expected))
+                .andExpect(jsonPath("$.audioUrl").value(startsWith("/api/audio/")))
+                .andReturn().getResponse().getContentAsString();
+        String audioUrl = objectMapper.readValue(body, UploadSession.class).getAudioUrl();
+
+        Episode episode = episodeRepository.findById(episodeId).orElseThrow();
+        assertEquals(audioUrl, episode.getAudioUrl());
+        assertEquals(expected, episode.getAudioSha256());
+        mockMvc.perform(get(audioUrl))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(AUDIO));
+        try (var parts = Files.list(WORK_DIR)) {
+            assertEquals(0, parts.count());
+        }
+    }
+
+    // ===========================
+    // ABORT AND GARBAGE COLLECTION TESTS
+    // ===========================
+
+    @Test
+    @Order(11)
+    @DisplayName("DELETE /api/uploads/{id} - Abort removes the partial file")
+    void testAbort() throws Exception {
+        String id = createSession(1000);
+        patchChunk(id, 0, Arrays.copyOfRange(AUDIO, 0, 500), 204);
+
+        mockMvc.perform(delete("/api/uploads/" + id).with(user(creator)))
+                .andExpect(status().isNoContent());
+
+        assertFalse(Files.exists(WORK_DIR.resolve(id + ".part")));
+        mockMvc.perform(get("/api/uploads/" + id).with(user(creator)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("Abandoned uploads are garbage-collected")
+    void testCollectGarbage() throws Exception {
+        String abandoned = createSession(1000);
+        patchChunk(abandoned, 0, Arrays.copyOfRange(AUDIO, 0, 500), 204);
+        String active = createSession(1000);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(abandoned)),
+                new Update().set("updatedAt", Instant.now().minus(2, ChronoUnit.DAYS)), UploadSession.class);
+
+        assertTrue(uploadService.collectGarbage() >= 1);
+
+        assertFalse(uploadSessionRepository.existsById(abandoned));
+        assertFalse(Files.exists(WORK_DIR.resolve(abandoned + ".part")));
+        assertEquals(UploadStatus.UPLOADING, uploadSessionRepository.findById(active).orElseThrow().getStatus());
+        assertTrue(Files.exists(WORK_DIR.resolve(active + ".part")));
+    }
+
+    // ===========================
+    // LARGE UPLOAD TEST
+    // ===========================
+
+    @Test
+    @Tag("large-upload")
+    @Order(13)
+    @DisplayName("PATCH /api/uploads/{id} - Multi-GB upload streamed in chunks over HTTP")
+    void testLargeUpload() throws Exception {
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        assertTrue(LARGE_UPLOAD_BYTES > maxHeap, "upload of " + LARGE_UPLOAD_BYTES + " bytes fits in a heap of "
+                + maxHeap + " bytes: run it with ./gradlew largeUploadTest");
+        String id = createSession(LARGE_UPLOAD_BYTES);
+        String token = jwtService.generateAccessToken(creatorEmail, Map.of());
+        URI uri = URI.create("http://localhost:" + port + "/api/uploads/" + id);
+        GeneratedInputStream source = new GeneratedInputStream(LARGE_UPLOAD_BYTES, 42);
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            long offset = 0;
+            while (offset < LARGE_UPLOAD_BYTES) {
+                long chunk = Math.min(LARGE_CHUNK_BYTES, LARGE_UPLOAD_BYTES - offset);
+                InputStream body = new FilterInputStream(source) {
+                    private long remaining = chunk;
+
+                    @Override
+                    public int read(byte[] buffer, int off, int len) throws IOException {
+                        if (remaining == 0) {
+                            return -1;
+                        }
+                        int read = super.read(buffer, off, (int) Math.min(len, remaining));
+                        remaining -= Math.max(read, 0);
+                        return read;
+                    }
+
+                    @Override
+                    public void close() {
+                        // The generator is shared by all chunks
+                    }
+                };
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri)
+                                .header("Authorization", "Bearer " + token)
+                                .header("Upload-Offset", Long.toString(offset))
+                                .header("Content-Type", "application/offset+octet-stream")
+                                .method("PATCH", HttpRequest.BodyPublishers.fromPublisher(
+                                        HttpRequest.BodyPublishers.ofInputStream(() -> body), chunk))
+                                .build(),
+                        HttpResponse.BodyHandlers.discarding());
+                assertEquals(204, response.statusCode());
+                offset = Long.parseLong(response.headers().firstValue("Upload-Offset").orElseThrow());
+            }
+        }
+
+        long peakHeap = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+        // Bounded independently of the upload size: the body was streamed to disk, never held in memory
+        assertTrue(peakHeap < LARGE_UPLOAD_BYTES / 4, "peak heap " + (peakHeap >> 20) + " MB");
+
+        String body = mockMvc.perform(post("/api/uploads/" + id + "/complete")
+                        .with(user(creator))
+                        .param("sha256", source.sha256()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andReturn().getResponse().getContentAsString();
+        // Stored content-addressed: /api/audio/blobs/ab/cd/{sha256}.mp3
+        String audioUrl = objectMapper.readValue(body, UploadSession.class).getAudioUrl();
+        assertTrue(audioUrl.endsWith(source.sha256() + ".mp3"));
+        assertEquals(LARGE_UPLOAD_BYTES, Files.size(STORAGE_ROOT.resolve(audioUrl.substring("/api/audio/".length()))));
+    }
+
+    // ===========================
+    // AUDIO METADATA TESTS
+    // ===========================
+
+    @Test
+    @Order(14)
+    @DisplayName("POST /api/uploads/{id}/complete - Duration and chapters are probed in the background")
+    void testCompleteProbesAudio() throws Exception {
+        int frames = 6_000;
+        byte[] mp3 = AudioFixtures.mp3(
+                AudioFixtures.id3(List.of(new AudioFixtures.Chapter(0, "Intro"), new AudioFixtures.Chapter(60_000, "Main")), 1024),
+                AudioFixtures.VbrHeader.XING, frames);
+        // The client-sent duration is replaced by the probed one
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(episodeId)),
+                new Update().set("durationSec", 1), Episode.class);
+
+        String id = createSession(mp3.length);
+        patchChunk(id, 0, mp3, 204);
+        mockMvc.perform(post("/api/uploads/" + id + "/complete").with(user(creator)))
+                .andExpect(status().isOk());
+
+        Episode episode = episodeRepository.findById(episodeId).orElseThrow();
+        for (int i = 0; i < 100 && episode.getAudioMetadata() == null; i++) {
+            Thread.sleep(50);
+            episode = episodeRepository.findById(episodeId).orElseThrow();
+        }
+        assertNotNull(episode.getAudioMetadata());
+        assertEquals("mp3", episode.getAudioMetadata().getFormat());
+        assertEquals(AudioFixtures.durationMs(frames), episode.getAudioMetadata().getDurationMs());
+        assertEquals(Math.round(AudioFixtures.durationMs(frames) / 1000.0), episode.getDurationSec().longValue());
+        assertEquals(2, episode.getAudioMetadata().getChapters().size());
+        assertEquals("Main", episode.getAudioMetadata().getChapters().get(1).getTitle());
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("GET /api/waveforms/{sha256} - Peaks generated in the background, public and immutable")
+    void testWaveform() throws Exception {
+        Episode episode = episodeRepository.findById(episodeId).orElseThrow();
+        String sha256 = episode.getAudioSha256();
+        assertNotNull(sha256);
+
+        // 202 while the peaks are being generated; no JWT needed, like the audio itself
+        MockHttpServletResponse response = null;
+        for (int i = 0; i < 100; i++) {
+            response = mockMvc.perform(get("/api/waveforms/" + sha256)).andReturn().getResponse();
+            if (response.getStatus() != 202) {
+                break;
+            }
+            assertEquals("5", response.getHeader("Retry-After"));
+            Thread.sleep(50);
+        }
+        assertEquals(200, response.getStatus());
+        assertEquals(Waveform.CONTENT_TYPE, response.getContentType());
+        assertThat(response.getHeader("Cache-Control"), allOf(containsString("immutable"), containsString("public")));
+        String eTag = response.getHeader("ETag");
+        assertNotNull(eTag);
+
+        Waveform waveform = Waveform.read(new ByteArrayInputStream(response.getContentAsByteArray()));
+        assertEquals(AudioFixtures.SAMPLE_RATE, waveform.sampleRate());
+        assertEquals(6_000L * AudioFixtures.SAMPLES_PER_FRAME, waveform.samples(), AudioFixtures.SAMPLES_PER_FRAME * 2);
+        assertFalse(waveform.levels().isEmpty());
+
+        mockMvc.perform(get("/api/waveforms/" + sha256).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/waveforms/" + "0".repeat(64)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/waveforms/not-a-hash"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -2,20 +2,29 @@ package org.podhub.podhub.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.*;
+import org.podhub.podhub.dto.UserPatchRequest;
 import org.podhub.podhub.model.User;
 import org.podhub.podhub.model.enums.UserRole;
 import org.podhub.podhub.model.enums.UserStatus;
 import org.podhub.podhub.repository.UserRepository;
+import org.podhub.podhub.security.userdetails.PodhubUserDetails;
+import org.podhub.podhub.support.MongoCommandCounter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Set;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -27,6 +36,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 @SpringBootTest
 @AutoConfigureMockMvc(addFilters = false)
+@Import(MongoCommandCounter.class)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class UserControllerTest {
 
@@ -39,6 +49,9 @@ class UserControllerTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MongoCommandCounter mongoCommandCounter;
+
     private static String testUserId;
     private static String testUsername;
 
@@ -348,4 +361,51 @@ class UserControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.data").isArray());
     }
+
+    // ===========================
+    // EXPORT TESTS
+    // ===========================
+
+    @Test
+    @Order(17)
+    @DisplayName("GET /api/users/export - Admin streams NDJSON without password hashes")
+    void testExportUsersAsAdmin() throws Exception {
+        PodhubUserDetails admin = new PodhubUserDetails(testUserId, "admin@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+        MvcResult started = mockMvc.perform(get("/api/users/export").with(user(admin)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", containsString("users.ndjson")))
+                .andExpect(content().string(containsString("\"username\":\"" + testUsername + "\"")))
+                .andExpect(content().string(not(containsString("passwordHash"))));
+    }
+
+    // ===========================
+    // ROUND TRIP TESTS
+    // ===========================
+
+    @Test
+    @Order(18)
+    @DisplayName("PATCH /api/users/{id} - Single findAndModify, the caller comes from the principal")
+    void testPatchUserRoundTrips() throws Exception {
+        PodhubUserDetails self = new PodhubUserDetails(testUserId, "self@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("EPISODE_READ")));
+
+        // Self/admin is checked in memory, then a findAndModify $sets the bio
+        mongoCommandCounter.reset();
+        mockMvc.perform(patch("/api/users/{id}", testUserId)
+                        .with(user(self))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(UserPatchRequest.builder()
+                                .bio("Round trip check")
+                                .build())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bio").value("Round trip check"));
+        assertEquals(1, mongoCommandCounter.count());
+    }
 }
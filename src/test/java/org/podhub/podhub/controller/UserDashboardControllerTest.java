@@ -0,0 +1,281 @@
+package org.podhub.podhub.controller;
+
+import org.junit.jupiter.api.*;
+import org.podhub.podhub.dto.CreatorDashboard;
+import org.podhub.podhub.model.AppliedRollupEvent;
+import org.podhub.podhub.model.CommentTarget;
+import org.podhub.podhub.model.DailyRollup;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.model.enums.CommentTargetType;
+import org.podhub.podhub.model.enums.RollupCounter;
+import org.podhub.podhub.repository.DailyRollupRepository;
+import org.podhub.podhub.repository.EpisodeRepository;
+import org.podhub.podhub.repository.PodcastRepository;
+import org.podhub.podhub.security.userdetails.PodhubUserDetails;
+import org.podhub.podhub.service.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the creator dashboard (GET /api/users/{id}/dashboard)
+ * Events are counted through DashboardService on a seeded podcast and compared with the values
+ * before the test; compaction is tested on a podcast of a synthetic creator created for the test
+ * (ten days ago and in 2001), which is removed afterwards with its rollups.
+ *
+ * Prerequisites: Run DataSeeder to populate test data in MongoDB Atlas
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class UserDashboardControllerTest {
+
+    private static final String PAST_DAY = "2001-01-15";
+    private static final String TEST_CREATOR = "test-dashboard-creator";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private DailyRollupRepository rollupRepository;
+
+    private static String techId;
+    private static String episodeId;
+    private static String creatorId;
+    private static String today;
+    private static String testPodcastId;
+    private static PodhubUserDetails testCreator;
+    private static PodhubUserDetails creator;
+    private static PodhubUserDetails otherUser;
+    private static PodhubUserDetails admin;
+
+    @BeforeAll
+    static void setupTestData(@Autowired PodcastRepository podcastRepository,
+                              @Autowired EpisodeRepository episodeRepository) {
+        // Get test data from database (assumes DataSeeder has been run)
+        Podcast tech = podcastRepository.findBySlug("tech-talk-daily")
+                .orElseThrow(() -> new RuntimeException("Test podcast not found. Please run DataSeeder first."));
+        techId = tech.getId();
+        creatorId = tech.getCreatorId();
+        episodeId = episodeRepository.findFirstEpisodesByPodcast(techId, 1).stream()
+                .findFirst()
+                .map(Episode::getId)
+                .orElseThrow(() -> new RuntimeException("Test episode not found. Please run DataSeeder first."));
+        today = LocalDate.now(ZoneOffset.UTC).toString();
+
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        Instant now = Instant.now();
+        testPodcastId = podcastRepository.save(Podcast.builder()
+                .creatorId(TEST_CREATOR)
+                .title("Dashboard Test " + runId)
+                .slug("dashboard-test-" + runId)
+                .isPublic(false)
+                .createdAt(now)
+                .updatedAt(now)
+                .build()).getId();
+
+        creator = new PodhubUserDetails(creatorId, "creator@test.com", "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_WRITE")));
+        otherUser = new PodhubUserDetails("test-dashboard-other", "other@test.com", "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_READ")));
+        testCreator = new PodhubUserDetails(TEST_CREATOR, "dashboard@test.com", "n/a",
+                List.of(new SimpleGrantedAuthority("PODCAST_WRITE")));
+        admin = new PodhubUserDetails("test-dashboard-admin", "admin@podhub.com", "n/a",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+
+    @AfterAll
+    static void cleanup(@Autowired MongoTemplate mongoTemplate,
+                        @Autowired PodcastRepository podcastRepository) {
+        mongoTemplate.remove(Query.query(Criteria.where("podcastId").is(testPodcastId)), DailyRollup.class);
+        mongoTemplate.remove(Query.query(Criteria.where("_id").regex("^test-dashboard-event:")),
+                AppliedRollupEvent.class);
+        podcastRepository.deleteById(testPodcastId);
+    }
+
+    private static String eventKey() {
+        return "test-dashboard-event:" + UUID.randomUUID();
+    }
+
+    private static CreatorDashboard.Counts podcastCounts(CreatorDashboard dashboard) {
+        return dashboard.getPodcasts().stream()
+                .filter(p -> p.getPodcastId().equals(techId))
+                .findFirst()
+                .orElseThrow()
+                .getCounts();
+    }
+
+    // ===========================
+    // INCREMENTAL COUNTERS
+    // ===========================
+
+    @Test
+    @Order(1)
+    @DisplayName("on* hooks - Events are counted in today's rollup")
+    void testIncrementalCounters() {
+        CreatorDashboard before = dashboardService.dashboard(creatorId, today, today);
+
+        dashboardService.onSubscribed(eventKey(), techId);
+        dashboardService.onEpisodeLiked(eventKey(), episodeId);
+        dashboardService.onEpisodeLiked(eventKey(), episodeId);
+        dashboardService.onCommented(eventKey(), new CommentTarget(CommentTargetType.EPISODE, episodeId));
+        dashboardService.onCommented(eventKey(), new CommentTarget(CommentTargetType.PODCAST, techId));
+        dashboardService.onEpisodeListened(eventKey(), episodeId, null);
+        // Same listener again today: not a new listener
+        dashboardService.onEpisodeListened(eventKey(), episodeId, Instant.now());
+        dashboardService.onEpisodeCompleted(eventKey(), episodeId);
+
+        CreatorDashboard after = dashboardService.dashboard(creatorId, today, today);
+        assertEquals(before.getTotals().getSubscribers() + 1, after.getTotals().getSubscribers());
+        assertEquals(before.getTotals().getLikes() + 2, after.getTotals().getLikes());
+        assertEquals(before.getTotals().getComments() + 2, after.getTotals().getComments());
+        assertEquals(before.getTotals().getListeners() + 1, after.getTotals().getListeners());
+        assertEquals(before.getTotals().getCompletions() + 1, after.getTotals().getCompletions());
+        assertEquals(podcastCounts(before).getLikes() + 2, podcastCounts(after).getLikes());
+        assertEquals(1, after.getDays().size());
+        assertEquals(today, after.getDays().get(0).getDay());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("on* hooks - A redelivered event is counted once")
+    void testRedeliveredEventCountedOnce() {
+        CreatorDashboard before = dashboardService.dashboard(creatorId, today, today);
+
+        // Same key: the publication was resubmitted while the first delivery was still queued
+        String key = eventKey();
+        dashboardService.onEpisodeLiked(key, episodeId);
+        dashboardService.onEpisodeLiked(key, episodeId);
+        String subscribedKey = eventKey();
+        dashboardService.onSubscribed(subscribedKey, techId);
+        dashboardService.onSubscribed(subscribedKey, techId);
+
+        CreatorDashboard after = dashboardService.dashboard(creatorId, today, today);
+        assertEquals(before.getTotals().getLikes() + 1, after.getTotals().getLikes());
+        assertEquals(before.getTotals().getSubscribers() + 1, after.getTotals().getSubscribers());
+    }
+
+    // ===========================
+    // COMPACTION
+    // ===========================
+
+    @Test
+    @Order(3)
+    @DisplayName("compact() - Closed days become one row per podcast without changing the totals")
+    void testCompaction() {
+        String recentDay = LocalDate.now(ZoneOffset.UTC).minusDays(10).toString();
+        rollupRepository.increment(testPodcastId, episodeId, recentDay, RollupCounter.LISTENERS);
+        rollupRepository.increment(testPodcastId, episodeId, recentDay, RollupCounter.LISTENERS);
+        rollupRepository.increment(testPodcastId, "test-dashboard-episode", recentDay, RollupCounter.LISTENERS);
+        rollupRepository.increment(testPodcastId, null, recentDay, RollupCounter.SUBSCRIBERS);
+        CreatorDashboard open = dashboardService.dashboard(TEST_CREATOR, recentDay, recentDay);
+        assertEquals(3, open.getTotals().getListeners());
+        assertEquals(1, open.getTotals().getSubscribers());
+
+        assertTrue(dashboardService.compact() >= 1);
+        assertEquals(1, rollupRepository.findTotals(List.of(testPodcastId), recentDay, recentDay).size());
+        assertTrue(rollupRepository.findUncompacted(List.of(testPodcastId), recentDay, recentDay).isEmpty());
+        assertEquals(open.getTotals(), dashboardService.dashboard(TEST_CREATOR, recentDay, recentDay).getTotals());
+
+        // A late event reopens the day until the next compaction, which adds it to the total
+        rollupRepository.increment(testPodcastId, episodeId, recentDay, RollupCounter.LIKES);
+        assertEquals(0, dashboardService.dashboard(TEST_CREATOR, recentDay, recentDay).getTotals().getLikes());
+        dashboardService.compact();
+        CreatorDashboard compacted = dashboardService.dashboard(TEST_CREATOR, recentDay, recentDay);
+        assertEquals(1, compacted.getTotals().getLikes());
+        assertEquals(3, compacted.getTotals().getListeners());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("compact() - Episode rows older than podhub.dashboard.episode-rows-days are deleted once summarized")
+    void testOldEpisodeRowsDeleted() {
+        rollupRepository.increment(testPodcastId, episodeId, PAST_DAY, RollupCounter.LISTENERS);
+        rollupRepository.increment(testPodcastId, episodeId, PAST_DAY, RollupCounter.COMPLETIONS);
+        dashboardService.compact();
+
+        assertTrue(rollupRepository.findUncompacted(List.of(testPodcastId), PAST_DAY, PAST_DAY).isEmpty());
+        List<DailyRollup> totals = rollupRepository.findTotals(List.of(testPodcastId), PAST_DAY, PAST_DAY);
+        assertEquals(1, totals.size());
+        assertEquals(1L, totals.get(0).getListeners());
+        assertEquals(1L, totals.get(0).getCompletions());
+        assertTrue(rollupRepository.findAllById(List.of(testPodcastId + ":" + episodeId + ":" + PAST_DAY)).isEmpty());
+    }
+
+    // ===========================
+    // ENDPOINT
+    // ===========================
+
+    @Test
+    @Order(5)
+    @DisplayName("GET /api/users/{id}/dashboard - Totals, one entry per day and per podcast")
+    void testGetDashboard() throws Exception {
+        mockMvc.perform(get("/api/users/" + TEST_CREATOR + "/dashboard")
+                        .param("from", "2001-01-01")
+                        .param("to", "2001-01-31")
+                        .with(user(testCreator)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from").value("2001-01-01"))
+                .andExpect(jsonPath("$.days", hasSize(31)))
+                .andExpect(jsonPath("$.days[14].day").value(PAST_DAY))
+                .andExpect(jsonPath("$.days[14].counts.listeners").value(1))
+                .andExpect(jsonPath("$.totals.completions").value(1))
+                .andExpect(jsonPath("$.podcasts", hasSize(1)))
+                .andExpect(jsonPath("$.podcasts[0].podcastId").value(testPodcastId));
+
+        mockMvc.perform(get("/api/users/" + creatorId + "/dashboard").with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.to").value(today))
+                .andExpect(jsonPath("$.days", hasSize(30)))
+                .andExpect(jsonPath("$.totals.listeners").value(greaterThanOrEqualTo(1)));
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("GET /api/users/{id}/dashboard - Invalid ranges return 400, other users 403, anonymous 401")
+    void testGetDashboardErrors() throws Exception {
+        mockMvc.perform(get("/api/users/" + creatorId + "/dashboard")
+                        .param("from", "yesterday")
+                        .with(user(creator)))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/users/" + creatorId + "/dashboard")
+                        .param("from", "2001-02-01")
+                        .param("to", "2001-01-01")
+                        .with(user(creator)))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/users/" + creatorId + "/dashboard")
+                        .param("from", "2000-01-01")
+                        .param("to", "2001-12-31")
+                        .with(user(creator)))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/users/" + creatorId + "/dashboard").with(user(otherUser)))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/users/" + creatorId + "/dashboard"))
+                .andExpect(status().isUnauthorized());
+    }
+}
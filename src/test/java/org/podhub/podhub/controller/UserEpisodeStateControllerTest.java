@@ -0,0 +1,160 @@
+package org.podhub.podhub.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.podhub.podhub.dto.EpisodeStateRequest;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.EpisodeLike;
+import org.podhub.podhub.model.ListeningProgress;
+import org.podhub.podhub.model.Podcast;
+import org.podhub.podhub.model.User;
+import org.podhub.podhub.repository.EpisodeLikeRepository;
+import org.podhub.podhub.repository.EpisodeRepository;
+import org.podhub.podhub.repository.ListeningProgressRepository;
+import org.podhub.podhub.repository.PodcastRepository;
+import org.podhub.podhub.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for UserEpisodeStateController
+ * Tests the bulk liked/progress/completed lookup for a page of episodes
+ *
+ * Prerequisites: Run DataSeeder to populate test data in MongoDB Atlas
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class UserEpisodeStateControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EpisodeRepository episodeRepository;
+
+    @Autowired
+    private EpisodeLikeRepository episodeLikeRepository;
+
+    @Autowired
+    private ListeningProgressRepository listeningProgressRepository;
+
+    @Autowired
+    private PodcastRepository podcastRepository;
+
+    private static String testUserId;
+
+    @BeforeAll
+    static void setupTestData(@Autowired UserRepository userRepository) {
+        // Get test data from database (assumes DataSeeder has been run)
+        User testUser = userRepository.findByEmail("listener1@podhub.com")
+                .orElseThrow(() -> new RuntimeException("Test user not found. Please run DataSeeder first."));
+        testUserId = testUser.getId();
+    }
+
+    private Episode createEpisode(String title) {
+        Podcast testPodcast = podcastRepository.findBySlug("tech-talk-daily")
+                .orElseThrow(() -> new RuntimeException("Test podcast not found."));
+
+        Episode newEpisode = new Episode();
+        newEpisode.setTitle(title);
+        newEpisode.setPodcastId(testPodcast.getId());
+        newEpisode.setAudioUrl("https://example.com/audio-state.mp3");
+        newEpisode.setDescription("For testing episode state");
+        newEpisode.setDurationSec(600);
+        newEpisode.setIsPublic(true);
+        newEpisode.setPublishAt(Instant.now());
+        return episodeRepository.save(newEpisode);
+    }
+
+    // ===========================
+    // BULK STATE TESTS
+    // ===========================
+
+    @Test
+    @Order(1)
+    @DisplayName("POST /api/users/{userId}/episode-state - Liked, in progress and untouched episodes")
+    void testGetEpisodeStates() throws Exception {
+        Episode liked = createEpisode("Test State Liked Episode");
+        Episode inProgress = createEpisode("Test State Progress Episode");
+        Episode untouched = createEpisode("Test State Untouched Episode");
+
+        episodeLikeRepository.save(EpisodeLike.builder()
+                .userId(testUserId)
+                .episodeId(liked.getId())
+                .createdAt(Instant.now())
+                .build());
+        listeningProgressRepository.save(ListeningProgress.builder()
+                .userId(testUserId)
+                .episodeId(inProgress.getId())
+                .positionSeconds(120)
+                .completed(false)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build());
+
+        EpisodeStateRequest request = EpisodeStateRequest.builder()
+                .episodeIds(List.of(liked.getId(), inProgress.getId(), untouched.getId()))
+                .build();
+
+        mockMvc.perform(post("/api/users/{userId}/episode-state", testUserId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['" + liked.getId() + "'].liked").value(true))
+                .andExpect(jsonPath("$['" + liked.getId() + "'].positionSeconds").doesNotExist())
+                .andExpect(jsonPath("$['" + inProgress.getId() + "'].liked").value(false))
+                .andExpect(jsonPath("$['" + inProgress.getId() + "'].positionSeconds").value(120))
+                .andExpect(jsonPath("$['" + inProgress.getId() + "'].completed").value(false))
+                .andExpect(jsonPath("$['" + untouched.getId() + "'].liked").value(false))
+                .andExpect(jsonPath("$['" + untouched.getId() + "'].completed").value(false));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("POST /api/users/{userId}/episode-state - Fail with empty episode list (400 Bad Request)")
+    void testGetEpisodeStatesEmpty() throws Exception {
+        EpisodeStateRequest request = EpisodeStateRequest.builder()
+                .episodeIds(List.of())
+                .build();
+
+        mockMvc.perform(post("/api/users/{userId}/episode-state", testUserId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.error").value("Bad Request"));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("POST /api/users/{userId}/episode-state - Fail with more than 200 episodes (400 Bad Request)")
+    void testGetEpisodeStatesTooMany() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 201; i++) {
+            ids.add("episode-" + i);
+        }
+        EpisodeStateRequest request = EpisodeStateRequest.builder()
+                .episodeIds(ids)
+                .build();
+
+        mockMvc.perform(post("/api/users/{userId}/episode-state", testUserId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+    }
+}
@@ -244,6 +244,57 @@ class UserSubscriptionControllerTest {
                 .andExpect(jsonPath("$.error").value("Not Found"));
     }
 
+    // ===========================
+    // SUBSCRIPTION EXISTENCE TESTS
+    // ===========================
+
+    @Test
+    @Order(9)
+    @DisplayName("GET /api/users/{userId}/subscriptions/{podcastId} - Subscribed, then unsubscribed")
+    void testCheckSubscriptionExists() throws Exception {
+        Podcast newPodcast = new Podcast();
+        newPodcast.setTitle("Test Membership Podcast");
+        newPodcast.setSlug("test-membership-podcast-" + System.currentTimeMillis());
+        newPodcast.setDescription("For testing subscription existence checks");
+        newPodcast.setCategory("Test");
+        newPodcast.setCreatorId(testUserId);
+        newPodcast.setIsPublic(true);
+        Podcast savedPodcast = podcastRepository.save(newPodcast);
+
+        // Not subscribed yet (loads the membership set of the user)
+        mockMvc.perform(get("/api/users/{userId}/subscriptions/{podcastId}", testUserId, savedPodcast.getId()))
+                .andExpect(status().isNotFound());
+
+        SubscriptionRequest request = SubscriptionRequest.builder()
+                .podcastId(savedPodcast.getId())
+                .build();
+
+        mockMvc.perform(post("/api/users/{userId}/subscriptions", testUserId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        // Cached membership set is updated by subscribe
+        mockMvc.perform(get("/api/users/{userId}/subscriptions/{podcastId}", testUserId, savedPodcast.getId()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/users/{userId}/subscriptions/{podcastId}", testUserId, savedPodcast.getId()))
+                .andExpect(status().isNoContent());
+
+        // ...and by unsubscribe
+        mockMvc.perform(get("/api/users/{userId}/subscriptions/{podcastId}", testUserId, savedPodcast.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("GET /api/users/{userId}/subscriptions/{podcastId} - Not subscribed (404 Not Found)")
+    void testCheckSubscriptionNotExists() throws Exception {
+        mockMvc.perform(get("/api/users/{userId}/subscriptions/{podcastId}",
+                        testUserId, "non-existent-podcast-id"))
+                .andExpect(status().isNotFound());
+    }
+
     // ===========================
     // AUTHENTICATION TESTS
     // ===========================
@@ -0,0 +1,240 @@
+package org.podhub.podhub.feed;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.podhub.podhub.support.FeedFixtures;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FeedParser
+ * Uses the fixture in src/test/resources/feeds and synthetic feeds from FeedFixtures
+ */
+class FeedParserTest {
+
+    private final FeedParser parser = new FeedParser();
+
+    static class Collector implements FeedParser.Listener {
+        FeedChannel channel;
+        int itemsBeforeChannel;
+        final List<FeedItem> items = new ArrayList<>();
+
+        @Override
+        public void onChannel(FeedChannel channel) {
+            this.channel = channel;
+            itemsBeforeChannel = items.size();
+        }
+
+        @Override
+        public void onItem(FeedItem item) {
+            items.add(item);
+        }
+    }
+
+    private Collector parseFixture(String name) throws Exception {
+        Collector collector = new Collector();
+        try (InputStream in = getClass().getResourceAsStream("/feeds/" + name)) {
+            assertNotNull(in, "Missing fixture " + name);
+            parser.parse(in, collector);
+        }
+        return collector;
+    }
+
+    // ===========================
+    // RSS 2.0 / ITUNES
+    // ===========================
+
+    @Test
+    @DisplayName("RSS channel metadata is mapped before the first item")
+    void testRssChannel() throws Exception {
+        Collector collector = parseFixture("sample-rss.xml");
+
+        FeedChannel channel = collector.channel;
+        assertEquals(0, collector.itemsBeforeChannel);
+        assertEquals("Fixture Radio", channel.getTitle());
+        assertEquals("A <b>fixture</b> feed for the importer", channel.getDescription());
+        assertEquals("es", channel.getLanguage());
+        assertEquals("Technology", channel.getCategory());
+        assertEquals("https://example.com/fixture/cover.jpg", channel.getImageUrl());
+        assertEquals(Boolean.FALSE, channel.getExplicit());
+    }
+
+    @Test
+    @DisplayName("RSS items map enclosure, iTunes fields and dates")
+    void testRssItems() throws Exception {
+        List<FeedItem> items = parseFixture("sample-rss.xml").items;
+        assertEquals(4, items.size());
+
+        FeedItem full = items.get(0);
+        assertEquals("fixture-ep-3", full.getGuid());
+        assertEquals("Episode 3: Full metadata", full.getTitle());
+        assertEquals("Third episode", full.getDescription());
+        assertEquals("https://cdn.example.com/ep3.mp3", full.getAudioUrl());
+        assertEquals(3723, full.getDurationSec());
+        assertEquals(2, full.getSeason());
+        assertEquals(3, full.getNumber());
+        assertEquals(Boolean.TRUE, full.getExplicit());
+        assertEquals(Instant.parse("2025-06-10T04:00:00Z"), full.getPublishAt());
+
+        FeedItem minutes = items.get(1);
+        assertEquals("Summary as description", minutes.getDescription());
+        assertEquals(2730, minutes.getDurationSec());
+        assertEquals(Boolean.FALSE, minutes.getExplicit());
+        assertEquals(Instant.parse("2025-06-03T02:00:00Z"), minutes.getPublishAt());
+
+        FeedItem noGuid = items.get(2);
+        assertNull(noGuid.getGuid());
+        assertNull(noGuid.getPublishAt());
+        assertNull(noGuid.getNumber());
+        assertEquals(3600, noGuid.getDurationSec());
+        assertEquals("https://cdn.example.com/ep1.mp3", noGuid.dedupeKey());
+
+        FeedItem post = items.get(3);
+        assertNull(post.getAudioUrl());
+        assertEquals("fixture-post-1", post.dedupeKey());
+    }
+
+    // ===========================
+    // ATOM
+    // ===========================
+
+    @Test
+    @DisplayName("Atom entries use id, summary, published and enclosure links")
+    void testAtom() throws Exception {
+        String atom = """
+                <feed xmlns="http://www.w3.org/2005/Atom">
+                  <title>Atom Cast</title>
+                  <subtitle>An Atom feed</subtitle>
+                  <entry>
+                    <id>urn:uuid:1225c695-cfb8-4ebb-aaaa-80da344efa6a</id>
+                    <title>First entry</title>
+                    <link href="https://example.com/atom/1"/>
+                    <link rel="enclosure" href="https://cdn.example.com/atom1.m4a" type="audio/mp4"/>
+                    <updated>2025-02-01T10:00:00Z</updated>
+                    <published>2025-01-31T10:00:00+01:00</published>
+                    <summary>Entry summary</summary>
+                  </entry>
+                </feed>
+                """;
+        Collector collector = new Collector();
+        long count = parser.parse(new ByteArrayInputStream(atom.getBytes(StandardCharsets.UTF_8)), collector);
+
+        assertEquals(1, count);
+        assertEquals("Atom Cast", collector.channel.getTitle());
+        assertEquals("An Atom feed", collector.channel.getDescription());
+        FeedItem entry = collector.items.get(0);
+        assertEquals("urn:uuid:1225c695-cfb8-4ebb-aaaa-80da344efa6a", entry.getGuid());
+        assertEquals("https://example.com/atom/1", entry.getLink());
+        assertEquals("https://cdn.example.com/atom1.m4a", entry.getAudioUrl());
+        assertEquals("Entry summary", entry.getDescription());
+        assertEquals(Instant.parse("2025-01-31T09:00:00Z"), entry.getPublishAt());
+    }
+
+    @Test
+    @DisplayName("Atom text constructs of type xhtml are flattened to their text instead of aborting the feed")
+    void testAtomXhtml() throws Exception {
+        String atom = """
+                <feed xmlns="http://www.w3.org/2005/Atom">
+                  <title type="xhtml"><div xmlns="http://www.w3.org/1999/xhtml">Atom <b>Cast</b></div></title>
+                  <entry>
+                    <id>urn:entry:1</id>
+                    <title type="xhtml"><div xmlns="http://www.w3.org/1999/xhtml">The <em>first</em> entry</div></title>
+                    <summary type="xhtml">
+                      <div xmlns="http://www.w3.org/1999/xhtml">
+                        <p>Show notes with <a href="https://example.com">a link</a>.</p>
+                        <p>Second&#160;paragraph</p>
+                      </div>
+                    </summary>
+                    <published>2025-02-01T10:00:00Z</published>
+                  </entry>
+                  <entry>
+                    <id>urn:entry:2</id>
+                    <title>Plain entry</title>
+                    <summary type="html">&lt;p&gt;Escaped html&lt;/p&gt;</summary>
+                  </entry>
+                </feed>
+                """;
+        Collector collector = new Collector();
+        long count = parser.parse(new ByteArrayInputStream(atom.getBytes(StandardCharsets.UTF_8)), collector);
+
+        assertEquals(2, count);
+        assertEquals("Atom Cast", collector.channel.getTitle());
+        FeedItem first = collector.items.get(0);
+        assertEquals("urn:entry:1", first.getGuid());
+        assertEquals("The first entry", first.getTitle());
+        assertEquals("Show notes with a link. Second\u00a0paragraph", first.getDescription());
+        assertEquals(Instant.parse("2025-02-01T10:00:00Z"), first.getPublishAt());
+        FeedItem second = collector.items.get(1);
+        assertEquals("Plain entry", second.getTitle());
+        assertEquals("<p>Escaped html</p>", second.getDescription());
+    }
+
+    // ===========================
+    // ROBUSTNESS
+    // ===========================
+
+    @Test
+    @DisplayName("External entities are not resolved")
+    void testRejectsExternalEntities() {
+        String xxe = """
+                <?xml version="1.0"?>
+                <!DOCTYPE rss [<!ENTITY xxe SYSTEM "file:///etc/passwd">]>
+                <rss version="2.0"><channel><title>&xxe;</title></channel></rss>
+                """;
+        assertThrows(XMLStreamException.class, () ->
+                parser.parse(new ByteArrayInputStream(xxe.getBytes(StandardCharsets.UTF_8)), new Collector()));
+    }
+
+    @Test
+    @DisplayName("Malformed XML fails instead of returning partial results silently")
+    void testMalformed() {
+        String broken = "<rss><channel><title>Broken</title><item><title>x</item></channel></rss>";
+        assertThrows(XMLStreamException.class, () ->
+                parser.parse(new ByteArrayInputStream(broken.getBytes(StandardCharsets.UTF_8)), new Collector()));
+    }
+
+    // ===========================
+    // THROUGHPUT
+    // ===========================
+
+    @Test
+    @DisplayName("Streams a 20k-item feed above a throughput floor")
+    void testLargeFeedThroughput() throws Exception {
+        int items = 20_000;
+        byte[] feed = FeedFixtures.rss("Big Feed", items, "bench");
+        long[] withAudio = {0};
+        FeedParser.Listener counter = new FeedParser.Listener() {
+            @Override
+            public void onChannel(FeedChannel channel) {
+            }
+
+            @Override
+            public void onItem(FeedItem item) {
+                if (item.getAudioUrl() != null && item.getGuid() != null) {
+                    withAudio[0]++;
+                }
+            }
+        };
+
+        // Una pasada de calentamiento para que el JIT no domine la medida
+        parser.parse(new ByteArrayInputStream(feed), counter);
+        withAudio[0] = 0;
+
+        long start = System.nanoTime();
+        long parsed = parser.parse(new ByteArrayInputStream(feed), counter);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        assertEquals(items, parsed);
+        assertEquals(items, withAudio[0]);
+        // StAX streaming parses well over 100k items/s; an order of magnitude less is a regression
+        assertTrue(items / seconds > 10_000, "parsed " + (long) (items / seconds) + " items/s");
+    }
+}
@@ -0,0 +1,138 @@
+package org.podhub.podhub.feed;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.podhub.podhub.model.Episode;
+import org.podhub.podhub.model.Podcast;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FeedWriter
+ * The generated XML is read back with FeedParser
+ */
+class FeedWriterTest {
+
+    private static final Instant BASE = Instant.parse("2025-01-01T10:00:00Z");
+
+    private final FeedWriter writer = new FeedWriter("https://podhub.example/");
+
+    private static Podcast podcast() {
+        return Podcast.builder()
+                .id("p1")
+                .title("Tech & <Talk>")
+                .slug("tech-talk")
+                .description("Daily tech news")
+                .language("es")
+                .category("Technology")
+                .coverImageUrl("https://cdn.example/cover.jpg")
+                .updatedAt(BASE)
+                .build();
+    }
+
+    private static Episode episode(int n) {
+        return Episode.builder()
+                .id("e" + n)
+                .podcastId("p1")
+                .title("Episode " + n)
+                .description("Notes " + n)
+                .audioUrl("https://cdn.example/e" + n + ".m4a")
+                .durationSec(600 + n)
+                .number(n)
+                .explicit(false)
+                .publishAt(BASE.plusSeconds(n * 3600L))
+                .updatedAt(BASE.plusSeconds(n * 3600L))
+                .build();
+    }
+
+    private byte[] render(List<Episode> episodes) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(podcast(), episodes.stream(), out);
+        return out.toByteArray();
+    }
+
+    @Test
+    @DisplayName("Round trip: FeedParser reads back channel and items")
+    void testRoundTrip() throws Exception {
+        byte[] xml = render(List.of(episode(2), episode(1)));
+
+        FeedChannel[] channel = new FeedChannel[1];
+        List<FeedItem> items = new ArrayList<>();
+        new FeedParser().parse(new ByteArrayInputStream(xml), new FeedParser.Listener() {
+            @Override
+            public void onChannel(FeedChannel c) {
+                channel[0] = c;
+            }
+
+            @Override
+            public void onItem(FeedItem item) {
+                items.add(item);
+            }
+        });
+
+        assertEquals("Tech & <Talk>", channel[0].getTitle());
+        assertEquals("es", channel[0].getLanguage());
+        assertEquals("Technology", channel[0].getCategory());
+        assertEquals("https://cdn.example/cover.jpg", channel[0].getImageUrl());
+        assertEquals(2, items.size());
+
+        FeedItem first = items.get(0);
+        assertEquals("e2", first.getGuid());
+        assertEquals("Episode 2", first.getTitle());
+        assertEquals("https://cdn.example/e2.m4a", first.getAudioUrl());
+        assertEquals(602, first.getDurationSec());
+        assertEquals(2, first.getNumber());
+        assertEquals(Boolean.FALSE, first.getExplicit());
+        assertEquals(BASE.plusSeconds(7200), first.getPublishAt());
+    }
+
+    @Test
+    @DisplayName("Output is deterministic and lastModified is the newest updatedAt")
+    void testDeterministic() throws Exception {
+        List<Episode> episodes = List.of(episode(3), episode(2), episode(1));
+        assertArrayEquals(render(episodes), render(episodes));
+
+        FeedWriter.Result result = writer.write(podcast(), episodes.stream(), new ByteArrayOutputStream());
+        assertEquals(3, result.items());
+        assertEquals(BASE.plusSeconds(3 * 3600L), result.lastModified());
+    }
+
+    @Test
+    @DisplayName("Channel link uses the public base URL without a double slash")
+    void testChannelLink() throws Exception {
+        String xml = new String(render(List.of()), StandardCharsets.UTF_8);
+        assertTrue(xml.contains("<link>https://podhub.example/podcasts/tech-talk</link>"));
+        assertTrue(xml.contains("<lastBuildDate>Wed, 1 Jan 2025 10:00:00 GMT</lastBuildDate>"));
+    }
+
+    @Test
+    @DisplayName("Episodes are consumed from the stream and the stream is closed")
+    void testClosesStream() throws Exception {
+        boolean[] closed = new boolean[1];
+        Stream<Episode> episodes = IntStream.rangeClosed(1, 500).mapToObj(FeedWriterTest::episode)
+                .onClose(() -> closed[0] = true);
+
+        FeedWriter.Result result = writer.write(podcast(), episodes, new ByteArrayOutputStream());
+
+        assertEquals(500, result.items());
+        assertTrue(closed[0]);
+    }
+
+    @Test
+    @DisplayName("Enclosure type is derived from the audio URL")
+    void testAudioType() {
+        assertEquals("audio/mpeg", FeedWriter.audioType("https://cdn.example/a.mp3"));
+        assertEquals("audio/mp4", FeedWriter.audioType("https://cdn.example/a.M4A?sig=1"));
+        assertEquals("audio/ogg", FeedWriter.audioType("https://cdn.example/a.ogg"));
+        assertEquals("audio/mpeg", FeedWriter.audioType("https://cdn.example/stream"));
+    }
+}
@@ -0,0 +1,190 @@
+package org.podhub.podhub.live;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Coalescer: last value per key between drains, no lost offers while draining,
+ * and a load test of the progress sync path (100k sessions, one per user, fed through a Coalescer).
+ */
+class CoalescerTest {
+
+    private static final ExecutorService EXECUTOR = executor();
+
+    /**
+     * Virtual threads when the JVM has them (like the application), a pool otherwise
+     */
+    private static ExecutorService executor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 4);
+        }
+    }
+
+    @AfterAll
+    static void shutdown() {
+        EXECUTOR.shutdownNow();
+    }
+
+    private static Map<String, List<Integer>> drain(Coalescer<Integer> coalescer) {
+        Map<String, List<Integer>> drained = new HashMap<>();
+        coalescer.drain((topic, values) -> drained.put(topic, new ArrayList<>(values)));
+        return drained;
+    }
+
+    @Test
+    @DisplayName("drain() - One value per topic and key, merged with the merge function")
+    void testCoalesce() {
+        Coalescer<Integer> coalescer = new Coalescer<>(Math::max);
+        coalescer.offer("user1", "episode1", 10);
+        coalescer.offer("user1", "episode1", 30);
+        coalescer.offer("user1", "episode1", 20);
+        coalescer.offer("user1", "episode2", 5);
+        coalescer.offer("user2", "episode1", 7);
+        assertEquals(2, coalescer.size());
+
+        Map<String, List<Integer>> drained = drain(coalescer);
+        assertEquals(2, drained.size());
+        assertEquals(Set.of(30, 5), new HashSet<>(drained.get("user1")));
+        assertEquals(List.of(7), drained.get("user2"));
+        assertEquals(0, coalescer.size());
+        assertTrue(drain(coalescer).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Concurrent offers - Every key offered while draining reaches a later drain")
+    void testConcurrentDrain() throws Exception {
+        Coalescer<Integer> coalescer = new Coalescer<>((previous, next) -> next);
+        int producers = 8;
+        int offers = 50_000;
+        AtomicBoolean producing = new AtomicBoolean(true);
+        LongAdder delivered = new LongAdder();
+        CountDownLatch done = new CountDownLatch(producers);
+
+        for (int p = 0; p < producers; p++) {
+            String topic = "user" + p;
+            EXECUTOR.execute(() -> {
+                for (int i = 0; i < offers; i++) {
+                    // Distinct keys: none may be merged away
+                    coalescer.offer(topic, Integer.toString(i), i);
+                }
+                done.countDown();
+            });
+        }
+        while (producing.get()) {
+            coalescer.drain((topic, values) -> delivered.add(values.size()));
+            if (done.await(1, TimeUnit.MILLISECONDS)) {
+                producing.set(false);
+            }
+        }
+        coalescer.drain((topic, values) -> delivered.add(values.size()));
+
+        assertEquals((long) producers * offers, delivered.sum());
+        assertEquals(0, coalescer.size());
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Load test - 100k sessions: registry footprint, coalescing and push latency")
+    void testLoad() throws Exception {
+        int users = 100_000;
+        int savesPerUser = 10;
+        TopicBroadcaster<Long> broadcaster = new TopicBroadcaster<>(16, EXECUTOR);
+        Coalescer<Long> coalescer = new Coalescer<>(Math::max);
+
+        // Latency histogram in 1 ms buckets (the last one collects everything slower)
+        AtomicLongArray histogram = new AtomicLongArray(10_001);
+        CountDownLatch done = new CountDownLatch(users);
+        TopicBroadcaster.Sink<Long> sink = new TopicBroadcaster.Sink<>() {
+            @Override
+            public void send(Long flushedAt) {
+                long ms = (System.nanoTime() - flushedAt) / 1_000_000;
+                histogram.incrementAndGet((int) Math.min(histogram.length() - 1, ms));
+                done.countDown();
+            }
+
+            @Override
+            public void evicted(TopicBroadcaster.Reason reason) {
+                fail("session evicted: " + reason);
+            }
+        };
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        long start = System.nanoTime();
+        for (int i = 0; i < users; i++) {
+            broadcaster.subscribe("user" + i, sink);
+        }
+        long subscribeMs = (System.nanoTime() - start) / 1_000_000;
+        System.gc();
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+        assertEquals(users, broadcaster.subscribers());
+        assertEquals(users, broadcaster.topics());
+
+        // Several saves of the same episode per user within one throttle window
+        start = System.nanoTime();
+        for (int save = 0; save < savesPerUser; save++) {
+            for (int i = 0; i < users; i++) {
+                coalescer.offer("user" + i, "episode", (long) save);
+            }
+        }
+        long offerMs = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        LongAdder pushed = new LongAdder();
+        int drained = coalescer.drain((topic, values) -> {
+            for (Long ignored : values) {
+                pushed.add(broadcaster.publish(topic, System.nanoTime()));
+            }
+        });
+        assertTrue(done.await(60, TimeUnit.SECONDS), "only " + (users - done.getCount()) + " pushes delivered");
+        long flushMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(users, drained);
+        assertEquals(users, pushed.sum());
+        assertEquals(users, broadcaster.delivered());
+        // An idle session is a registry entry and an empty buffer (~600 bytes when this was written)
+        long bytesPerSession = Math.max(0, heapAfter - heapBefore) / users;
+        assertTrue(bytesPerSession < 2_048, bytesPerSession + " bytes per idle session");
+        assertTrue(subscribeMs < 10_000, "registered in " + subscribeMs + " ms");
+        assertTrue(offerMs < 10_000, "coalesced in " + offerMs + " ms");
+        assertTrue(flushMs < 10_000, "flushed in " + flushMs + " ms");
+        assertTrue(percentile(histogram, 0.99) < 500, "p99 push latency " + percentile(histogram, 0.99) + " ms");
+    }
+
+    private static long percentile(AtomicLongArray histogram, double fraction) {
+        long total = 0;
+        for (int i = 0; i < histogram.length(); i++) {
+            total += histogram.get(i);
+        }
+        long rank = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < histogram.length(); i++) {
+            seen += histogram.get(i);
+            if (seen >= rank) {
+                return i;
+            }
+        }
+        return histogram.length() - 1;
+    }
+}
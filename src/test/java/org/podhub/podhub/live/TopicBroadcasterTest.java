@@ -0,0 +1,237 @@
+package org.podhub.podhub.live;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TopicBroadcaster: per-topic delivery in order, slow-consumer and failed-send eviction,
+ * and a load test with 50k subscribers on one topic (connection footprint and fan-out latency).
+ */
+class TopicBroadcasterTest {
+
+    private static final ExecutorService EXECUTOR = executor();
+
+    /**
+     * Virtual threads when the JVM has them (like the application), a pool otherwise
+     */
+    private static ExecutorService executor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 4);
+        }
+    }
+
+    @AfterAll
+    static void shutdown() {
+        EXECUTOR.shutdownNow();
+    }
+
+    private static class RecordingSink implements TopicBroadcaster.Sink<String> {
+        final List<String> received = Collections.synchronizedList(new ArrayList<>());
+        final AtomicReference<TopicBroadcaster.Reason> evicted = new AtomicReference<>();
+        final CountDownLatch done;
+
+        RecordingSink(int expected) {
+            this.done = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(String message) {
+            received.add(message);
+            done.countDown();
+        }
+
+        @Override
+        public void evicted(TopicBroadcaster.Reason reason) {
+            evicted.set(reason);
+        }
+    }
+
+    @Test
+    @DisplayName("publish() - Each subscriber gets the messages of its topic, in order")
+    void testDelivery() throws Exception {
+        TopicBroadcaster<String> broadcaster = new TopicBroadcaster<>(16, EXECUTOR);
+        RecordingSink a1 = new RecordingSink(3);
+        RecordingSink a2 = new RecordingSink(3);
+        RecordingSink b = new RecordingSink(1);
+        broadcaster.subscribe("a", a1);
+        broadcaster.subscribe("a", a2);
+        broadcaster.subscribe("b", b);
+        assertEquals(3, broadcaster.subscribers());
+        assertEquals(2, broadcaster.topics());
+
+        assertEquals(2, broadcaster.publish("a", "1"));
+        assertEquals(1, broadcaster.publish("b", "x"));
+        assertEquals(2, broadcaster.publish("a", "2"));
+        assertEquals(2, broadcaster.publish("a", "3"));
+        assertEquals(0, broadcaster.publish("c", "nobody"));
+
+        assertTrue(a1.done.await(5, TimeUnit.SECONDS));
+        assertTrue(a2.done.await(5, TimeUnit.SECONDS));
+        assertTrue(b.done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("1", "2", "3"), a1.received);
+        assertEquals(List.of("1", "2", "3"), a2.received);
+        assertEquals(List.of("x"), b.received);
+    }
+
+    @Test
+    @DisplayName("close() - Unsubscribes without an eviction callback and drops empty topics")
+    void testClose() {
+        TopicBroadcaster<String> broadcaster = new TopicBroadcaster<>(16, EXECUTOR);
+        RecordingSink sink = new RecordingSink(0);
+        TopicBroadcaster<String>.Subscriber subscriber = broadcaster.subscribe("a", sink);
+
+        subscriber.close();
+        subscriber.close();
+        assertEquals(0, broadcaster.subscribers());
+        assertEquals(0, broadcaster.topics());
+        assertEquals(0, broadcaster.publish("a", "1"));
+        assertNull(sink.evicted.get());
+    }
+
+    @Test
+    @DisplayName("Slow consumers - A full buffer evicts the subscriber, the others keep receiving")
+    void testSlowConsumer() throws Exception {
+        TopicBroadcaster<String> broadcaster = new TopicBroadcaster<>(4, EXECUTOR);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink(1) {
+            @Override
+            public void send(String message) {
+                try {
+                    // Stuck writing the first message (e.g. a client that stopped reading)
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(message);
+            }
+        };
+        RecordingSink fast = new RecordingSink(10);
+        broadcaster.subscribe("a", slow);
+        broadcaster.subscribe("a", fast);
+
+        for (int i = 0; i < 10; i++) {
+            broadcaster.publish("a", Integer.toString(i));
+        }
+
+        assertTrue(fast.done.await(5, TimeUnit.SECONDS));
+        assertEquals(10, fast.received.size());
+        assertEquals(TopicBroadcaster.Reason.SLOW, slow.evicted.get());
+        assertEquals(1, broadcaster.evictedSlow());
+        assertEquals(1, broadcaster.subscribers());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Failed sends - The subscriber is evicted")
+    void testFailedSend() throws Exception {
+        TopicBroadcaster<String> broadcaster = new TopicBroadcaster<>(4, EXECUTOR);
+        CountDownLatch evicted = new CountDownLatch(1);
+        broadcaster.subscribe("a", new TopicBroadcaster.Sink<>() {
+            @Override
+            public void send(String message) throws Exception {
+                throw new java.io.IOException("Broken pipe");
+            }
+
+            @Override
+            public void evicted(TopicBroadcaster.Reason reason) {
+                assertEquals(TopicBroadcaster.Reason.FAILED, reason);
+                evicted.countDown();
+            }
+        });
+
+        broadcaster.publish("a", "1");
+        assertTrue(evicted.await(5, TimeUnit.SECONDS));
+        assertEquals(0, broadcaster.subscribers());
+        assertEquals(1, broadcaster.evictedFailed());
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Load test - 50k subscribers on one topic: footprint and fan-out latency")
+    void testLoad() throws Exception {
+        int subscribers = 50_000;
+        int messages = 20;
+        TopicBroadcaster<Long> broadcaster = new TopicBroadcaster<>(64, EXECUTOR);
+
+        // Latency histogram in 1 ms buckets (the last one collects everything slower)
+        AtomicLongArray histogram = new AtomicLongArray(10_001);
+        LongAdder received = new LongAdder();
+        CountDownLatch done = new CountDownLatch(subscribers * messages);
+        TopicBroadcaster.Sink<Long> sink = new TopicBroadcaster.Sink<>() {
+            @Override
+            public void send(Long publishedAt) {
+                long ms = (System.nanoTime() - publishedAt) / 1_000_000;
+                histogram.incrementAndGet((int) Math.min(histogram.length() - 1, ms));
+                received.increment();
+                done.countDown();
+            }
+
+            @Override
+            public void evicted(TopicBroadcaster.Reason reason) {
+                fail("subscriber evicted: " + reason);
+            }
+        };
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        long start = System.nanoTime();
+        for (int i = 0; i < subscribers; i++) {
+            broadcaster.subscribe("episode", sink);
+        }
+        long subscribeMs = (System.nanoTime() - start) / 1_000_000;
+        System.gc();
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+        assertEquals(subscribers, broadcaster.subscribers());
+
+        start = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            broadcaster.publish("episode", System.nanoTime());
+            Thread.sleep(10);
+        }
+        assertTrue(done.await(60, TimeUnit.SECONDS), "only " + received.sum() + " messages delivered");
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals((long) subscribers * messages, broadcaster.delivered());
+        assertEquals(0, broadcaster.evictedSlow());
+        // An idle connection costs a subscription and an empty buffer (~530 bytes when this was written)
+        long bytesPerSubscriber = Math.max(0, heapAfter - heapBefore) / subscribers;
+        assertTrue(bytesPerSubscriber < 2_048, bytesPerSubscriber + " bytes per idle subscriber");
+        assertTrue(subscribeMs < 10_000, "subscribed in " + subscribeMs + " ms");
+        assertTrue(elapsedMs < 30_000, "delivered in " + elapsedMs + " ms");
+        assertTrue(percentile(histogram, 0.99) < 2_000, "p99 fan-out latency " + percentile(histogram, 0.99) + " ms");
+    }
+
+    private static long percentile(AtomicLongArray histogram, double fraction) {
+        long total = 0;
+        for (int i = 0; i < histogram.length(); i++) {
+            total += histogram.get(i);
+        }
+        long rank = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < histogram.length(); i++) {
+            seen += histogram.get(i);
+            if (seen >= rank) {
+                return i;
+            }
+        }
+        return histogram.length() - 1;
+    }
+}
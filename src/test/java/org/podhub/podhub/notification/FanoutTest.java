@@ -0,0 +1,153 @@
+package org.podhub.podhub.notification;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Fanout and WriteBudget: chunking, resuming from a checkpoint, the write budget on a
+ * simulated clock and a 1M-subscriber benchmark.
+ */
+class FanoutTest {
+
+    /**
+     * Sorted in-memory subscriber list: next() is a binary search plus a copy, like a range query on the index
+     */
+    private static Fanout.Source source(String[] userIds) {
+        return (after, limit) -> {
+            int from = Arrays.binarySearch(userIds, after);
+            from = from >= 0 ? from + 1 : -from - 1;
+            return Arrays.asList(userIds).subList(from, Math.min(userIds.length, from + limit));
+        };
+    }
+
+    private static String[] userIds(int count) {
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = String.format("%024x", i);
+        }
+        return ids;
+    }
+
+    /**
+     * Sink that remembers who got a notification and counts only the new ones (like the unique _id)
+     */
+    private static final class RecordingSink implements Fanout.Sink {
+        final BitSet notified = new BitSet();
+        int batches;
+
+        @Override
+        public int write(List<String> userIds) {
+            batches++;
+            int created = 0;
+            for (String userId : userIds) {
+                int index = Integer.parseInt(userId, 16);
+                if (!notified.get(index)) {
+                    notified.set(index);
+                    created++;
+                }
+            }
+            return created;
+        }
+    }
+
+    private static final Fanout.Checkpoint NO_CHECKPOINT = (last, recipients, written) -> { };
+
+    @Test
+    @DisplayName("Every subscriber gets one notification, written in chunks")
+    void testChunks() throws Exception {
+        String[] ids = userIds(2_500);
+        RecordingSink sink = new RecordingSink();
+        List<String> checkpoints = new ArrayList<>();
+
+        Fanout.Result result = Fanout.run(null, 1_000, source(ids), new WriteBudget(0, 1), sink,
+                (last, recipients, written) -> checkpoints.add(last));
+
+        assertEquals(2_500, result.recipients());
+        assertEquals(2_500, result.written());
+        assertEquals(3, result.chunks());
+        assertEquals(3, sink.batches);
+        assertEquals(2_500, sink.notified.cardinality());
+        assertEquals(List.of(ids[999], ids[1_999], ids[2_499]), checkpoints);
+    }
+
+    @Test
+    @DisplayName("An interrupted fan-out resumes after its last checkpoint without notifying anyone twice")
+    void testResume() throws Exception {
+        String[] ids = userIds(5_000);
+        RecordingSink sink = new RecordingSink();
+        String[] checkpoint = new String[1];
+        Fanout.Sink failing = userIds -> {
+            if (sink.batches == 3) {
+                throw new IllegalStateException("write failed");
+            }
+            return sink.write(userIds);
+        };
+
+        assertThrows(IllegalStateException.class, () -> Fanout.run(null, 1_000, source(ids), new WriteBudget(0, 1),
+                failing, (last, recipients, written) -> checkpoint[0] = last));
+        assertEquals(ids[2_999], checkpoint[0]);
+
+        Fanout.Result resumed = Fanout.run(checkpoint[0], 1_000, source(ids), new WriteBudget(0, 1), sink, NO_CHECKPOINT);
+        assertEquals(2_000, resumed.recipients());
+        assertEquals(2_000, resumed.written());
+        assertEquals(5_000, sink.notified.cardinality());
+
+        // Replaying the whole fan-out (at-least-once delivery) writes nothing new
+        Fanout.Result replay = Fanout.run(null, 1_000, source(ids), new WriteBudget(0, 1), sink, NO_CHECKPOINT);
+        assertEquals(5_000, replay.recipients());
+        assertEquals(0, replay.written());
+    }
+
+    @Test
+    @DisplayName("WriteBudget - Bursts pass at once, then writes are spaced at the configured rate")
+    void testWriteBudget() throws Exception {
+        AtomicLong clock = new AtomicLong();
+        WriteBudget budget = new WriteBudget(1_000, 500, clock::get, clock::addAndGet);
+
+        assertEquals(0, budget.acquire(500));
+        // Empty bucket: 250 more writes take 250 ms
+        assertEquals(250, budget.acquire(250) / 1_000_000);
+        // A batch larger than the burst goes into debt and waits for all of it
+        clock.addAndGet(1_000_000_000L);
+        assertEquals(1_000, budget.acquire(1_500) / 1_000_000);
+
+        WriteBudget unlimited = new WriteBudget(0, 1, clock::get, nanos -> fail("unlimited budget slept"));
+        assertFalse(unlimited.limited());
+        assertEquals(0, unlimited.acquire(1_000_000));
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark - 1M subscribers: pipeline overhead and time at the default write budget")
+    void testBenchmark() throws Exception {
+        int subscribers = 1_000_000;
+        String[] ids = userIds(subscribers);
+
+        // Unlimited budget: what the fan-out itself costs, without MongoDB
+        RecordingSink sink = new RecordingSink();
+        Fanout.Result raw = Fanout.run(null, 1_000, source(ids), new WriteBudget(0, 1), sink, NO_CHECKPOINT);
+        assertEquals(subscribers, raw.written());
+        assertEquals(1_000, raw.chunks());
+        assertEquals(subscribers, sink.notified.cardinality());
+        // The pipeline itself is negligible next to the write budget (~200 ms for 1M when this was written)
+        assertTrue(raw.elapsedMs() < 10_000, "fan-out pipeline took " + raw.elapsedMs() + " ms");
+
+        // Default budget (20k writes/s, burst of one chunk) on a simulated clock
+        AtomicLong clock = new AtomicLong();
+        WriteBudget budget = new WriteBudget(20_000, 1_000, clock::get, clock::addAndGet);
+        Fanout.Result limited = Fanout.run(null, 1_000, source(ids), budget, new RecordingSink(), NO_CHECKPOINT);
+        double seconds = clock.get() / 1e9;
+        assertEquals(subscribers, limited.written());
+        // The first chunk is the burst, the other 999 wait 50 ms each
+        assertEquals(49.95, seconds, 0.01);
+    }
+}
@@ -0,0 +1,166 @@
+package org.podhub.podhub.recommend;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CoListenModel: scores, incremental updates against a full rebuild, and a benchmark
+ * that prints memory per million interactions and p99 serve latency.
+ */
+class CoListenModelTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    @AfterAll
+    static void shutdown() {
+        POOL.shutdownNow();
+    }
+
+    private static List<String> ids(List<Scored> scored) {
+        return scored.stream().map(Scored::id).toList();
+    }
+
+    @Test
+    @DisplayName("Cosine similarity of listener sets, most similar first")
+    void testSimilar() {
+        CoListenModel.Builder builder = CoListenModel.builder(10, 1);
+        // a and b share 3 of their 4 listeners; a and c share 1; d has no co-listeners
+        for (String user : List.of("u1", "u2", "u3")) {
+            builder.add(user, "a").add(user, "b");
+        }
+        builder.add("u4", "a").add("u4", "c");
+        builder.add("u5", "b");
+        builder.add("u6", "d");
+        // Duplicates (like + subscription to the same podcast) count once
+        builder.add("u1", "a");
+        CoListenModel model = builder.build(POOL);
+
+        List<Scored> similar = model.similar("a", 10);
+        assertEquals(List.of("b", "c"), ids(similar));
+        assertEquals(3 / Math.sqrt(4 * 4), similar.get(0).score(), 1e-6);
+        assertEquals(1 / Math.sqrt(4 * 1), similar.get(1).score(), 1e-6);
+        assertEquals(List.of("b"), ids(model.similar("a", 1)));
+        assertTrue(model.similar("d", 10).isEmpty());
+        assertTrue(model.similar("unknown", 10).isEmpty());
+        assertEquals(10, model.stats().interactions());
+    }
+
+    @Test
+    @DisplayName("Recommendations exclude the user's own items and fall back to popular ones")
+    void testRecommend() {
+        CoListenModel.Builder builder = CoListenModel.builder(10, 1);
+        for (int i = 0; i < 5; i++) {
+            builder.add("u" + i, "a").add("u" + i, "b");
+        }
+        builder.add("u9", "b").add("u9", "c");
+        builder.add("lonely", "z");
+        CoListenModel model = builder.build(POOL);
+
+        // Listens to a: b first (5 co-listeners), never a itself
+        List<String> forNew = ids(model.recommend("fan", 3));
+        assertEquals(List.of("b", "a", "c"), forNew, "unknown users get the most popular items");
+
+        model.add("fan", "a");
+        List<Scored> recommended = model.recommend("fan", 3);
+        assertEquals("b", recommended.get(0).id());
+        assertTrue(recommended.get(0).score() > 0);
+        assertFalse(ids(recommended).contains("a"));
+        assertEquals(3, recommended.size(), "filled up with popular items");
+    }
+
+    @Test
+    @DisplayName("Incremental additions match a full rebuild on the co-occurrence counts")
+    void testIncrementalMatchesRebuild() {
+        Random random = new Random(5);
+        CoListenModel incremental = CoListenModel.empty(20, 1);
+        CoListenModel.Builder builder = CoListenModel.builder(20, 1);
+        for (int i = 0; i < 5_000; i++) {
+            String user = "user-" + random.nextInt(300);
+            String item = "item-" + (int) Math.abs(random.nextGaussian() * 15);
+            incremental.add(user, item);
+            builder.add(user, item);
+        }
+        CoListenModel rebuilt = builder.build(POOL);
+
+        assertEquals(rebuilt.stats().interactions(), incremental.stats().interactions());
+        assertEquals(rebuilt.stats().pairs(), incremental.stats().pairs());
+        // Incremental scores are slightly stale (listener counts change), but the neighborhoods agree
+        for (String item : List.of("item-0", "item-3", "item-10")) {
+            List<String> expected = ids(rebuilt.similar(item, 5));
+            List<String> actual = ids(incremental.similar(item, 20));
+            long overlap = expected.stream().filter(actual::contains).count();
+            assertTrue(overlap >= expected.size() - 1, item + ": " + expected + " vs " + actual);
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark - Memory per million interactions and p99 serve latency")
+    void testBenchmark() {
+        int interactions = 1_000_000;
+        int users = 100_000;
+        int items = 5_000;
+        Random random = new Random(17);
+        String[] userIds = new String[users];
+        String[] itemIds = new String[items];
+        for (int i = 0; i < users; i++) {
+            userIds[i] = String.format("%024x", i);
+        }
+        for (int i = 0; i < items; i++) {
+            itemIds[i] = String.format("%024x", 1L << 40 | i);
+        }
+
+        // Zipf-like popularity: a few podcasts concentrate most listeners
+        CoListenModel.Builder builder = CoListenModel.builder(50, 1);
+        for (int i = 0; i < interactions; i++) {
+            int item = (int) Math.min(items - 1, Math.floor(Math.pow(items, random.nextDouble())) - 1);
+            builder.add(userIds[random.nextInt(users)], itemIds[item]);
+        }
+        long start = System.nanoTime();
+        CoListenModel model = builder.build(POOL);
+        double buildMs = (System.nanoTime() - start) / 1e6;
+        CoListenModel.Stats stats = model.stats();
+
+        start = System.nanoTime();
+        int updates = 100_000;
+        for (int i = 0; i < updates; i++) {
+            model.add(userIds[random.nextInt(users)], itemIds[random.nextInt(items)]);
+        }
+        double updateMicros = (System.nanoTime() - start) / 1e3 / updates;
+
+        int queries = 50_000;
+        long[] similarNanos = new long[queries];
+        long[] recommendNanos = new long[queries];
+        for (int i = 0; i < queries; i++) {
+            long t0 = System.nanoTime();
+            model.similar(itemIds[random.nextInt(items)], 10);
+            long t1 = System.nanoTime();
+            model.recommend(userIds[random.nextInt(users)], 20);
+            similarNanos[i] = t1 - t0;
+            recommendNanos[i] = System.nanoTime() - t1;
+        }
+        Arrays.sort(similarNanos);
+        Arrays.sort(recommendNanos);
+
+        assertEquals(users, stats.users(), users * 0.01);
+        assertTrue(stats.pairs() > 0);
+        // Primitive arrays, not boxed maps: ~76 MB per million interactions when this was written
+        double mbPerMillion = stats.memoryBytes() / 1e6 / (stats.interactions() / 1e6);
+        assertTrue(mbPerMillion < 200, mbPerMillion + " MB per million interactions");
+        assertTrue(buildMs < 60_000, "rebuild took " + buildMs + " ms");
+        assertTrue(updateMicros < 1_000, "incremental add took " + updateMicros + " us");
+        long similarP99Micros = similarNanos[queries * 99 / 100] / 1_000;
+        long recommendP99Micros = recommendNanos[queries * 99 / 100] / 1_000;
+        assertTrue(similarP99Micros < 1_000, "p99 similar " + similarP99Micros + " us");
+        assertTrue(recommendP99Micros < 5_000, "p99 recommend " + recommendP99Micros + " us");
+    }
+}
@@ -0,0 +1,254 @@
+package org.podhub.podhub.recommend;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ContentIndex: tokenization, TF-IDF cosine neighbours, incremental re-indexing,
+ * and a full-rebuild benchmark on a synthetic corpus (1M podcasts by default,
+ * -Dpodhub.test.content-podcasts=N to change it).
+ */
+class ContentIndexTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    @AfterAll
+    static void shutdown() {
+        POOL.shutdownNow();
+    }
+
+    private static List<String> ids(List<Scored> scored) {
+        return scored.stream().map(Scored::id).toList();
+    }
+
+    private static ContentIndex.Text text(String title, String description, String category, String language) {
+        return new ContentIndex.Text(title, description, category, language, List.of());
+    }
+
+    @Test
+    @DisplayName("Tokens are lower-cased and accent-folded, without stopwords or one-letter words")
+    void testTokens() {
+        assertEquals(List.of("inteligencia", "artificial", "2024"),
+                ContentIndex.tokens("¿Qué es la Inteligencia Artificial? Episodio 3 — 2024"));
+        assertEquals(List.of("cafe", "nino", "programacion"), ContentIndex.tokens("Café, NIÑO y programación"));
+        assertEquals(List.of("rust", "systems", "programming"), ContentIndex.tokens("Rust for systems programming"));
+        assertTrue(ContentIndex.tokens(null).isEmpty());
+        assertTrue(ContentIndex.tokens("   ").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Podcasts sharing rare terms are neighbours, most similar first")
+    void testSimilar() {
+        ContentIndex index = ContentIndex.builder(10, 16, 256)
+                .add("ai", text("Machine Learning Daily", "Neural networks, deep learning and AI research", "Technology", "en"))
+                .add("ml", new ContentIndex.Text("Deep Learning Weekly", "Neural networks explained", "Technology", "en",
+                        List.of("Transformers and attention", "Training neural networks")))
+                .add("web", text("Frontend Radio", "JavaScript, CSS and browsers", "Technology", "en"))
+                .add("cook", text("Cocina en casa", "Recetas fáciles de cocina española", "Gastronomía", "es"))
+                .add("tapas", text("Tapas y vinos", "Recetas de tapas y cocina tradicional", "Gastronomía", "es"))
+                .add("empty", text(null, null, null, null))
+                .build(POOL);
+
+        List<Scored> similar = index.similar("ai", 10);
+        assertEquals("ml", similar.get(0).id());
+        assertTrue(similar.get(0).score() > 0 && similar.get(0).score() <= 1.0001);
+        assertFalse(ids(similar).contains("ai"));
+        assertFalse(ids(similar).contains("cook"), "no shared terms");
+        assertEquals(List.of("tapas"), ids(index.similar("cook", 1)));
+        assertTrue(index.similar("empty", 10).isEmpty());
+        assertTrue(index.similar("unknown", 10).isEmpty());
+        assertEquals(6, index.stats().documents());
+    }
+
+    @Test
+    @DisplayName("update() indexes new podcasts, re-indexes changed ones and remove() drops them")
+    void testIncrementalUpdates() {
+        ContentIndex index = ContentIndex.builder(10, 16, 256)
+                .add("ai", text("Machine Learning Daily", "Neural networks and deep learning", "Technology", "en"))
+                .add("cook", text("Cocina en casa", "Recetas de cocina española", "Gastronomía", "es"))
+                .add("web", text("Frontend Radio", "JavaScript and browsers", "Technology", "en"))
+                .build(POOL);
+
+        // A new podcast finds its neighbours and shows up in theirs
+        index.update("ml", text("Deep Learning Weekly", "Neural networks explained", "Technology", "en"));
+        assertEquals("ai", index.similar("ml", 10).get(0).id());
+        assertEquals("ml", index.similar("ai", 10).get(0).id());
+
+        // Re-indexed with a different topic: it moves to the other neighbourhood
+        index.update("ml", text("Tapas y vinos", "Recetas de tapas y cocina", "Gastronomía", "es"));
+        assertEquals("cook", index.similar("ml", 10).get(0).id());
+        assertFalse(ids(index.similar("ai", 10)).contains("ml"));
+        assertEquals(4, index.stats().documents());
+
+        index.remove("ml");
+        assertTrue(index.similar("ml", 10).isEmpty());
+        assertFalse(ids(index.similar("cook", 10)).contains("ml"));
+        assertEquals(3, index.stats().documents());
+
+        // An empty index (before the first rebuild) still works, with every idf = 1
+        ContentIndex empty = ContentIndex.empty(10, 16, 256);
+        empty.update("a", text("Rust programming", "Systems programming in Rust", "Technology", "en"));
+        empty.update("b", text("Rust weekly", "News about the Rust language", "Technology", "en"));
+        assertEquals(List.of("b"), ids(empty.similar("a", 10)));
+    }
+
+    @Test
+    @DisplayName("Incremental additions land in the same topic as a full rebuild")
+    void testIncrementalMatchesRebuild() {
+        Corpus corpus = new Corpus(50, 1);
+        int initial = 5_000;
+        int added = 500;
+        ContentIndex.Builder builder = ContentIndex.builder(10, 16, 256);
+        ContentIndex.Builder full = ContentIndex.builder(10, 16, 256);
+        for (int i = 0; i < initial; i++) {
+            builder.add(corpus.id(i), corpus.text(i));
+            full.add(corpus.id(i), corpus.text(i));
+        }
+        ContentIndex incremental = builder.build(POOL);
+        for (int i = initial; i < initial + added; i++) {
+            incremental.update(corpus.id(i), corpus.text(i));
+            full.add(corpus.id(i), corpus.text(i));
+        }
+        ContentIndex rebuilt = full.build(POOL);
+
+        assertEquals(rebuilt.stats().documents(), incremental.stats().documents());
+        double incrementalPrecision = corpus.topicPrecision(incremental, initial, initial + added, 10);
+        double rebuiltPrecision = corpus.topicPrecision(rebuilt, initial, initial + added, 10);
+        assertTrue(incrementalPrecision > 0.9, "incremental precision " + incrementalPrecision);
+        assertTrue(rebuiltPrecision > 0.9, "rebuilt precision " + rebuiltPrecision);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark - Full rebuild on 1M podcasts")
+    void testBenchmark() {
+        int podcasts = Integer.getInteger("podhub.test.content-podcasts", 1_000_000);
+        Corpus corpus = new Corpus(Math.max(10, podcasts / 1000), 23);
+
+        long start = System.nanoTime();
+        ContentIndex.Builder builder = ContentIndex.builder(20, 16, 256);
+        for (int i = 0; i < podcasts; i++) {
+            builder.add(corpus.id(i), corpus.text(i));
+        }
+        double ingestMs = (System.nanoTime() - start) / 1e6;
+        start = System.nanoTime();
+        ContentIndex index = builder.build(POOL);
+        double buildMs = (System.nanoTime() - start) / 1e6;
+        ContentIndex.Stats stats = index.stats();
+
+        Random random = new Random(29);
+        int updates = 10_000;
+        start = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            int doc = random.nextInt(podcasts);
+            index.update(corpus.id(doc), corpus.text(doc));
+        }
+        double updateMicros = (System.nanoTime() - start) / 1e3 / updates;
+
+        int queries = 50_000;
+        long[] similarNanos = new long[queries];
+        for (int i = 0; i < queries; i++) {
+            String id = corpus.id(random.nextInt(podcasts));
+            long t0 = System.nanoTime();
+            index.similar(id, 10);
+            similarNanos[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(similarNanos);
+        double precision = corpus.topicPrecision(index, 0, Math.min(podcasts, 2_000), 10);
+
+        assertEquals(podcasts, stats.documents());
+        assertTrue(precision > 0.9, "topic precision " + precision);
+        // ~60 us per podcast on a single core when this was written (about a minute for 1M); the heap is 2 GB
+        double buildMicrosPerPodcast = (ingestMs + buildMs) * 1e3 / podcasts;
+        assertTrue(buildMicrosPerPodcast < 500, "rebuild took " + buildMicrosPerPodcast + " us per podcast");
+        assertTrue(stats.memoryBytes() / podcasts < 1_500, stats.memoryBytes() / podcasts + " bytes per podcast");
+        assertTrue(updateMicros < 5_000, "incremental update took " + updateMicros + " us");
+        long similarP99Micros = similarNanos[queries * 99 / 100] / 1_000;
+        assertTrue(similarP99Micros < 1_000, "p99 similar " + similarP99Micros + " us");
+    }
+
+    /**
+     * Synthetic podcasts: each belongs to a topic with its own vocabulary; descriptions and episode titles
+     * mix topic words with a shared, skewed general vocabulary. The same index always yields the same text.
+     */
+    private static final class Corpus {
+        private static final int TOPIC_WORDS = 30;
+        private static final int GENERAL_WORDS = 3_000;
+
+        private final int topics;
+        private final long seed;
+        private final String[][] topicWords;
+        private final String[] generalWords = new String[GENERAL_WORDS];
+
+        Corpus(int topics, long seed) {
+            this.topics = topics;
+            this.seed = seed;
+            this.topicWords = new String[topics][TOPIC_WORDS];
+            for (int topic = 0; topic < topics; topic++) {
+                for (int w = 0; w < TOPIC_WORDS; w++) {
+                    topicWords[topic][w] = "topic" + topic + "word" + w;
+                }
+            }
+            for (int w = 0; w < GENERAL_WORDS; w++) {
+                generalWords[w] = "general" + w;
+            }
+        }
+
+        String id(int doc) {
+            return String.format("%024x", doc);
+        }
+
+        int topic(int doc) {
+            return doc % topics;
+        }
+
+        ContentIndex.Text text(int doc) {
+            Random random = new Random(seed * 1_000_003 + doc);
+            int topic = topic(doc);
+            List<String> episodes = new ArrayList<>(3);
+            for (int e = 0; e < 3; e++) {
+                episodes.add(words(random, topic, 4, 0.5));
+            }
+            return new ContentIndex.Text(words(random, topic, 4, 1.0), words(random, topic, 20, 0.6),
+                    "category" + topic % 20, topic % 2 == 0 ? "es" : "en", episodes);
+        }
+
+        private String words(Random random, int topic, int count, double topicShare) {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                double skew = random.nextDouble() * random.nextDouble();
+                text.append(random.nextDouble() < topicShare
+                        ? topicWords[topic][(int) (skew * TOPIC_WORDS)]
+                        : generalWords[(int) (skew * GENERAL_WORDS)]).append(' ');
+            }
+            return text.toString();
+        }
+
+        /**
+         * Share of the top neighbours of [from, to) that belong to the same topic
+         */
+        double topicPrecision(ContentIndex index, int from, int to, int limit) {
+            long same = 0;
+            long total = 0;
+            for (int doc = from; doc < to; doc++) {
+                for (Scored neighbor : index.similar(id(doc), limit)) {
+                    if (topic(Integer.parseInt(neighbor.id(), 16)) == topic(doc)) {
+                        same++;
+                    }
+                    total++;
+                }
+            }
+            return total == 0 ? 0 : (double) same / total;
+        }
+    }
+}
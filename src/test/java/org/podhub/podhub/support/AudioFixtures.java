@@ -0,0 +1,249 @@
+package org.podhub.podhub.support;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Generates synthetic MP3, M4A and WAV files with valid headers for audio tests.
+ * MP3 frames are MPEG-1 layer III, 128 kbps, 44.1 kHz, stereo, with silent (zero) payloads.
+ * The write* methods only write the bytes a reader needs (tags, first frames, moov, end of file)
+ * and leave the rest of the file sparse, so multi-hundred-MB files cost no disk or time.
+ */
+public final class AudioFixtures {
+
+    public static final int SAMPLE_RATE = 44_100;
+    public static final int SAMPLES_PER_FRAME = 1152;
+    public static final int FRAME_LENGTH = 417; // 144000 * 128 / 44100, no padding
+    private static final int HEAD_FRAMES = 64;
+
+    public enum VbrHeader { NONE, XING, VBRI }
+
+    public record Chapter(long startMs, String title) {
+    }
+
+    private AudioFixtures() {
+    }
+
+    /**
+     * Exact duration of a number of frames
+     */
+    public static long durationMs(long frames) {
+        return frames * SAMPLES_PER_FRAME * 1000 / SAMPLE_RATE;
+    }
+
+    /**
+     * ID3v2.4 tag with one CHAP frame (and TIT2 title) per chapter and an APIC frame of pictureBytes
+     */
+    public static byte[] id3(List<Chapter> chapters, int pictureBytes) {
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        // The picture comes before the chapters: readers must skip it without reading it
+        byte[] picture = new byte[pictureBytes + 14];
+        System.arraycopy("\0image/jpeg\0\3\0".getBytes(StandardCharsets.ISO_8859_1), 0, picture, 0, 14);
+        frames.writeBytes(id3Frame("APIC", picture));
+        for (int i = 0; i < chapters.size(); i++) {
+            Chapter chapter = chapters.get(i);
+            long end = i + 1 < chapters.size() ? chapters.get(i + 1).startMs() : chapter.startMs() + 60_000;
+            byte[] title = chapter.title().getBytes(StandardCharsets.UTF_8);
+            byte[] tit2 = new byte[title.length + 1];
+            tit2[0] = 3; // UTF-8
+            System.arraycopy(title, 0, tit2, 1, title.length);
+
+            ByteBuffer body = ByteBuffer.allocate(64 + tit2.length);
+            body.put(("ch" + i + "\0").getBytes(StandardCharsets.ISO_8859_1))
+                    .putInt((int) chapter.startMs())
+                    .putInt((int) end)
+                    .putInt(-1)
+                    .putInt(-1)
+                    .put(id3Frame("TIT2", tit2));
+            frames.writeBytes(Arrays.copyOf(body.array(), body.position()));
+        }
+        frames.writeBytes(new byte[256]); // padding
+
+        ByteArrayOutputStream tag = new ByteArrayOutputStream();
+        tag.writeBytes(new byte[]{'I', 'D', '3', 4, 0, 0});
+        tag.writeBytes(syncsafe(frames.size()));
+        tag.writeBytes(frames.toByteArray());
+        return tag.toByteArray();
+    }
+
+    /**
+     * Whole MP3 in memory: id3 (may be empty), optional VBR header frame and frames of audio
+     */
+    public static byte[] mp3(byte[] id3, VbrHeader vbr, int frames) {
+        return mp3(id3, vbr, frames, frames);
+    }
+
+    private static byte[] mp3(byte[] id3, VbrHeader vbr, long declaredFrames, int writtenFrames) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(id3.length + (writtenFrames + 1) * FRAME_LENGTH);
+        out.writeBytes(id3);
+        if (vbr != VbrHeader.NONE) {
+            out.writeBytes(vbrFrame(vbr, declaredFrames));
+        }
+        byte[] frame = frame();
+        for (int i = 0; i < writtenFrames; i++) {
+            out.writeBytes(frame);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Same layout as {@link #mp3}, writing only the tag, the first frames and the last frame
+     *
+     * @return File size
+     */
+    public static long writeMp3(Path file, byte[] id3, VbrHeader vbr, long frames) throws IOException {
+        byte[] head = mp3(id3, vbr, frames, (int) Math.min(frames, HEAD_FRAMES));
+        long size = head.length + Math.max(0, frames - HEAD_FRAMES) * FRAME_LENGTH;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.SPARSE)) {
+            write(channel, head, 0);
+            if (frames > HEAD_FRAMES) {
+                write(channel, frame(), size - FRAME_LENGTH);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * M4A with ftyp, a sparse mdat of mdatBytes and a moov (before or after mdat) with mvhd,
+     * one sound track (hdlr + stsd mp4a, stereo 44.1 kHz) and Nero chapters in udta/chpl
+     *
+     * @return File size
+     */
+    public static long writeM4a(Path file, long durationMs, long mdatBytes, List<Chapter> chapters,
+                                boolean moovFirst) throws IOException {
+        byte[] ftyp = box("ftyp", concat("M4A ".getBytes(StandardCharsets.ISO_8859_1), new byte[4],
+                "M4A isom".getBytes(StandardCharsets.ISO_8859_1)));
+        byte[] moov = moov(durationMs, chapters);
+        ByteBuffer mdatHeader = ByteBuffer.allocate(16).putInt(1).put("mdat".getBytes(StandardCharsets.ISO_8859_1))
+                .putLong(16 + mdatBytes);
+
+        long size = ftyp.length + moov.length + 16 + mdatBytes;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.SPARSE)) {
+            write(channel, ftyp, 0);
+            if (moovFirst) {
+                write(channel, moov, ftyp.length);
+                write(channel, mdatHeader.array(), ftyp.length + moov.length);
+                // Last byte of mdat: sets the file size
+                write(channel, new byte[1], size - 1);
+            } else {
+                write(channel, mdatHeader.array(), ftyp.length);
+                write(channel, moov, ftyp.length + 16 + mdatBytes);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 16-bit PCM WAV with interleaved samples
+     */
+    public static Path writeWav(Path file, int sampleRate, int channels, short[] samples) throws IOException {
+        ByteBuffer pcm = ByteBuffer.allocate(samples.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (short sample : samples) {
+            pcm.putShort(sample);
+        }
+        AudioFormat format = new AudioFormat(sampleRate, 16, channels, true, false);
+        try (AudioInputStream in = new AudioInputStream(new ByteArrayInputStream(pcm.array()), format,
+                samples.length / channels)) {
+            AudioSystem.write(in, AudioFileFormat.Type.WAVE, file.toFile());
+        }
+        return file;
+    }
+
+    private static byte[] moov(long durationMs, List<Chapter> chapters) {
+        ByteBuffer mvhd = ByteBuffer.allocate(100)
+                .putInt(0)         // version 0, flags
+                .putInt(0)         // creation
+                .putInt(0)         // modification
+                .putInt(SAMPLE_RATE)
+                .putInt((int) (durationMs * SAMPLE_RATE / 1000))
+                .putInt(0x00010000)
+                .putShort((short) 0x0100);
+        ByteBuffer hdlr = ByteBuffer.allocate(25).putInt(0).putInt(0).put("soun".getBytes(StandardCharsets.ISO_8859_1));
+        ByteBuffer mp4a = ByteBuffer.allocate(36)
+                .putInt(36).put("mp4a".getBytes(StandardCharsets.ISO_8859_1))
+                .put(new byte[6]).putShort((short) 1)
+                .putShort((short) 0).putShort((short) 0).putInt(0)
+                .putShort((short) 2).putShort((short) 16).putShort((short) 0).putShort((short) 0)
+                .putInt(SAMPLE_RATE << 16);
+        byte[] stsd = box("stsd", concat(new byte[]{0, 0, 0, 0, 0, 0, 0, 1}, mp4a.array()));
+        byte[] trak = box("trak", box("mdia", concat(box("hdlr", hdlr.array()),
+                box("minf", box("stbl", stsd)))));
+
+        ByteArrayOutputStream chpl = new ByteArrayOutputStream();
+        chpl.writeBytes(new byte[]{1, 0, 0, 0, 0, 0, 0, 0, (byte) chapters.size()});
+        for (Chapter chapter : chapters) {
+            byte[] title = chapter.title().getBytes(StandardCharsets.UTF_8);
+            chpl.writeBytes(ByteBuffer.allocate(9).putLong(chapter.startMs() * 10_000).put((byte) title.length).array());
+            chpl.writeBytes(title);
+        }
+        return box("moov", concat(box("mvhd", mvhd.array()), trak, box("udta", box("chpl", chpl.toByteArray()))));
+    }
+
+    private static byte[] frame() {
+        byte[] frame = new byte[FRAME_LENGTH];
+        frame[0] = (byte) 0xFF;
+        frame[1] = (byte) 0xFB; // MPEG-1, layer III, no CRC
+        frame[2] = (byte) 0x90; // 128 kbps, 44.1 kHz, no padding
+        frame[3] = 0x00;        // stereo
+        return frame;
+    }
+
+    private static byte[] vbrFrame(VbrHeader vbr, long frames) {
+        byte[] frame = frame();
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        long bytes = (frames + 1) * FRAME_LENGTH;
+        if (vbr == VbrHeader.XING) {
+            buffer.position(4 + 32).put("Xing".getBytes(StandardCharsets.ISO_8859_1))
+                    .putInt(0x3).putInt((int) frames).putInt((int) bytes);
+        } else {
+            buffer.position(4 + 32).put("VBRI".getBytes(StandardCharsets.ISO_8859_1))
+                    .putShort((short) 1).putShort((short) 0).putShort((short) 75)
+                    .putInt((int) bytes).putInt((int) frames);
+        }
+        return frame;
+    }
+
+    private static byte[] id3Frame(String id, byte[] body) {
+        return concat(id.getBytes(StandardCharsets.ISO_8859_1), syncsafe(body.length), new byte[2], body);
+    }
+
+    private static byte[] box(String type, byte[] body) {
+        return concat(ByteBuffer.allocate(8).putInt(8 + body.length)
+                .put(type.getBytes(StandardCharsets.ISO_8859_1)).array(), body);
+    }
+
+    private static byte[] syncsafe(int value) {
+        return new byte[]{(byte) ((value >> 21) & 0x7F), (byte) ((value >> 14) & 0x7F),
+                (byte) ((value >> 7) & 0x7F), (byte) (value & 0x7F)};
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+
+    private static void write(FileChannel channel, byte[] bytes, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
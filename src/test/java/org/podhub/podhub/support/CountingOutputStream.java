@@ -0,0 +1,49 @@
+package org.podhub.podhub.support;
+
+import java.io.OutputStream;
+
+/**
+ * OutputStream that only counts bytes and newlines, so multi-GB responses can be checked
+ * without keeping any of them in memory.
+ */
+public class CountingOutputStream extends OutputStream {
+
+    private long bytes;
+    private long newlines;
+    private boolean closed;
+
+    @Override
+    public void write(int b) {
+        bytes++;
+        if (b == '\n') {
+            newlines++;
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        bytes += len;
+        for (int i = off; i < off + len; i++) {
+            if (b[i] == '\n') {
+                newlines++;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    public long bytes() {
+        return bytes;
+    }
+
+    public long newlines() {
+        return newlines;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+}
@@ -0,0 +1,52 @@
+package org.podhub.podhub.support;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Generates synthetic RSS 2.0/iTunes feeds of any size for importer tests
+ */
+public final class FeedFixtures {
+
+    private FeedFixtures() {
+    }
+
+    /**
+     * @param title Channel title
+     * @param items Number of items (newest first, one per day)
+     * @param guidPrefix Prefix of every item guid, so different runs don't collide
+     */
+    public static byte[] rss(String title, int items, String guidPrefix) {
+        StringBuilder xml = new StringBuilder(items * 700 + 1024);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<rss version=\"2.0\" xmlns:itunes=\"http://www.itunes.com/dtds/podcast-1.0.dtd\">\n")
+                .append("<channel>\n")
+                .append("<title>").append(title).append("</title>\n")
+                .append("<description>Synthetic feed with ").append(items).append(" items</description>\n")
+                .append("<language>en</language>\n")
+                .append("<itunes:category text=\"Technology\"/>\n");
+
+        Instant newest = Instant.parse("2025-01-01T06:00:00Z");
+        for (int i = items; i >= 1; i--) {
+            String pubDate = DateTimeFormatter.RFC_1123_DATE_TIME
+                    .format(newest.minusSeconds(86_400L * (items - i)).atOffset(ZoneOffset.UTC));
+            xml.append("<item>\n")
+                    .append("<title>Episode ").append(i).append("</title>\n")
+                    .append("<guid isPermaLink=\"false\">").append(guidPrefix).append('-').append(i).append("</guid>\n")
+                    .append("<pubDate>").append(pubDate).append("</pubDate>\n")
+                    .append("<description><![CDATA[<p>Show notes for episode ").append(i)
+                    .append(" with <a href=\"https://example.com\">links</a> &amp; more.</p>]]></description>\n")
+                    .append("<enclosure url=\"https://cdn.example.com/").append(guidPrefix).append('/').append(i)
+                    .append(".mp3\" length=\"52428800\" type=\"audio/mpeg\"/>\n")
+                    .append("<itunes:duration>").append(i % 3 + 1).append(":00:00</itunes:duration>\n")
+                    .append("<itunes:season>").append((i - 1) / 100 + 1).append("</itunes:season>\n")
+                    .append("<itunes:episode>").append(i).append("</itunes:episode>\n")
+                    .append("<itunes:explicit>").append(i % 2 == 0 ? "yes" : "no").append("</itunes:explicit>\n")
+                    .append("</item>\n");
+        }
+        xml.append("</channel>\n</rss>\n");
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,59 @@
+package org.podhub.podhub.support;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the MongoDB round trips issued by the application (find, update, aggregate...),
+ * ignoring driver housekeeping (handshakes, heartbeats, auth).
+ * Only commands issued by the thread that called reset() are counted: MockMvc runs the request on the test
+ * thread, while async event listeners and schedulers run elsewhere and would make the count racy.
+ * Finds that carry a projection are also counted on their own (projectedFinds), to tell version checks
+ * (_id + updatedAt) apart from full loads.
+ * Import it in a test class with @Import(MongoCommandCounter.class).
+ */
+@TestConfiguration
+public class MongoCommandCounter implements CommandListener {
+
+    private static final Set<String> COUNTED = Set.of(
+            "find", "getMore", "insert", "update", "delete", "findAndModify", "aggregate", "count", "distinct");
+
+    private final AtomicInteger commands = new AtomicInteger();
+    private final AtomicInteger projectedFinds = new AtomicInteger();
+    private volatile Thread counted;
+
+    @Bean
+    MongoClientSettingsBuilderCustomizer mongoCommandCounterCustomizer() {
+        return builder -> builder.addCommandListener(this);
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (Thread.currentThread() == counted && COUNTED.contains(event.getCommandName())) {
+            commands.incrementAndGet();
+            if ("find".equals(event.getCommandName()) && event.getCommand().containsKey("projection")) {
+                projectedFinds.incrementAndGet();
+            }
+        }
+    }
+
+    public void reset() {
+        counted = Thread.currentThread();
+        commands.set(0);
+        projectedFinds.set(0);
+    }
+
+    public int count() {
+        return commands.get();
+    }
+
+    public int projectedFinds() {
+        return projectedFinds.get();
+    }
+}
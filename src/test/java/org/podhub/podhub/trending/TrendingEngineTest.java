@@ -0,0 +1,217 @@
+package org.podhub.podhub.trending;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.podhub.podhub.model.enums.TrendingType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TrendingEngine: decay, heavy hitters against exact counts, categories,
+ * concurrent recording, snapshot/restore and a throughput / latency benchmark.
+ */
+class TrendingEngineTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final long NOW = 1_800_000_000_000L;
+
+    private static TrendingEngine engine(int capacity, int maxCategories) {
+        return new TrendingEngine(6 * HOUR, 16384, 4, 4, capacity, maxCategories);
+    }
+
+    private static List<String> ids(List<TrendingEngine.Trend> trends) {
+        return trends.stream().map(TrendingEngine.Trend::id).toList();
+    }
+
+    @Test
+    @DisplayName("Scores halve every half-life and recent events outrank older, larger ones")
+    void testDecay() {
+        TrendingEngine engine = engine(10, 10);
+        engine.record(TrendingType.PODCAST, "old", null, 8, NOW);
+        assertEquals(8, engine.score(TrendingType.PODCAST, "old", NOW), 1e-9);
+        assertEquals(4, engine.score(TrendingType.PODCAST, "old", NOW + 6 * HOUR), 1e-9);
+        assertEquals(1, engine.score(TrendingType.PODCAST, "old", NOW + 18 * HOUR), 1e-9);
+
+        // 5 events one day later beat the 8 from the day before
+        engine.record(TrendingType.PODCAST, "new", null, 5, NOW + 24 * HOUR);
+        List<TrendingEngine.Trend> top = engine.top(TrendingType.PODCAST, null, 10, NOW + 24 * HOUR);
+        assertEquals(List.of("new", "old"), ids(top));
+        assertEquals(5, top.get(0).score(), 1e-9);
+        assertEquals(0.5, top.get(1).score(), 1e-9);
+
+        assertEquals(0.0, engine.score(TrendingType.PODCAST, "never", NOW), 0);
+        assertTrue(engine.top(TrendingType.EPISODE, null, 10, NOW).isEmpty(), "types are independent");
+    }
+
+    @Test
+    @DisplayName("Heavy hitters match exact counts on a skewed stream with bounded memory")
+    void testHeavyHitters() {
+        TrendingEngine engine = engine(50, 10);
+        Map<String, Double> exact = new HashMap<>();
+        Random random = new Random(7);
+        int items = 100_000;
+        for (int i = 0; i < 500_000; i++) {
+            String id = "item-" + zipf(random, items);
+            engine.record(TrendingType.EPISODE, id, null, 1, NOW);
+            exact.merge(id, 1.0, Double::sum);
+        }
+        List<String> expected = exact.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .limit(10)
+                .map(Map.Entry::getKey)
+                .toList();
+        List<TrendingEngine.Trend> top = engine.top(TrendingType.EPISODE, null, 10, NOW);
+        long overlap = ids(top).stream().filter(expected::contains).count();
+        assertTrue(overlap >= 9, expected + " vs " + ids(top));
+        // Count-min never underestimates; with 16384 columns the top items are almost exact
+        for (TrendingEngine.Trend trend : top) {
+            assertTrue(trend.score() >= exact.get(trend.id()) - 1e-6);
+            assertEquals(exact.get(trend.id()), trend.score(), exact.get(trend.id()) * 0.05);
+        }
+        assertTrue(engine.memoryBytes() < 4_000_000, "memory " + engine.memoryBytes());
+    }
+
+    @Test
+    @DisplayName("Categories get their own lists, up to maxCategories")
+    void testCategories() {
+        TrendingEngine engine = engine(10, 2);
+        engine.record(TrendingType.PODCAST, "tech", "Technology", 10, NOW);
+        engine.record(TrendingType.PODCAST, "biz", "Business", 5, NOW);
+        engine.record(TrendingType.PODCAST, "news", "News", 20, NOW);
+
+        assertEquals(List.of("tech"), ids(engine.top(TrendingType.PODCAST, "technology", 10, NOW)));
+        assertEquals(List.of("biz"), ids(engine.top(TrendingType.PODCAST, " BUSINESS ", 10, NOW)));
+        assertTrue(engine.top(TrendingType.PODCAST, "News", 10, NOW).isEmpty(), "over maxCategories");
+        assertEquals(List.of("news", "tech", "biz"), ids(engine.top(TrendingType.PODCAST, null, 10, NOW)));
+        assertEquals(2, engine.categories(TrendingType.PODCAST).size());
+    }
+
+    @Test
+    @DisplayName("Concurrent recording loses no events")
+    void testConcurrent() throws Exception {
+        TrendingEngine engine = engine(10, 10);
+        int threads = 8;
+        int events = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < events; i++) {
+                        engine.record(TrendingType.EPISODE, "hot-" + (i % 4), "Comedy", 1, NOW);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        for (TrendingEngine.Trend trend : engine.top(TrendingType.EPISODE, null, 10, NOW)) {
+            assertEquals(threads * events / 4.0, trend.score(), threads * events / 4.0 * 1e-6, trend.id());
+        }
+        assertEquals(4, engine.top(TrendingType.EPISODE, "comedy", 10, NOW).size());
+    }
+
+    @Test
+    @DisplayName("snapshot() and restore() round trip, regardless of when they happen")
+    void testSnapshotRestore() {
+        TrendingEngine engine = engine(10, 10);
+        engine.record(TrendingType.PODCAST, "a", "Technology", 30, NOW);
+        engine.record(TrendingType.PODCAST, "b", "Business", 20, NOW - HOUR);
+        engine.record(TrendingType.PODCAST, "c", null, 10, NOW);
+        engine.record(TrendingType.EPISODE, "e", "Technology", 5, NOW);
+        List<TrendingEngine.Entry> entries = new ArrayList<>(engine.snapshot(TrendingType.PODCAST));
+        entries.addAll(engine.snapshot(TrendingType.EPISODE));
+        assertEquals(4, entries.size(), "no duplicates across global and category lists");
+
+        TrendingEngine restored = engine(10, 10);
+        entries.forEach(restored::restore);
+        long later = NOW + 3 * HOUR;
+        assertEquals(ids(engine.top(TrendingType.PODCAST, null, 10, later)), ids(restored.top(TrendingType.PODCAST, null, 10, later)));
+        assertEquals(engine.score(TrendingType.PODCAST, "a", later), restored.score(TrendingType.PODCAST, "a", later), 1e-9);
+        assertEquals(List.of("a"), ids(restored.top(TrendingType.PODCAST, "Technology", 10, later)));
+        assertEquals(List.of("e"), ids(restored.top(TrendingType.EPISODE, "Technology", 10, later)));
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark - Recording throughput and top() latency")
+    void testBenchmark() throws Exception {
+        TrendingEngine engine = engine(200, 100);
+        int threads = Runtime.getRuntime().availableProcessors();
+        int eventsPerThread = 1_000_000;
+        int items = 1_000_000;
+        String[] ids = new String[items];
+        for (int i = 0; i < items; i++) {
+            ids[i] = String.format("%024x", i);
+        }
+        String[] categories = new String[50];
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = "category-" + i;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long seed = t;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        int item = zipf(random, items);
+                        // One simulated minute per 1000 events: old events decay while new ones arrive
+                        engine.record(TrendingType.EPISODE, ids[item], categories[item % categories.length], 1 + item % 3,
+                                NOW + i / 1000 * 60_000L);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long events = (long) threads * eventsPerThread;
+
+        int queries = 10_000;
+        long[] nanos = new long[queries];
+        Random random = new Random(3);
+        for (int i = 0; i < queries; i++) {
+            String category = random.nextBoolean() ? null : categories[random.nextInt(categories.length)];
+            long t0 = System.nanoTime();
+            engine.top(TrendingType.EPISODE, category, 20, NOW);
+            nanos[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(nanos);
+
+        assertEquals(20, engine.top(TrendingType.EPISODE, null, 20, NOW).size());
+        assertTrue(events / seconds > 50_000, (long) (events / seconds) + " events/s");
+        // Bounded by the sketch and the heaps, not by the number of items (~3 MB by default)
+        assertTrue(engine.memoryBytes() < 16L << 20, engine.memoryBytes() + " bytes");
+        // Sub-millisecond on an idle machine (~300 us p99 when this was written); headroom for loaded CI runners
+        long p99Micros = nanos[queries * 99 / 100] / 1_000;
+        assertTrue(p99Micros < 5_000, "p99 top(20) " + p99Micros + " us");
+    }
+
+    /**
+     * Zipf-like index in [0, n): a few items concentrate most events
+     */
+    private static int zipf(Random random, int n) {
+        return (int) Math.min(n - 1, Math.floor(Math.pow(n, random.nextDouble())) - 1);
+    }
+}
@@ -0,0 +1,56 @@
+package org.podhub.podhub.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AfterCommit, driving the transaction synchronization by hand
+ */
+class AfterCommitTest {
+
+    @AfterEach
+    void clear() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Without a transaction the action runs immediately")
+    void testNoTransaction() {
+        AtomicInteger runs = new AtomicInteger();
+        AfterCommit.run(runs::incrementAndGet);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    @DisplayName("Inside a transaction the action waits for the commit")
+    void testCommit() {
+        AtomicInteger runs = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+        AfterCommit.run(runs::incrementAndGet);
+        assertEquals(0, runs.get());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    @DisplayName("A rolled back transaction never runs the action")
+    void testRollback() {
+        AtomicInteger runs = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+        AfterCommit.run(runs::incrementAndGet);
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(0, runs.get());
+    }
+}
@@ -0,0 +1,69 @@
+package org.podhub.podhub.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.podhub.podhub.util.ByteRanges.Range;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ByteRanges (RFC 7233 Range header parsing)
+ */
+class ByteRangesTest {
+
+    @Test
+    @DisplayName("No header or another unit means full content")
+    void testNoRange() {
+        assertNull(ByteRanges.parse(null, 1000));
+        assertNull(ByteRanges.parse("items=0-5", 1000));
+    }
+
+    @Test
+    @DisplayName("Closed, open and suffix ranges")
+    void testSingleRanges() {
+        assertEquals(List.of(new Range(0, 499)), ByteRanges.parse("bytes=0-499", 1000));
+        assertEquals(List.of(new Range(500, 999)), ByteRanges.parse("bytes=500-", 1000));
+        assertEquals(List.of(new Range(900, 999)), ByteRanges.parse("bytes=-100", 1000));
+        assertEquals(List.of(new Range(0, 999)), ByteRanges.parse("bytes=-5000", 1000));
+        assertEquals(List.of(new Range(990, 999)), ByteRanges.parse("BYTES=990-5000", 1000));
+    }
+
+    @Test
+    @DisplayName("Multiple ranges are sorted and overlapping or adjacent ones merged")
+    void testMultipleRanges() {
+        assertEquals(List.of(new Range(0, 99), new Range(500, 599)),
+                ByteRanges.parse("bytes=500-599, 0-99", 1000));
+        assertEquals(List.of(new Range(0, 199)),
+                ByteRanges.parse("bytes=0-99,100-199", 1000));
+        assertEquals(List.of(new Range(0, 300), new Range(900, 999)),
+                ByteRanges.parse("bytes=0-200,100-300,-100", 1000));
+    }
+
+    @Test
+    @DisplayName("Ranges past the end are unsatisfiable")
+    void testUnsatisfiable() {
+        assertEquals(List.of(), ByteRanges.parse("bytes=1000-", 1000));
+        assertEquals(List.of(), ByteRanges.parse("bytes=-0", 1000));
+        assertEquals(List.of(), ByteRanges.parse("bytes=0-10", 0));
+        assertEquals(List.of(new Range(0, 9)), ByteRanges.parse("bytes=2000-3000,0-9", 1000));
+    }
+
+    @Test
+    @DisplayName("Malformed headers are ignored")
+    void testMalformed() {
+        assertNull(ByteRanges.parse("bytes=abc", 1000));
+        assertNull(ByteRanges.parse("bytes=10-5", 1000));
+        assertNull(ByteRanges.parse("bytes=5", 1000));
+        assertNull(ByteRanges.parse("bytes=" + "0-1,".repeat(ByteRanges.MAX_RANGES) + "2-3", 1000));
+    }
+
+    @Test
+    @DisplayName("Content-Range value")
+    void testContentRange() {
+        Range range = new Range(100, 199);
+        assertEquals(100, range.length());
+        assertEquals("bytes 100-199/1000", range.contentRange(1000));
+    }
+}
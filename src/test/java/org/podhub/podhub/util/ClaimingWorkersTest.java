@@ -0,0 +1,134 @@
+package org.podhub.podhub.util;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ClaimingWorkers: workers keep claiming until nothing is pending, so throughput depends on
+ * the time per item and not on how often fill() is called (the feed refresh tick).
+ */
+class ClaimingWorkersTest {
+
+    private static final int WORKERS = 16;
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(WORKERS);
+
+    @AfterAll
+    static void shutdown() {
+        EXECUTOR.shutdownNow();
+    }
+
+    private static Queue<Integer> pending(int items) {
+        Queue<Integer> queue = new ConcurrentLinkedQueue<>();
+        IntStream.range(0, items).forEach(queue::add);
+        return queue;
+    }
+
+    private static void awaitIdle(ClaimingWorkers<?> workers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (workers.active() > 0) {
+            assertTrue(System.nanoTime() < deadline, workers.active() + " workers still active");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("Sustained throughput - One fill() drains the backlog at workers / latency items per second")
+    void testSustainedThroughput() throws Exception {
+        int items = 2_000;
+        long latencyMs = 5;
+        Queue<Integer> queue = pending(items);
+        CountDownLatch done = new CountDownLatch(items);
+        ClaimingWorkers<Integer> workers = new ClaimingWorkers<>(WORKERS, EXECUTOR, queue::poll, item -> {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        });
+
+        long start = System.nanoTime();
+        assertEquals(WORKERS, workers.fill());
+        // A single call, as if the scheduler ticked once: the workers chain the rest on their own
+        assertTrue(done.await(30, TimeUnit.SECONDS), done.getCount() + " items never processed");
+        double seconds = (System.nanoTime() - start) / 1e9;
+        awaitIdle(workers);
+
+        double ideal = WORKERS * 1000.0 / latencyMs;
+        double rate = items / seconds;
+        // Generous margin for timer granularity on a loaded machine; a per-tick dispatcher manages WORKERS per tick
+        assertTrue(rate >= ideal / 4, "throughput " + (long) rate + "/s, ideal " + (long) ideal + "/s");
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    @DisplayName("fill() - Never more than size workers, and none without pending work")
+    void testBounded() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Queue<Integer> queue = pending(100);
+        ClaimingWorkers<Integer> workers = new ClaimingWorkers<>(4, EXECUTOR, queue::poll, item -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+
+        assertEquals(4, workers.fill());
+        assertEquals(0, workers.fill());
+        assertEquals(4, workers.active());
+        release.countDown();
+        awaitIdle(workers);
+
+        assertTrue(queue.isEmpty());
+        assertTrue(maxRunning.get() <= 4, "max running " + maxRunning.get());
+        assertEquals(0, workers.fill());
+    }
+
+    @Test
+    @DisplayName("A failing item ends its worker; the next fill() replaces it")
+    void testFailure() throws Exception {
+        Queue<Integer> queue = pending(10);
+        AtomicInteger processed = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        ClaimingWorkers<Integer> workers = new ClaimingWorkers<>(1, EXECUTOR, queue::poll, item -> {
+            try {
+                // Keeps the worker busy until fill() has returned
+                started.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (item == 3) {
+                throw new IllegalStateException("boom");
+            }
+            processed.incrementAndGet();
+        });
+
+        assertEquals(1, workers.fill());
+        started.countDown();
+        awaitIdle(workers);
+        assertEquals(3, processed.get());
+
+        assertEquals(1, workers.fill());
+        awaitIdle(workers);
+        assertEquals(9, processed.get());
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,63 @@
+package org.podhub.podhub.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.podhub.podhub.support.CountingOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NdjsonWriter
+ * The export larger than the heap goes through ExportService and MongoDB: CommentControllerTest (large-export)
+ */
+class NdjsonWriterTest {
+
+    private final NdjsonWriter writer = new NdjsonWriter(new ObjectMapper());
+
+    record Doc(String id, String name, Long plays, String note) {
+    }
+
+    @Test
+    @DisplayName("One JSON object per line, nulls omitted")
+    void testOneDocumentPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = writer.write(Stream.of(
+                new Doc("a", "first", 1L, null),
+                new Doc("b", "second", 2L, "line\nbreak")), out);
+
+        assertEquals(2, written);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"id\":\"a\",\"name\":\"first\",\"plays\":1}", lines[0]);
+        // Newlines inside values are escaped, so they never split a document
+        assertEquals("{\"id\":\"b\",\"name\":\"second\",\"plays\":2,\"note\":\"line\\nbreak\"}", lines[1]);
+    }
+
+    @Test
+    @DisplayName("Empty stream writes nothing")
+    void testEmptyStream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, writer.write(Stream.empty(), out));
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    @DisplayName("Closes the source stream but leaves the response stream open")
+    void testClosesSourceOnly() throws Exception {
+        AtomicBoolean sourceClosed = new AtomicBoolean(false);
+        CountingOutputStream sink = new CountingOutputStream();
+
+        writer.write(Stream.of(new Doc("a", "x", 0L, null)).onClose(() -> sourceClosed.set(true)), sink);
+
+        assertTrue(sourceClosed.get());
+        assertFalse(sink.isClosed());
+    }
+}
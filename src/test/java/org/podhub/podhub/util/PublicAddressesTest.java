@@ -0,0 +1,56 @@
+package org.podhub.podhub.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PublicAddresses (SSRF guard of the feed refresher). Only literal addresses: no DNS lookups.
+ */
+class PublicAddressesTest {
+
+    private static boolean isPublic(String literal) throws UnknownHostException {
+        return PublicAddresses.isPublic(InetAddress.getByName(literal));
+    }
+
+    @Test
+    @DisplayName("Internal IPv4 ranges are rejected")
+    void testPrivateIpv4() throws Exception {
+        for (String literal : new String[]{"0.0.0.0", "10.1.2.3", "100.64.0.1", "100.127.255.254", "127.0.0.1",
+                "127.8.8.8", "169.254.169.254", "172.16.0.1", "172.31.255.255", "192.0.0.1", "192.168.1.1",
+                "198.18.0.1", "198.19.255.255", "224.0.0.1", "240.0.0.1", "255.255.255.255"}) {
+            assertFalse(isPublic(literal), literal);
+        }
+    }
+
+    @Test
+    @DisplayName("Public IPv4 addresses, including neighbours of the internal ranges, are accepted")
+    void testPublicIpv4() throws Exception {
+        for (String literal : new String[]{"1.1.1.1", "8.8.8.8", "100.63.255.255", "100.128.0.1", "169.253.0.1",
+                "172.15.255.255", "172.32.0.1", "192.0.2.1", "192.169.0.1", "198.20.0.1", "223.255.255.255"}) {
+            assertTrue(isPublic(literal), literal);
+        }
+    }
+
+    @Test
+    @DisplayName("Internal IPv6 ranges and IPv6 forms of internal IPv4 addresses are rejected")
+    void testPrivateIpv6() throws Exception {
+        for (String literal : new String[]{"::", "::1", "fe80::1", "fec0::1", "fc00::1", "fd12:3456::1", "ff02::1",
+                "::ffff:127.0.0.1", "::ffff:169.254.169.254", "::10.0.0.1", "64:ff9b::a9fe:a9fe", "2002:c0a8:101::1"}) {
+            assertFalse(isPublic(literal), literal);
+        }
+    }
+
+    @Test
+    @DisplayName("Public IPv6 addresses are accepted")
+    void testPublicIpv6() throws Exception {
+        for (String literal : new String[]{"2606:4700:4700::1111", "2001:4860:4860::8888", "64:ff9b::808:808",
+                "2002:808:808::1"}) {
+            assertTrue(isPublic(literal), literal);
+        }
+    }
+}
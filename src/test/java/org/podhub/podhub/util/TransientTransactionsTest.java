@@ -0,0 +1,68 @@
+package org.podhub.podhub.util;
+
+import com.mongodb.MongoException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TransientTransactions (bounded retry of TransientTransactionError)
+ */
+class TransientTransactionsTest {
+
+    private static MongoException writeConflict() {
+        MongoException e = new MongoException(112, "WriteConflict");
+        e.addLabel(TransientTransactions.TRANSIENT_TRANSACTION_ERROR);
+        return e;
+    }
+
+    @Test
+    @DisplayName("Transient errors are found in the cause chain")
+    void testIsTransient() {
+        assertTrue(TransientTransactions.isTransient(writeConflict()));
+        // Spring Data wraps the driver exception
+        assertTrue(TransientTransactions.isTransient(new IllegalStateException("translated", writeConflict())));
+        assertFalse(TransientTransactions.isTransient(new MongoException(11000, "E11000 duplicate key")));
+        assertFalse(TransientTransactions.isTransient(new IllegalStateException("other")));
+    }
+
+    @Test
+    @DisplayName("retry() - Repeats transient failures until an attempt succeeds")
+    void testRetryUntilSuccess() {
+        AtomicInteger attempts = new AtomicInteger();
+        String result = TransientTransactions.retry(5, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw writeConflict();
+            }
+            return "ok";
+        });
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    @DisplayName("retry() - Gives up after maxAttempts and rethrows the last error")
+    void testRetryBounded() {
+        AtomicInteger attempts = new AtomicInteger();
+        MongoException thrown = assertThrows(MongoException.class, () -> TransientTransactions.retry(4, () -> {
+            attempts.incrementAndGet();
+            throw writeConflict();
+        }));
+        assertEquals(4, attempts.get());
+        assertTrue(thrown.hasErrorLabel(TransientTransactions.TRANSIENT_TRANSACTION_ERROR));
+    }
+
+    @Test
+    @DisplayName("retry() - Other errors are not retried")
+    void testNoRetryForOtherErrors() {
+        AtomicInteger attempts = new AtomicInteger();
+        assertThrows(IllegalArgumentException.class, () -> TransientTransactions.retry(5, () -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("bad input");
+        }));
+        assertEquals(1, attempts.get());
+    }
+}